@@ -281,6 +281,9 @@ public class CoreMessages extends NLS {
 	public static String controls_querylog_format_minutes;
 
 	public static String controls_querylog_job_refresh;
+	public static String controls_querylog_job_search;
+	public static String controls_querylog_search_message;
+	public static String controls_querylog_search_tooltip;
 
 	public static String controls_querylog_label_result;
 
@@ -614,6 +617,10 @@ public class CoreMessages extends NLS {
 
 	public static String data_transfer_wizard_job_task_retrieve;
 
+	public static String data_transfer_wizard_job_task_pipeline_status;
+
+	public static String data_transfer_wizard_job_task_pipeline_buffer;
+
 	public static String data_transfer_wizard_output_checkbox_compress;
 
 	public static String data_transfer_wizard_output_checkbox_new_connection;
@@ -622,6 +629,16 @@ public class CoreMessages extends NLS {
 
 	public static String data_transfer_wizard_output_checkbox_select_row_count;
 
+	public static String data_transfer_wizard_output_checkbox_ordered_output;
+
+	public static String data_transfer_wizard_output_checkbox_ordered_output_tooltip;
+
+	public static String data_transfer_wizard_output_checkbox_pipeline;
+
+	public static String data_transfer_wizard_output_checkbox_pipeline_tooltip;
+
+	public static String data_transfer_wizard_output_combo_extract_type_item_by_key_ranges;
+
 	public static String data_transfer_wizard_output_combo_extract_type_item_by_segments;
 
 	public static String data_transfer_wizard_output_combo_extract_type_item_single_query;
@@ -650,6 +667,10 @@ public class CoreMessages extends NLS {
 
 	public static String data_transfer_wizard_output_label_max_threads;
 
+	public static String data_transfer_wizard_output_label_parallel_readers;
+
+	public static String data_transfer_wizard_output_label_pipeline_buffer_size;
+
 	public static String data_transfer_wizard_output_label_segment_size;
 
 	public static String data_transfer_wizard_output_name;
@@ -1178,7 +1199,17 @@ public class CoreMessages extends NLS {
 
     public static String pref_page_database_general_separate_meta_connection;
 
+    public static String pref_page_database_general_group_connection_pool;
+
+    public static String pref_page_database_general_checkbox_connection_pool;
+
+    public static String pref_page_database_general_checkbox_connection_pool_tip;
+
+    public static String pref_page_database_general_label_connection_pool_size;
+
 	public static String pref_page_database_general_checkbox_case_sensitive_names;
+	public static String pref_page_database_general_checkbox_cache_snapshot;
+	public static String pref_page_database_general_checkbox_cache_snapshot_tip;
 
 	public static String pref_page_database_general_checkbox_keep_cursor;
 
@@ -1208,6 +1239,10 @@ public class CoreMessages extends NLS {
     public static String pref_page_database_resultsets_label_auto_fetch_segment;
     public static String pref_page_database_resultsets_label_use_sql;
     public static String pref_page_database_resultsets_label_server_side_order;
+    public static String pref_page_database_resultsets_label_keyset_paging;
+    public static String pref_page_database_resultsets_label_columnar_storage;
+    public static String pref_page_database_resultsets_label_memory_rows;
+    public static String pref_page_database_resultsets_label_memory_rows_tip;
 
     public static String pref_page_query_manager_checkbox_ddl_executions;
 
@@ -1236,11 +1271,13 @@ public class CoreMessages extends NLS {
     public static String pref_page_query_manager_group_settings;
 	public static String pref_page_query_manager_group_storage;
     public static String pref_page_query_manager_checkbox_store_log_file;
+    public static String pref_page_query_manager_checkbox_store_history;
     public static String pref_page_query_manager_logs_folder;
 
 	public static String pref_page_query_manager_label_days_to_store_log;
 
 	public static String pref_page_query_manager_label_entries_per_page;
+	public static String pref_page_query_manager_label_history_events;
 
 	public static String pref_page_sql_editor_checkbox_fetch_resultsets;
 	public static String pref_page_sql_editor_text_statement_delimiter;
@@ -1277,6 +1314,10 @@ public class CoreMessages extends NLS {
 	public static String pref_page_sql_editor_group_delimiters;
 
 	public static String pref_page_sql_editor_label_commit_after_line;
+	public static String pref_page_sql_editor_label_batch_size;
+	public static String pref_page_sql_editor_label_batch_size_tip;
+	public static String pref_page_sql_editor_label_parallel_connections;
+	public static String pref_page_sql_editor_label_parallel_connections_tip;
 
 	public static String pref_page_sql_editor_label_commit_type;
 
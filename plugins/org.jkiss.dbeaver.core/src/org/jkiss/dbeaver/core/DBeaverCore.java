@@ -51,6 +51,7 @@ import org.jkiss.dbeaver.runtime.jobs.KeepAliveJob;
 import org.jkiss.dbeaver.runtime.net.GlobalProxyAuthenticator;
 import org.jkiss.dbeaver.runtime.net.GlobalProxySelector;
 import org.jkiss.dbeaver.runtime.qm.QMControllerImpl;
+import org.jkiss.dbeaver.runtime.qm.QMHistoryStore;
 import org.jkiss.dbeaver.runtime.qm.QMLogFileWriter;
 import org.jkiss.utils.CommonUtils;
 import org.osgi.framework.Bundle;
@@ -87,6 +88,7 @@ public class DBeaverCore implements DBPApplication {
     private DBNModel navigatorModel;
     private QMControllerImpl queryManager;
     private QMLogFileWriter qmLogWriter;
+    private QMHistoryStore qmHistoryStore;
     private ProjectRegistry projectRegistry;
     private DefaultSecurityManager securityManager;
 
@@ -191,6 +193,9 @@ public class DBeaverCore implements DBPApplication {
 
         this.qmLogWriter = new QMLogFileWriter();
         this.queryManager.registerMetaListener(qmLogWriter);
+        this.qmHistoryStore = new QMHistoryStore(
+            new File(DBeaverActivator.getInstance().getStateLocation().toFile(), "qm-history"));
+        this.queryManager.registerMetaListener(qmHistoryStore);
 
         // Init default network settings
         Authenticator.setDefault(new GlobalProxyAuthenticator());
@@ -271,6 +276,11 @@ public class DBeaverCore implements DBPApplication {
             this.qmLogWriter.dispose();
             this.qmLogWriter = null;
         }
+        if (this.qmHistoryStore != null) {
+            this.queryManager.unregisterMetaListener(qmHistoryStore);
+            this.qmHistoryStore.dispose();
+            this.qmHistoryStore = null;
+        }
         if (this.queryManager != null) {
             this.queryManager.dispose();
             //queryManager = null;
@@ -344,6 +354,11 @@ public class DBeaverCore implements DBPApplication {
         return queryManager;
     }
 
+    public QMHistoryStore getQueryHistory()
+    {
+        return qmHistoryStore;
+    }
+
     @NotNull
     @Override
     public DBDRegistry getValueHandlerRegistry() {
@@ -66,6 +66,7 @@ public class DBeaverPreferencesInitializer extends AbstractPreferenceInitializer
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.NAVIGATOR_GROUP_BY_DRIVER, false);
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.NAVIGATOR_EDITOR_FULL_NAME, false);
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.NAVIGATOR_CONNECTION_DOUBLE_CLICK, NavigatorViewBase.DoubleClickBehavior.SQL_EDITOR.name());
+      PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.NAVIGATOR_PREFETCH_SIBLINGS, true);
 
       // Common
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.KEEP_STATEMENT_OPEN, false);
@@ -73,10 +74,14 @@ public class DBeaverPreferencesInitializer extends AbstractPreferenceInitializer
       // SQL execution
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.SCRIPT_COMMIT_TYPE, SQLScriptCommitType.NO_COMMIT.name());
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.SCRIPT_COMMIT_LINES, 1000);
+      PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.SCRIPT_BATCH_SIZE, 0);
+      PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.SCRIPT_PARALLEL_CONNECTIONS, 4);
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.SCRIPT_ERROR_HANDLING, SQLScriptErrorHandling.STOP_ROLLBACK.name());
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.SCRIPT_FETCH_RESULT_SETS, true);
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.SCRIPT_AUTO_FOLDERS, false);
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.SCRIPT_TITLE_PATTERN, SQLEditorInput.DEFAULT_PATTERN);
+      PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.SCRIPT_STREAM_THRESHOLD, 1024 * 1024);
+      PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.SCRIPT_STREAM_LOOKAHEAD, 100);
 
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.STATEMENT_INVALIDATE_BEFORE_EXECUTE, false);
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.STATEMENT_TIMEOUT, 10 * 1000);
@@ -99,6 +104,7 @@ public class DBeaverPreferencesInitializer extends AbstractPreferenceInitializer
           PrefUtils.setDefaultPreferenceValue(store, SQLPreferenceConstants.PROPOSAL_INSERT_CASE, SQLPreferenceConstants.PROPOSAL_CASE_DEFAULT);
           PrefUtils.setDefaultPreferenceValue(store, SQLPreferenceConstants.HIDE_DUPLICATE_PROPOSALS, false);
           PrefUtils.setDefaultPreferenceValue(store, SQLPreferenceConstants.PROPOSAL_SHORT_NAME, false);
+          PrefUtils.setDefaultPreferenceValue(store, SQLPreferenceConstants.PROPOSAL_NAME_INDEX, true);
 
           PrefUtils.setDefaultPreferenceValue(store, SQLPreferenceConstants.SQLEDITOR_CLOSE_SINGLE_QUOTES, true);
           PrefUtils.setDefaultPreferenceValue(store, SQLPreferenceConstants.SQLEDITOR_CLOSE_DOUBLE_QUOTES, true);
@@ -135,6 +141,8 @@ public class DBeaverPreferencesInitializer extends AbstractPreferenceInitializer
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.RESULT_SET_MAX_ROWS, 200);
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.RESULT_SET_BINARY_EDITOR_TYPE, IValueController.EditType.EDITOR);
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.RESULT_SET_ORDER_SERVER_SIDE, true);
+      PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.RESULT_SET_COLUMNAR_STORAGE, false);
+      PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.RESULT_SET_MEMORY_ROWS, 0);
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.RESULT_SET_SHOW_ODD_ROWS, true);
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.RESULT_SET_SHOW_CELL_ICONS, true);
       PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.RESULT_SET_DOUBLE_CLICK, Spreadsheet.DoubleClickBehavior.INLINE_EDITOR.name());
@@ -144,11 +152,13 @@ public class DBeaverPreferencesInitializer extends AbstractPreferenceInitializer
       // QM
       PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_HISTORY_DAYS, 90);
       PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_ENTRIES_PER_PAGE, 200);
+      PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_HISTORY_EVENTS, 1000);
       PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_OBJECT_TYPES,
           QMObjectType.toString(Arrays.asList(QMObjectType.txn, QMObjectType.query)));
       PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_QUERY_TYPES,
           DBCExecutionPurpose.USER + "," + DBCExecutionPurpose.USER_FILTERED + "," + DBCExecutionPurpose.USER_SCRIPT);
       PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_STORE_LOG_FILE, false);
+      PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_STORE_HISTORY, false);
       PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_LOG_DIRECTORY, Platform.getLogFileLocation().toFile().getParent());
 
       // Data formats
@@ -18,23 +18,115 @@
 
 package org.jkiss.dbeaver.registry.driver;
 
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.connection.DBPDriverLibrary;
+import org.jkiss.utils.IOUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
 
 /**
- * DriverClassLoader
+ * DriverClassLoader.
+ * Classes and resources are searched only in jars which contain their package (see {@link DriverJarIndex}),
+ * so lookups do not open and scan every driver jar.
  */
 public class DriverClassLoader extends URLClassLoader
 {
+    private static final Log log = Log.getLog(DriverClassLoader.class);
+
     private final DriverDescriptor driver;
+    // Directory -> jars which contain it
+    private final Map<String, List<IndexedJar>> jarIndex = new HashMap<>();
+    // False if some class path entries are not indexed. Then index isn't used at all.
+    private boolean indexComplete = true;
 
     public DriverClassLoader(DriverDescriptor driver, URL[] urls, ClassLoader parent)
     {
         super(urls, parent);
         this.driver = driver;
+        for (URL url : urls) {
+            final File file = getJarFile(url);
+            final DriverJarIndex.JarInfo jarInfo = file == null ? null : DriverJarIndex.getJarInfo(file);
+            if (jarInfo == null) {
+                indexComplete = false;
+                break;
+            }
+            final IndexedJar jar = new IndexedJar(file, url, jarInfo.signed);
+            for (String dir : jarInfo.directories) {
+                List<IndexedJar> jars = jarIndex.get(dir);
+                if (jars == null) {
+                    jars = new ArrayList<>(1);
+                    jarIndex.put(dir, jars);
+                }
+                jars.add(jar);
+            }
+        }
+        DriverJarIndex.saveIndex();
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException
+    {
+        if (!indexComplete) {
+            return super.findClass(name);
+        }
+        final String path = name.replace('.', '/') + ".class";
+        final List<IndexedJar> jars = jarIndex.get(getDirectory(path));
+        if (jars != null) {
+            for (IndexedJar jar : jars) {
+                if (jar.signed) {
+                    // Let URL class loader verify signatures
+                    return super.findClass(name);
+                }
+                try {
+                    final JarFile jarFile = jar.getJarFile();
+                    final JarEntry entry = jarFile.getJarEntry(path);
+                    if (entry != null) {
+                        return defineClass(name, jar, jarFile, entry);
+                    }
+                } catch (IOException e) {
+                    log.debug("Error reading class '" + name + "' from '" + jar.file.getAbsolutePath() + "'", e);
+                    return super.findClass(name);
+                }
+            }
+        }
+        throw new ClassNotFoundException(name);
+    }
+
+    @Override
+    public URL findResource(String name)
+    {
+        if (!indexComplete || name.endsWith("/")) {
+            return super.findResource(name);
+        }
+        final List<IndexedJar> jars = jarIndex.get(getDirectory(name));
+        if (jars != null) {
+            for (IndexedJar jar : jars) {
+                try {
+                    if (jar.getJarFile().getEntry(name) != null) {
+                        return new URL("jar:" + jar.url + "!/" + name);
+                    }
+                } catch (IOException e) {
+                    log.debug("Error reading resource '" + name + "' from '" + jar.file.getAbsolutePath() + "'", e);
+                    return super.findResource(name);
+                }
+            }
+        }
+        return null;
     }
 
     @Override
@@ -58,4 +150,105 @@ public class DriverClassLoader extends URLClassLoader
         }
         return super.findLibrary(libname);
     }
+
+    @Override
+    public void close() throws IOException
+    {
+        for (List<IndexedJar> jars : jarIndex.values()) {
+            for (IndexedJar jar : jars) {
+                jar.close();
+            }
+        }
+        super.close();
+    }
+
+    private Class<?> defineClass(String name, IndexedJar jar, JarFile jarFile, JarEntry entry) throws IOException
+    {
+        final byte[] bytes = readEntry(jarFile, entry);
+        final int divPos = name.lastIndexOf('.');
+        if (divPos != -1) {
+            final String packageName = name.substring(0, divPos);
+            if (getPackage(packageName) == null) {
+                final Manifest manifest = jarFile.getManifest();
+                try {
+                    if (manifest != null) {
+                        definePackage(packageName, manifest, jar.url);
+                    } else {
+                        definePackage(packageName, null, null, null, null, null, null, null);
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Package was already defined
+                }
+            }
+        }
+        return defineClass(name, bytes, 0, bytes.length, jar.codeSource);
+    }
+
+    private static byte[] readEntry(JarFile jarFile, JarEntry entry) throws IOException
+    {
+        try (InputStream in = jarFile.getInputStream(entry)) {
+            final long size = entry.getSize();
+            if (size >= 0 && size < Integer.MAX_VALUE) {
+                final byte[] bytes = new byte[(int) size];
+                if (IOUtils.readStreamToBuffer(in, bytes) != bytes.length) {
+                    throw new IOException("Unexpected end of entry " + entry.getName());
+                }
+                return bytes;
+            }
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            IOUtils.fastCopy(in, buffer);
+            return buffer.toByteArray();
+        }
+    }
+
+    private static String getDirectory(String path)
+    {
+        final int divPos = path.lastIndexOf('/');
+        return divPos == -1 ? "" : path.substring(0, divPos);
+    }
+
+    private static File getJarFile(URL url)
+    {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            final File file = new File(url.toURI());
+            return file.isFile() ? file : null;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static class IndexedJar {
+        final File file;
+        final URL url;
+        final boolean signed;
+        final CodeSource codeSource;
+        private JarFile jarFile;
+
+        IndexedJar(File file, URL url, boolean signed)
+        {
+            this.file = file;
+            this.url = url;
+            this.signed = signed;
+            this.codeSource = new CodeSource(url, (CodeSigner[]) null);
+        }
+
+        synchronized JarFile getJarFile() throws IOException
+        {
+            if (jarFile == null) {
+                jarFile = new JarFile(file, false);
+            }
+            return jarFile;
+        }
+
+        synchronized void close()
+        {
+            if (jarFile != null) {
+                IOUtils.close(jarFile);
+                jarFile = null;
+            }
+        }
+    }
 }
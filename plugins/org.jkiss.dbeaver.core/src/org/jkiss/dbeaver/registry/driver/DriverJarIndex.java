@@ -0,0 +1,197 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.registry.driver;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.core.DBeaverActivator;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+/**
+ * Index of driver jar contents: directories (packages) of each jar.
+ * Index is saved in workspace so jars are scanned only once (and after they change).
+ */
+class DriverJarIndex {
+
+    private static final Log log = Log.getLog(DriverJarIndex.class);
+
+    private static final String INDEX_FILE_NAME = "driver-jars.idx";
+    private static final int INDEX_MAGIC = 0x444A4958;
+    private static final int INDEX_VERSION = 1;
+
+    /**
+     * Jar contents
+     */
+    static class JarInfo {
+        final long length;
+        final long lastModified;
+        final boolean signed;
+        final Set<String> directories;
+
+        JarInfo(long length, long lastModified, boolean signed, Set<String> directories)
+        {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.signed = signed;
+            this.directories = directories;
+        }
+
+        boolean matches(File file)
+        {
+            return file.length() == length && file.lastModified() == lastModified;
+        }
+    }
+
+    private static Map<String, JarInfo> jars;
+    private static boolean modified;
+
+    /**
+     * Returns jar contents. Scans jar if it is not in index or was changed.
+     */
+    @Nullable
+    static synchronized JarInfo getJarInfo(@NotNull File file)
+    {
+        if (jars == null) {
+            jars = loadIndex();
+        }
+        final String path = file.getAbsolutePath();
+        JarInfo info = jars.get(path);
+        if (info != null && info.matches(file)) {
+            return info;
+        }
+        try {
+            info = scanJar(file);
+        } catch (IOException e) {
+            log.debug("Can't index jar '" + path + "'", e);
+            return null;
+        }
+        jars.put(path, info);
+        modified = true;
+        return info;
+    }
+
+    /**
+     * Saves index if it was changed
+     */
+    static synchronized void saveIndex()
+    {
+        if (!modified) {
+            return;
+        }
+        // Remove deleted jars
+        for (Iterator<String> iter = jars.keySet().iterator(); iter.hasNext(); ) {
+            if (!new File(iter.next()).exists()) {
+                iter.remove();
+            }
+        }
+        final File indexFile = getIndexFile();
+        final File tmpFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeInt(INDEX_VERSION);
+                out.writeInt(jars.size());
+                for (Map.Entry<String, JarInfo> entry : jars.entrySet()) {
+                    final JarInfo info = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(info.length);
+                    out.writeLong(info.lastModified);
+                    out.writeBoolean(info.signed);
+                    out.writeInt(info.directories.size());
+                    for (String dir : info.directories) {
+                        out.writeUTF(dir);
+                    }
+                }
+            }
+            Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            modified = false;
+        } catch (IOException e) {
+            log.debug("Can't save driver jars index", e);
+            if (tmpFile.exists() && !tmpFile.delete()) {
+                log.debug("Can't delete '" + tmpFile.getAbsolutePath() + "'");
+            }
+        }
+    }
+
+    private static Map<String, JarInfo> loadIndex()
+    {
+        final Map<String, JarInfo> result = new HashMap<>();
+        final File indexFile = getIndexFile();
+        if (!indexFile.exists()) {
+            return result;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) {
+                return result;
+            }
+            final int jarCount = in.readInt();
+            for (int i = 0; i < jarCount; i++) {
+                final String path = in.readUTF();
+                final long length = in.readLong();
+                final long lastModified = in.readLong();
+                final boolean signed = in.readBoolean();
+                final int dirCount = in.readInt();
+                final Set<String> directories = new HashSet<>(dirCount);
+                for (int k = 0; k < dirCount; k++) {
+                    directories.add(in.readUTF());
+                }
+                result.put(path, new JarInfo(length, lastModified, signed, directories));
+            }
+        } catch (IOException e) {
+            log.debug("Can't read driver jars index", e);
+            result.clear();
+        }
+        return result;
+    }
+
+    private static JarInfo scanJar(File file) throws IOException
+    {
+        final long length = file.length();
+        final long lastModified = file.lastModified();
+        final Set<String> directories = new HashSet<>();
+        boolean signed = false;
+        try (JarFile jarFile = new JarFile(file, false)) {
+            for (Enumeration<? extends ZipEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
+                final String name = entries.nextElement().getName();
+                if (name.endsWith("/")) {
+                    continue;
+                }
+                final int divPos = name.lastIndexOf('/');
+                final String dir = divPos == -1 ? "" : name.substring(0, divPos);
+                directories.add(dir);
+                if (dir.equals("META-INF") && (name.endsWith(".SF") || name.endsWith(".DSA") || name.endsWith(".RSA") || name.endsWith(".EC"))) {
+                    signed = true;
+                }
+            }
+        }
+        return new JarInfo(length, lastModified, signed, directories);
+    }
+
+    private static File getIndexFile()
+    {
+        return new File(DBeaverActivator.getInstance().getStateLocation().toFile(), INDEX_FILE_NAME);
+    }
+
+}
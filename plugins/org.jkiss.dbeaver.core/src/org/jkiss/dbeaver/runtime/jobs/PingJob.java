@@ -22,6 +22,8 @@ import org.eclipse.core.runtime.Status;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCConnectionPool;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 
@@ -53,6 +55,13 @@ public class PingJob extends AbstractJob
                 log.debug("Context [" + dataSource.getName() + "::" + context.getContextName() + "] check failed: " + e.getMessage());
             }
         }
+        if (dataSource instanceof JDBCDataSource) {
+            // Keep pooled connections alive too
+            final JDBCConnectionPool connectionPool = ((JDBCDataSource) dataSource).getConnectionPool();
+            if (connectionPool != null) {
+                connectionPool.validate(monitor);
+            }
+        }
         return Status.OK_STATUS;
     }
 
@@ -23,11 +23,16 @@ import org.jkiss.dbeaver.model.DBPPropertySource;
 import org.jkiss.dbeaver.model.meta.IPropertyCacheValidator;
 import org.jkiss.dbeaver.model.meta.LazyProperty;
 import org.jkiss.dbeaver.model.meta.Property;
+import org.jkiss.dbeaver.model.meta.PropertyAccessorCache;
 import org.jkiss.dbeaver.model.meta.PropertyGroup;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.utils.BeanUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
 
@@ -44,6 +49,18 @@ public abstract class ObjectAttributeDescriptor {
         }
     };
 
+    // Annotated properties of each class. Built once with no property source and without filter,
+    // then bound to the actual source (and filtered) in extractAnnotations.
+    private static final ClassValue<List<ObjectPropertyDescriptor>> classProperties = new ClassValue<List<ObjectPropertyDescriptor>>() {
+        @Override
+        protected List<ObjectPropertyDescriptor> computeValue(Class<?> type)
+        {
+            List<ObjectPropertyDescriptor> props = new ArrayList<>();
+            extractAnnotations(null, null, type, props, null);
+            return Collections.unmodifiableList(props);
+        }
+    };
+
     private final DBPPropertySource source;
     private ObjectPropertyGroupDescriptor parent;
     private int orderNumber;
@@ -52,6 +69,7 @@ public abstract class ObjectAttributeDescriptor {
     private boolean isLazy;
     private IPropertyCacheValidator cacheValidator;
     private Class<?> declaringClass;
+    private MethodHandle getterHandle;
 
     public ObjectAttributeDescriptor(
         DBPPropertySource source,
@@ -84,6 +102,30 @@ public abstract class ObjectAttributeDescriptor {
                 }
             }
         }
+
+        try {
+            this.getterHandle = MethodHandles.publicLookup().unreflect(getter).asType(
+                MethodType.genericMethodType(isLazy ? 2 : 1));
+        } catch (IllegalAccessException e) {
+            // Not accessible through public lookup - use reflection
+            this.getterHandle = null;
+        }
+    }
+
+    /**
+     * Binds the class-level descriptor to the property source
+     */
+    protected ObjectAttributeDescriptor(DBPPropertySource source, ObjectAttributeDescriptor descriptor)
+    {
+        this.source = source;
+        this.parent = descriptor.parent;
+        this.getter = descriptor.getter;
+        this.orderNumber = descriptor.orderNumber;
+        this.id = descriptor.id;
+        this.declaringClass = descriptor.declaringClass;
+        this.isLazy = descriptor.isLazy;
+        this.cacheValidator = descriptor.cacheValidator;
+        this.getterHandle = descriptor.getterHandle;
     }
 
     public Class<?> getDeclaringClass()
@@ -112,6 +154,24 @@ public abstract class ObjectAttributeDescriptor {
         return getter;
     }
 
+    protected Object invokeGetter(Object object, DBRProgressMonitor progressMonitor)
+        throws IllegalAccessException, IllegalArgumentException, InvocationTargetException
+    {
+        if (getterHandle == null) {
+            return isLazy ? getter.invoke(object, progressMonitor) : getter.invoke(object);
+        }
+        if (!getter.getDeclaringClass().isInstance(object)) {
+            throw new IllegalArgumentException("Object " + object.getClass().getName() + " is not an instance of " + getter.getDeclaringClass().getName());
+        }
+        try {
+            return isLazy ?
+                (Object) getterHandle.invokeExact(object, (Object) progressMonitor) :
+                (Object) getterHandle.invokeExact(object);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
     public boolean isRemote()
     {
         return isLazy || parent != null && parent.isRemote();
@@ -162,7 +222,13 @@ public abstract class ObjectAttributeDescriptor {
         IPropertyFilter filter)
     {
         List<ObjectPropertyDescriptor> annoProps = new ArrayList<ObjectPropertyDescriptor>();
-        extractAnnotations(source, null, theClass, annoProps, filter);
+        for (ObjectPropertyDescriptor prop : classProperties.get(theClass)) {
+            ObjectPropertyDescriptor desc = new ObjectPropertyDescriptor(source, prop);
+            if (filter != null && !filter.select(desc)) {
+                continue;
+            }
+            annoProps.add(desc);
+        }
         return annoProps;
     }
 
@@ -181,8 +247,7 @@ public abstract class ObjectAttributeDescriptor {
 
     static void extractAnnotations(DBPPropertySource source, ObjectPropertyGroupDescriptor parent, Class<?> theClass, List<ObjectPropertyDescriptor> annoProps, IPropertyFilter filter)
     {
-        Method[] methods = theClass.getMethods();
-        for (Method method : methods) {
+        for (Method method : PropertyAccessorCache.getAnnotatedMethods(theClass)) {
             final PropertyGroup propGroupInfo = method.getAnnotation(PropertyGroup.class);
             if (propGroupInfo != null && method.getReturnType() != null) {
                 // Property group
@@ -25,6 +25,7 @@ import org.jkiss.dbeaver.model.DBPPropertySource;
 import org.jkiss.dbeaver.model.meta.IPropertyValueListProvider;
 import org.jkiss.dbeaver.model.meta.IPropertyValueTransformer;
 import org.jkiss.dbeaver.model.meta.Property;
+import org.jkiss.dbeaver.model.meta.PropertyAccessorCache;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.utils.BeanUtils;
@@ -60,15 +61,7 @@ public class ObjectPropertyDescriptor extends ObjectAttributeDescriptor implemen
 
         final String propertyName = BeanUtils.getPropertyNameFromGetter(getter.getName());
         declaringClass = getter.getDeclaringClass();
-        Class<?> c = declaringClass;
-        while (setter == null && c != Object.class && c != null) {
-            this.setter = BeanUtils.getSetMethod(
-                c,
-                propertyName);
-            if (setter == null) {
-                c = c.getSuperclass();
-            }
-        }
+        this.setter = PropertyAccessorCache.getWriteMethod(declaringClass, propertyName);
 
         // Obtain value transformer
         Class<? extends IPropertyValueTransformer> valueTransformerClass = propInfo.valueTransformer();
@@ -96,6 +89,18 @@ public class ObjectPropertyDescriptor extends ObjectAttributeDescriptor implemen
                 getLocalizedString(propInfo.name(), Property.RESOURCE_TYPE_DESCRIPTION, propName);
     }
 
+    ObjectPropertyDescriptor(DBPPropertySource source, ObjectPropertyDescriptor descriptor)
+    {
+        super(source, descriptor);
+        this.propInfo = descriptor.propInfo;
+        this.propName = descriptor.propName;
+        this.propDescription = descriptor.propDescription;
+        this.setter = descriptor.setter;
+        this.valueTransformer = descriptor.valueTransformer;
+        this.valueRenderer = descriptor.valueRenderer;
+        this.declaringClass = descriptor.declaringClass;
+    }
+
     @Override
     public Class<?> getDeclaringClass()
     {
@@ -189,10 +194,8 @@ public class ObjectPropertyDescriptor extends ObjectAttributeDescriptor implemen
             if (isLazy(object, true) && progressMonitor == null && !supportsPreview()) {
                 throw new IllegalAccessException("Lazy property can't be read with null progress monitor");
             }
-            value = getGetter().invoke(object, progressMonitor);
-        } else {
-            value = getGetter().invoke(object);
         }
+        value = invokeGetter(object, progressMonitor);
         if (valueRenderer != null) {
             value = valueRenderer.transform(object, value);
         }
@@ -28,8 +28,8 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * QMController default implementation
@@ -40,7 +40,7 @@ public class QMControllerImpl implements QMController {
 
     private QMExecutionHandler defaultHandler;
     private QMMCollectorImpl metaHandler;
-    private List<QMExecutionHandler> handlers = new ArrayList<>();
+    private final List<QMExecutionHandler> handlers = new CopyOnWriteArrayList<>();
 
     public QMControllerImpl() {
         defaultHandler = (QMExecutionHandler) Proxy.newProxyInstance(
@@ -79,12 +79,12 @@ public class QMControllerImpl implements QMController {
     }
 
     @Override
-    public synchronized void registerHandler(QMExecutionHandler handler) {
+    public void registerHandler(QMExecutionHandler handler) {
         handlers.add(handler);
     }
 
     @Override
-    public synchronized void unregisterHandler(QMExecutionHandler handler) {
+    public void unregisterHandler(QMExecutionHandler handler) {
         if (!handlers.remove(handler)) {
             log.warn("QM handler '" + handler + "' isn't registered within QM controller");
         }
@@ -116,7 +116,7 @@ public class QMControllerImpl implements QMController {
     private class NotifyInvocationHandler implements InvocationHandler {
 
         @Override
-        public synchronized Object invoke(Object proxy, Method method, Object[] args)
+        public Object invoke(Object proxy, Method method, Object[] args)
         {
             if (method.getReturnType() == Void.TYPE && method.getName().startsWith("handle")) {
                 for (QMExecutionHandler handler : getHandlers()) {
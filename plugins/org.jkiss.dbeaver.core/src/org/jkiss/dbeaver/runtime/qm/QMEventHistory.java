@@ -0,0 +1,85 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded history of dispatched QM meta events.
+ *
+ * Events are written by the single dispatcher thread into a ring. Readers don't lock: they copy
+ * the ring and then drop entries which were overwritten by the writer while they were copied.
+ */
+class QMEventHistory {
+
+    private final AtomicReferenceArray<QMMetaEvent> events;
+    private final int capacity;
+    private volatile long count;
+    private volatile long written;
+
+    QMEventHistory(int capacity)
+    {
+        this.capacity = capacity;
+        this.events = new AtomicReferenceArray<>(capacity);
+    }
+
+    QMEventHistory(int capacity, QMEventHistory source)
+    {
+        this(capacity);
+        add(source.getEvents());
+    }
+
+    int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Appends events. Must be called by a single writer thread.
+     */
+    void add(List<QMMetaEvent> batch)
+    {
+        long pos = count;
+        for (QMMetaEvent event : batch) {
+            written = pos + 1;
+            events.set((int) (pos % capacity), event);
+            count = ++pos;
+        }
+    }
+
+    List<QMMetaEvent> getEvents()
+    {
+        long end = count;
+        long start = Math.max(0, end - capacity);
+        List<QMMetaEvent> result = new ArrayList<>((int) (end - start));
+        for (long pos = start; pos < end; pos++) {
+            result.add(events.get((int) (pos % capacity)));
+        }
+        // Writer may have overwritten oldest entries while we were reading
+        long overwritten = written - capacity - start;
+        if (overwritten > 0) {
+            result = new ArrayList<>(result.subList((int) Math.min(overwritten, result.size()), result.size()));
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Multi-producer single-consumer queue of QM meta events.
+ *
+ * Producers claim ring slots with CAS on the tail sequence and never block: when the ring is full
+ * events go to an overflow queue. Overflow is drained only after the ring became empty and
+ * producers keep using overflow while it is not empty, so events of each producer stay ordered.
+ * Only the dispatcher thread may call {@link #drain()}.
+ */
+class QMEventQueue {
+
+    private final AtomicReferenceArray<QMMetaEvent> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private final ConcurrentLinkedQueue<QMMetaEvent> overflow = new ConcurrentLinkedQueue<>();
+
+    QMEventQueue(int capacity)
+    {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds event to the queue.
+     * @return true if queue is more than half full and consumer should be woken up
+     */
+    boolean offer(QMMetaEvent event)
+    {
+        if (overflow.isEmpty()) {
+            for (;;) {
+                long seq = tail.get();
+                long size = seq - head;
+                if (size > mask) {
+                    // Ring is full
+                    break;
+                }
+                if (tail.compareAndSet(seq, seq + 1)) {
+                    slots.lazySet((int) seq & mask, event);
+                    return size >= (mask >> 1);
+                }
+            }
+        }
+        overflow.add(event);
+        return true;
+    }
+
+    /**
+     * Removes all published events from the queue.
+     * Stops at first slot which was claimed but not yet published by its producer.
+     */
+    List<QMMetaEvent> drain()
+    {
+        long pos = head;
+        List<QMMetaEvent> events = null;
+        for (;;) {
+            int index = (int) pos & mask;
+            QMMetaEvent event = slots.get(index);
+            if (event == null) {
+                break;
+            }
+            slots.set(index, null);
+            if (events == null) {
+                events = new ArrayList<>();
+            }
+            events.add(event);
+            pos++;
+        }
+        head = pos;
+        if (pos == tail.get()) {
+            for (QMMetaEvent event = overflow.poll(); event != null; event = overflow.poll()) {
+                if (events == null) {
+                    events = new ArrayList<>();
+                }
+                events.add(event);
+            }
+        }
+        return events == null ? Collections.<QMMetaEvent>emptyList() : events;
+    }
+
+}
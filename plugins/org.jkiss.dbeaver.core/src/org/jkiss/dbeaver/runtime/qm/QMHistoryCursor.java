@@ -0,0 +1,147 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query history search cursor.
+ * Reads matching executions lazily, newest first.
+ */
+public class QMHistoryCursor {
+
+    static final Log log = Log.getLog(QMHistoryCursor.class);
+
+    private final QMHistoryStore store;
+    private final QMHistoryFilter filter;
+    // Newest first
+    private final List<QMHistorySegment> segments;
+    private int segmentIndex = -1;
+    private QMHistorySegment segment;
+    private RandomAccessFile segmentFile;
+    private FileChannel channel;
+    private int[] records;
+    private int recordPos = -1;
+    private boolean finished;
+
+    QMHistoryCursor(QMHistoryStore store, QMHistoryFilter filter, List<QMHistorySegment> segments)
+    {
+        this.store = store;
+        this.filter = filter;
+        this.segments = segments;
+    }
+
+    public synchronized boolean hasMore()
+    {
+        return !finished;
+    }
+
+    /**
+     * Reads next portion of matching executions
+     */
+    public synchronized List<QMMetaEvent> fetch(DBRProgressMonitor monitor, int maxCount)
+    {
+        List<QMMetaEvent> result = new ArrayList<>();
+        while (result.size() < maxCount && !finished && !monitor.isCanceled()) {
+            if (recordPos < 0) {
+                nextSegment();
+                continue;
+            }
+            int record = records[recordPos--];
+            if (filter.getFromTime() > 0 && segment.getRecordTime(record) < filter.getFromTime()) {
+                continue;
+            }
+            QMMStatementExecuteInfo exec;
+            try {
+                exec = segment.readRecord(channel, record);
+            } catch (IOException e) {
+                log.debug("Error reading query history from " + segment, e);
+                recordPos = -1;
+                continue;
+            }
+            if (filter.getMinDuration() > 0 && QMHistorySegment.getDuration(exec) < filter.getMinDuration()) {
+                continue;
+            }
+            result.add(new QMMetaEvent(exec, QMMetaEvent.Action.END));
+        }
+        return result;
+    }
+
+    public synchronized void close()
+    {
+        closeSegment();
+        finished = true;
+    }
+
+    private void nextSegment()
+    {
+        closeSegment();
+        for (segmentIndex++; segmentIndex < segments.size(); segmentIndex++) {
+            if (filter.getFromTime() > 0 && segmentIndex > 0 &&
+                segments.get(segmentIndex - 1).getSegmentId() < filter.getFromTime())
+            {
+                // All records of this and older segments were written before the newer segment was created
+                break;
+            }
+            QMHistorySegment next = segments.get(segmentIndex);
+            try {
+                store.prepareSegment(next);
+                int[] found = next.findRecords(filter);
+                if (found.length == 0) {
+                    continue;
+                }
+                segmentFile = new RandomAccessFile(next.getDataFile(), "r"); //$NON-NLS-1$
+                channel = segmentFile.getChannel();
+                segment = next;
+                records = found;
+                recordPos = found.length - 1;
+                return;
+            } catch (IOException e) {
+                // Segment may be deleted by cleanup
+                log.debug("Error searching query history in " + next, e);
+            }
+        }
+        finished = true;
+    }
+
+    private void closeSegment()
+    {
+        if (segmentFile != null) {
+            try {
+                segmentFile.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            segmentFile = null;
+            channel = null;
+        }
+        segment = null;
+        records = null;
+        recordPos = -1;
+    }
+
+}
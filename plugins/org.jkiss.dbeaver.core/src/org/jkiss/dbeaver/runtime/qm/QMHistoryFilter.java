@@ -0,0 +1,178 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.Nullable;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Query history search filter.
+ *
+ * Search text consists of SQL words (the last word matches as prefix) and optional qualifiers:
+ * <ul>
+ * <li>ds:name - connection name (prefix)</li>
+ * <li>result:ok or result:error - execution result</li>
+ * <li>time:N - minimal duration (ms)</li>
+ * <li>days:N - executed during last N days</li>
+ * </ul>
+ */
+public class QMHistoryFilter {
+
+    private static final String QUALIFIER_DATA_SOURCE = "ds:"; //$NON-NLS-1$
+    private static final String QUALIFIER_RESULT = "result:"; //$NON-NLS-1$
+    private static final String QUALIFIER_DURATION = "time:"; //$NON-NLS-1$
+    private static final String QUALIFIER_DAYS = "days:"; //$NON-NLS-1$
+
+    private final List<String> words = new ArrayList<>();
+    private String wordPrefix;
+    private String containerId;
+    private String containerName;
+    private long minDuration;
+    private Boolean result;
+    private long fromTime;
+
+    public QMHistoryFilter()
+    {
+    }
+
+    public static QMHistoryFilter parse(String text)
+    {
+        QMHistoryFilter filter = new QMHistoryFilter();
+        if (CommonUtils.isEmpty(text)) {
+            return filter;
+        }
+        List<String> textWords = new ArrayList<>();
+        for (String term : text.trim().split("\\s+")) { //$NON-NLS-1$
+            String lcTerm = term.toLowerCase(Locale.ENGLISH);
+            if (lcTerm.startsWith(QUALIFIER_DATA_SOURCE) && lcTerm.length() > QUALIFIER_DATA_SOURCE.length()) {
+                filter.containerName = lcTerm.substring(QUALIFIER_DATA_SOURCE.length());
+            } else if (lcTerm.startsWith(QUALIFIER_RESULT)) {
+                String value = lcTerm.substring(QUALIFIER_RESULT.length());
+                filter.result = value.startsWith("ok") || value.startsWith("success") ? Boolean.TRUE : Boolean.FALSE; //$NON-NLS-1$ //$NON-NLS-2$
+            } else if (lcTerm.startsWith(QUALIFIER_DURATION)) {
+                filter.minDuration = parseNumber(lcTerm.substring(QUALIFIER_DURATION.length()));
+            } else if (lcTerm.startsWith(QUALIFIER_DAYS)) {
+                long days = parseNumber(lcTerm.substring(QUALIFIER_DAYS.length()));
+                if (days > 0) {
+                    filter.fromTime = System.currentTimeMillis() - days * 24L * 60 * 60 * 1000;
+                }
+            } else {
+                QMHistorySegment.tokenize(term, textWords);
+            }
+        }
+        if (!textWords.isEmpty()) {
+            if (Character.isWhitespace(text.charAt(text.length() - 1))) {
+                filter.words.addAll(textWords);
+            } else {
+                filter.words.addAll(textWords.subList(0, textWords.size() - 1));
+                filter.wordPrefix = textWords.get(textWords.size() - 1);
+            }
+        }
+        return filter;
+    }
+
+    private static long parseNumber(String value)
+    {
+        int start = 0;
+        while (start < value.length() && !Character.isDigit(value.charAt(start))) {
+            start++;
+        }
+        try {
+            return Long.parseLong(value.substring(start));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return words.isEmpty() && wordPrefix == null && containerId == null && containerName == null &&
+            minDuration <= 0 && result == null && fromTime <= 0;
+    }
+
+    /**
+     * Whole lower-cased SQL words
+     */
+    public List<String> getWords()
+    {
+        return Collections.unmodifiableList(words);
+    }
+
+    @Nullable
+    public String getWordPrefix()
+    {
+        return wordPrefix;
+    }
+
+    @Nullable
+    public String getContainerId()
+    {
+        return containerId;
+    }
+
+    public void setContainerId(@Nullable String containerId)
+    {
+        this.containerId = containerId;
+    }
+
+    @Nullable
+    public String getContainerName()
+    {
+        return containerName;
+    }
+
+    public long getMinDuration()
+    {
+        return minDuration;
+    }
+
+    public void setMinDuration(long minDuration)
+    {
+        this.minDuration = minDuration;
+    }
+
+    /**
+     * TRUE for successful executions, FALSE for failed, null for all
+     */
+    @Nullable
+    public Boolean getResult()
+    {
+        return result;
+    }
+
+    public void setResult(@Nullable Boolean result)
+    {
+        this.result = result;
+    }
+
+    public long getFromTime()
+    {
+        return fromTime;
+    }
+
+    public void setFromTime(long fromTime)
+    {
+        this.fromTime = fromTime;
+    }
+
+}
@@ -0,0 +1,817 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.qm.meta.QMMSessionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Query history segment.
+ *
+ * Data file (.qmh) is append-only: header followed by length-prefixed records.
+ * Numbers are var-length encoded, session strings are stored once per segment and then referenced by number.
+ * Inverted index (tokens to record numbers) is kept in memory while segment is active and saved
+ * to the index file (.qmi) when segment is sealed. Sealed segment indexes are loaded on demand.
+ */
+class QMHistorySegment {
+
+    static final Log log = Log.getLog(QMHistorySegment.class);
+
+    static final String DATA_EXT = ".qmh"; //$NON-NLS-1$
+    static final String INDEX_EXT = ".qmi"; //$NON-NLS-1$
+
+    static final String TOKEN_DATA_SOURCE = "ds:"; //$NON-NLS-1$
+    static final String TOKEN_DATA_SOURCE_NAME = "dsn:"; //$NON-NLS-1$
+    static final String TOKEN_DURATION = "dur:"; //$NON-NLS-1$
+    static final String TOKEN_RESULT_OK = "res:ok"; //$NON-NLS-1$
+    static final String TOKEN_RESULT_ERROR = "res:error"; //$NON-NLS-1$
+    static final String TOKEN_PURPOSE = "p:"; //$NON-NLS-1$
+
+    static final int MAX_DURATION_BUCKET = 8;
+    private static final int MAX_WORD_LENGTH = 64;
+
+    private static final int DATA_MAGIC = 0x514D4831;
+    private static final int INDEX_MAGIC = 0x514D4931;
+    private static final int DATA_HEADER_SIZE = 4;
+    private static final byte FLAG_ERROR_MESSAGE = 1;
+    private static final byte FLAG_FETCH = 2;
+
+    private static final DBCExecutionPurpose[] PURPOSES = DBCExecutionPurpose.values();
+
+    private static class Postings {
+        int[] records = new int[4];
+        int size;
+
+        void add(int record)
+        {
+            if (size > 0 && records[size - 1] == record) {
+                return;
+            }
+            if (size == records.length) {
+                records = Arrays.copyOf(records, size * 2);
+            }
+            records[size++] = record;
+        }
+
+        int[] toArray()
+        {
+            return Arrays.copyOf(records, size);
+        }
+    }
+
+    private final File dataFile;
+    private final File indexFile;
+    private final long segmentId;
+
+    // Index. Null for sealed segments which index is not loaded.
+    private int recordCount;
+    // Records which were flushed to the data file
+    private int visibleCount;
+    private int[] offsets;
+    private long[] times;
+    private List<String> dictionary;
+    private Map<String, Integer> dictionaryIds;
+    private TreeMap<String, Postings> postings;
+    private long dataLength;
+
+    private OutputStream output;
+    private boolean sealed;
+
+    private QMHistorySegment(File folder, long segmentId)
+    {
+        this.segmentId = segmentId;
+        this.dataFile = new File(folder, segmentId + DATA_EXT);
+        this.indexFile = new File(folder, segmentId + INDEX_EXT);
+    }
+
+    /**
+     * Creates new active segment
+     */
+    static QMHistorySegment create(File folder, long segmentId) throws IOException
+    {
+        QMHistorySegment segment = new QMHistorySegment(folder, segmentId);
+        segment.resetIndex();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(segment.dataFile))) {
+            out.writeInt(DATA_MAGIC);
+        }
+        segment.dataLength = DATA_HEADER_SIZE;
+        segment.output = new BufferedOutputStream(new FileOutputStream(segment.dataFile, true));
+        return segment;
+    }
+
+    /**
+     * Opens existing segment. Segments without index file are scanned. Active segment remains open for append.
+     */
+    static QMHistorySegment open(File folder, long segmentId, boolean active) throws IOException
+    {
+        QMHistorySegment segment = new QMHistorySegment(folder, segmentId);
+        if (segment.indexFile.exists()) {
+            segment.sealed = true;
+            return segment;
+        }
+        segment.rebuildIndex();
+        if (active) {
+            segment.output = new BufferedOutputStream(new FileOutputStream(segment.dataFile, true));
+        } else {
+            segment.seal();
+        }
+        return segment;
+    }
+
+    long getSegmentId()
+    {
+        return segmentId;
+    }
+
+    synchronized long getDataLength()
+    {
+        return dataLength;
+    }
+
+    synchronized boolean isSealed()
+    {
+        return sealed;
+    }
+
+    synchronized boolean isIndexLoaded()
+    {
+        return offsets != null;
+    }
+
+    private void resetIndex()
+    {
+        recordCount = 0;
+        visibleCount = 0;
+        offsets = new int[256];
+        times = new long[256];
+        dictionary = new ArrayList<>();
+        dictionaryIds = new HashMap<>();
+        postings = new TreeMap<>();
+    }
+
+    ////////////////////////////////////////////////
+    // Write
+
+    synchronized void append(@NotNull QMMStatementExecuteInfo exec) throws IOException
+    {
+        if (output == null) {
+            throw new IOException("Segment " + segmentId + " is not open for write");
+        }
+        QMMSessionInfo session = exec.getStatement().getSession();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128 + (exec.getQueryString() == null ? 0 : exec.getQueryString().length()));
+        DataOutputStream out = new DataOutputStream(buffer);
+        byte flags = 0;
+        if (exec.getErrorMessage() != null) flags |= FLAG_ERROR_MESSAGE;
+        if (exec.getFetchEndTime() > 0) flags |= FLAG_FETCH;
+        out.writeByte(flags);
+        writeVarLong(out, exec.getOpenTime() - segmentId);
+        writeVarLong(out, Math.max(0, exec.getCloseTime() - exec.getOpenTime()));
+        if ((flags & FLAG_FETCH) != 0) {
+            writeVarLong(out, Math.max(0, exec.getFetchBeginTime() - exec.getOpenTime()));
+            writeVarLong(out, Math.max(0, exec.getFetchEndTime() - exec.getFetchBeginTime()));
+        }
+        writeVarLong(out, exec.getRowCount() + 1);
+        writeVarLong(out, exec.getErrorCode());
+        writeVarInt(out, exec.getStatement().getPurpose().ordinal());
+        writeReference(out, session.getContainerId());
+        writeReference(out, session.getContainerName());
+        writeReference(out, session.getContextName());
+        writeString(out, exec.getQueryString());
+        if ((flags & FLAG_ERROR_MESSAGE) != 0) {
+            writeString(out, exec.getErrorMessage());
+        }
+        out.flush();
+
+        int offset = (int) dataLength;
+        DataOutputStream fileOut = new DataOutputStream(output);
+        int headerSize = writeVarInt(fileOut, buffer.size());
+        buffer.writeTo(output);
+        dataLength += headerSize + buffer.size();
+
+        addToIndex(offset, exec.getOpenTime(), getTokens(exec));
+    }
+
+    /**
+     * Makes appended records visible for readers
+     */
+    synchronized void flush() throws IOException
+    {
+        if (output != null) {
+            output.flush();
+        }
+        visibleCount = recordCount;
+    }
+
+    /**
+     * Closes data file and saves index
+     */
+    synchronized void seal() throws IOException
+    {
+        if (output != null) {
+            output.close();
+            output = null;
+        }
+        if (sealed) {
+            return;
+        }
+        File tmpFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp"); //$NON-NLS-1$
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeInt(INDEX_MAGIC);
+            writeVarLong(out, dataLength);
+            writeVarInt(out, recordCount);
+            int prevOffset = 0;
+            long prevTime = segmentId;
+            for (int i = 0; i < recordCount; i++) {
+                writeVarInt(out, offsets[i] - prevOffset);
+                writeVarLong(out, zigZag(times[i] - prevTime));
+                prevOffset = offsets[i];
+                prevTime = times[i];
+            }
+            writeVarInt(out, dictionary.size());
+            for (String value : dictionary) {
+                writeString(out, value);
+            }
+            writeVarInt(out, postings.size());
+            for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                writeString(out, entry.getKey());
+                Postings list = entry.getValue();
+                writeVarInt(out, list.size);
+                int prev = 0;
+                for (int i = 0; i < list.size; i++) {
+                    writeVarInt(out, list.records[i] - prev);
+                    prev = list.records[i];
+                }
+            }
+        }
+        if (!tmpFile.renameTo(indexFile)) {
+            throw new IOException("Can't save query history index " + indexFile.getAbsolutePath());
+        }
+        sealed = true;
+        dictionaryIds = null;
+    }
+
+    /**
+     * Closes data file. Unsealed segment will be scanned when opened next time.
+     */
+    synchronized void close()
+    {
+        if (output != null) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            output = null;
+        }
+    }
+
+    synchronized void delete()
+    {
+        close();
+        unloadIndex();
+        if (indexFile.exists() && !indexFile.delete()) {
+            log.debug("Can't delete query history index " + indexFile.getAbsolutePath());
+        }
+        if (!dataFile.delete()) {
+            log.debug("Can't delete query history segment " + dataFile.getAbsolutePath());
+        }
+    }
+
+    private void addToIndex(int offset, long time, Collection<String> tokens)
+    {
+        if (recordCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, recordCount * 2);
+            times = Arrays.copyOf(times, recordCount * 2);
+        }
+        int record = recordCount++;
+        offsets[record] = offset;
+        times[record] = time;
+        for (String token : tokens) {
+            Postings list = postings.get(token);
+            if (list == null) {
+                list = new Postings();
+                postings.put(token, list);
+            }
+            list.add(record);
+        }
+    }
+
+    private static Set<String> getTokens(QMMStatementExecuteInfo exec)
+    {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokenize(exec.getQueryString(), tokens);
+        QMMSessionInfo session = exec.getStatement().getSession();
+        if (session.getContainerId() != null) {
+            tokens.add(TOKEN_DATA_SOURCE + session.getContainerId());
+        }
+        if (session.getContainerName() != null) {
+            tokens.add(TOKEN_DATA_SOURCE_NAME + session.getContainerName().toLowerCase(Locale.ENGLISH));
+        }
+        tokens.add(TOKEN_DURATION + getDurationBucket(getDuration(exec)));
+        tokens.add(exec.hasError() ? TOKEN_RESULT_ERROR : TOKEN_RESULT_OK);
+        tokens.add(TOKEN_PURPOSE + exec.getStatement().getPurpose().name());
+        return tokens;
+    }
+
+    static long getDuration(QMMStatementExecuteInfo exec)
+    {
+        long duration = exec.getCloseTime() - exec.getOpenTime();
+        if (exec.getFetchEndTime() > 0) {
+            duration += exec.getFetchEndTime() - exec.getFetchBeginTime();
+        }
+        return duration;
+    }
+
+    /**
+     * Decimal magnitude of duration in ms: 0 for <10ms, 1 for <100ms, etc.
+     */
+    static int getDurationBucket(long duration)
+    {
+        int bucket = 0;
+        for (long limit = 10; duration >= limit && bucket < MAX_DURATION_BUCKET; limit *= 10) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Splits text on identifier boundaries. Words are lower-cased.
+     */
+    static void tokenize(@Nullable String text, Collection<String> tokens)
+    {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c) || c == '_') {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                if (i - start >= 2 && i - start <= MAX_WORD_LENGTH) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ENGLISH));
+                }
+                start = -1;
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////
+    // Read
+
+    synchronized void loadIndex() throws IOException
+    {
+        if (offsets != null) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC) {
+                throw new IOException("Bad query history index " + indexFile.getAbsolutePath());
+            }
+            dataLength = readVarLong(in);
+            int count = readVarInt(in);
+            int[] newOffsets = new int[Math.max(count, 1)];
+            long[] newTimes = new long[Math.max(count, 1)];
+            int prevOffset = 0;
+            long prevTime = segmentId;
+            for (int i = 0; i < count; i++) {
+                prevOffset += readVarInt(in);
+                prevTime += unZigZag(readVarLong(in));
+                newOffsets[i] = prevOffset;
+                newTimes[i] = prevTime;
+            }
+            int dictSize = readVarInt(in);
+            List<String> newDictionary = new ArrayList<>(dictSize);
+            for (int i = 0; i < dictSize; i++) {
+                newDictionary.add(readString(in));
+            }
+            int tokenCount = readVarInt(in);
+            TreeMap<String, Postings> newPostings = new TreeMap<>();
+            for (int i = 0; i < tokenCount; i++) {
+                String token = readString(in);
+                Postings list = new Postings();
+                list.size = readVarInt(in);
+                list.records = new int[list.size];
+                int prev = 0;
+                for (int k = 0; k < list.size; k++) {
+                    prev += readVarInt(in);
+                    list.records[k] = prev;
+                }
+                newPostings.put(token, list);
+            }
+            recordCount = count;
+            visibleCount = count;
+            offsets = newOffsets;
+            times = newTimes;
+            dictionary = newDictionary;
+            postings = newPostings;
+        }
+    }
+
+    synchronized void unloadIndex()
+    {
+        if (sealed) {
+            offsets = null;
+            times = null;
+            dictionary = null;
+            postings = null;
+        }
+    }
+
+    synchronized int getRecordCount()
+    {
+        return visibleCount;
+    }
+
+    /**
+     * Finds records matching index terms of the filter.
+     * @return ascending record numbers
+     */
+    synchronized int[] findRecords(@NotNull QMHistoryFilter filter) throws IOException
+    {
+        loadIndex();
+        int[] result = null;
+        for (String word : filter.getWords()) {
+            result = intersect(result, getPostings(word));
+            if (result.length == 0) {
+                return result;
+            }
+        }
+        if (filter.getWordPrefix() != null) {
+            List<int[]> lists = new ArrayList<>();
+            String prefix = filter.getWordPrefix();
+            for (Postings list : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                lists.add(list.toArray());
+            }
+            result = intersect(result, union(lists));
+        }
+        if (filter.getContainerId() != null) {
+            result = intersect(result, getPostings(TOKEN_DATA_SOURCE + filter.getContainerId()));
+        }
+        if (filter.getContainerName() != null) {
+            List<int[]> lists = new ArrayList<>();
+            String prefix = TOKEN_DATA_SOURCE_NAME + filter.getContainerName();
+            for (Postings list : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                lists.add(list.toArray());
+            }
+            result = intersect(result, union(lists));
+        }
+        if (filter.getMinDuration() > 0) {
+            List<int[]> lists = new ArrayList<>();
+            for (int bucket = getDurationBucket(filter.getMinDuration()); bucket <= MAX_DURATION_BUCKET; bucket++) {
+                lists.add(getPostings(TOKEN_DURATION + bucket));
+            }
+            result = intersect(result, union(lists));
+        }
+        if (filter.getResult() != null) {
+            result = intersect(result, getPostings(filter.getResult() ? TOKEN_RESULT_OK : TOKEN_RESULT_ERROR));
+        }
+        if (result == null) {
+            result = new int[visibleCount];
+            for (int i = 0; i < visibleCount; i++) {
+                result[i] = i;
+            }
+        } else if (result.length > 0 && result[result.length - 1] >= visibleCount) {
+            int size = result.length;
+            while (size > 0 && result[size - 1] >= visibleCount) {
+                size--;
+            }
+            result = Arrays.copyOf(result, size);
+        }
+        return result;
+    }
+
+    private int[] getPostings(String token)
+    {
+        Postings list = postings.get(token);
+        return list == null ? new int[0] : list.toArray();
+    }
+
+    synchronized long getRecordTime(int record)
+    {
+        return times == null || record >= visibleCount ? 0 : times[record];
+    }
+
+    /**
+     * Reads record. Channel must be opened on this segment's data file.
+     */
+    QMMStatementExecuteInfo readRecord(FileChannel channel, int record) throws IOException
+    {
+        final int offset;
+        final List<String> dict;
+        synchronized (this) {
+            loadIndex();
+            offset = offsets[record];
+            // Dictionary only grows so the snapshot is enough
+            dict = new ArrayList<>(dictionary);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+        readFully(channel, buffer, offset);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array(), 0, buffer.limit()));
+        int length = readVarInt(in);
+        int headerSize = buffer.limit() - in.available();
+        if (headerSize + length > buffer.limit()) {
+            buffer = ByteBuffer.allocate(headerSize + length);
+            readFully(channel, buffer, offset);
+        }
+        in = new DataInputStream(new ByteArrayInputStream(buffer.array(), headerSize, length));
+        return readRecord(in, dict, null);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, position + buffer.position());
+            if (count < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    private QMMStatementExecuteInfo readRecord(DataInputStream in, List<String> dict, @Nullable Set<String> tokens) throws IOException
+    {
+        byte flags = in.readByte();
+        long openTime = segmentId + readVarLong(in);
+        long closeTime = openTime + readVarLong(in);
+        long fetchBeginTime = 0, fetchEndTime = 0;
+        if ((flags & FLAG_FETCH) != 0) {
+            fetchBeginTime = openTime + readVarLong(in);
+            fetchEndTime = fetchBeginTime + readVarLong(in);
+        }
+        long rowCount = readVarLong(in) - 1;
+        int errorCode = (int) readVarLong(in);
+        int purposeIndex = readVarInt(in);
+        DBCExecutionPurpose purpose = purposeIndex < PURPOSES.length ? PURPOSES[purposeIndex] : DBCExecutionPurpose.USER;
+        String containerId = readReference(in, dict);
+        String containerName = readReference(in, dict);
+        String contextName = readReference(in, dict);
+        String queryString = readString(in);
+        String errorMessage = (flags & FLAG_ERROR_MESSAGE) != 0 ? readString(in) : null;
+        QMMStatementExecuteInfo exec = QMMStatementExecuteInfo.restore(
+            containerId, containerName, contextName, purpose,
+            queryString, rowCount, errorCode, errorMessage,
+            openTime, closeTime, fetchBeginTime, fetchEndTime);
+        if (tokens != null) {
+            tokens.addAll(getTokens(exec));
+        }
+        return exec;
+    }
+
+    /**
+     * Reads all records and builds index. Truncates incomplete record left after crash.
+     */
+    private void rebuildIndex() throws IOException
+    {
+        resetIndex();
+        long validLength = DATA_HEADER_SIZE;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(dataFile)))) {
+            if (in.readInt() != DATA_MAGIC) {
+                throw new IOException("Bad query history segment " + dataFile.getAbsolutePath());
+            }
+            Set<String> tokens = new LinkedHashSet<>();
+            for (;;) {
+                int length;
+                byte[] payload;
+                int headerSize;
+                try {
+                    ByteArrayOutputStream header = new ByteArrayOutputStream(5);
+                    length = readVarInt(in, header);
+                    headerSize = header.size();
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+                tokens.clear();
+                QMMStatementExecuteInfo exec;
+                try {
+                    exec = readRecord(new DataInputStream(new ByteArrayInputStream(payload)), dictionary, tokens);
+                } catch (IOException e) {
+                    log.debug("Broken query history record in " + dataFile.getName() + " at " + validLength);
+                    break;
+                }
+                addToIndex((int) validLength, exec.getOpenTime(), tokens);
+                validLength += headerSize + length;
+            }
+        }
+        if (dataFile.length() > validLength) {
+            try (RandomAccessFile file = new RandomAccessFile(dataFile, "rw")) { //$NON-NLS-1$
+                file.setLength(validLength);
+            }
+        }
+        dataLength = validLength;
+        visibleCount = recordCount;
+        dictionaryIds = new HashMap<>();
+        for (int i = 0; i < dictionary.size(); i++) {
+            dictionaryIds.put(dictionary.get(i), i);
+        }
+    }
+
+    File getDataFile()
+    {
+        return dataFile;
+    }
+
+    ////////////////////////////////////////////////
+    // Encoding
+
+    private void writeReference(DataOutput out, @Nullable String value) throws IOException
+    {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        Integer id = dictionaryIds.get(value);
+        if (id != null) {
+            writeVarInt(out, id + 2);
+        } else {
+            writeVarInt(out, 1);
+            writeString(out, value);
+            dictionaryIds.put(value, dictionary.size());
+            dictionary.add(value);
+        }
+    }
+
+    private static String readReference(DataInput in, List<String> dict) throws IOException
+    {
+        int ref = readVarInt(in);
+        if (ref == 0) {
+            return null;
+        } else if (ref == 1) {
+            // Inline definition (read during sequential scan)
+            String value = readString(in);
+            dict.add(value);
+            return value;
+        } else if (ref - 2 < dict.size()) {
+            return dict.get(ref - 2);
+        } else {
+            throw new IOException("Bad string reference " + ref);
+        }
+    }
+
+    private static void writeString(DataOutput out, @Nullable String value) throws IOException
+    {
+        if (value == null) {
+            writeVarInt(out, 0);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length + 1);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException
+    {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int writeVarInt(DataOutput out, int value) throws IOException
+    {
+        return writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static int writeVarLong(DataOutput out, long value) throws IOException
+    {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+            size++;
+        }
+        out.writeByte((int) value);
+        return size;
+    }
+
+    private static int readVarInt(DataInput in) throws IOException
+    {
+        return (int) readVarLong(in);
+    }
+
+    private static int readVarInt(DataInput in, ByteArrayOutputStream copy) throws IOException
+    {
+        long value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.readByte();
+            copy.write(b);
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (int) value;
+            }
+        }
+        throw new IOException("Bad var-length integer");
+    }
+
+    private static long readVarLong(DataInput in) throws IOException
+    {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Bad var-length integer");
+    }
+
+    private static long zigZag(long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    ////////////////////////////////////////////////
+    // Sorted record lists
+
+    static int[] intersect(@Nullable int[] a, int[] b)
+    {
+        if (a == null) {
+            return b;
+        }
+        int[] result = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        for (int i = 0, k = 0; i < a.length && k < b.length; ) {
+            if (a[i] < b[k]) {
+                i++;
+            } else if (a[i] > b[k]) {
+                k++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                k++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    static int[] union(List<int[]> lists)
+    {
+        if (lists.size() == 1) {
+            return lists.get(0);
+        }
+        int total = 0;
+        for (int[] list : lists) {
+            total += list.length;
+        }
+        int[] result = new int[total];
+        int pos = 0;
+        for (int[] list : lists) {
+            System.arraycopy(list, 0, result, pos, list.length);
+            pos += list.length;
+        }
+        Arrays.sort(result);
+        int size = 0;
+        for (int i = 0; i < total; i++) {
+            if (size == 0 || result[size - 1] != result[i]) {
+                result[size++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    @Override
+    public String toString()
+    {
+        return dataFile.getName();
+    }
+
+}
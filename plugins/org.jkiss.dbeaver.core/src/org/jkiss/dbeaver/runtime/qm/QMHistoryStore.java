@@ -0,0 +1,263 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.core.DBeaverCore;
+import org.jkiss.dbeaver.model.DBPPreferenceListener;
+import org.jkiss.dbeaver.model.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.qm.QMConstants;
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+import org.jkiss.dbeaver.model.qm.QMMetaListener;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Persistent query history.
+ *
+ * Finished statement executions are appended to segment files in the history folder.
+ * Active segment is sealed (and its index saved) when it exceeds the size limit.
+ * Segments older than the history retention period are deleted.
+ * History contains full query texts, so it is disabled by default.
+ */
+public class QMHistoryStore implements QMMetaListener, DBPPreferenceListener {
+
+    static final Log log = Log.getLog(QMHistoryStore.class);
+
+    private static final long SEGMENT_MAX_SIZE = 4 * 1024 * 1024;
+    private static final int MAX_LOADED_SEGMENTS = 8;
+    // Executions which statement is still open are saved after this timeout
+    private static final long PENDING_TIMEOUT = 60 * 1000;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    private final File folder;
+    // Oldest first
+    private final List<QMHistorySegment> segments = new ArrayList<>();
+    // Sealed segments with loaded index, most recently used first
+    private final LinkedList<QMHistorySegment> loadedSegments = new LinkedList<>();
+    private QMHistorySegment activeSegment;
+    // Accessed by QM dispatcher only
+    private final Map<Long, QMMStatementExecuteInfo> pendingExecutions = new LinkedHashMap<>();
+
+    private volatile boolean enabled;
+    private volatile int historyDays;
+
+    public QMHistoryStore(File folder)
+    {
+        this.folder = folder;
+        loadSettings();
+        openSegments();
+        DBeaverCore.getGlobalPreferenceStore().addPropertyChangeListener(this);
+    }
+
+    public synchronized void dispose()
+    {
+        DBeaverCore.getGlobalPreferenceStore().removePropertyChangeListener(this);
+        if (activeSegment != null) {
+            // Do not seal - it will be reopened on next start
+            activeSegment.close();
+            activeSegment = null;
+        }
+        segments.clear();
+        loadedSegments.clear();
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    private void loadSettings()
+    {
+        DBPPreferenceStore store = DBeaverCore.getGlobalPreferenceStore();
+        enabled = store.getBoolean(QMConstants.PROP_STORE_HISTORY);
+        historyDays = store.getInt(QMConstants.PROP_HISTORY_DAYS);
+    }
+
+    private synchronized void openSegments()
+    {
+        if (!folder.exists()) {
+            if (!enabled) {
+                // Nothing stored yet
+                return;
+            }
+            if (!folder.mkdirs()) {
+                log.warn("Can't create query history folder " + folder.getAbsolutePath());
+                return;
+            }
+        }
+        List<Long> ids = new ArrayList<>();
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(QMHistorySegment.DATA_EXT)) {
+                    try {
+                        ids.add(Long.parseLong(name.substring(0, name.length() - QMHistorySegment.DATA_EXT.length())));
+                    } catch (NumberFormatException e) {
+                        // Not a segment
+                    }
+                }
+            }
+        }
+        Collections.sort(ids);
+        for (int i = 0; i < ids.size(); i++) {
+            try {
+                QMHistorySegment segment = QMHistorySegment.open(folder, ids.get(i), i == ids.size() - 1);
+                segments.add(segment);
+                if (!segment.isSealed()) {
+                    activeSegment = segment;
+                }
+            } catch (IOException e) {
+                log.warn("Can't open query history segment " + ids.get(i), e);
+            }
+        }
+        deleteExpiredSegments();
+    }
+
+    @Override
+    public void metaInfoChanged(List<QMMetaEvent> events)
+    {
+        if (!enabled) {
+            pendingExecutions.clear();
+            return;
+        }
+        for (QMMetaEvent event : events) {
+            if (event.getObject() instanceof QMMStatementExecuteInfo) {
+                QMMStatementExecuteInfo exec = (QMMStatementExecuteInfo) event.getObject();
+                pendingExecutions.put(exec.getObjectId(), exec);
+            }
+        }
+        if (pendingExecutions.isEmpty()) {
+            return;
+        }
+        // Execution is finished when its results were fetched or statement was closed
+        List<QMMStatementExecuteInfo> finished = new ArrayList<>();
+        long currentTime = System.currentTimeMillis();
+        for (Iterator<QMMStatementExecuteInfo> iter = pendingExecutions.values().iterator(); iter.hasNext(); ) {
+            QMMStatementExecuteInfo exec = iter.next();
+            if (exec.isClosed() && !exec.isFetching() &&
+                (exec.getFetchEndTime() > 0 || exec.getStatement().isClosed() || currentTime - exec.getCloseTime() > PENDING_TIMEOUT))
+            {
+                finished.add(exec);
+                iter.remove();
+            }
+        }
+        if (!finished.isEmpty()) {
+            saveExecutions(finished);
+        }
+    }
+
+    private synchronized void saveExecutions(List<QMMStatementExecuteInfo> executions)
+    {
+        try {
+            for (QMMStatementExecuteInfo exec : executions) {
+                if (activeSegment == null) {
+                    createActiveSegment();
+                }
+                activeSegment.append(exec);
+                if (activeSegment.getDataLength() > SEGMENT_MAX_SIZE) {
+                    activeSegment.flush();
+                    activeSegment.seal();
+                    markLoaded(activeSegment);
+                    activeSegment = null;
+                    deleteExpiredSegments();
+                }
+            }
+            if (activeSegment != null) {
+                activeSegment.flush();
+            }
+        } catch (IOException e) {
+            log.warn("Error saving query history", e);
+        }
+    }
+
+    private void createActiveSegment() throws IOException
+    {
+        long segmentId = System.currentTimeMillis();
+        if (!segments.isEmpty()) {
+            segmentId = Math.max(segmentId, segments.get(segments.size() - 1).getSegmentId() + 1);
+        }
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Can't create query history folder " + folder.getAbsolutePath());
+        }
+        activeSegment = QMHistorySegment.create(folder, segmentId);
+        segments.add(activeSegment);
+    }
+
+    private void deleteExpiredSegments()
+    {
+        if (historyDays <= 0) {
+            return;
+        }
+        long expireTime = System.currentTimeMillis() - historyDays * DAY_MS;
+        // Segment records are older than the next segment
+        while (segments.size() > 1 && segments.get(1).getSegmentId() < expireTime) {
+            QMHistorySegment segment = segments.remove(0);
+            loadedSegments.remove(segment);
+            segment.delete();
+        }
+    }
+
+    /**
+     * Opens search cursor. Results are ordered from newest to oldest.
+     */
+    public synchronized QMHistoryCursor openCursor(@NotNull QMHistoryFilter filter)
+    {
+        List<QMHistorySegment> snapshot = new ArrayList<>(segments);
+        Collections.reverse(snapshot);
+        return new QMHistoryCursor(this, filter, snapshot);
+    }
+
+    /**
+     * Loads segment index. Keeps only a few sealed segment indexes in memory.
+     */
+    synchronized void prepareSegment(QMHistorySegment segment) throws IOException
+    {
+        if (!segment.isSealed()) {
+            return;
+        }
+        segment.loadIndex();
+        markLoaded(segment);
+    }
+
+    private void markLoaded(QMHistorySegment segment)
+    {
+        loadedSegments.remove(segment);
+        loadedSegments.addFirst(segment);
+        while (loadedSegments.size() > MAX_LOADED_SEGMENTS) {
+            loadedSegments.removeLast().unloadIndex();
+        }
+    }
+
+    @Override
+    public void preferenceChange(PreferenceChangeEvent event)
+    {
+        if (event.getProperty().startsWith(QMConstants.PROP_PREFIX)) {
+            loadSettings();
+            synchronized (this) {
+                deleteExpiredSegments();
+            }
+        }
+    }
+
+}
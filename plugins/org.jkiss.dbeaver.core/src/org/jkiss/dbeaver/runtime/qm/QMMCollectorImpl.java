@@ -20,10 +20,13 @@ package org.jkiss.dbeaver.runtime.qm;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.core.DBeaverCore;
+import org.jkiss.dbeaver.model.DBPPreferenceListener;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.exec.DBCSavepoint;
 import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.qm.QMConstants;
 import org.jkiss.dbeaver.model.qm.QMMCollector;
 import org.jkiss.dbeaver.model.qm.QMMetaEvent;
 import org.jkiss.dbeaver.model.qm.QMMetaListener;
@@ -32,31 +35,45 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Query manager execution handler implementation
+ * Query manager execution handler implementation.
+ *
+ * Handlers are called concurrently from many connections. Session meta info is guarded by the session itself,
+ * events are published into a lock-free queue and delivered to listeners in batches by the dispatcher job.
  */
-public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMCollector {
+public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMCollector, DBPPreferenceListener {
 
     static final Log log = Log.getLog(QMMCollectorImpl.class);
 
     private static final long EVENT_DISPATCH_PERIOD = 250;
-    private static final int MAX_HISTORY_EVENTS = 1000;
+    private static final int EVENT_QUEUE_SIZE = 8192;
+    private static final int DEFAULT_HISTORY_EVENTS = 1000;
 
-    private Map<String, QMMSessionInfo> sessionMap = new HashMap<>();
-    private List<QMMetaListener> listeners = new ArrayList<>();
-    private List<QMMetaEvent> eventPool = new ArrayList<>();
-    private final Object historySync = new Object();
-    private List<QMMetaEvent> pastEvents = new ArrayList<>();
-    private boolean running = true;
+    private final ConcurrentMap<String, QMMSessionInfo> sessionMap = new ConcurrentHashMap<>();
+    private final List<QMMetaListener> listeners = new CopyOnWriteArrayList<>();
+    private final QMEventQueue eventQueue = new QMEventQueue(EVENT_QUEUE_SIZE);
+    private volatile QMEventHistory history;
+    private volatile int historySize;
+    private final EventDispatcher dispatcher;
+    private volatile boolean running = true;
 
     public QMMCollectorImpl()
     {
-        new EventDispatcher().schedule(EVENT_DISPATCH_PERIOD);
+        historySize = getHistorySizeSetting();
+        history = new QMEventHistory(historySize);
+        DBeaverCore.getGlobalPreferenceStore().addPropertyChangeListener(this);
+        dispatcher = new EventDispatcher();
+        dispatcher.schedule(EVENT_DISPATCH_PERIOD);
     }
 
-    public synchronized void dispose()
+    public void dispose()
     {
+        DBeaverCore.getGlobalPreferenceStore().removePropertyChangeListener(this);
         if (!sessionMap.isEmpty()) {
             List<QMMSessionInfo> openSessions = new ArrayList<>();
             for (QMMSessionInfo session : sessionMap.values()) {
@@ -86,42 +103,38 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         return "Meta info collector";
     }
 
-    public synchronized void addListener(QMMetaListener listener)
+    public void addListener(QMMetaListener listener)
     {
         listeners.add(listener);
     }
 
-    public synchronized void removeListener(QMMetaListener listener)
+    public void removeListener(QMMetaListener listener)
     {
         if (!listeners.remove(listener)) {
             log.warn("Listener '" + listener + "' is not registered in QM meta collector");
         }
     }
 
-    private synchronized List<QMMetaListener> getListeners()
+    private void fireMetaEvent(final QMMObject object, final QMMetaEvent.Action action)
     {
-        if (listeners.isEmpty()) {
-            return Collections.emptyList();
-        }
-        if (listeners.size() == 1) {
-            return Collections.singletonList(listeners.get(0));
+        if (eventQueue.offer(new QMMetaEvent(object, action))) {
+            dispatcher.wakeUp();
         }
-        return new ArrayList<>(listeners);
     }
 
-    private synchronized void fireMetaEvent(final QMMObject object, final QMMetaEvent.Action action)
+    private static int getHistorySizeSetting()
     {
-        eventPool.add(new QMMetaEvent(object, action));
+        int size = DBeaverCore.getGlobalPreferenceStore().getInt(QMConstants.PROP_HISTORY_EVENTS);
+        return size <= 0 ? DEFAULT_HISTORY_EVENTS : size;
     }
 
-    private synchronized List<QMMetaEvent> obtainEvents()
+    @Override
+    public void preferenceChange(PreferenceChangeEvent event)
     {
-        if (eventPool.isEmpty()) {
-            return Collections.emptyList();
+        if (QMConstants.PROP_HISTORY_EVENTS.equals(event.getProperty())) {
+            // Applied by dispatcher which is the only history writer
+            historySize = getHistorySizeSetting();
         }
-        List<QMMetaEvent> events = eventPool;
-        eventPool = new ArrayList<>();
-        return events;
     }
 
     public QMMSessionInfo getSessionInfo(DBCExecutionContext context)
@@ -136,20 +149,27 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
     public List<QMMetaEvent> getPastEvents()
     {
-        synchronized (historySync) {
-            return new ArrayList<>(pastEvents);
-        }
+        return history.getEvents();
     }
 
     @Override
-    public synchronized void handleContextOpen(DBCExecutionContext context, boolean transactional)
+    public void handleContextOpen(DBCExecutionContext context, boolean transactional)
     {
         String contextId = context.getDataSource().getContainer().getId() + ":" + context.getContextName();
-        QMMSessionInfo session = new QMMSessionInfo(
-            context,
-            transactional,
-            sessionMap.get(contextId));
-        sessionMap.put(contextId, session);
+        QMMSessionInfo session;
+        for (;;) {
+            QMMSessionInfo previous = sessionMap.get(contextId);
+            session = new QMMSessionInfo(
+                context,
+                transactional,
+                previous);
+            if (previous == null ?
+                sessionMap.putIfAbsent(contextId, session) == null :
+                sessionMap.replace(contextId, previous, session))
+            {
+                break;
+            }
+        }
 
         if (session.getPrevious() != null && !session.getPrevious().isClosed()) {
             // Is it really a problem? Maybe better to remove warning at all
@@ -160,126 +180,148 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleContextClose(DBCExecutionContext context)
+    public void handleContextClose(DBCExecutionContext context)
     {
         QMMSessionInfo session = getSessionInfo(context);
         if (session != null) {
-            session.close();
-            fireMetaEvent(session, QMMetaEvent.Action.END);
+            synchronized (session) {
+                session.close();
+                fireMetaEvent(session, QMMetaEvent.Action.END);
+            }
         }
     }
 
     @Override
-    public synchronized void handleTransactionAutocommit(DBCExecutionContext context, boolean autoCommit)
+    public void handleTransactionAutocommit(DBCExecutionContext context, boolean autoCommit)
     {
         QMMSessionInfo sessionInfo = getSessionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
-            if (oldTxn != null) {
-                fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
+                if (oldTxn != null) {
+                    fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+                }
+                fireMetaEvent(sessionInfo, QMMetaEvent.Action.UPDATE);
             }
-            fireMetaEvent(sessionInfo, QMMetaEvent.Action.UPDATE);
         }
     }
 
     @Override
-    public synchronized void handleTransactionCommit(DBCExecutionContext context)
+    public void handleTransactionCommit(DBCExecutionContext context)
     {
         QMMSessionInfo sessionInfo = getSessionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.commit();
-            if (oldTxn != null) {
-                fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.commit();
+                if (oldTxn != null) {
+                    fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleTransactionRollback(DBCExecutionContext context, DBCSavepoint savepoint)
+    public void handleTransactionRollback(DBCExecutionContext context, DBCSavepoint savepoint)
     {
         QMMSessionInfo sessionInfo = getSessionInfo(context);
         if (sessionInfo != null) {
-            QMMObject oldTxn = sessionInfo.rollback(savepoint);
-            if (oldTxn != null) {
-                fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+            synchronized (sessionInfo) {
+                QMMObject oldTxn = sessionInfo.rollback(savepoint);
+                if (oldTxn != null) {
+                    fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementOpen(DBCStatement statement)
+    public void handleStatementOpen(DBCStatement statement)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.openStatement(statement);
-            fireMetaEvent(stat, QMMetaEvent.Action.BEGIN);
+            synchronized (session) {
+                QMMStatementInfo stat = session.openStatement(statement);
+                fireMetaEvent(stat, QMMetaEvent.Action.BEGIN);
+            }
         }
     }
 
     @Override
-    public synchronized void handleStatementClose(DBCStatement statement, long rows)
+    public void handleStatementClose(DBCStatement statement, long rows)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.closeStatement(statement, rows);
-            if (stat == null) {
-                log.warn("Can't properly handle statement close");
-            } else {
-                fireMetaEvent(stat, QMMetaEvent.Action.END);
+            synchronized (session) {
+                QMMStatementInfo stat = session.closeStatement(statement, rows);
+                if (stat == null) {
+                    log.warn("Can't properly handle statement close");
+                } else {
+                    fireMetaEvent(stat, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteBegin(DBCStatement statement)
+    public void handleStatementExecuteBegin(DBCStatement statement)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginExecution(statement);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.BEGIN);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginExecution(statement);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.BEGIN);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteEnd(DBCStatement statement, long rows, Throwable error)
+    public void handleStatementExecuteEnd(DBCStatement statement, long rows, Throwable error)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.END);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetOpen(DBCResultSet resultSet)
+    public void handleResultSetOpen(DBCResultSet resultSet)
     {
         QMMSessionInfo session = getSessionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetClose(DBCResultSet resultSet, long rowCount)
+    public void handleResultSetClose(DBCResultSet resultSet, long rowCount)
     {
         QMMSessionInfo session = getSessionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+                }
             }
         }
     }
 
     private class EventDispatcher extends AbstractJob {
 
+        private final AtomicBoolean wakeUpRequested = new AtomicBoolean();
+
         protected EventDispatcher()
         {
             super("QM meta events dispatcher");
@@ -287,30 +329,35 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
             setSystem(true);
         }
 
+        void wakeUp()
+        {
+            if (running && wakeUpRequested.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+
         @Override
         protected IStatus run(DBRProgressMonitor monitor)
         {
-            final List<QMMetaEvent> events = obtainEvents();
-            final List<QMMetaListener> listeners = getListeners();
-            if (!listeners.isEmpty() && !events.isEmpty()) {
-                // Dispatch all events
+            wakeUpRequested.set(false);
+            final List<QMMetaEvent> events = eventQueue.drain();
+            if (!events.isEmpty()) {
+                // All listeners get the same read-only batch
+                final List<QMMetaEvent> batch = Collections.unmodifiableList(events);
                 for (QMMetaListener listener : listeners) {
                     try {
-                        listener.metaInfoChanged(events);
+                        listener.metaInfoChanged(batch);
                     } catch (Throwable e) {
                         log.error("Error notifying event listener", e);
                     }
                 }
             }
-            synchronized (historySync) {
-                pastEvents.addAll(events);
-                int size = pastEvents.size();
-                if (size > MAX_HISTORY_EVENTS) {
-                    pastEvents = new ArrayList<>(pastEvents.subList(
-                        size - MAX_HISTORY_EVENTS,
-                        size));
-                }
+            QMEventHistory curHistory = history;
+            if (curHistory.getCapacity() != historySize) {
+                curHistory = new QMEventHistory(historySize, curHistory);
+                history = curHistory;
             }
+            curHistory.add(events);
             if (isRunning()) {
                 this.schedule(EVENT_DISPATCH_PERIOD);
             }
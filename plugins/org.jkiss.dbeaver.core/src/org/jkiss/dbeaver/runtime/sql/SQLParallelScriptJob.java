@@ -0,0 +1,369 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.runtime.sql;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.ui.IWorkbenchPartSite;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.DBeaverPreferences;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.core.DBeaverCore;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLQueryResult;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.runtime.jobs.DataSourceJob;
+import org.jkiss.dbeaver.ui.DBeaverIcons;
+import org.jkiss.dbeaver.ui.UIIcon;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Executes script queries in parallel.
+ * Queries are distributed over a pool of isolated contexts. Each context is served by its own {@link SQLQueryJob}
+ * which takes the next query from the shared queue once the previous one is finished, so the order of execution
+ * is not defined. Statement marked with barrier comment (<code>-- @barrier</code>) starts a new phase:
+ * it is executed only after all previous queries are finished.
+ * Results of all workers go to the same results consumer, statistics are merged and reported at the end of script.
+ */
+public class SQLParallelScriptJob extends DataSourceJob
+{
+    static final Log log = Log.getLog(SQLParallelScriptJob.class);
+
+    private static final Pattern BARRIER_PATTERN = Pattern.compile("^\\s*--\\s*@barrier\\b", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+    private static final long POLL_TIMEOUT = 200;
+
+    private final IWorkbenchPartSite partSite;
+    private final DBSDataContainer dataContainer;
+    private final List<SQLQuery> queries;
+    private final SQLResultsConsumer resultsConsumer;
+    private final SQLQueryListener listener;
+    private final int parallelism;
+
+    private final List<DBCExecutionContext> contexts = new ArrayList<>();
+    private final WorkerQueryListener workerListener = new WorkerQueryListener();
+    private final AtomicInteger finishedQueries = new AtomicInteger();
+    private DBCStatistics statistics;
+    private int nextResultSetNumber;
+    private int reportedQueries;
+    private volatile boolean hasErrors;
+    private boolean stopped;
+
+    public SQLParallelScriptJob(
+        @NotNull IWorkbenchPartSite partSite,
+        @NotNull String name,
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull List<SQLQuery> queries,
+        @NotNull SQLResultsConsumer resultsConsumer,
+        @Nullable SQLQueryListener listener)
+    {
+        super(name, DBeaverIcons.getImageDescriptor(UIIcon.SQL_SCRIPT_EXECUTE), executionContext);
+        this.partSite = partSite;
+        this.dataContainer = dataContainer;
+        this.queries = queries;
+        this.resultsConsumer = resultsConsumer;
+        this.listener = listener;
+        this.parallelism = Math.max(1, getDataSourceContainer().getPreferenceStore().getInt(DBeaverPreferences.SCRIPT_PARALLEL_CONNECTIONS));
+    }
+
+    /**
+     * Checks whether query is preceded by barrier comment
+     */
+    public static boolean isBarrier(@NotNull SQLQuery query)
+    {
+        return BARRIER_PATTERN.matcher(query.getOriginalQuery()).find();
+    }
+
+    public DBCStatistics getStatistics()
+    {
+        return statistics;
+    }
+
+    @Override
+    protected IStatus run(DBRProgressMonitor monitor)
+    {
+        RuntimeUtils.setThreadName("Parallel SQL script execution");
+        statistics = new DBCStatistics();
+        List<List<SQLQuery>> phases = splitPhases();
+        int workerCount = 0;
+        for (List<SQLQuery> phase : phases) {
+            workerCount = Math.max(workerCount, Math.min(parallelism, phase.size()));
+        }
+        monitor.beginTask(getName(), queries.size());
+
+        if (listener != null) {
+            try {
+                listener.onStartScript();
+            } catch (Exception e) {
+                log.error(e);
+            }
+        }
+        try {
+            DBPDataSource dataSource = getExecutionContext().getDataSource();
+            for (int i = 0; i < workerCount && !monitor.isCanceled(); i++) {
+                monitor.subTask("Open connection " + (i + 1));
+                try {
+                    contexts.add(dataSource.openIsolatedContext(monitor, "Parallel script execution (" + (i + 1) + ")"));
+                } catch (DBException e) {
+                    if (contexts.isEmpty()) {
+                        throw e;
+                    }
+                    // Connections limit may be reached. Use those we already have.
+                    log.warn("Can't open connection for parallel script execution", e);
+                    break;
+                }
+            }
+            for (int i = 0; i < phases.size() && !stopped && !monitor.isCanceled(); i++) {
+                monitor.subTask("Phase " + (i + 1) + " of " + phases.size());
+                executePhase(monitor, phases.get(i));
+            }
+            monitor.done();
+
+            return new Status(
+                Status.OK,
+                DBeaverCore.getCorePluginID(),
+                "SQL job completed");
+        }
+        catch (Throwable ex) {
+            hasErrors = true;
+            return new Status(
+                Status.ERROR,
+                DBeaverCore.getCorePluginID(),
+                "Error during parallel SQL job execution: " + ex.getMessage());
+        }
+        finally {
+            for (DBCExecutionContext context : contexts) {
+                context.close();
+            }
+            contexts.clear();
+            // Notify job end
+            if (listener != null) {
+                try {
+                    listener.onEndScript(statistics, hasErrors);
+                } catch (Exception e) {
+                    log.error(e);
+                }
+            }
+        }
+    }
+
+    private List<List<SQLQuery>> splitPhases()
+    {
+        List<List<SQLQuery>> phases = new ArrayList<>();
+        List<SQLQuery> phase = new ArrayList<>();
+        for (SQLQuery query : queries) {
+            if (isBarrier(query) && !phase.isEmpty()) {
+                phases.add(phase);
+                phase = new ArrayList<>();
+            }
+            phase.add(query);
+        }
+        if (!phase.isEmpty()) {
+            phases.add(phase);
+        }
+        return phases;
+    }
+
+    /**
+     * Executes queries of one phase and waits until all of them are finished
+     */
+    private void executePhase(@NotNull DBRProgressMonitor monitor, @NotNull List<SQLQuery> phaseQueries)
+        throws DBException
+    {
+        final Queue<SQLQuery> queue = new ConcurrentLinkedQueue<>(phaseQueries);
+        final int workerCount = Math.min(contexts.size(), phaseQueries.size());
+        final CountDownLatch latch = new CountDownLatch(workerCount);
+        final List<SQLQueryJob> workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            SQLQueryJob worker = new SQLQueryJob(
+                partSite,
+                getName() + " (" + (i + 1) + ")",
+                contexts.get(i),
+                dataContainer,
+                new QueueScriptStream(queue),
+                new WorkerResultsConsumer(),
+                workerListener);
+            worker.setUser(false);
+            worker.addJobChangeListener(new JobChangeAdapter() {
+                @Override
+                public void done(IJobChangeEvent event)
+                {
+                    latch.countDown();
+                }
+            });
+            workers.add(worker);
+        }
+        for (SQLQueryJob worker : workers) {
+            worker.schedule();
+        }
+        try {
+            for (;;) {
+                boolean finished = latch.await(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                int finishedCount = finishedQueries.get();
+                monitor.worked(finishedCount - reportedQueries);
+                reportedQueries = finishedCount;
+                if (finished) {
+                    break;
+                }
+                if (!stopped) {
+                    for (SQLQueryJob worker : workers) {
+                        if (worker.isScriptStopped()) {
+                            // Worker was stopped after error. Do not start new queries in other workers.
+                            stopped = true;
+                            queue.clear();
+                            break;
+                        }
+                    }
+                    if (monitor.isCanceled()) {
+                        stopped = true;
+                        queue.clear();
+                        for (SQLQueryJob worker : workers) {
+                            worker.cancel();
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            stopped = true;
+            queue.clear();
+            for (SQLQueryJob worker : workers) {
+                worker.cancel();
+            }
+            throw new DBException("Parallel script execution interrupted", e);
+        } finally {
+            for (SQLQueryJob worker : workers) {
+                if (worker.isScriptStopped()) {
+                    stopped = true;
+                }
+                worker.close();
+            }
+        }
+    }
+
+    /**
+     * Feeds worker with queries from the shared phase queue
+     */
+    private static class QueueScriptStream extends SQLScriptStream {
+        private final Queue<SQLQuery> queue;
+
+        QueueScriptStream(Queue<SQLQuery> queue)
+        {
+            // Take queries one by one, otherwise worker may hold queries which other workers could execute
+            super(1);
+            this.queue = queue;
+        }
+
+        @Override
+        protected boolean readQueries(@NotNull DBRProgressMonitor monitor, @NotNull List<SQLQuery> queries, int maxCount)
+        {
+            SQLQuery query = queue.poll();
+            if (query == null) {
+                return false;
+            }
+            queries.add(query);
+            return true;
+        }
+    }
+
+    /**
+     * Maps worker result set numbers on the global ones.
+     * Workers' statistics results are skipped - merged statistics is reported at the end of script.
+     */
+    private class WorkerResultsConsumer implements SQLResultsConsumer {
+        private final Map<Integer, Integer> resultSetNumbers = new HashMap<>();
+
+        @Nullable
+        @Override
+        public DBDDataReceiver getDataReceiver(SQLQuery statement, int resultSetNumber)
+        {
+            if (statement != null && statement.getData() == SQLQueryJob.STATS_RESULTS) {
+                return null;
+            }
+            // Results consumer expects result set numbers in order
+            synchronized (resultsConsumer) {
+                Integer globalNumber = resultSetNumbers.get(resultSetNumber);
+                if (globalNumber == null) {
+                    globalNumber = nextResultSetNumber++;
+                    resultSetNumbers.put(resultSetNumber, globalNumber);
+                }
+                return resultsConsumer.getDataReceiver(statement, globalNumber);
+            }
+        }
+    }
+
+    /**
+     * Forwards query events of all workers to the script listener
+     */
+    private class WorkerQueryListener implements SQLQueryListener {
+
+        @Override
+        public void onStartScript()
+        {
+            // Script start is reported by the parallel job itself
+        }
+
+        @Override
+        public void onStartQuery(SQLQuery query)
+        {
+            if (listener != null) {
+                synchronized (listener) {
+                    listener.onStartQuery(query);
+                }
+            }
+        }
+
+        @Override
+        public void onEndQuery(SQLQueryResult result)
+        {
+            finishedQueries.incrementAndGet();
+            if (listener != null) {
+                synchronized (listener) {
+                    listener.onEndQuery(result);
+                }
+            }
+        }
+
+        @Override
+        public void onEndScript(DBCStatistics workerStatistics, boolean workerErrors)
+        {
+            synchronized (statistics) {
+                statistics.accumulate(workerStatistics);
+            }
+            if (workerErrors) {
+                hasErrors = true;
+            }
+        }
+    }
+
+}
@@ -17,6 +17,7 @@
  */
 package org.jkiss.dbeaver.runtime.sql;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.dialogs.IDialogConstants;
@@ -34,6 +35,8 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.impl.local.StatResultSet;
 import org.jkiss.dbeaver.model.qm.QMUtils;
@@ -43,6 +46,7 @@ import org.jkiss.dbeaver.model.sql.SQLDataSource;
 import org.jkiss.dbeaver.model.sql.SQLQuery;
 import org.jkiss.dbeaver.model.sql.SQLQueryParameter;
 import org.jkiss.dbeaver.model.sql.SQLQueryResult;
+import org.jkiss.dbeaver.model.sql.SQLQueryType;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.runtime.jobs.DataSourceJob;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
@@ -54,9 +58,9 @@ import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.Closeable;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.*;
 
 /**
  * SQLQueryJob
@@ -71,6 +75,7 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
 
     private final DBSDataContainer dataContainer;
     private final List<SQLQuery> queries;
+    private final SQLScriptStream queryStream;
     private final SQLResultsConsumer resultsConsumer;
     private final SQLQueryListener listener;
     private final IWorkbenchPartSite partSite;
@@ -79,6 +84,8 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
     private boolean connectionInvalidated = false;
 
     private SQLScriptCommitType commitType;
+    private int commitLines;
+    private int batchSize;
     private SQLScriptErrorHandling errorHandling;
     private boolean fetchResultSets;
     private long rsOffset;
@@ -93,6 +100,14 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
     private int resultSetNumber;
     private SQLQuery lastGoodQuery;
 
+    // Queries which were read but not executed yet
+    private final Deque<SQLQuery> pendingQueries = new ArrayDeque<>();
+    // Queries which must not be batched (their batch failed in unknown state)
+    private final Set<SQLQuery> singleQueries = Collections.newSetFromMap(new IdentityHashMap<SQLQuery, Boolean>());
+    private int queryIndex;
+    private DBException readError;
+    private volatile boolean scriptStopped;
+
     public SQLQueryJob(
         @NotNull IWorkbenchPartSite partSite,
         @NotNull String name,
@@ -101,11 +116,41 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
         @NotNull List<SQLQuery> queries,
         @NotNull SQLResultsConsumer resultsConsumer,
         @Nullable SQLQueryListener listener)
+    {
+        this(partSite, name, executionContext, dataContainer, queries, null, resultsConsumer, listener);
+    }
+
+    /**
+     * Creates script job which reads queries from the stream while executing them.
+     * Stream is closed at the end of job execution.
+     */
+    public SQLQueryJob(
+        @NotNull IWorkbenchPartSite partSite,
+        @NotNull String name,
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull SQLScriptStream queryStream,
+        @NotNull SQLResultsConsumer resultsConsumer,
+        @Nullable SQLQueryListener listener)
+    {
+        this(partSite, name, executionContext, dataContainer, Collections.<SQLQuery>emptyList(), queryStream, resultsConsumer, listener);
+    }
+
+    private SQLQueryJob(
+        @NotNull IWorkbenchPartSite partSite,
+        @NotNull String name,
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull List<SQLQuery> queries,
+        @Nullable SQLScriptStream queryStream,
+        @NotNull SQLResultsConsumer resultsConsumer,
+        @Nullable SQLQueryListener listener)
     {
         super(name, DBeaverIcons.getImageDescriptor(UIIcon.SQL_SCRIPT_EXECUTE), executionContext);
         this.dataContainer = dataContainer;
         this.partSite = partSite;
         this.queries = queries;
+        this.queryStream = queryStream;
         this.resultsConsumer = resultsConsumer;
         this.listener = listener;
 
@@ -113,8 +158,10 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
             // Read config form preference store
             DBPPreferenceStore preferenceStore = getDataSourceContainer().getPreferenceStore();
             this.commitType = SQLScriptCommitType.valueOf(preferenceStore.getString(DBeaverPreferences.SCRIPT_COMMIT_TYPE));
+            this.commitLines = preferenceStore.getInt(DBeaverPreferences.SCRIPT_COMMIT_LINES);
+            this.batchSize = preferenceStore.getInt(DBeaverPreferences.SCRIPT_BATCH_SIZE);
             this.errorHandling = SQLScriptErrorHandling.valueOf(preferenceStore.getString(DBeaverPreferences.SCRIPT_ERROR_HANDLING));
-            this.fetchResultSets = queries.size() == 1 || preferenceStore.getBoolean(DBeaverPreferences.SCRIPT_FETCH_RESULT_SETS);
+            this.fetchResultSets = isSingleQuery() || preferenceStore.getBoolean(DBeaverPreferences.SCRIPT_FETCH_RESULT_SETS);
             this.rsMaxRows = preferenceStore.getInt(DBeaverPreferences.RESULT_SET_MAX_ROWS);
         }
     }
@@ -133,6 +180,19 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
         return lastGoodQuery;
     }
 
+    private boolean isSingleQuery()
+    {
+        return queryStream == null && queries.size() == 1;
+    }
+
+    /**
+     * Script was stopped by user (either canceled or stopped after error)
+     */
+    boolean isScriptStopped()
+    {
+        return scriptStopped;
+    }
+
     public boolean hasLimits()
     {
         return rsOffset >= 0 && rsMaxRows > 0;
@@ -152,7 +212,7 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
         try {
             DBCExecutionContext context = getExecutionContext();
             DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
-            DBCExecutionPurpose purpose = queries.size() > 1 ? DBCExecutionPurpose.USER_SCRIPT : DBCExecutionPurpose.USER;
+            DBCExecutionPurpose purpose = queryStream != null || queries.size() > 1 ? DBCExecutionPurpose.USER_SCRIPT : DBCExecutionPurpose.USER;
             try (DBCSession session = context.openSession(monitor, purpose, "SQL Query")) {
                 // Set transaction settings (only if autocommit is off)
                 QMUtils.getDefaultHandler().handleScriptBegin(session);
@@ -163,7 +223,8 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
                     txnManager.setAutoCommit(monitor, true);
                 }
 
-                monitor.beginTask(this.getName(), queries.size());
+                // Script stream doesn't know its size
+                monitor.beginTask(this.getName(), queryStream == null ? queries.size() : IProgressMonitor.UNKNOWN);
 
                 // Notify job start
                 if (listener != null) {
@@ -175,18 +236,44 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
                 }
 
                 resultSetNumber = 0;
-                for (int queryNum = 0; queryNum < queries.size(); ) {
+                boolean commitEachN = commitType == SQLScriptCommitType.NLINES && txnManager != null && !oldAutoCommit;
+                boolean useBatches = batchSize > 1 && !isSingleQuery() &&
+                    session instanceof JDBCSession && session.getDataSource().getInfo().supportsBatchUpdates();
+                int uncommittedCount = 0;
+                SQLQuery query = readQuery(monitor);
+                while (query != null) {
                     // Execute query
-                    SQLQuery query = queries.get(queryNum);
-
                     fetchResultSetNumber = resultSetNumber;
-                    boolean runNext = executeSingleQuery(session, query, true);
+                    boolean runNext;
+                    int executedCount = 1;
+                    List<SQLQuery> batch = null;
+                    if (useBatches && isBatchQuery(query) && !singleQueries.contains(query)) {
+                        // Batch must not cross commit boundary
+                        batch = readBatch(monitor, query, commitEachN ? Math.min(batchSize, commitLines - uncommittedCount) : batchSize);
+                    }
+                    if (batch != null && batch.size() > 1) {
+                        int failedIndex = executeBatch(session, batch);
+                        if (failedIndex < 0) {
+                            runNext = true;
+                            executedCount = batch.size();
+                        } else {
+                            // Failed query becomes current. All queries before it were executed.
+                            runNext = errorHandling == SQLScriptErrorHandling.IGNORE;
+                            query = batch.get(failedIndex);
+                            if (failedIndex > 0) {
+                                monitor.worked(failedIndex);
+                                uncommittedCount += failedIndex;
+                            }
+                        }
+                    } else {
+                        runNext = executeSingleQuery(session, query, true);
+                    }
                     if (!runNext) {
                         // Ask to continue
                         if (lastError != null) {
                             log.error(lastError);
                         }
-                        boolean isQueue = queryNum < queries.size() - 1;
+                        boolean isQueue = hasMoreQueries(monitor);
                         ExecutionQueueErrorResponse response = ExecutionQueueErrorJob.showError(
                             isQueue ? "SQL script execution" : "SQL query execution",
                             lastError,
@@ -210,16 +297,30 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
                         }
 
                         if (stopScript) {
+                            scriptStopped = true;
                             break;
                         }
                     }
 
                     // Check monitor
                     if (monitor.isCanceled()) {
+                        scriptStopped = true;
                         break;
                     }
-                    monitor.worked(1);
-                    queryNum++;
+                    monitor.worked(executedCount);
+
+                    if (commitEachN) {
+                        uncommittedCount += executedCount;
+                        if (uncommittedCount >= commitLines) {
+                            // Commit each N queries
+                            txnManager.commit(session);
+                            uncommittedCount = 0;
+                        }
+                    }
+                    query = readQuery(monitor);
+                }
+                if (readError != null && lastError == null) {
+                    lastError = readError;
                 }
                 showExecutionResult(session);
                 monitor.done();
@@ -260,6 +361,9 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
                 "Error during SQL job execution: " + ex.getMessage());
         }
         finally {
+            if (queryStream != null) {
+                queryStream.close();
+            }
             // Notify job end
             if (listener != null) {
                 try {
@@ -271,6 +375,277 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
         }
     }
 
+    @Nullable
+    private SQLQuery readQuery(DBRProgressMonitor monitor)
+    {
+        if (!pendingQueries.isEmpty()) {
+            return pendingQueries.pollFirst();
+        }
+        if (queryStream == null) {
+            return queryIndex < queries.size() ? queries.get(queryIndex++) : null;
+        }
+        if (readError != null) {
+            return null;
+        }
+        try {
+            return queryStream.nextQuery(monitor);
+        } catch (DBException e) {
+            // Script can't be read. Stop execution (data will be rolled back)
+            readError = e;
+            UIUtils.showErrorDialog(null, "SQL script execution", "Can't read SQL script", e);
+            return null;
+        }
+    }
+
+    private boolean hasMoreQueries(DBRProgressMonitor monitor)
+    {
+        if (!pendingQueries.isEmpty()) {
+            return true;
+        }
+        if (queryStream == null) {
+            return queryIndex < queries.size();
+        }
+        try {
+            return queryStream.hasNext(monitor);
+        } catch (DBException e) {
+            // Will be reported on the next query read
+            return true;
+        }
+    }
+
+    /**
+     * DML queries may be executed in batches.
+     * Queries with parameters are batched only with the same queries (they use the same prepared statement).
+     */
+    private static boolean isBatchQuery(@NotNull SQLQuery query)
+    {
+        SQLQueryType type = query.getType();
+        return type == SQLQueryType.INSERT || type == SQLQueryType.UPDATE || type == SQLQueryType.DELETE;
+    }
+
+    @Nullable
+    private static String getBatchShape(@NotNull SQLQuery query)
+    {
+        // Parameters are already replaced with ? in query text
+        return CommonUtils.isEmpty(query.getParameters()) ? null : query.getQuery();
+    }
+
+    /**
+     * Reads queries which may be executed in the same batch with the first one
+     */
+    private List<SQLQuery> readBatch(DBRProgressMonitor monitor, SQLQuery firstQuery, int maxSize)
+    {
+        List<SQLQuery> batch = new ArrayList<>();
+        batch.add(firstQuery);
+        String shape = getBatchShape(firstQuery);
+        while (batch.size() < maxSize) {
+            SQLQuery query = readQuery(monitor);
+            if (query == null) {
+                break;
+            }
+            if (!isBatchQuery(query) || singleQueries.contains(query) || !CommonUtils.equalObjects(shape, getBatchShape(query))) {
+                pendingQueries.addFirst(query);
+                break;
+            }
+            batch.add(query);
+        }
+        return batch;
+    }
+
+    /**
+     * Executes queries in a single batch.
+     * Queries after the failed one which were not executed are returned in the queue.
+     * @return index of the failed query or -1 on success
+     */
+    private int executeBatch(@NotNull DBCSession session, @NotNull List<SQLQuery> batch)
+    {
+        lastError = null;
+
+        final DBCExecutionContext executionContext = getExecutionContext();
+        final SQLQuery firstQuery = batch.get(0);
+        final boolean prepared = getBatchShape(firstQuery) != null;
+        final SQLQueryResult batchResult = new SQLQueryResult(firstQuery);
+        SQLQueryResult failedResult = null;
+        // Other queries reported as failed by driver which continued batch after the first error
+        List<SQLQueryResult> moreFailedResults = null;
+        long startTime = System.currentTimeMillis();
+
+        if (listener != null) {
+            try {
+                listener.onStartQuery(firstQuery);
+            } catch (Exception e) {
+                log.error(e);
+            }
+        }
+
+        int batchCount = batch.size();
+        int failedIndex = -1, resumeIndex = batchCount;
+        boolean executed = false;
+        try {
+            closeStatement();
+            invalidateConnection(session);
+
+            if (prepared) {
+                for (int i = 0; i < batch.size(); i++) {
+                    if (prepareStatementParameters(batch.get(i)) == null) {
+                        // Parameters binding was canceled. Execute previous queries only.
+                        batchCount = i;
+                        failedIndex = i;
+                        resumeIndex = i + 1;
+                        break;
+                    }
+                }
+            }
+            if (batchCount > 0) {
+                statistics.setQueryText(batch.get(batchCount - 1).getOriginalQuery());
+
+                startTime = System.currentTimeMillis();
+                DBCExecutionSource source = new AbstractExecutionSource(dataContainer, executionContext, partSite.getPart(), firstQuery);
+                curStatement = DBUtils.prepareStatement(
+                    source,
+                    session,
+                    prepared ? DBCStatementType.QUERY : DBCStatementType.SCRIPT,
+                    firstQuery,
+                    -1, -1);
+                try {
+                    for (int i = 0; i < batchCount; i++) {
+                        if (prepared) {
+                            bindStatementParameters(session, batch.get(i));
+                            curStatement.addToBatch();
+                        } else if (curStatement instanceof JDBCStatement) {
+                            ((JDBCStatement) curStatement).addBatch(batch.get(i).getQuery());
+                        } else {
+                            throw new DBCException("Statement batches are not supported");
+                        }
+                    }
+                    int[] updateCounts;
+                    executed = true;
+                    try {
+                        updateCounts = curStatement.executeStatementBatch();
+                    } catch (DBCException e) {
+                        // Find failed query. Drivers either stop on the first error or execute all queries
+                        // and mark failed ones.
+                        updateCounts = null;
+                        for (Throwable ex = e; ex != null; ex = ex.getCause()) {
+                            if (ex instanceof BatchUpdateException) {
+                                updateCounts = ((BatchUpdateException) ex).getUpdateCounts();
+                                break;
+                            }
+                        }
+                        if (updateCounts == null) {
+                            // Unknown state. First query is reported as failed,
+                            // the rest is executed again one by one to find out their results.
+                            failedIndex = 0;
+                            resumeIndex = 1;
+                            for (int i = 1; i < batchCount; i++) {
+                                singleQueries.add(batch.get(i));
+                            }
+                        } else {
+                            // Driver stops on the first error (only previous queries have counts)
+                            // or executes all queries and marks failed ones
+                            int firstFailed = -1;
+                            for (int i = 0; i < updateCounts.length && i < batchCount; i++) {
+                                if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                                    if (firstFailed < 0) {
+                                        firstFailed = i;
+                                    } else {
+                                        if (moreFailedResults == null) {
+                                            moreFailedResults = new ArrayList<>();
+                                        }
+                                        SQLQueryResult queryResult = new SQLQueryResult(batch.get(i));
+                                        queryResult.setError(e);
+                                        moreFailedResults.add(queryResult);
+                                    }
+                                }
+                            }
+                            failedIndex = firstFailed >= 0 ? firstFailed : Math.min(updateCounts.length, batchCount - 1);
+                            resumeIndex = Math.max(failedIndex + 1, updateCounts.length);
+                            if (resumeIndex > failedIndex + 1) {
+                                log.warn("Driver continued batch after failed query " + (failedIndex + 1) + ": " +
+                                    (resumeIndex - failedIndex - 1) + " following queries were already executed");
+                            }
+                        }
+                        failedResult = failedIndex == 0 ? batchResult : new SQLQueryResult(batch.get(failedIndex));
+                        failedResult.setError(e);
+                        lastError = e;
+                    }
+                    statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+                    if (updateCounts != null) {
+                        long updateCount = 0;
+                        for (int i = 0; i < updateCounts.length; i++) {
+                            if (updateCounts[i] != Statement.EXECUTE_FAILED) {
+                                statistics.addStatementsCount();
+                            }
+                            if (updateCounts[i] > 0) {
+                                updateCount += updateCounts[i];
+                            }
+                        }
+                        batchResult.setUpdateCount(updateCount);
+                        statistics.addRowsUpdated(updateCount);
+                    }
+                } finally {
+                    closeStatement();
+                    for (int i = 0; i < batchCount; i++) {
+                        releaseStatementParameters(batch.get(i));
+                    }
+                }
+            }
+        }
+        catch (Throwable ex) {
+            if (!(ex instanceof DBException)) {
+                log.error("Unexpected error while processing SQL", ex);
+            }
+            failedIndex = 0;
+            if (!executed) {
+                resumeIndex = 1;
+            }
+            failedResult = batchResult;
+            failedResult.setError(ex);
+            lastError = ex;
+        }
+        finally {
+            batchResult.setQueryTime(System.currentTimeMillis() - startTime);
+        }
+        // Return not executed queries in the queue
+        for (int i = batch.size() - 1; i >= resumeIndex; i--) {
+            pendingQueries.addFirst(batch.get(i));
+        }
+
+        if (listener != null) {
+            try {
+                listener.onEndQuery(batchResult);
+                if (failedResult != null && failedResult != batchResult) {
+                    // Report error for the failed query itself
+                    listener.onStartQuery(failedResult.getStatement());
+                    listener.onEndQuery(failedResult);
+                }
+                if (moreFailedResults != null) {
+                    for (SQLQueryResult queryResult : moreFailedResults) {
+                        listener.onStartQuery(queryResult.getStatement());
+                        listener.onEndQuery(queryResult);
+                    }
+                }
+            } catch (Exception e) {
+                log.error(e);
+            }
+        }
+        if (failedIndex < 0) {
+            lastGoodQuery = batch.get(batch.size() - 1);
+        } else if (failedIndex > 0) {
+            lastGoodQuery = batch.get(failedIndex - 1);
+        }
+        return failedIndex;
+    }
+
+    private void invalidateConnection(@NotNull DBCSession session) throws DBException
+    {
+        DBCExecutionContext executionContext = getExecutionContext();
+        if (!connectionInvalidated && executionContext.getDataSource().getContainer().getPreferenceStore().getBoolean(DBeaverPreferences.STATEMENT_INVALIDATE_BEFORE_EXECUTE)) {
+            executionContext.invalidateContext(session.getProgressMonitor());
+            connectionInvalidated = true;
+        }
+    }
+
     private boolean executeSingleQuery(@NotNull DBCSession session, @NotNull SQLQuery sqlQuery, boolean fireEvents)
     {
         lastError = null;
@@ -299,10 +674,7 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
 
             // Check and invalidate connection
             DBPDataSource dataSource = executionContext.getDataSource();
-            if (!connectionInvalidated && dataSource.getContainer().getPreferenceStore().getBoolean(DBeaverPreferences.STATEMENT_INVALIDATE_BEFORE_EXECUTE)) {
-                executionContext.invalidateContext(session.getProgressMonitor());
-                connectionInvalidated = true;
-            }
+            invalidateConnection(session);
 
             try {
                 // Modify query (filters + parameters)
@@ -433,7 +805,7 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
     private void showExecutionResult(DBCSession session) throws DBCException {
         if (statistics.getStatementsCount() > 1 || resultSetNumber == 0) {
             SQLQuery query = new SQLQuery("", -1, -1);
-            if (queries.size() == 1) {
+            if (isSingleQuery()) {
                 query.setQuery(queries.get(0).getQuery());
             }
             query.setData(STATS_RESULTS); // It will set tab name to "Stats"
@@ -655,7 +1027,7 @@ public class SQLQueryJob extends DataSourceJob implements Closeable
     private boolean keepStatementOpen()
     {
         // Only in single query mode and if pref option set to true
-        return queries.size() == 1 &&
+        return isSingleQuery() &&
             getDataSourceContainer().getPreferenceStore().getBoolean(DBeaverPreferences.KEEP_STATEMENT_OPEN);
     }
 
@@ -0,0 +1,107 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.runtime.sql;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Lazy source of script queries.
+ * Queries are read by batches when they are needed. Only a bounded look-ahead buffer of parsed queries is kept
+ * in memory, so the whole script is never materialized.
+ */
+public abstract class SQLScriptStream implements Closeable
+{
+    private final int lookAhead;
+    private final Deque<SQLQuery> buffer = new ArrayDeque<>();
+    private boolean finished;
+    private int readCount;
+
+    protected SQLScriptStream(int lookAhead)
+    {
+        this.lookAhead = Math.max(lookAhead, 1);
+    }
+
+    public int getLookAhead()
+    {
+        return lookAhead;
+    }
+
+    /**
+     * Number of queries returned by this stream so far
+     */
+    public int getReadCount()
+    {
+        return readCount;
+    }
+
+    public boolean hasNext(@NotNull DBRProgressMonitor monitor) throws DBException
+    {
+        fillBuffer(monitor);
+        return !buffer.isEmpty();
+    }
+
+    /**
+     * Returns next script query or null if end of script was reached
+     */
+    @Nullable
+    public SQLQuery nextQuery(@NotNull DBRProgressMonitor monitor) throws DBException
+    {
+        fillBuffer(monitor);
+        SQLQuery query = buffer.pollFirst();
+        if (query != null) {
+            readCount++;
+        }
+        return query;
+    }
+
+    private void fillBuffer(DBRProgressMonitor monitor) throws DBException
+    {
+        // Read the next batch only when the previous one is over
+        List<SQLQuery> queries = new ArrayList<>();
+        while (buffer.isEmpty() && !finished && !monitor.isCanceled()) {
+            finished = !readQueries(monitor, queries, lookAhead);
+            buffer.addAll(queries);
+            queries.clear();
+        }
+    }
+
+    /**
+     * Reads next queries.
+     * @param queries   target list
+     * @param maxCount  maximum number of queries to read
+     * @return false if end of script was reached
+     */
+    protected abstract boolean readQueries(@NotNull DBRProgressMonitor monitor, @NotNull List<SQLQuery> queries, int maxCount)
+        throws DBException;
+
+    @Override
+    public void close()
+    {
+    }
+
+}
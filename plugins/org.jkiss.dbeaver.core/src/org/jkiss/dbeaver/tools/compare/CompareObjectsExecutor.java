@@ -18,6 +18,10 @@
 package org.jkiss.dbeaver.tools.compare;
 
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSource;
@@ -26,18 +30,32 @@ import org.jkiss.dbeaver.model.DBPSystemObject;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.runtime.properties.*;
+import org.jkiss.dbeaver.utils.GeneralUtils;
 
+import java.io.IOException;
 import java.util.*;
-
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares navigator nodes trees.
+ * Metadata of compared objects is read in parallel (one job per compared object), so objects from different
+ * connections are loaded simultaneously. Containers structure is cached before reading their children.
+ * If report renderer is specified then report is rendered by subtrees of compared objects' children,
+ * as soon as each subtree is compared.
+ */
 public class CompareObjectsExecutor {
 
     static final Log log = Log.getLog(CompareObjectsExecutor.class);
 
+    private static final long WAIT_TIMEOUT = 100;
+
     private final Object PROPS_LOCK = new Object();
 
     private CompareObjectsSettings settings;
@@ -48,12 +66,16 @@ public class CompareObjectsExecutor {
     private final DBRProgressListener initializeFinisher;
     private final ILazyPropertyLoadListener lazyPropertyLoadListener;
 
-    private volatile int initializedCount = 0;
+    private volatile CountDownLatch initializeLatch;
     private volatile IStatus initializeError;
     private final Map<Object, Map<DBPPropertyDescriptor, Object>> propertyValues = new IdentityHashMap<>();
 
+    // Lines which were not passed to the renderer yet
     private final List<CompareReportLine> reportLines = new ArrayList<>();
+    private final Deque<CompareReportLine> lineStack = new ArrayDeque<>();
+    private CompareReportRenderer reportRenderer;
     private int reportDepth = 0;
+    private int comparedObjects = 0;
     private CompareReportLine lastLine;
 
     private void reportObjectsCompareBegin(List<DBNDatabaseNode> objects)
@@ -78,6 +100,8 @@ public class CompareObjectsExecutor {
             }
         }
         reportLines.add(lastLine);
+        lineStack.push(lastLine);
+        comparedObjects++;
     }
 
     private void reportPropertyCompare(ObjectPropertyDescriptor property)
@@ -110,7 +134,31 @@ public class CompareObjectsExecutor {
 
     private void reportObjectsCompareEnd()
     {
+        CompareReportLine line = lineStack.pop();
         reportDepth--;
+        if (settings.isShowOnlyDifferences() && line.hasDifference && !lineStack.isEmpty()) {
+            // Mark parent. Renderer does the same but it may get parent line in one of previous portions.
+            lineStack.peek().hasDifference = true;
+        }
+    }
+
+    private void renderReportLines(DBRProgressMonitor monitor, CompareReportLine line) throws DBException
+    {
+        if (reportRenderer != null && reportDepth <= 1) {
+            // Subtree of compared objects' child (or the whole tree) is finished
+            if (reportDepth == 1 && settings.isShowOnlyDifferences() && !line.hasDifference) {
+                // Nothing to show in this subtree
+                int lineIndex = reportLines.indexOf(line);
+                reportLines.subList(lineIndex, reportLines.size()).clear();
+            } else if (!reportLines.isEmpty()) {
+                try {
+                    reportRenderer.renderLines(monitor, reportLines);
+                } catch (IOException e) {
+                    throw new DBException("Error rendering compare report", e);
+                }
+                reportLines.clear();
+            }
+        }
     }
 
     public CompareObjectsExecutor(CompareObjectsSettings settings)
@@ -124,8 +172,10 @@ public class CompareObjectsExecutor {
             {
                 if (!status.isOK()) {
                     initializeError = status;
-                } else {
-                    initializedCount++;
+                }
+                CountDownLatch latch = initializeLatch;
+                if (latch != null) {
+                    latch.countDown();
                 }
             }
         };
@@ -156,18 +206,45 @@ public class CompareObjectsExecutor {
 
     public CompareReport compareObjects(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
         throws DBException, InterruptedException
+    {
+        return compareObjects(monitor, nodes, null);
+    }
+
+    /**
+     * Compares nodes.
+     * @param renderer report renderer. If specified then all report lines are passed to the renderer during compare
+     *                 and returned report contains no lines.
+     */
+    public CompareReport compareObjects(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, @Nullable CompareReportRenderer renderer)
+        throws DBException, InterruptedException
     {
         reportLines.clear();
+        lineStack.clear();
+        reportRenderer = renderer;
+        comparedObjects = 0;
         lastLine = null;
 
-        compareNodes(monitor, nodes);
-        return new CompareReport(rootNodes, reportLines);
+        try {
+            compareNodes(monitor, nodes);
+        } finally {
+            reportRenderer = null;
+        }
+        return new CompareReport(rootNodes, new ArrayList<>(reportLines));
+    }
+
+    /**
+     * Number of objects compared by the last {@link #compareObjects} call
+     */
+    public int getComparedObjects()
+    {
+        return comparedObjects;
     }
 
     private void compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
         throws DBException, InterruptedException
     {
         reportObjectsCompareBegin(nodes);
+        CompareReportLine line = lastLine;
 
         try {
             if (nodes.size() > 1) {
@@ -181,12 +258,13 @@ public class CompareObjectsExecutor {
         } finally {
             reportObjectsCompareEnd();
         }
+        renderReportLines(monitor, line);
     }
 
     private void compareProperties(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
     {
         // Clear compare singletons
-        this.initializedCount = 0;
+        this.initializeLatch = new CountDownLatch(nodes.size());
         this.initializeError = null;
         this.propertyValues.clear();
 
@@ -200,22 +278,21 @@ public class CompareObjectsExecutor {
                 node.initializeNode(null, initializeFinisher);
                 monitor.worked(1);
             }
-            while (initializedCount != nodes.size()) {
-                if (initializeError != null) {
-                    throw new DBException(initializeError.getMessage());
-                }
-                Thread.sleep(100);
+            while (!initializeLatch.await(WAIT_TIMEOUT, TimeUnit.MILLISECONDS)) {
                 if (monitor.isCanceled()) {
                     throw new InterruptedException();
                 }
             }
+            if (initializeError != null) {
+                throw new DBException(initializeError.getMessage());
+            }
         }
 
         monitor.subTask("Compare " + title.toString());
         boolean compareLazyProperties = false;
 
         DBNDatabaseNode firstNode = nodes.get(0);
-        List<ObjectPropertyDescriptor> properties = ObjectPropertyDescriptor.extractAnnotations(
+        final List<ObjectPropertyDescriptor> properties = ObjectPropertyDescriptor.extractAnnotations(
             null,
             firstNode.getObject().getClass(),
             getDataSourceFilter(firstNode));
@@ -228,25 +305,39 @@ public class CompareObjectsExecutor {
         compareLazyProperties = compareLazyProperties && settings.isCompareLazyProperties();
 
         // Load all properties
+        final List<Map<DBPPropertyDescriptor, Object>> allProperties = new ArrayList<>(nodes.size());
         for (DBNDatabaseNode node : nodes) {
-            if (monitor.isCanceled()) {
-                throw new InterruptedException();
-            }
             DBSObject databaseObject = node.getObject();
             Map<DBPPropertyDescriptor, Object> nodeProperties = propertyValues.get(databaseObject);
             if (nodeProperties == null) {
                 nodeProperties = new IdentityHashMap<>();
                 propertyValues.put(databaseObject, nodeProperties);
             }
-            PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties);
-            for (ObjectPropertyDescriptor prop : properties) {
-                Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop);
-                synchronized (PROPS_LOCK) {
-                    nodeProperties.put(prop, propertyValue);
+            allProperties.add(nodeProperties);
+        }
+        final boolean readLazyProperties = compareLazyProperties;
+        NodeTask readPropertiesTask = new NodeTask() {
+            @Override
+            public void run(DBRProgressMonitor monitor, DBNDatabaseNode node, int index) throws Exception
+            {
+                DBSObject databaseObject = node.getObject();
+                Map<DBPPropertyDescriptor, Object> nodeProperties = allProperties.get(index);
+                PropertyCollector propertySource = new PropertyCollector(databaseObject, readLazyProperties);
+                for (ObjectPropertyDescriptor prop : properties) {
+                    Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop);
+                    synchronized (PROPS_LOCK) {
+                        nodeProperties.put(prop, propertyValue);
+                    }
                 }
             }
-            monitor.worked(1);
+        };
+        if (compareLazyProperties) {
+            // Lazy properties are read from database
+            runForEachNode(monitor, "Read properties", nodes, readPropertiesTask);
+        } else {
+            runForEachNode(monitor, nodes, readPropertiesTask);
         }
+        monitor.worked(nodes.size());
 
         // Compare properties
         for (ObjectPropertyDescriptor prop : properties) {
@@ -258,25 +349,40 @@ public class CompareObjectsExecutor {
     {
         // Compare children
         int nodeCount = nodes.size();
-        List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
-        for (int i = 0; i < nodeCount; i++) {
-            DBNDatabaseNode node = nodes.get(i);
-            // Cache structure if possible
-            if (node.getObject() instanceof DBSObjectContainer) {
-                ((DBSObjectContainer) node.getObject()).cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
-            }
-            try {
-                DBNDatabaseNode[] children = node.getChildren(monitor);
-                allChildren.add(children);
-            } catch (Exception e) {
-                log.warn("Error reading child nodes for compare", e);
-                allChildren.add(null);
+        final DBNDatabaseNode[][] allChildren = new DBNDatabaseNode[nodeCount][];
+        NodeTask readChildrenTask = new NodeTask() {
+            @Override
+            public void run(DBRProgressMonitor monitor, DBNDatabaseNode node, int index) throws Exception
+            {
+                // Cache structure if possible
+                if (node.getObject() instanceof DBSObjectContainer) {
+                    ((DBSObjectContainer) node.getObject()).cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
+                }
+                try {
+                    allChildren[index] = node.getChildren(monitor);
+                } catch (Exception e) {
+                    log.warn("Error reading child nodes for compare", e);
+                }
             }
+        };
+        if (nodes.get(0).getObject() instanceof DBSObjectContainer) {
+            // Structure of containers is read in bulk - do it for all compared containers at once
+            runForEachNode(monitor, "Read structure", nodes, readChildrenTask);
+        } else {
+            runForEachNode(monitor, nodes, readChildrenTask);
         }
 
+        // Child node indexes by name
+        List<Map<String, Integer>> childIndexMaps = new ArrayList<>(nodeCount);
         Set<String> allChildNames = new LinkedHashSet<>();
         for (DBNDatabaseNode[] childList : allChildren) {
+            Map<String, Integer> childIndexMap = new HashMap<>();
+            childIndexMaps.add(childIndexMap);
             if (childList == null) continue;
+            for (int k = childList.length - 1; k >= 0; k--) {
+                // Reverse order - first node with the same name wins
+                childIndexMap.put(childList[k].getNodeName(), k);
+            }
             for (DBNDatabaseNode child : childList) {
                 DBXTreeNode meta = child.getMeta();
                 if (meta.isVirtual()) {
@@ -294,16 +400,8 @@ public class CompareObjectsExecutor {
         for (String childName : allChildNames) {
             int[] childIndexes = new int[nodeCount];
             for (int i = 0; i < nodeCount; i++) {
-                childIndexes[i] = -1;
-                DBNDatabaseNode[] childList = allChildren.get(i);
-                if (childList == null) continue;
-                for (int k = 0; k < childList.length; k++) {
-                    DBNDatabaseNode child = childList[k];
-                    if (child.getNodeName().equals(childName)) {
-                        childIndexes[i] = k;
-                        break;
-                    }
-                }
+                Integer childIndex = childIndexMaps.get(i).get(childName);
+                childIndexes[i] = childIndex == null ? -1 : childIndex;
             }
 
             List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
@@ -317,7 +415,7 @@ public class CompareObjectsExecutor {
                             break;
                         }
                     }
-                    final DBNDatabaseNode[] childList = allChildren.get(i);
+                    final DBNDatabaseNode[] childList = allChildren[i];
                     if (childList != null) {
                         nodesToCompare.add(childList[childIndexes[i]]);
                     }
@@ -328,6 +426,89 @@ public class CompareObjectsExecutor {
         }
     }
 
+    /**
+     * Runs task for each node in current thread
+     */
+    private void runForEachNode(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, NodeTask task)
+        throws DBException, InterruptedException
+    {
+        for (int i = 0; i < nodes.size(); i++) {
+            if (monitor.isCanceled()) {
+                throw new InterruptedException();
+            }
+            try {
+                task.run(monitor, nodes.get(i), i);
+            } catch (DBException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new DBException("Error reading " + nodes.get(i).getNodeFullName(), e);
+            }
+        }
+    }
+
+    /**
+     * Runs task for each node in a separate job and waits until all of them are finished.
+     */
+    private void runForEachNode(DBRProgressMonitor monitor, String taskName, final List<DBNDatabaseNode> nodes, final NodeTask task)
+        throws DBException, InterruptedException
+    {
+        if (nodes.size() < 2) {
+            runForEachNode(monitor, nodes, task);
+            return;
+        }
+        final CountDownLatch latch = new CountDownLatch(nodes.size());
+        final IStatus[] errors = new IStatus[1];
+        List<AbstractJob> jobs = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            final DBNDatabaseNode node = nodes.get(i);
+            final int index = i;
+            AbstractJob job = new AbstractJob(taskName + " of " + node.getNodeFullName()) {
+                @Override
+                protected IStatus run(DBRProgressMonitor monitor)
+                {
+                    try {
+                        task.run(monitor, node, index);
+                    } catch (Throwable e) {
+                        return GeneralUtils.makeExceptionStatus(e);
+                    }
+                    return Status.OK_STATUS;
+                }
+            };
+            job.setSystem(true);
+            job.addJobChangeListener(new JobChangeAdapter() {
+                @Override
+                public void done(IJobChangeEvent event)
+                {
+                    if (!event.getResult().isOK()) {
+                        synchronized (errors) {
+                            errors[0] = event.getResult();
+                        }
+                    }
+                    latch.countDown();
+                }
+            });
+            jobs.add(job);
+        }
+        for (AbstractJob job : jobs) {
+            job.schedule();
+        }
+        while (!latch.await(WAIT_TIMEOUT, TimeUnit.MILLISECONDS)) {
+            if (monitor.isCanceled()) {
+                for (AbstractJob job : jobs) {
+                    job.cancel();
+                }
+                throw new InterruptedException();
+            }
+        }
+        synchronized (errors) {
+            if (errors[0] != null) {
+                if (errors[0].getSeverity() == IStatus.CANCEL) {
+                    throw new InterruptedException();
+                }
+                throw new DBException(errors[0].getMessage(), errors[0].getException());
+            }
+        }
+    }
 
     private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
     {
@@ -343,4 +524,8 @@ public class CompareObjectsExecutor {
         return filter;
     }
 
+    private interface NodeTask {
+        void run(DBRProgressMonitor monitor, DBNDatabaseNode node, int index) throws Exception;
+    }
+
 }
\ No newline at end of file
@@ -103,9 +103,7 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
                 @Override
                 public void run(DBRProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
                     try {
-                        CompareReport report = generateReport(monitor, executor);
-
-                        renderReport(monitor, report);
+                        generateReport(monitor, executor);
                     } catch (DBException e) {
                         throw new InvocationTargetException(e);
                     }
@@ -131,16 +129,12 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
         return true;
     }
 
-    private CompareReport generateReport(DBRProgressMonitor monitor, CompareObjectsExecutor executor) throws DBException, InterruptedException
-    {
-        monitor.beginTask("Compare objects", 1000);
-        CompareReport report = executor.compareObjects(monitor, getSettings().getNodes());
-        monitor.done();
-        return report;
-    }
-
-    private void renderReport(DBRProgressMonitor monitor, CompareReport report)
+    /**
+     * Compares objects and renders report. Report lines are written to the file while objects are compared.
+     */
+    private void generateReport(DBRProgressMonitor monitor, CompareObjectsExecutor executor) throws DBException, InterruptedException
     {
+        List<DBNDatabaseNode> nodes = getSettings().getNodes();
         try {
             File reportFile;
             switch (settings.getOutputType()) {
@@ -150,7 +144,7 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
                 default:
                 {
                     StringBuilder fileName = new StringBuilder("compare");//"compare-report.html";
-                    for (DBNDatabaseNode node : report.getNodes()) {
+                    for (DBNDatabaseNode node : nodes) {
                         fileName.append("-").append(CommonUtils.escapeIdentifier(node.getName()));
                     }
                     fileName.append("-report.html");
@@ -162,9 +156,11 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
             reportFile.deleteOnExit();
             OutputStream outputStream = new FileOutputStream(reportFile);
             try {
-                monitor.beginTask("Render report", report.getReportLines().size());
+                monitor.beginTask("Compare objects", 1000);
                 CompareReportRenderer reportRenderer = new CompareReportRenderer();
-                reportRenderer.renderReport(monitor, report, getSettings(), outputStream);
+                reportRenderer.beginReport(nodes, getSettings(), outputStream);
+                executor.compareObjects(monitor, nodes, reportRenderer);
+                reportRenderer.endReport(executor.getComparedObjects());
                 monitor.done();
             } finally {
                 ContentUtils.close(outputStream);
@@ -27,15 +27,41 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.List;
 
+/**
+ * Renders compare report in HTML.
+ * Report may be rendered at once ({@link #renderReport}) or by portions while objects are compared
+ * ({@link #beginReport}, {@link #renderLines}, {@link #endReport}). Each portion must contain complete subtrees.
+ */
 public class CompareReportRenderer {
 
-    private CompareReport report;
+    // Report depth is unknown when it is rendered by portions
+    private static final int MAX_STYLE_LEVEL = 20;
+
+    private List<DBNDatabaseNode> nodes;
     private XMLBuilder xml;
     private CompareObjectsSettings settings;
 
     public void renderReport(DBRProgressMonitor monitor, CompareReport report, CompareObjectsSettings settings, OutputStream outputStream) throws IOException
     {
-        this.report = report;
+        int maxLevel = 0;
+        for (CompareReportLine line : report.getReportLines()) {
+            if (line.depth > maxLevel) {
+                maxLevel = line.depth;
+            }
+        }
+        beginReport(report.getNodes(), settings, outputStream, maxLevel);
+        renderLines(monitor, report.getReportLines());
+        endReport(report.getReportLines().size());
+    }
+
+    public void beginReport(List<DBNDatabaseNode> nodes, CompareObjectsSettings settings, OutputStream outputStream) throws IOException
+    {
+        beginReport(nodes, settings, outputStream, MAX_STYLE_LEVEL);
+    }
+
+    private void beginReport(List<DBNDatabaseNode> nodes, CompareObjectsSettings settings, OutputStream outputStream, int maxLevel) throws IOException
+    {
+        this.nodes = nodes;
         this.settings = settings;
         this.xml = new XMLBuilder(outputStream, "utf-8", true);
         this.xml.setButify(true);
@@ -44,28 +70,6 @@ public class CompareReportRenderer {
             "     PUBLIC \"-//W3C//DTD XHTML 1.0 Strict//EN\"\n" +
             "    \"http://www.w3.org/TR/xhtml1/DTD/xhtml1-strict.dtd\">");
 
-        if (settings.isShowOnlyDifferences()) {
-            // Mark differences on tree nodes
-            List<CompareReportLine> reportLines = report.getReportLines();
-            int reportLinesSize = reportLines.size();
-            for (int i = 0; i < reportLinesSize; i++) {
-                if (reportLines.get(i).hasDifference) {
-                    int depth = reportLines.get(i).depth;
-                    for (int k = i - 1; k >= 0; k--) {
-                        CompareReportLine prevNode = reportLines.get(k);
-                        if (prevNode.depth < depth) {
-                            if (prevNode.hasDifference) {
-                                // Already set
-                                break;
-                            }
-                            depth = prevNode.depth;
-                            prevNode.hasDifference = true;
-                        }
-                    }
-                }
-            }
-        }
-
         xml.startElement("html");
         xml.startElement("head");
         xml.startElement("meta");
@@ -78,14 +82,37 @@ public class CompareReportRenderer {
         xml.endElement();
         xml.startElement("body");
 
-        renderHeader();
+        renderHeader(maxLevel);
 
         xml.startElement("table");
         xml.addAttribute("width", "100%");
         //xml.addAttribute("border", "1");
         xml.addAttribute("cellspacing", 0);
         xml.addAttribute("cellpadding", 0);
-        renderBody(monitor);
+
+        // Table head
+        xml.startElement("tr");
+        xml.startElement("th");
+        xml.addText("Structure");
+        xml.endElement();
+        for (DBNDatabaseNode node : nodes) {
+            xml.startElement("th");
+            xml.addText(node.getNodeFullName());
+            xml.endElement();
+        }
+        xml.endElement();
+    }
+
+    public void endReport(int objectCount) throws IOException
+    {
+        // Table footer
+        xml.startElement("tr");
+        xml.addAttribute("class", "object");
+        xml.startElement("td");
+        xml.addAttribute("colspan", nodes.size() + 1);
+        xml.addText("" + objectCount + " objects compared");
+        xml.endElement();
+        xml.endElement();
 
         xml.endElement();
         xml.endElement();
@@ -94,14 +121,34 @@ public class CompareReportRenderer {
         this.xml.flush();
     }
 
-    private void renderHeader() throws IOException
+    public void renderLines(DBRProgressMonitor monitor, List<CompareReportLine> reportLines) throws IOException
     {
-        int maxLevel = 0;
-        for (CompareReportLine line : report.getReportLines()) {
-            if (line.depth > maxLevel) {
-                maxLevel = line.depth;
+        if (settings.isShowOnlyDifferences()) {
+            // Mark differences on tree nodes
+            int reportLinesSize = reportLines.size();
+            for (int i = 0; i < reportLinesSize; i++) {
+                if (reportLines.get(i).hasDifference) {
+                    int depth = reportLines.get(i).depth;
+                    for (int k = i - 1; k >= 0; k--) {
+                        CompareReportLine prevNode = reportLines.get(k);
+                        if (prevNode.depth < depth) {
+                            if (prevNode.hasDifference) {
+                                // Already set
+                                break;
+                            }
+                            depth = prevNode.depth;
+                            prevNode.hasDifference = true;
+                        }
+                    }
+                }
             }
         }
+
+        renderBody(monitor, reportLines);
+    }
+
+    private void renderHeader(int maxLevel) throws IOException
+    {
         maxLevel++;
         xml.startElement("style");
         StringBuilder styles = new StringBuilder();
@@ -119,24 +166,11 @@ public class CompareReportRenderer {
         xml.endElement();
     }
 
-    private void renderBody(DBRProgressMonitor monitor) throws IOException
+    private void renderBody(DBRProgressMonitor monitor, List<CompareReportLine> reportLines) throws IOException
     {
-        // Table head
-        xml.startElement("tr");
-        xml.startElement("th");
-        xml.addText("Structure");
-        xml.endElement();
-        for (DBNDatabaseNode node : report.getNodes()) {
-            xml.startElement("th");
-            xml.addText(node.getNodeFullName());
-            xml.endElement();
-        }
-        xml.endElement();
-
         // Table body
         boolean showOnlyDifferences = settings.isShowOnlyDifferences();
-        int objectCount = report.getNodes().size();
-        List<CompareReportLine> reportLines = report.getReportLines();
+        int objectCount = nodes.size();
         int reportLinesSize = reportLines.size();
         for (int i = 0; i < reportLinesSize; i++) {
             monitor.worked(1);
@@ -229,15 +263,5 @@ public class CompareReportRenderer {
                 }
             }
         }
-
-        // Table footer
-        xml.startElement("tr");
-        xml.addAttribute("class", "object");
-        xml.startElement("td");
-        xml.addAttribute("colspan", report.getNodes().size() + 1);
-        xml.addText("" + reportLines.size() + " objects compared");
-        xml.endElement();
-        xml.endElement();
-
     }
 }
\ No newline at end of file
@@ -0,0 +1,602 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.osgi.util.NLS;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.core.CoreMessages;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFormatterProfile;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.ProxyProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Data transfer pipeline.
+ * Decouples producer from consumer: rows fetched by producer are materialized into a bounded ring buffer
+ * and passed to the consumer by a separate writer job. Thus source reads overlap with target writes.
+ * Producer waits while the buffer is full (back pressure).
+ * Receiver methods must be called from a single producer thread. Consumer is invoked only by the writer.
+ */
+public class DataTransferPipeline implements IDataTransferConsumer<IDataTransferSettings, IDataTransferProcessor> {
+
+    private static final Log log = Log.getLog(DataTransferPipeline.class);
+
+    public static final int DEFAULT_BUFFER_SIZE = 1000;
+    public static final int MAX_BUFFER_SIZE = 100000;
+
+    private static final long WAIT_TIMEOUT = 200;
+    private static final long ABORT_TIMEOUT = 10000;
+
+    private static final byte SLOT_ROW = 0;
+    private static final byte SLOT_FETCH_START = 1;
+    private static final byte SLOT_FETCH_END = 2;
+    private static final byte SLOT_CLOSE = 3;
+    private static final byte SLOT_FINISH = 4;
+
+    private final IDataTransferConsumer consumer;
+    private final int capacity;
+
+    // Ring buffer. Row value arrays are allocated once and reused.
+    private final byte[] slotTypes;
+    private final Object[][] slotValues;
+    private final FetchStartInfo[] slotFetchInfo;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    // Guarded by lock
+    private int head;
+    private int count;
+    private long rowsWritten;
+    private int peakCount;
+    private long producerWaitTime;
+    private long writerWaitTime;
+
+    // Producer state
+    private int tail;
+    private long rowsRead;
+    private long startTime;
+    private List<DBCAttributeMetaData> attributes;
+    private DBDValueHandler[] valueHandlers;
+
+    private WriterJob writer;
+    private final CountDownLatch writerDone = new CountDownLatch(1);
+    private volatile Throwable writerError;
+    private volatile boolean aborted;
+
+    public DataTransferPipeline(IDataTransferConsumer consumer, int capacity)
+    {
+        this.consumer = consumer;
+        this.capacity = Math.max(1, Math.min(capacity, MAX_BUFFER_SIZE));
+        this.slotTypes = new byte[this.capacity];
+        this.slotValues = new Object[this.capacity][];
+        this.slotFetchInfo = new FetchStartInfo[this.capacity];
+    }
+
+    public IDataTransferConsumer getConsumer()
+    {
+        return consumer;
+    }
+
+    @Override
+    public void initTransfer(DBSObject sourceObject, IDataTransferSettings settings, IDataTransferProcessor processor, Map<Object, Object> processorProperties)
+    {
+        consumer.initTransfer(sourceObject, settings, processor, processorProperties);
+    }
+
+    @Override
+    public void startTransfer(DBRProgressMonitor monitor) throws DBException
+    {
+        consumer.startTransfer(monitor);
+    }
+
+    @Override
+    public void finishTransfer(DBRProgressMonitor monitor, boolean last)
+    {
+        consumer.finishTransfer(monitor, last);
+    }
+
+    @Override
+    public String getTargetName()
+    {
+        return consumer.getTargetName();
+    }
+
+    @Override
+    public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException
+    {
+        if (writer == null) {
+            startTime = System.currentTimeMillis();
+            writer = new WriterJob(session.getProgressMonitor());
+            writer.schedule();
+        }
+        attributes = resultSet.getMeta().getAttributes();
+        valueHandlers = new DBDValueHandler[attributes.size()];
+        for (int i = 0; i < attributes.size(); i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes.get(i));
+        }
+        int slot = acquireSlot(session.getProgressMonitor());
+        slotTypes[slot] = SLOT_FETCH_START;
+        slotFetchInfo[slot] = new FetchStartInfo(session, attributes, offset, maxRows);
+        publishSlot();
+    }
+
+    @Override
+    public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException
+    {
+        int slot = acquireSlot(session.getProgressMonitor());
+        Object[] values = slotValues[slot];
+        if (values == null || values.length != valueHandlers.length) {
+            values = new Object[valueHandlers.length];
+            slotValues[slot] = values;
+        }
+        for (int i = 0; i < valueHandlers.length; i++) {
+            values[i] = valueHandlers[i].fetchValueObject(session, resultSet, attributes.get(i), i);
+        }
+        slotTypes[slot] = SLOT_ROW;
+        publishSlot();
+        rowsRead++;
+    }
+
+    @Override
+    public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException
+    {
+        int slot = acquireSlot(session.getProgressMonitor());
+        slotTypes[slot] = SLOT_FETCH_END;
+        publishSlot();
+    }
+
+    @Override
+    public void close()
+    {
+        if (writer == null || aborted || writerError != null) {
+            // Consumer will be closed after writer termination
+            return;
+        }
+        try {
+            int slot = acquireSlot(null);
+            slotTypes[slot] = SLOT_CLOSE;
+            publishSlot();
+        } catch (DBCException e) {
+            log.debug(e);
+        }
+    }
+
+    /**
+     * Waits until writer passes all buffered rows to the consumer.
+     * Must be called by producer thread after transfer end, before producer session is closed:
+     * buffered values (e.g. LOBs) may still refer to the producer connection.
+     * Repeated calls do nothing.
+     */
+    public void finish(DBRProgressMonitor monitor) throws DBException
+    {
+        if (writer == null || writerDone.getCount() == 0) {
+            checkWriterError();
+            return;
+        }
+        int slot = acquireSlot(monitor);
+        slotTypes[slot] = SLOT_FINISH;
+        publishSlot();
+        try {
+            while (!writerDone.await(WAIT_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                if (monitor.isCanceled()) {
+                    throw new DBException("Data transfer canceled");
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DBException("Data transfer interrupted", e);
+        }
+        checkWriterError();
+        log.debug(getStatistics());
+    }
+
+    /**
+     * Stops writer after producer failure or cancel.
+     * Rows which are still in the buffer are discarded.
+     */
+    public void abort()
+    {
+        if (writer == null || writerDone.getCount() == 0) {
+            return;
+        }
+        aborted = true;
+        lock.lock();
+        try {
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (writer.cancel()) {
+            // Writer didn't start yet
+            consumer.close();
+            writerDone.countDown();
+        }
+        try {
+            if (!writerDone.await(ABORT_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                log.warn("Data transfer writer to " + consumer.getTargetName() + " didn't stop in " + ABORT_TIMEOUT + "ms");
+            }
+        } catch (InterruptedException e) {
+            log.debug(e);
+        }
+    }
+
+    /**
+     * Wraps producer progress monitor. All progress messages are followed by pipeline status.
+     */
+    public DBRProgressMonitor getStatusMonitor(DBRProgressMonitor monitor)
+    {
+        return new ProxyProgressMonitor(monitor) {
+            @Override
+            public void subTask(String name)
+            {
+                super.subTask(NLS.bind(CoreMessages.data_transfer_wizard_job_task_pipeline_status, name, getStatus()));
+            }
+        };
+    }
+
+    /**
+     * Current throughput of read and write stages and buffer occupancy
+     */
+    public String getStatus()
+    {
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        lock.lock();
+        try {
+            return NLS.bind(CoreMessages.data_transfer_wizard_job_task_pipeline_buffer, new Object[] {
+                rowsRead * 1000 / elapsed,
+                rowsWritten * 1000 / elapsed,
+                count,
+                capacity});
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getStatistics()
+    {
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        lock.lock();
+        try {
+            return "Transfer pipeline to " + consumer.getTargetName() + ": " +
+                rowsRead + " rows read (" + (rowsRead * 1000 / elapsed) + " rows/s), " +
+                rowsWritten + " rows written (" + (rowsWritten * 1000 / elapsed) + " rows/s), " +
+                "producer waited " + TimeUnit.NANOSECONDS.toMillis(producerWaitTime) + "ms, " +
+                "writer waited " + TimeUnit.NANOSECONDS.toMillis(writerWaitTime) + "ms, " +
+                "peak buffer occupancy " + peakCount + "/" + capacity;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int acquireSlot(DBRProgressMonitor monitor) throws DBCException
+    {
+        checkWriterError();
+        lock.lock();
+        try {
+            if (count == capacity) {
+                long waitStart = System.nanoTime();
+                while (count == capacity) {
+                    checkWriterError();
+                    if (aborted || (monitor != null && monitor.isCanceled())) {
+                        throw new DBCException("Data transfer canceled");
+                    }
+                    notFull.await(WAIT_TIMEOUT, TimeUnit.MILLISECONDS);
+                }
+                producerWaitTime += System.nanoTime() - waitStart;
+            }
+        } catch (InterruptedException e) {
+            throw new DBCException("Data transfer interrupted", e);
+        } finally {
+            lock.unlock();
+        }
+        return tail;
+    }
+
+    private void publishSlot()
+    {
+        tail = (tail + 1) % capacity;
+        lock.lock();
+        try {
+            count++;
+            if (count > peakCount) {
+                peakCount = count;
+            }
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkWriterError() throws DBCException
+    {
+        Throwable error = writerError;
+        if (error != null) {
+            throw new DBCException("Error writing data to " + consumer.getTargetName(), error);
+        }
+    }
+
+    private static class FetchStartInfo {
+        final DBCSession session;
+        final List<DBCAttributeMetaData> attributes;
+        final long offset;
+        final long maxRows;
+
+        FetchStartInfo(DBCSession session, List<DBCAttributeMetaData> attributes, long offset, long maxRows)
+        {
+            this.session = session;
+            this.attributes = attributes;
+            this.offset = offset;
+            this.maxRows = maxRows;
+        }
+    }
+
+    /**
+     * Passes buffered rows to the consumer
+     */
+    private class WriterJob extends AbstractJob {
+        private final DBRProgressMonitor producerMonitor;
+        private WriterSession writerSession;
+        private DataTransferReplayResultSet resultSet;
+
+        WriterJob(DBRProgressMonitor producerMonitor)
+        {
+            super("Write data to " + consumer.getTargetName());
+            this.producerMonitor = producerMonitor;
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor)
+        {
+            // Writer has its own monitor (and blocking objects stack)
+            DBRProgressMonitor writerMonitor = new ProxyProgressMonitor(monitor) {
+                @Override
+                public boolean isCanceled()
+                {
+                    return aborted || producerMonitor.isCanceled() || super.isCanceled();
+                }
+
+                @Override
+                public void subTask(String name)
+                {
+                    producerMonitor.subTask(name);
+                }
+            };
+            try {
+                for (;;) {
+                    if (!awaitSlot()) {
+                        break;
+                    }
+                    boolean finished = !processSlot(writerMonitor, head);
+                    releaseSlot();
+                    if (finished) {
+                        break;
+                    }
+                }
+            } catch (Throwable e) {
+                if (!aborted) {
+                    writerError = e;
+                }
+            } finally {
+                if (aborted || writerError != null) {
+                    consumer.close();
+                }
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                lock.lock();
+                try {
+                    // Wake up producer
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                writerDone.countDown();
+            }
+            return Status.OK_STATUS;
+        }
+
+        private boolean awaitSlot() throws InterruptedException
+        {
+            lock.lock();
+            try {
+                if (count == 0) {
+                    long waitStart = System.nanoTime();
+                    while (count == 0) {
+                        if (aborted) {
+                            return false;
+                        }
+                        notEmpty.await(WAIT_TIMEOUT, TimeUnit.MILLISECONDS);
+                    }
+                    writerWaitTime += System.nanoTime() - waitStart;
+                }
+                return !aborted;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void releaseSlot()
+        {
+            lock.lock();
+            try {
+                if (slotTypes[head] == SLOT_ROW) {
+                    rowsWritten++;
+                }
+                head = (head + 1) % capacity;
+                count--;
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean processSlot(DBRProgressMonitor writerMonitor, int slot) throws DBCException
+        {
+            switch (slotTypes[slot]) {
+                case SLOT_ROW:
+                    resultSet.setCurrentRow(slotValues[slot]);
+                    consumer.fetchRow(writerSession, resultSet);
+                    break;
+                case SLOT_FETCH_START:
+                    FetchStartInfo fetchInfo = slotFetchInfo[slot];
+                    slotFetchInfo[slot] = null;
+                    // Session settings made by consumer (e.g. formatter profile) are kept between fetches
+                    writerSession = new WriterSession(
+                        fetchInfo.session,
+                        writerMonitor,
+                        writerSession == null ? null : writerSession.formatterProfile);
+                    resultSet = new DataTransferReplayResultSet(writerSession, fetchInfo.attributes);
+                    consumer.fetchStart(writerSession, resultSet, fetchInfo.offset, fetchInfo.maxRows);
+                    break;
+                case SLOT_FETCH_END:
+                    consumer.fetchEnd(writerSession, resultSet);
+                    break;
+                case SLOT_CLOSE:
+                    consumer.close();
+                    break;
+                case SLOT_FINISH:
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Producer session as seen by the consumer.
+     * Uses writer progress monitor, so producer and writer don't share blocking objects.
+     */
+    private static class WriterSession implements DBCSession {
+        private final DBCSession session;
+        private final DBRProgressMonitor monitor;
+        private DBDDataFormatterProfile formatterProfile;
+
+        WriterSession(DBCSession session, DBRProgressMonitor monitor, DBDDataFormatterProfile formatterProfile)
+        {
+            this.session = session;
+            this.monitor = monitor;
+            this.formatterProfile = formatterProfile;
+        }
+
+        @NotNull
+        @Override
+        public String getTaskTitle()
+        {
+            return session.getTaskTitle();
+        }
+
+        @NotNull
+        @Override
+        public DBCExecutionContext getExecutionContext()
+        {
+            return session.getExecutionContext();
+        }
+
+        @NotNull
+        @Override
+        public DBPDataSource getDataSource()
+        {
+            return session.getDataSource();
+        }
+
+        @Override
+        public boolean isConnected()
+        {
+            return session.isConnected();
+        }
+
+        @NotNull
+        @Override
+        public DBRProgressMonitor getProgressMonitor()
+        {
+            return monitor;
+        }
+
+        @NotNull
+        @Override
+        public DBCExecutionPurpose getPurpose()
+        {
+            return session.getPurpose();
+        }
+
+        @NotNull
+        @Override
+        public DBCStatement prepareStatement(@NotNull DBCStatementType type, @NotNull String query, boolean scrollable, boolean updatable, boolean returnGeneratedKeys) throws DBCException
+        {
+            throw new DBCException("Source statements can't be prepared by data transfer writer");
+        }
+
+        @Override
+        public boolean isLoggingEnabled()
+        {
+            return session.isLoggingEnabled();
+        }
+
+        @Override
+        public void enableLogging(boolean enable)
+        {
+            // Producer session settings can't be changed by writer
+        }
+
+        @Override
+        public DBDDataFormatterProfile getDataFormatterProfile()
+        {
+            if (formatterProfile == null) {
+                return session.getDataFormatterProfile();
+            }
+            return formatterProfile;
+        }
+
+        @Override
+        public void setDataFormatterProfile(DBDDataFormatterProfile formatterProfile)
+        {
+            // Kept in writer session. Producer session isn't changed.
+            this.formatterProfile = formatterProfile;
+        }
+
+        @NotNull
+        @Override
+        public DBDValueHandler getDefaultValueHandler()
+        {
+            return session.getDefaultValueHandler();
+        }
+
+        @Override
+        public void close()
+        {
+            // Producer session is closed by producer
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDValueMeta;
+import org.jkiss.dbeaver.model.exec.*;
+
+import java.util.List;
+
+/**
+ * Result set which replays materialized rows.
+ * Value handlers read values from it with getAttributeValue.
+ */
+public class DataTransferReplayResultSet implements DBCResultSet {
+    private final DBCSession session;
+    private final List<DBCAttributeMetaData> metaAttributes;
+    private Object[] currentRow;
+
+    public DataTransferReplayResultSet(DBCSession session, List<DBCAttributeMetaData> metaAttributes)
+    {
+        this.session = session;
+        this.metaAttributes = metaAttributes;
+    }
+
+    public void setCurrentRow(Object[] currentRow)
+    {
+        this.currentRow = currentRow;
+    }
+
+    @Override
+    public DBCSession getSession()
+    {
+        return session;
+    }
+
+    @Override
+    public DBCStatement getSourceStatement()
+    {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public Object getAttributeValue(int index) throws DBCException
+    {
+        return currentRow[index];
+    }
+
+    @Nullable
+    @Override
+    public Object getAttributeValue(String name) throws DBCException
+    {
+        for (int i = 0; i < metaAttributes.size(); i++) {
+            if (metaAttributes.get(i).getName().equals(name)) {
+                return currentRow[i];
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public DBDValueMeta getAttributeValueMeta(int index) throws DBCException
+    {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public DBDValueMeta getRowMeta() throws DBCException
+    {
+        return null;
+    }
+
+    @Override
+    public boolean nextRow() throws DBCException
+    {
+        return false;
+    }
+
+    @Override
+    public boolean moveTo(int position) throws DBCException
+    {
+        return false;
+    }
+
+    @NotNull
+    @Override
+    public DBCResultSetMetaData getMeta() throws DBCException
+    {
+        return new DBCResultSetMetaData() {
+            @Override
+            public List<DBCAttributeMetaData> getAttributes()
+            {
+                return metaAttributes;
+            }
+        };
+    }
+
+    @Nullable
+    @Override
+    public String getResultSetName() throws DBCException
+    {
+        return null;
+    }
+
+    @Override
+    public void close()
+    {
+        currentRow = null;
+    }
+}
@@ -23,6 +23,7 @@ import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Spinner;
@@ -87,6 +88,24 @@ public class DatabaseConsumerPageLoadSettings extends ActiveWizardPage<DataTrans
                 }
             });
             commitAfterEdit.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
+
+            UIUtils.createControlLabel(performanceSettings, "Load method");
+            final Combo loadMethodCombo = new Combo(performanceSettings, SWT.DROP_DOWN | SWT.READ_ONLY);
+            loadMethodCombo.setItems(new String[] {
+                "Batch inserts",
+                "Multi-row inserts",
+                "Native bulk load (if supported)" });
+            loadMethodCombo.setToolTipText("Multi-row inserts and native bulk load are much faster on large tables.\n" +
+                "They insert NULL values explicitly (column defaults are not applied).");
+            loadMethodCombo.select(settings.getLoadMethod().ordinal());
+            loadMethodCombo.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e)
+                {
+                    settings.setLoadMethod(DatabaseConsumerSettings.LoadMethod.values()[loadMethodCombo.getSelectionIndex()]);
+                }
+            });
+            loadMethodCombo.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
         }
 
         {
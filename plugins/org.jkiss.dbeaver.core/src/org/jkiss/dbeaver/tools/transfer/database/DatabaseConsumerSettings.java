@@ -53,12 +53,25 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
 
     static final Log log = Log.getLog(DatabaseConsumerSettings.class);
 
+    /**
+     * How rows are inserted into target tables
+     */
+    public enum LoadMethod {
+        // Batches of single-row inserts
+        BATCH,
+        // Multi-row INSERT ... VALUES (...),(...) statements
+        MULTI_ROW,
+        // Database native bulk load (falls back to multi-row inserts)
+        NATIVE
+    }
+
     private String containerNodePath;
     private DBNDatabaseNode containerNode;
     private Map<DBSDataContainer, DatabaseMappingContainer> dataMappings = new LinkedHashMap<>();
     private boolean openNewConnections = true;
     private boolean useTransactions = true;
     private int commitAfterRows = 10000;
+    private LoadMethod loadMethod = LoadMethod.BATCH;
     private boolean openTableOnFinish = true;
 
     public DatabaseConsumerSettings()
@@ -151,6 +164,16 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         this.commitAfterRows = commitAfterRows;
     }
 
+    public LoadMethod getLoadMethod()
+    {
+        return loadMethod;
+    }
+
+    public void setLoadMethod(LoadMethod loadMethod)
+    {
+        this.loadMethod = loadMethod;
+    }
+
     @Nullable
     DBPDataSource getTargetDataSource(DatabaseMappingObject attrMapping)
     {
@@ -177,6 +200,13 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         if (dialogSettings.get("commitAfterRows") != null) {
             commitAfterRows = dialogSettings.getInt("commitAfterRows");
         }
+        if (dialogSettings.get("loadMethod") != null) {
+            try {
+                loadMethod = LoadMethod.valueOf(dialogSettings.get("loadMethod"));
+            } catch (IllegalArgumentException e) {
+                loadMethod = LoadMethod.BATCH;
+            }
+        }
         if (dialogSettings.get("openTableOnFinish") != null) {
             openTableOnFinish = dialogSettings.getBoolean("openTableOnFinish");
         }
@@ -205,6 +235,7 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         dialogSettings.put("openNewConnections", openNewConnections);
         dialogSettings.put("useTransactions", useTransactions);
         dialogSettings.put("commitAfterRows", commitAfterRows);
+        dialogSettings.put("loadMethod", loadMethod.name());
         dialogSettings.put("openTableOnFinish", openTableOnFinish);
     }
 
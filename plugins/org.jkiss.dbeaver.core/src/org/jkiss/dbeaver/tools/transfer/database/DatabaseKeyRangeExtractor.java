@@ -0,0 +1,479 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.ProxyProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDataSource;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.tools.transfer.DataTransferReplayResultSet;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads table data in parallel by unique key ranges.
+ * Each range is read by a separate job in its own isolated context.
+ * Rows are materialized by readers and passed to the consumer in the caller thread, so consumers
+ * don't need to be thread-safe. In ordered mode ranges are passed one after another (in key order),
+ * otherwise rows go in the order they come from readers.
+ */
+class DatabaseKeyRangeExtractor {
+
+    static final Log log = Log.getLog(DatabaseKeyRangeExtractor.class);
+
+    private static final int ROW_BATCH_SIZE = 500;
+    private static final int QUEUE_CAPACITY = 20;
+    private static final long POLL_TIMEOUT = 200;
+    private static final List<Object[]> END_OF_RANGE = Collections.emptyList();
+
+    @NotNull
+    private final DBSDataContainer dataContainer;
+    @Nullable
+    private final DBDDataFilter dataFilter;
+    @NotNull
+    private final DatabaseProducerSettings settings;
+
+    private DBSEntityAttribute keyAttribute;
+    private String keyName;
+    private final List<String> rangeConditions = new ArrayList<>();
+
+    private final List<RangeReader> readers = new ArrayList<>();
+    private volatile List<DBCAttributeMetaData> metaAttributes;
+    private volatile boolean aborted;
+
+    DatabaseKeyRangeExtractor(@NotNull DBSDataContainer dataContainer, @Nullable DBDDataFilter dataFilter, @NotNull DatabaseProducerSettings settings)
+    {
+        this.dataContainer = dataContainer;
+        this.dataFilter = dataFilter;
+        this.settings = settings;
+    }
+
+    /**
+     * Determines key ranges.
+     * Only entities with single-column numeric unique key may be split.
+     * @return false if container can't be split on ranges
+     */
+    boolean prepareRanges(@NotNull DBCExecutionSource source, @NotNull DBCSession session) throws DBCException
+    {
+        if (!(dataContainer instanceof DBSEntity) || !(session.getDataSource() instanceof SQLDataSource)) {
+            return false;
+        }
+        if (dataFilter != null) {
+            if (dataFilter.isAnyConstraint() && dataFilter.hasConditions()) {
+                // Range condition can't be combined with OR-ed filter
+                return false;
+            }
+            if (settings.isOrderedOutput() && dataFilter.hasOrdering()) {
+                // Custom ordering can't be preserved across ranges
+                return false;
+            }
+        }
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        DBSEntity entity = (DBSEntity) dataContainer;
+        try {
+            Collection<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, entity);
+            if (identifier.size() != 1) {
+                return false;
+            }
+            keyAttribute = identifier.iterator().next();
+        } catch (DBException e) {
+            log.warn("Can't read unique key of '" + entity.getName() + "'", e);
+            return false;
+        }
+        if (keyAttribute.getDataKind() != DBPDataKind.NUMERIC) {
+            return false;
+        }
+        keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+
+        long minValue, maxValue;
+        String query = "SELECT MIN(" + keyName + "),MAX(" + keyName + ") FROM " + DBUtils.getObjectFullName(entity);
+        try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query, false, false, false)) {
+            dbStat.setStatementSource(source);
+            if (!dbStat.executeStatement()) {
+                return false;
+            }
+            DBCResultSet dbResult = dbStat.openResultSet();
+            if (dbResult == null) {
+                return false;
+            }
+            try {
+                if (!dbResult.nextRow()) {
+                    return false;
+                }
+                Object minObject = dbResult.getAttributeValue(0);
+                Object maxObject = dbResult.getAttributeValue(1);
+                if (!(minObject instanceof Number) || !(maxObject instanceof Number)) {
+                    // Empty table or non-numeric key
+                    return false;
+                }
+                minValue = new BigDecimal(minObject.toString()).longValueExact();
+                maxValue = new BigDecimal(maxObject.toString()).longValueExact();
+            } catch (ArithmeticException e) {
+                // Fractional or too big key values
+                return false;
+            } finally {
+                dbResult.close();
+            }
+        }
+
+        int rangeCount = settings.getParallelReaders();
+        if (rangeCount < 2) {
+            return false;
+        }
+        long rangeSize = (maxValue - minValue) / rangeCount + 1;
+        if (rangeSize <= 0) {
+            // Overflow
+            return false;
+        }
+        for (int i = 0; i < rangeCount; i++) {
+            long rangeStart = minValue + rangeSize * i;
+            if (i == 0) {
+                rangeConditions.add(keyName + "<" + (rangeStart + rangeSize));
+            } else if (i == rangeCount - 1 || rangeStart + rangeSize > maxValue) {
+                rangeConditions.add(keyName + ">=" + rangeStart);
+                break;
+            } else {
+                rangeConditions.add(keyName + ">=" + rangeStart + " AND " + keyName + "<" + (rangeStart + rangeSize));
+            }
+        }
+        if (!keyAttribute.isRequired()) {
+            // Unique indexes may contain NULLs
+            rangeConditions.add(keyName + " IS NULL");
+        }
+        return true;
+    }
+
+    @NotNull
+    DBCStatistics transferData(@NotNull DBCSession session, @NotNull IDataTransferConsumer consumer) throws DBCException
+    {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        DBCStatistics statistics = new DBCStatistics();
+        long startTime = System.currentTimeMillis();
+
+        BlockingQueue<List<Object[]>> sharedQueue = settings.isOrderedOutput() ? null : new ArrayBlockingQueue<List<Object[]>>(QUEUE_CAPACITY * rangeConditions.size());
+        for (int i = 0; i < rangeConditions.size(); i++) {
+            RangeReader reader = new RangeReader(
+                i,
+                makeRangeFilter(rangeConditions.get(i)),
+                sharedQueue != null ? sharedQueue : new ArrayBlockingQueue<List<Object[]>>(QUEUE_CAPACITY),
+                monitor);
+            readers.add(reader);
+        }
+        for (RangeReader reader : readers) {
+            reader.schedule();
+        }
+
+        DataTransferReplayResultSet replayResultSet = null;
+        try {
+            if (sharedQueue != null) {
+                replayResultSet = drainQueue(session, consumer, sharedQueue, readers.size(), replayResultSet, statistics);
+            } else {
+                for (RangeReader reader : readers) {
+                    replayResultSet = drainQueue(session, consumer, reader.queue, 1, replayResultSet, statistics);
+                }
+            }
+            if (replayResultSet == null && metaAttributes != null) {
+                // No rows at all. Consumer still needs result set metadata.
+                replayResultSet = new DataTransferReplayResultSet(session, metaAttributes);
+                consumer.fetchStart(session, replayResultSet, 0, -1);
+            }
+        } finally {
+            if (replayResultSet != null) {
+                try {
+                    consumer.fetchEnd(session, replayResultSet);
+                } catch (Throwable e) {
+                    log.error("Error while finishing result set fetch", e); //$NON-NLS-1$
+                }
+            }
+            consumer.close();
+            closeReaders();
+        }
+        statistics.setFetchTime(System.currentTimeMillis() - startTime);
+        statistics.setStatementsCount(readers.size());
+        return statistics;
+    }
+
+    private DataTransferReplayResultSet drainQueue(
+        @NotNull DBCSession session,
+        @NotNull IDataTransferConsumer consumer,
+        @NotNull BlockingQueue<List<Object[]>> queue,
+        int producerCount,
+        @Nullable DataTransferReplayResultSet replayResultSet,
+        @NotNull DBCStatistics statistics)
+        throws DBCException
+    {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        int finishedProducers = 0;
+        while (finishedProducers < producerCount) {
+            if (monitor.isCanceled()) {
+                abortReaders();
+                throw new DBCException("Data transfer canceled");
+            }
+            checkReaderErrors();
+            List<Object[]> batch;
+            try {
+                batch = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                abortReaders();
+                throw new DBCException("Data transfer interrupted", e);
+            }
+            if (batch == null) {
+                continue;
+            }
+            if (batch == END_OF_RANGE) {
+                finishedProducers++;
+                continue;
+            }
+            if (replayResultSet == null) {
+                replayResultSet = new DataTransferReplayResultSet(session, metaAttributes);
+                consumer.fetchStart(session, replayResultSet, 0, -1);
+            }
+            for (Object[] row : batch) {
+                replayResultSet.setCurrentRow(row);
+                consumer.fetchRow(session, replayResultSet);
+            }
+            statistics.setRowsFetched(statistics.getRowsFetched() + batch.size());
+            monitor.subTask(statistics.getRowsFetched() + " rows transferred");
+            monitor.worked(batch.size());
+        }
+        checkReaderErrors();
+        return replayResultSet;
+    }
+
+    private DBDDataFilter makeRangeFilter(String rangeCondition)
+    {
+        DBDDataFilter filter = dataFilter == null ?
+            new DBDDataFilter(new ArrayList<DBDAttributeConstraint>()) :
+            new DBDDataFilter(dataFilter);
+        String where = filter.getWhere();
+        filter.setWhere(CommonUtils.isEmpty(where) ? rangeCondition : rangeCondition + " AND (" + where + ")");
+        if (settings.isOrderedOutput()) {
+            filter.setOrder(keyName);
+        }
+        return filter;
+    }
+
+    private void checkReaderErrors() throws DBCException
+    {
+        for (RangeReader reader : readers) {
+            if (reader.error != null) {
+                abortReaders();
+                throw new DBCException("Error reading key range " + (reader.rangeIndex + 1) + " of '" + dataContainer.getName() + "'", reader.error);
+            }
+        }
+    }
+
+    private void abortReaders()
+    {
+        aborted = true;
+        for (RangeReader reader : readers) {
+            reader.cancel();
+        }
+    }
+
+    private void closeReaders()
+    {
+        aborted = true;
+        for (RangeReader reader : readers) {
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                log.debug(e);
+            }
+            reader.closeContext();
+        }
+        readers.clear();
+    }
+
+    /**
+     * Reads single key range and puts materialized rows into the queue
+     */
+    private class RangeReader extends AbstractJob implements DBDDataReceiver {
+        private final int rangeIndex;
+        private final DBDDataFilter rangeFilter;
+        private final BlockingQueue<List<Object[]>> queue;
+        private final DBRProgressMonitor parentMonitor;
+
+        private DBCExecutionContext context;
+        private DBCSession session;
+        private List<DBCAttributeMetaData> rangeAttributes;
+        private DBDValueHandler[] valueHandlers;
+        private List<Object[]> batch;
+        private volatile Throwable error;
+
+        RangeReader(int rangeIndex, DBDDataFilter rangeFilter, BlockingQueue<List<Object[]>> queue, DBRProgressMonitor parentMonitor)
+        {
+            super("Read key range " + (rangeIndex + 1) + " of '" + dataContainer.getName() + "'");
+            this.rangeIndex = rangeIndex;
+            this.rangeFilter = rangeFilter;
+            this.queue = queue;
+            this.parentMonitor = parentMonitor;
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor)
+        {
+            DBRProgressMonitor readMonitor = new ProxyProgressMonitor(monitor) {
+                @Override
+                public boolean isCanceled()
+                {
+                    return aborted || parentMonitor.isCanceled() || super.isCanceled();
+                }
+            };
+            try {
+                DBPDataSource dataSource = dataContainer.getDataSource();
+                assert (dataSource != null);
+                context = dataSource.openIsolatedContext(readMonitor, "Data transfer producer (range " + (rangeIndex + 1) + ")");
+                try {
+                    // Some drivers allows to read LOBs only in transactional mode
+                    DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                    if (txnManager != null) {
+                        txnManager.setAutoCommit(readMonitor, false);
+                    }
+                } catch (DBCException e) {
+                    log.warn("Can't change auto-commit", e);
+                }
+                // Session stays open until all rows are consumed (LOB values may refer to it)
+                session = context.openSession(readMonitor, DBCExecutionPurpose.UTIL, getName());
+                session.enableLogging(false);
+                dataContainer.readData(
+                    new AbstractExecutionSource(dataContainer, context, this),
+                    session,
+                    this,
+                    rangeFilter,
+                    -1,
+                    -1,
+                    DBSDataContainer.FLAG_NONE);
+            } catch (Throwable e) {
+                if (!aborted) {
+                    error = e;
+                }
+            } finally {
+                putBatch(END_OF_RANGE);
+            }
+            return Status.OK_STATUS;
+        }
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException
+        {
+            List<DBCAttributeMetaData> attributes = resultSet.getMeta().getAttributes();
+            valueHandlers = new DBDValueHandler[attributes.size()];
+            for (int i = 0; i < attributes.size(); i++) {
+                valueHandlers[i] = DBUtils.findValueHandler(session, attributes.get(i));
+            }
+            rangeAttributes = attributes;
+            if (metaAttributes == null) {
+                // All ranges have the same columns
+                metaAttributes = attributes;
+            }
+            batch = new ArrayList<>(ROW_BATCH_SIZE);
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException
+        {
+            Object[] row = new Object[valueHandlers.length];
+            for (int i = 0; i < valueHandlers.length; i++) {
+                row[i] = valueHandlers[i].fetchValueObject(session, resultSet, rangeAttributes.get(i), i);
+            }
+            batch.add(row);
+            if (batch.size() >= ROW_BATCH_SIZE) {
+                putBatch(batch);
+                batch = new ArrayList<>(ROW_BATCH_SIZE);
+            }
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException
+        {
+            if (batch != null && !batch.isEmpty()) {
+                putBatch(batch);
+            }
+            batch = null;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+
+        private void putBatch(List<Object[]> rows)
+        {
+            try {
+                // Wait for consumer (back pressure)
+                while (!queue.offer(rows, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    if (aborted) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Canceled
+            }
+        }
+
+        void closeContext()
+        {
+            if (session != null) {
+                DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                if (txnManager != null) {
+                    try {
+                        txnManager.commit(session);
+                    } catch (DBCException e) {
+                        log.error("Can't finish transaction in data producer connection", e);
+                    }
+                }
+                session.close();
+                session = null;
+            }
+            if (context != null) {
+                context.close();
+                context = null;
+            }
+        }
+    }
+
+}
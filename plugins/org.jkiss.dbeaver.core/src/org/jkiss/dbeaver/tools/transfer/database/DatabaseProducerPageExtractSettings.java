@@ -26,6 +26,7 @@ import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.*;
 import org.jkiss.dbeaver.core.CoreMessages;
+import org.jkiss.dbeaver.tools.transfer.DataTransferPipeline;
 import org.jkiss.dbeaver.tools.transfer.wizard.DataTransferWizard;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.dialogs.ActiveWizardPage;
@@ -34,13 +35,19 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
 
     private static final int EXTRACT_TYPE_SINGLE_QUERY = 0;
     private static final int EXTRACT_TYPE_SEGMENTS = 1;
+    private static final int EXTRACT_TYPE_KEY_RANGES = 2;
 
     private Spinner threadsNumText;
     private Combo rowsExtractType;
     private Label segmentSizeLabel;
     private Text segmentSizeText;
+    private Label parallelReadersLabel;
+    private Spinner parallelReadersText;
+    private Button orderedOutputCheckbox;
     private Button newConnectionCheckbox;
     private Button rowCountCheckbox;
+    private Button pipelineCheckbox;
+    private Spinner pipelineBufferSizeText;
 
     public DatabaseProducerPageExtractSettings() {
         super("Extraction settings");
@@ -90,13 +97,15 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                 rowsExtractType = new Combo(generalSettings, SWT.DROP_DOWN | SWT.READ_ONLY);
                 rowsExtractType.setItems(new String[] {
                     CoreMessages.data_transfer_wizard_output_combo_extract_type_item_single_query,
-                    CoreMessages.data_transfer_wizard_output_combo_extract_type_item_by_segments });
+                    CoreMessages.data_transfer_wizard_output_combo_extract_type_item_by_segments,
+                    CoreMessages.data_transfer_wizard_output_combo_extract_type_item_by_key_ranges });
                 rowsExtractType.addSelectionListener(new SelectionAdapter() {
                     @Override
                     public void widgetSelected(SelectionEvent e) {
                         switch (rowsExtractType.getSelectionIndex()) {
                             case EXTRACT_TYPE_SEGMENTS: settings.setExtractType(DatabaseProducerSettings.ExtractType.SEGMENTS); break;
                             case EXTRACT_TYPE_SINGLE_QUERY: settings.setExtractType(DatabaseProducerSettings.ExtractType.SINGLE_QUERY); break;
+                            case EXTRACT_TYPE_KEY_RANGES: settings.setExtractType(DatabaseProducerSettings.ExtractType.KEY_RANGES); break;
                         }
                         updatePageCompletion();
                     }
@@ -117,6 +126,29 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                     }
                 });
                 segmentSizeText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_END, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
+
+                parallelReadersLabel = UIUtils.createControlLabel(generalSettings, CoreMessages.data_transfer_wizard_output_label_parallel_readers);
+                parallelReadersText = new Spinner(generalSettings, SWT.BORDER);
+                parallelReadersText.setMinimum(2);
+                parallelReadersText.setMaximum(32);
+                parallelReadersText.addModifyListener(new ModifyListener() {
+                    @Override
+                    public void modifyText(ModifyEvent e)
+                    {
+                        settings.setParallelReaders(parallelReadersText.getSelection());
+                    }
+                });
+                parallelReadersText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
+
+                orderedOutputCheckbox = UIUtils.createCheckbox(generalSettings, CoreMessages.data_transfer_wizard_output_checkbox_ordered_output, true);
+                orderedOutputCheckbox.setToolTipText(CoreMessages.data_transfer_wizard_output_checkbox_ordered_output_tooltip);
+                orderedOutputCheckbox.addSelectionListener(new SelectionAdapter() {
+                    @Override
+                    public void widgetSelected(SelectionEvent e) {
+                        settings.setOrderedOutput(orderedOutputCheckbox.getSelection());
+                    }
+                });
+                orderedOutputCheckbox.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 2, 1));
             }
 
             newConnectionCheckbox = UIUtils.createLabelCheckbox(generalSettings, CoreMessages.data_transfer_wizard_output_checkbox_new_connection, true);
@@ -136,6 +168,29 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                 }
             });
             rowCountCheckbox.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
+
+            pipelineCheckbox = UIUtils.createLabelCheckbox(generalSettings, CoreMessages.data_transfer_wizard_output_checkbox_pipeline, false);
+            pipelineCheckbox.setToolTipText(CoreMessages.data_transfer_wizard_output_checkbox_pipeline_tooltip);
+            pipelineCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    getWizard().getSettings().setPipelineEnabled(pipelineCheckbox.getSelection());
+                    pipelineBufferSizeText.setEnabled(pipelineCheckbox.getSelection());
+                }
+            });
+            UIUtils.createControlLabel(generalSettings, CoreMessages.data_transfer_wizard_output_label_pipeline_buffer_size);
+            pipelineBufferSizeText = new Spinner(generalSettings, SWT.BORDER);
+            pipelineBufferSizeText.setMinimum(1);
+            pipelineBufferSizeText.setMaximum(DataTransferPipeline.MAX_BUFFER_SIZE);
+            pipelineBufferSizeText.setIncrement(100);
+            pipelineBufferSizeText.addModifyListener(new ModifyListener() {
+                @Override
+                public void modifyText(ModifyEvent e)
+                {
+                    getWizard().getSettings().setPipelineBufferSize(pipelineBufferSizeText.getSelection());
+                }
+            });
+            pipelineBufferSizeText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
         }
 
         setControl(composite);
@@ -149,12 +204,18 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
 
         newConnectionCheckbox.setSelection(settings.isOpenNewConnections());
         rowCountCheckbox.setSelection(settings.isQueryRowCount());
+        pipelineCheckbox.setSelection(getWizard().getSettings().isPipelineEnabled());
+        pipelineBufferSizeText.setSelection(getWizard().getSettings().getPipelineBufferSize());
+        pipelineBufferSizeText.setEnabled(pipelineCheckbox.getSelection());
 
         if (segmentSizeText != null) {
             segmentSizeText.setText(String.valueOf(settings.getSegmentSize()));
+            parallelReadersText.setSelection(settings.getParallelReaders());
+            orderedOutputCheckbox.setSelection(settings.isOrderedOutput());
             switch (settings.getExtractType()) {
                 case SINGLE_QUERY: rowsExtractType.select(EXTRACT_TYPE_SINGLE_QUERY); break;
                 case SEGMENTS: rowsExtractType.select(EXTRACT_TYPE_SEGMENTS); break;
+                case KEY_RANGES: rowsExtractType.select(EXTRACT_TYPE_KEY_RANGES); break;
             }
         }
 
@@ -166,13 +227,11 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
     {
         if (rowsExtractType != null) {
             int selectionIndex = rowsExtractType.getSelectionIndex();
-            if (selectionIndex == EXTRACT_TYPE_SEGMENTS) {
-                segmentSizeLabel.setVisible(true);
-                segmentSizeText.setVisible(true);
-            } else {
-                segmentSizeLabel.setVisible(false);
-                segmentSizeText.setVisible(false);
-            }
+            segmentSizeLabel.setVisible(selectionIndex == EXTRACT_TYPE_SEGMENTS);
+            segmentSizeText.setVisible(selectionIndex == EXTRACT_TYPE_SEGMENTS);
+            parallelReadersLabel.setVisible(selectionIndex == EXTRACT_TYPE_KEY_RANGES);
+            parallelReadersText.setVisible(selectionIndex == EXTRACT_TYPE_KEY_RANGES);
+            orderedOutputCheckbox.setVisible(selectionIndex == EXTRACT_TYPE_KEY_RANGES);
         }
         return true;
     }
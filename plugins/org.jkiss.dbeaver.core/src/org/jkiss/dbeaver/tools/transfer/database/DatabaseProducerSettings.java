@@ -30,12 +30,17 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
 
     enum ExtractType {
         SINGLE_QUERY,
-        SEGMENTS
+        SEGMENTS,
+        KEY_RANGES
     }
 
     private static final int DEFAULT_SEGMENT_SIZE = 100000;
+    private static final int DEFAULT_PARALLEL_READERS = 4;
+    private static final int MAX_PARALLEL_READERS = 32;
 
     private int segmentSize = DEFAULT_SEGMENT_SIZE;
+    private int parallelReaders = DEFAULT_PARALLEL_READERS;
+    private boolean orderedOutput = true;
 
     private boolean openNewConnections = true;
     private boolean queryRowCount = true;
@@ -57,6 +62,32 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         }
     }
 
+    public int getParallelReaders()
+    {
+        return parallelReaders;
+    }
+
+    public void setParallelReaders(int parallelReaders)
+    {
+        if (parallelReaders > 0 && parallelReaders <= MAX_PARALLEL_READERS) {
+            this.parallelReaders = parallelReaders;
+        }
+    }
+
+    /**
+     * Key ranges extract only. If true then rows are passed to consumer in key order,
+     * otherwise rows go in the order they were read by parallel readers.
+     */
+    public boolean isOrderedOutput()
+    {
+        return orderedOutput;
+    }
+
+    public void setOrderedOutput(boolean orderedOutput)
+    {
+        this.orderedOutput = orderedOutput;
+    }
+
     public boolean isQueryRowCount()
     {
         return queryRowCount;
@@ -102,6 +133,14 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         } catch (NumberFormatException e) {
             segmentSize = DEFAULT_SEGMENT_SIZE;
         }
+        try {
+            setParallelReaders(dialogSettings.getInt("parallelReaders"));
+        } catch (NumberFormatException e) {
+            parallelReaders = DEFAULT_PARALLEL_READERS;
+        }
+        if (!CommonUtils.isEmpty(dialogSettings.get("orderedOutput"))) {
+            orderedOutput = dialogSettings.getBoolean("orderedOutput");
+        }
         if (!CommonUtils.isEmpty(dialogSettings.get("openNewConnections"))) {
             openNewConnections = dialogSettings.getBoolean("openNewConnections");
         }
@@ -115,6 +154,8 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     {
         dialogSettings.put("extractType", extractType.name());
         dialogSettings.put("segmentSize", segmentSize);
+        dialogSettings.put("parallelReaders", parallelReaders);
+        dialogSettings.put("orderedOutput", orderedOutput);
         dialogSettings.put("openNewConnections", openNewConnections);
         dialogSettings.put("queryRowCount", queryRowCount);
     }
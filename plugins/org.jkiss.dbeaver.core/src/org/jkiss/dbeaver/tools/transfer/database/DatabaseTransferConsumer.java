@@ -59,6 +59,9 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     private long rowsExported = 0;
     private boolean ignoreErrors = false;
     private List<DBSEntityAttribute> targetAttributes;
+    private String loadMethodName;
+    private long loadRowCount;
+    private long loadTime;
 
     private static class ColumnMapping {
         DBCAttributeMetaData sourceAttr;
@@ -108,11 +111,44 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             columnMapping.targetIndex = targetAttributes.size();
             targetAttributes.add(columnMappings[i].targetAttr.getTarget());
         }
-        executeBatch = containerMapping.getTarget().insertData(
-            targetSession,
-            targetAttributes.toArray(new DBSAttributeBase[targetAttributes.size()]),
-            null,
-            new AbstractExecutionSource(sourceObject, targetContext, this));
+        executeBatch = createInsertBatch(targetAttributes.toArray(new DBSAttributeBase[targetAttributes.size()]));
+        loadRowCount = 0;
+        loadTime = 0;
+    }
+
+    private DBSDataManipulator.ExecuteBatch createInsertBatch(DBSAttributeBase[] attributes) throws DBCException
+    {
+        DBSDataManipulator target = containerMapping.getTarget();
+        AbstractExecutionSource source = new AbstractExecutionSource(sourceObject, targetContext, this);
+        if (target instanceof DBSDataBulkLoader) {
+            DBSDataBulkLoader bulkLoader = (DBSDataBulkLoader) target;
+            DBSDataManipulator.ExecuteBatch batch = null;
+            switch (settings.getLoadMethod()) {
+                case NATIVE:
+                    batch = bulkLoader.insertDataNative(targetSession, attributes, source);
+                    if (batch != null) {
+                        loadMethodName = "native bulk load";
+                        break;
+                    }
+                    log.debug("Native bulk load isn't supported for " + DBUtils.getObjectFullName(target) + ". Use multi-row inserts.");
+                    // Fall through
+                case MULTI_ROW:
+                    batch = bulkLoader.insertDataMultiRow(targetSession, attributes, source);
+                    if (batch != null) {
+                        loadMethodName = "multi-row inserts";
+                    } else {
+                        log.debug("Multi-row inserts aren't supported for " + DBUtils.getObjectFullName(target) + ". Use batch inserts.");
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (batch != null) {
+                return batch;
+            }
+        }
+        loadMethodName = "batch inserts";
+        return target.insertData(targetSession, attributes, null, source);
     }
 
     @Override
@@ -133,6 +169,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         executeBatch.add(rowValues);
 
         rowsExported++;
+        loadRowCount++;
 
         insertBatch(false);
     }
@@ -145,7 +182,9 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             do {
                 retryInsert = false;
                 try {
+                    long startTime = System.currentTimeMillis();
                     executeBatch.execute(targetSession);
+                    loadTime += System.currentTimeMillis() - startTime;
                 } catch (Throwable e) {
                     log.error("Error inserting row", e);
                     if (!ignoreErrors) {
@@ -192,6 +231,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             executeBatch.close();
             executeBatch = null;
         }
+        if (loadRowCount > 0) {
+            log.debug("Loaded " + loadRowCount + " rows into " + DBUtils.getObjectFullName(containerMapping.getTarget()) +
+                " with " + loadMethodName + " in " + loadTime + "ms (" + (loadRowCount * 1000 / Math.max(1, loadTime)) + " rows/s)");
+        }
 
         closeExporter();
     }
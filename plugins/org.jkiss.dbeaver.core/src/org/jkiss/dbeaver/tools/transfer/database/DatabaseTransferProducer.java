@@ -26,6 +26,8 @@ import org.jkiss.dbeaver.core.CoreMessages;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDKeysetPosition;
+import org.jkiss.dbeaver.model.data.DBDKeysetReceiver;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -108,16 +110,29 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
 
                 try {
                     // Perform export
-                    if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                    DatabaseKeyRangeExtractor rangeExtractor = null;
+                    if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.KEY_RANGES) {
+                        rangeExtractor = new DatabaseKeyRangeExtractor(dataContainer, dataFilter, settings);
+                        if (!rangeExtractor.prepareRanges(transferSource, session)) {
+                            log.debug("Can't split '" + dataContainer.getName() + "' on key ranges. Read it in single query.");
+                            rangeExtractor = null;
+                        }
+                    }
+                    if (rangeExtractor != null) {
+                        // Read key ranges in parallel
+                        rangeExtractor.transferData(session, consumer);
+                    } else if (settings.getExtractType() != DatabaseProducerSettings.ExtractType.SEGMENTS) {
                         // Just do it in single query
                         dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, DBSDataContainer.FLAG_NONE);
                     } else {
                         // Read all data by segments
+                        // Each segment starts after the last key of the previous one (or at offset if there is no unique key)
                         long offset = 0;
                         int segmentSize = settings.getSegmentSize();
+                        KeysetConsumerReceiver segmentReceiver = new KeysetConsumerReceiver(consumer);
                         for (; ; ) {
                             DBCStatistics statistics = dataContainer.readData(
-                                transferSource, session, consumer, dataFilter, offset, segmentSize, DBSDataContainer.FLAG_NONE);
+                                transferSource, session, segmentReceiver, dataFilter, offset, segmentSize, DBSDataContainer.FLAG_KEYSET_PAGING);
                             if (statistics == null || statistics.getRowsFetched() < segmentSize) {
                                 // Done
                                 break;
@@ -128,6 +143,10 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                 } finally {
                     monitor.done();
                 }
+                if (consumer instanceof DataTransferPipeline) {
+                    // Let writer pass buffered rows while source session and connection are still open
+                    ((DataTransferPipeline) consumer).finish(monitor);
+                }
 
                 //dataContainer.readData(context, consumer, dataFilter, -1, -1);
             } finally {
@@ -148,4 +167,48 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         }
     }
 
+    /**
+     * Passes rows to consumer and keeps keyset position between segments
+     */
+    private static class KeysetConsumerReceiver implements DBDKeysetReceiver {
+        private final IDataTransferConsumer consumer;
+        private final DBDKeysetPosition keysetPosition = new DBDKeysetPosition();
+
+        KeysetConsumerReceiver(IDataTransferConsumer consumer)
+        {
+            this.consumer = consumer;
+        }
+
+        @NotNull
+        @Override
+        public DBDKeysetPosition getKeysetPosition()
+        {
+            return keysetPosition;
+        }
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException
+        {
+            consumer.fetchStart(session, resultSet, offset, maxRows);
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException
+        {
+            consumer.fetchRow(session, resultSet);
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException
+        {
+            consumer.fetchEnd(session, resultSet);
+        }
+
+        @Override
+        public void close()
+        {
+            consumer.close();
+        }
+    }
+
 }
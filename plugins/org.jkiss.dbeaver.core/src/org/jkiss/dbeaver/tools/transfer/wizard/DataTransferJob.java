@@ -27,6 +27,7 @@ import org.jkiss.dbeaver.core.DBeaverUI;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
+import org.jkiss.dbeaver.tools.transfer.DataTransferPipeline;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProducer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferSettings;
@@ -98,16 +99,31 @@ public class DataTransferJob extends AbstractJob {
             producer.getSourceObject().getName()));
 
         IDataTransferSettings nodeSettings = settings.getNodeSettings(producer);
+        DataTransferPipeline pipeline = null;
         try {
             //consumer.initTransfer(producer.getSourceObject(), consumerSettings, );
 
-            producer.transferData(
-                monitor,
-                consumer,
-                nodeSettings);
+            if (settings.isPipelineEnabled()) {
+                // Pass rows to the consumer in separate writer thread
+                pipeline = new DataTransferPipeline(consumer, settings.getPipelineBufferSize());
+                producer.transferData(
+                    pipeline.getStatusMonitor(monitor),
+                    pipeline,
+                    nodeSettings);
+                pipeline.finish(monitor);
+                monitor.subTask(pipeline.getStatus());
+            } else {
+                producer.transferData(
+                    monitor,
+                    consumer,
+                    nodeSettings);
+            }
             consumer.finishTransfer(monitor, false);
             return true;
         } catch (Exception e) {
+            if (pipeline != null) {
+                pipeline.abort();
+            }
             new DataTransferErrorJob(e).schedule();
             return false;
         }
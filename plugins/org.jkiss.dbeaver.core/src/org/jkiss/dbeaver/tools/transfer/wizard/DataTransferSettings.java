@@ -28,6 +28,7 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.registry.transfer.DataTransferNodeDescriptor;
 import org.jkiss.dbeaver.registry.transfer.DataTransferProcessorDescriptor;
 import org.jkiss.dbeaver.registry.transfer.DataTransferRegistry;
+import org.jkiss.dbeaver.tools.transfer.DataTransferPipeline;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferNode;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProducer;
@@ -73,6 +74,8 @@ public class DataTransferSettings {
 
     private boolean consumerOptional;
     private int maxJobCount = DEFAULT_THREADS_NUM;
+    private boolean pipelineEnabled;
+    private int pipelineBufferSize = DataTransferPipeline.DEFAULT_BUFFER_SIZE;
 
     private transient int curPipeNum = 0;
 
@@ -319,6 +322,28 @@ public class DataTransferSettings {
         }
     }
 
+    public boolean isPipelineEnabled()
+    {
+        return pipelineEnabled;
+    }
+
+    public void setPipelineEnabled(boolean pipelineEnabled)
+    {
+        this.pipelineEnabled = pipelineEnabled;
+    }
+
+    public int getPipelineBufferSize()
+    {
+        return pipelineBufferSize;
+    }
+
+    public void setPipelineBufferSize(int pipelineBufferSize)
+    {
+        if (pipelineBufferSize > 0) {
+            this.pipelineBufferSize = Math.min(pipelineBufferSize, DataTransferPipeline.MAX_BUFFER_SIZE);
+        }
+    }
+
     void loadFrom(IRunnableContext runnableContext, IDialogSettings dialogSettings)
     {
         try {
@@ -326,6 +351,12 @@ public class DataTransferSettings {
         } catch (NumberFormatException e) {
             maxJobCount = DEFAULT_THREADS_NUM;
         }
+        pipelineEnabled = dialogSettings.getBoolean("pipelineEnabled");
+        try {
+            setPipelineBufferSize(dialogSettings.getInt("pipelineBufferSize"));
+        } catch (NumberFormatException e) {
+            pipelineBufferSize = DataTransferPipeline.DEFAULT_BUFFER_SIZE;
+        }
         String producerId = dialogSettings.get("producer");
         if (!CommonUtils.isEmpty(producerId)) {
             DataTransferNodeDescriptor producerNode = DataTransferRegistry.getInstance().getNodeById(producerId);
@@ -390,6 +421,8 @@ public class DataTransferSettings {
     void saveTo(IDialogSettings dialogSettings)
     {
         dialogSettings.put("maxJobCount", maxJobCount);
+        dialogSettings.put("pipelineEnabled", pipelineEnabled);
+        dialogSettings.put("pipelineBufferSize", pipelineBufferSize);
         // Save nodes' settings
         for (Map.Entry<Class, NodeSettings> entry : nodeSettings.entrySet()) {
             IDialogSettings nodeSection = DialogSettings.getOrCreateSection(dialogSettings, entry.getKey().getSimpleName());
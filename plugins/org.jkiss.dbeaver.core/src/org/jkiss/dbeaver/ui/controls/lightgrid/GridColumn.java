@@ -48,6 +48,10 @@ class GridColumn {
     private static final int rightMargin = 6;
     private static final int imageSpacing = 3;
     private static final int insideMargin = 3;
+    /**
+     * Number of rows (besides visible ones) sampled to estimate column width
+     */
+    private static final int PACK_SAMPLE_SIZE = 50;
 
 	private final LightGrid grid;
     private final Object element;
@@ -185,14 +189,22 @@ class GridColumn {
 		int newWidth = computeHeaderWidth();
         if (CommonUtils.isEmpty(children)) {
             // Calculate width of visible cells
+            int itemCount = grid.getItemCount();
             int topIndex = grid.getTopIndex();
             int bottomIndex = grid.getBottomIndex();
             if (topIndex >= 0 && bottomIndex >= topIndex) {
-                int itemCount = grid.getItemCount();
                 for (int i = topIndex; i <= bottomIndex && i < itemCount; i++) {
                     newWidth = Math.max(newWidth, computeCellWidth(element, grid.getRowElement(i)));
                 }
             }
+            // Estimate width of the rest of rows by an evenly distributed sample
+            // so scrolling doesn't reveal cells much wider than the column
+            int sampleStep = Math.max(1, itemCount / PACK_SAMPLE_SIZE);
+            for (int i = 0; i < itemCount; i += sampleStep) {
+                if (i < topIndex || i > bottomIndex) {
+                    newWidth = Math.max(newWidth, computeCellWidth(element, grid.getRowElement(i)));
+                }
+            }
         } else {
             int childrenWidth = 0;
             for (GridColumn child : children) {
@@ -225,7 +237,7 @@ class GridColumn {
             x += imageBounds.width + insideMargin;
         }
 
-        x += grid.sizingGC.textExtent(grid.getCellText(col, row)).x + rightMargin;
+        x += grid.getTextWidth(grid.getCellText(col, row)) + rightMargin;
         return x;
     }
 
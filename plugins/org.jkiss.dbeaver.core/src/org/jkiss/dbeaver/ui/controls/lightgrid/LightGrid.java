@@ -78,6 +78,11 @@ public abstract class LightGrid extends Canvas {
      */
     private static final int SELECTION_DRAG_BORDER_THRESHOLD = 2;
 
+    /**
+     * Maximum number of measured cell texts kept in text width cache
+     */
+    private static final int MAX_TEXT_WIDTH_CACHE_SIZE = 10000;
+
     public enum EventSource {
         MOUSE,
         KEYBOARD,
@@ -241,6 +246,17 @@ public abstract class LightGrid extends Canvas {
     FontMetrics fontMetrics;
     Font normalFont;
 
+    /**
+     * Text extents measured with sizingGC. Depends only on current font.
+     */
+    private final Map<String, Integer> textWidthCache = new LinkedHashMap<String, Integer>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest)
+        {
+            return size() > MAX_TEXT_WIDTH_CACHE_SIZE;
+        }
+    };
+
     @NotNull
     private Color lineColor;
     @NotNull
@@ -3948,6 +3964,7 @@ public abstract class LightGrid extends Canvas {
         sizingGC.setFont(font);
         fontMetrics = sizingGC.getFontMetrics();
         normalFont = font;
+        textWidthCache.clear();
     }
 
     /**
@@ -3998,6 +4015,20 @@ public abstract class LightGrid extends Canvas {
         return text;
     }
 
+    /**
+     * Returns text width in current font.
+     * Measured widths are cached so repeated column packing doesn't re-measure the same strings.
+     */
+    int getTextWidth(String text)
+    {
+        Integer width = textWidthCache.get(text);
+        if (width == null) {
+            width = sizingGC.textExtent(text).x;
+            textWidthCache.put(text, width);
+        }
+        return width;
+    }
+
     @Nullable
     public String getCellToolTip(GridColumn col, int row)
     {
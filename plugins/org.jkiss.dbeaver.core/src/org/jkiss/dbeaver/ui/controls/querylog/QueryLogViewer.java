@@ -21,6 +21,7 @@ package org.jkiss.dbeaver.ui.controls.querylog;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.jface.action.*;
 import org.eclipse.jface.dialogs.IDialogConstants;
@@ -35,6 +36,8 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.dnd.*;
 import org.eclipse.swt.events.DisposeEvent;
 import org.eclipse.swt.events.DisposeListener;
+import org.eclipse.swt.events.ModifyEvent;
+import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Color;
@@ -45,6 +48,7 @@ import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.*;
 import org.eclipse.ui.IWorkbenchCommandConstants;
 import org.eclipse.ui.IWorkbenchPartSite;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.core.CoreMessages;
 import org.jkiss.dbeaver.core.DBeaverCore;
@@ -54,9 +58,13 @@ import org.jkiss.dbeaver.model.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.qm.*;
 import org.jkiss.dbeaver.model.qm.meta.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.runtime.qm.DefaultEventFilter;
+import org.jkiss.dbeaver.runtime.qm.QMHistoryCursor;
+import org.jkiss.dbeaver.runtime.qm.QMHistoryFilter;
+import org.jkiss.dbeaver.runtime.qm.QMHistoryStore;
 import org.jkiss.dbeaver.ui.*;
 import org.jkiss.dbeaver.ui.dialogs.sql.BaseSQLDialog;
 import org.jkiss.dbeaver.utils.GeneralUtils;
@@ -80,6 +88,7 @@ public class QueryLogViewer extends Viewer implements QMMetaListener, DBPPrefere
     private static final String QUERY_LOG_CONTROL_ID = "org.jkiss.dbeaver.ui.qm.log"; //$NON-NLS-1$
     private static final String VIEWER_ID = "DBeaver.QM.LoigViewer";
     private static final int MIN_ENTRIES_PER_PAGE = 1;
+    private static final long SEARCH_DELAY = 300;
 
     private static abstract class LogColumn {
         private final String id;
@@ -289,6 +298,7 @@ public class QueryLogViewer extends Viewer implements QMMetaListener, DBPPrefere
     };
 
     private final IWorkbenchPartSite site;
+    private Text searchText;
     private Table logTable;
     private java.util.List<ColumnDescriptor> columns = new ArrayList<>();
     private LongKeyMap<TableItem> objectToItemMap = new LongKeyMap<>();
@@ -305,6 +315,10 @@ public class QueryLogViewer extends Viewer implements QMMetaListener, DBPPrefere
 
     private int entriesPerPage = MIN_ENTRIES_PER_PAGE;
 
+    // Query history search results are shown instead of live log while cursor is set
+    private QMHistoryCursor historyCursor;
+    private HistorySearchJob searchJob;
+
     public QueryLogViewer(Composite parent, IWorkbenchPartSite site, QMEventFilter filter, boolean showConnection)
     {
         super();
@@ -320,6 +334,21 @@ public class QueryLogViewer extends Viewer implements QMMetaListener, DBPPrefere
         colorGray = sharedColors.getColor(new RGB(0x50, 0x50, 0x50));
         boldFont = UIUtils.makeBoldFont(parent.getFont());
 
+        QMHistoryStore historyStore = DBeaverCore.getInstance().getQueryHistory();
+        if (historyStore != null && historyStore.isEnabled()) {
+            searchText = new Text(parent, SWT.BORDER | SWT.SEARCH | SWT.ICON_SEARCH | SWT.ICON_CANCEL);
+            searchText.setMessage(CoreMessages.controls_querylog_search_message);
+            searchText.setToolTipText(CoreMessages.controls_querylog_search_tooltip);
+            searchText.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+            searchText.addModifyListener(new ModifyListener() {
+                @Override
+                public void modifyText(ModifyEvent e)
+                {
+                    scheduleHistorySearch();
+                }
+            });
+        }
+
         // Create log table
         logTable = new Table(
             parent,
@@ -359,6 +388,16 @@ public class QueryLogViewer extends Viewer implements QMMetaListener, DBPPrefere
                 showEventDetails((QMMetaEvent) e.item.getData());
             }
         });
+        logTable.getVerticalBar().addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent e)
+            {
+                ScrollBar scrollBar = logTable.getVerticalBar();
+                if (scrollBar.getSelection() + scrollBar.getThumb() >= scrollBar.getMaximum()) {
+                    loadMoreHistory();
+                }
+            }
+        });
 
         this.filter = filter;
 
@@ -441,6 +480,14 @@ public class QueryLogViewer extends Viewer implements QMMetaListener, DBPPrefere
 
     private void dispose()
     {
+        if (searchJob != null) {
+            searchJob.cancel();
+            searchJob = null;
+        }
+        if (historyCursor != null) {
+            historyCursor.close();
+            historyCursor = null;
+        }
         DBeaverCore.getGlobalPreferenceStore().removePropertyChangeListener(this);
         QMUtils.unregisterMetaListener(this);
         UIUtils.dispose(dndSource);
@@ -561,6 +608,10 @@ public class QueryLogViewer extends Viewer implements QMMetaListener, DBPPrefere
         this.defaultFilter = new DefaultEventFilter();
         this.entriesPerPage = Math.max(MIN_ENTRIES_PER_PAGE, store.getInt(QMConstants.PROP_ENTRIES_PER_PAGE));
 
+        if (historyCursor != null) {
+            scheduleHistorySearch();
+            return;
+        }
         clearLog();
         updateMetaInfo(QMUtils.getPastMetaEvents());
     }
@@ -578,7 +629,8 @@ public class QueryLogViewer extends Viewer implements QMMetaListener, DBPPrefere
 
     private synchronized void updateMetaInfo(final java.util.List<QMMetaEvent> events)
     {
-        if (logTable.isDisposed()) {
+        if (logTable.isDisposed() || historyCursor != null) {
+            // Live events are not shown with search results
             return;
         }
         logTable.setRedraw(false);
@@ -638,6 +690,52 @@ public class QueryLogViewer extends Viewer implements QMMetaListener, DBPPrefere
         }
     }
 
+    private void scheduleHistorySearch()
+    {
+        if (searchText == null || searchText.isDisposed()) {
+            return;
+        }
+        if (searchJob != null) {
+            searchJob.cancel();
+        }
+        searchJob = new HistorySearchJob(searchText.getText(), null);
+        searchJob.schedule(SEARCH_DELAY);
+    }
+
+    private void loadMoreHistory()
+    {
+        if (historyCursor == null || !historyCursor.hasMore() || (searchJob != null && searchJob.getState() != Job.NONE)) {
+            return;
+        }
+        searchJob = new HistorySearchJob(null, historyCursor);
+        searchJob.schedule();
+    }
+
+    private void showHistoryResults(@Nullable QMHistoryCursor cursor, java.util.List<QMMetaEvent> events, boolean newSearch)
+    {
+        if (newSearch) {
+            if (historyCursor != null && historyCursor != cursor) {
+                historyCursor.close();
+            }
+            historyCursor = cursor;
+            if (cursor == null) {
+                // Back to live log
+                reloadEvents();
+                return;
+            }
+            clearLog();
+        }
+        logTable.setRedraw(false);
+        try {
+            int itemIndex = logTable.getItemCount();
+            for (QMMetaEvent event : events) {
+                itemIndex = createOrUpdateItem(event, itemIndex);
+            }
+        } finally {
+            logTable.setRedraw(true);
+        }
+    }
+
     private void updateExecutions(QMMetaEvent event, QMMTransactionSavepointInfo savepoint)
     {
         for (Iterator<QMMStatementExecuteInfo> i = savepoint.getExecutions(); i.hasNext(); ) {
@@ -855,6 +953,60 @@ public class QueryLogViewer extends Viewer implements QMMetaListener, DBPPrefere
     }
 
 
+    private class HistorySearchJob extends AbstractJob {
+
+        private final String searchString;
+        private QMHistoryCursor cursor;
+
+        protected HistorySearchJob(@Nullable String searchString, @Nullable QMHistoryCursor cursor)
+        {
+            super(CoreMessages.controls_querylog_job_search);
+            setUser(false);
+            this.searchString = searchString;
+            this.cursor = cursor;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor)
+        {
+            final boolean newSearch = cursor == null;
+            if (newSearch) {
+                QMHistoryFilter historyFilter = QMHistoryFilter.parse(searchString);
+                if (!historyFilter.isEmpty()) {
+                    cursor = DBeaverCore.getInstance().getQueryHistory().openCursor(historyFilter);
+                }
+            }
+            // Read one page of events which pass viewer filters
+            final java.util.List<QMMetaEvent> events = new ArrayList<>();
+            while (cursor != null && events.size() < entriesPerPage && cursor.hasMore() && !monitor.isCanceled()) {
+                for (QMMetaEvent event : cursor.fetch(monitor, entriesPerPage - events.size())) {
+                    if (defaultFilter.accept(event) && (filter == null || filter.accept(event))) {
+                        events.add(event);
+                    }
+                }
+            }
+            final QMHistoryCursor resultCursor = cursor;
+            if (monitor.isCanceled()) {
+                if (newSearch && resultCursor != null) {
+                    resultCursor.close();
+                }
+                return Status.CANCEL_STATUS;
+            }
+            UIUtils.runInDetachedUI(null, new Runnable() {
+                @Override
+                public void run()
+                {
+                    if (searchJob == HistorySearchJob.this && !logTable.isDisposed()) {
+                        showHistoryResults(resultCursor, events, newSearch);
+                    } else if (newSearch && resultCursor != null) {
+                        resultCursor.close();
+                    }
+                }
+            });
+            return Status.OK_STATUS;
+        }
+    }
+
     private class EventViewDialog extends BaseSQLDialog {
 
         private static final String DIALOG_ID = "DBeaver.QM.EventViewDialog";//$NON-NLS-1$
@@ -0,0 +1,1308 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.core.DBeaverCore;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Columnar storage of fetched rows.
+ * Numbers, booleans and dates are kept in primitive arrays (one array per column) with a null bitmap.
+ * Strings are dictionary-encoded. Column switches to plain object array as soon as it gets
+ * a value which can't be encoded (or too many distinct strings).
+ * Values are boxed back on read, so their classes are exactly the same as were fetched.
+ *
+ * Rows are split in pages. If memory limit is set then only recently used pages are kept in memory,
+ * others are written in temporary file and are read back (memory-mapped) on access.
+ * Pages are written by background job, so rows append (which happens in UI thread) never waits for disk.
+ * The same job reads ahead the page following the one which was read back.
+ * Pages with complex values (LOBs, structures, etc) always stay in memory.
+ */
+class ResultSetColumnStore {
+
+    private static final Log log = Log.getLog(ResultSetColumnStore.class);
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final int INITIAL_CAPACITY = 256;
+    // Dictionary encoding is worth it only for repeating strings
+    private static final int MIN_DICTIONARY_ROWS = 1000;
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    private static final byte KIND_NULL = 0;
+    private static final byte KIND_OBJECT = 1;
+    private static final byte KIND_INT = 2;
+    private static final byte KIND_LONG = 3;
+    private static final byte KIND_DOUBLE = 4;
+    private static final byte KIND_DECIMAL = 5;
+    private static final byte KIND_BOOLEAN = 6;
+    private static final byte KIND_DATE = 7;
+    private static final byte KIND_STRING = 8;
+
+    // Classes of values which may be written in spill file
+    private static final Class<?>[] SIMPLE_TYPES = {
+        String.class,
+        Integer.class, Long.class, Short.class, Byte.class, Double.class, Float.class,
+        BigDecimal.class, BigInteger.class, Boolean.class,
+        java.util.Date.class, java.sql.Date.class, Time.class, Timestamp.class,
+        byte[].class
+    };
+
+    private final Column[] prototype;
+    private final List<Page> pages = new ArrayList<>();
+    private int rowCount;
+
+    // Spilling
+    private final int maxResidentPages;
+    private final LinkedHashMap<Integer, Page> residentPages = new LinkedHashMap<>(16, 0.75f, true);
+    private Page lastAccessedPage;
+    private File spillFile;
+    private RandomAccessFile spillRandomFile;
+    private FileChannel spillChannel;
+    private long spillLength;
+    private boolean spillFailed;
+    private final Deque<Page> writeQueue = new ArrayDeque<>();
+    private final Deque<Page> readQueue = new ArrayDeque<>();
+    private final SpillJob spillJob = new SpillJob();
+    private boolean closed;
+
+    /**
+     * @param columnCount   number of columns
+     * @param maxMemoryRows number of rows to keep in memory. Other rows are written to disk. 0 means no limit.
+     */
+    ResultSetColumnStore(int columnCount, int maxMemoryRows)
+    {
+        this.prototype = new Column[columnCount];
+        this.maxResidentPages = maxMemoryRows <= 0 ? 0 : Math.max(2, maxMemoryRows / PAGE_SIZE);
+    }
+
+    int getColumnCount()
+    {
+        return prototype.length;
+    }
+
+    int getRowCount()
+    {
+        return rowCount;
+    }
+
+    /**
+     * Appends row values
+     * @return index of the new row in the store
+     */
+    synchronized int addRow(@NotNull Object[] values)
+    {
+        Page page = pages.isEmpty() ? null : pages.get(pages.size() - 1);
+        if (page == null || page.rowCount >= PAGE_SIZE) {
+            page = new Page(pages.size(), prototype.length);
+            pages.add(page);
+            residentPages.put(page.index, page);
+            checkResidentPages();
+        }
+        page.addRow(values);
+        return rowCount++;
+    }
+
+    @Nullable
+    Object getValue(int row, int column)
+    {
+        return getColumns(row)[column].get(row & PAGE_MASK);
+    }
+
+    @NotNull
+    Object[] getRow(int row)
+    {
+        final Column[] columns = getColumns(row);
+        final int pageRow = row & PAGE_MASK;
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = columns[i].get(pageRow);
+        }
+        return values;
+    }
+
+    /**
+     * Reads row values and detaches them from the store.
+     * Since then the caller owns (and releases) all values.
+     */
+    @NotNull
+    Object[] extractRow(int row)
+    {
+        Object[] values = getRow(row);
+        for (Column column : getColumns(row)) {
+            column.clear(row & PAGE_MASK);
+        }
+        return values;
+    }
+
+    synchronized void releaseRow(int row)
+    {
+        final Page page = pages.get(row >> PAGE_SHIFT);
+        if (page.spillOffset >= 0) {
+            // Spilled pages contain only simple values
+            return;
+        }
+        final int pageRow = row & PAGE_MASK;
+        for (Column column : page.columns) {
+            if (column instanceof ObjectColumn) {
+                DBUtils.releaseValue(column.get(pageRow));
+                column.clear(pageRow);
+            }
+        }
+    }
+
+    /**
+     * Deletes spill file
+     */
+    synchronized void close()
+    {
+        closed = true;
+        spillJob.cancel();
+        writeQueue.clear();
+        readQueue.clear();
+        pages.clear();
+        residentPages.clear();
+        lastAccessedPage = null;
+        if (spillRandomFile != null) {
+            try {
+                spillRandomFile.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            spillRandomFile = null;
+            spillChannel = null;
+        }
+        if (spillFile != null) {
+            if (!spillFile.delete()) {
+                // Still mapped
+                spillFile.deleteOnExit();
+            }
+            spillFile = null;
+        }
+    }
+
+    /**
+     * Returns columns of the page containing specified row. Values may be read from the other thread (e.g. by sorter).
+     */
+    @NotNull
+    private synchronized Column[] getColumns(int row)
+    {
+        final Page page = pages.get(row >> PAGE_SHIFT);
+        if (page != lastAccessedPage) {
+            if (page.columns == null) {
+                setPageColumns(page, readPage(page));
+                // Sequential scroll will need the next page soon
+                scheduleReadAhead(page.index + 1);
+            }
+            if (maxResidentPages > 0) {
+                // Mark as recently used
+                residentPages.get(page.index);
+            }
+            lastAccessedPage = page;
+        }
+        return page.columns;
+    }
+
+    /**
+     * Unloads least recently used pages which are already written on disk.
+     * Pages which were never written are queued for spill job and are unloaded after it writes them.
+     */
+    private void checkResidentPages()
+    {
+        if (maxResidentPages <= 0 || spillFailed) {
+            return;
+        }
+        final int lastPage = pages.size() - 1;
+        boolean scheduleSpill = false;
+        for (Iterator<Page> iter = residentPages.values().iterator(); iter.hasNext() && residentPages.size() > maxResidentPages; ) {
+            final Page page = iter.next();
+            if (page.index == lastPage || !page.isSpillable()) {
+                continue;
+            }
+            if (page.spillOffset < 0) {
+                if (!page.spillQueued) {
+                    page.spillQueued = true;
+                    writeQueue.add(page);
+                    scheduleSpill = true;
+                }
+                continue;
+            }
+            page.columns = null;
+            if (page == lastAccessedPage) {
+                lastAccessedPage = null;
+            }
+            iter.remove();
+        }
+        if (scheduleSpill) {
+            spillJob.schedule();
+        }
+    }
+
+    private void scheduleReadAhead(int pageIndex)
+    {
+        if (pageIndex < pages.size()) {
+            final Page page = pages.get(pageIndex);
+            if (page.columns == null && !readQueue.contains(page)) {
+                readQueue.add(page);
+                spillJob.schedule();
+            }
+        }
+    }
+
+    @NotNull
+    private static byte[] serializePage(@NotNull Page page) throws IOException
+    {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(PAGE_SIZE * page.columns.length * 8);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            for (Column column : page.columns) {
+                column.write(out, page.rowCount);
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Writes serialized page in spill file. Called by spill job only, so file is written by single thread.
+     */
+    private void writePage(@NotNull Page page, @NotNull byte[] pageData) throws IOException
+    {
+        if (spillChannel == null) {
+            File folder = DBeaverCore.getInstance().getTempFolder(VoidProgressMonitor.INSTANCE, "resultset");
+            File file = File.createTempFile("resultset", ".data", folder);
+            file.deleteOnExit();
+            RandomAccessFile randomFile = new RandomAccessFile(file, "rw");
+            synchronized (this) {
+                spillFile = file;
+                spillRandomFile = randomFile;
+                spillChannel = randomFile.getChannel();
+                if (closed) {
+                    close();
+                    return;
+                }
+            }
+        }
+        final ByteBuffer data = ByteBuffer.wrap(pageData);
+        final long offset = spillLength;
+        while (data.hasRemaining()) {
+            spillChannel.write(data, offset + data.position());
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            page.spillOffset = offset;
+            page.spillLength = data.limit();
+            spillLength += page.spillLength;
+            // Now page may be unloaded
+            checkResidentPages();
+        }
+    }
+
+    @NotNull
+    private Column[] readPage(@NotNull Page page)
+    {
+        final Column[] columns = new Column[prototype.length];
+        try {
+            final ByteBuffer data = spillChannel.map(FileChannel.MapMode.READ_ONLY, page.spillOffset, page.spillLength);
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = readColumn(data, page.rowCount);
+            }
+        } catch (Exception e) {
+            log.error("Error reading result set page from disk", e);
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = new NullColumn();
+            }
+        }
+        return columns;
+    }
+
+    private void setPageColumns(@NotNull Page page, @NotNull Column[] columns)
+    {
+        page.columns = columns;
+        residentPages.put(page.index, page);
+        checkResidentPages();
+    }
+
+    private static boolean isSimpleType(@NotNull Class<?> type)
+    {
+        for (Class<?> simpleType : SIMPLE_TYPES) {
+            if (simpleType == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static Column createColumn(@NotNull Object value)
+    {
+        final Class<?> type = value.getClass();
+        if (type == Integer.class || type == Short.class || type == Byte.class) {
+            return new IntColumn(type);
+        } else if (type == Long.class) {
+            return new LongColumn();
+        } else if (type == Double.class || type == Float.class) {
+            return new DoubleColumn(type);
+        } else if (type == BigDecimal.class) {
+            return new DecimalColumn();
+        } else if (type == Boolean.class) {
+            return new BooleanColumn();
+        } else if (type == java.util.Date.class || type == java.sql.Date.class || type == Time.class || type == Timestamp.class) {
+            return new DateColumn(type);
+        } else if (type == String.class) {
+            return new StringColumn();
+        }
+        return null;
+    }
+
+    @NotNull
+    private static Column readColumn(@NotNull ByteBuffer in, int rowCount)
+    {
+        final Column column;
+        final byte kind = in.get();
+        switch (kind) {
+            case KIND_NULL: column = new NullColumn(); break;
+            case KIND_OBJECT: column = new ObjectColumn(); break;
+            case KIND_INT: column = new IntColumn(SIMPLE_TYPES[in.get()]); break;
+            case KIND_LONG: column = new LongColumn(); break;
+            case KIND_DOUBLE: column = new DoubleColumn(SIMPLE_TYPES[in.get()]); break;
+            case KIND_DECIMAL: column = new DecimalColumn(); break;
+            case KIND_BOOLEAN: column = new BooleanColumn(); break;
+            case KIND_DATE: column = new DateColumn(SIMPLE_TYPES[in.get()]); break;
+            case KIND_STRING: column = new StringColumn(); break;
+            default:
+                throw new IllegalStateException("Bad column kind: " + kind);
+        }
+        column.grow(rowCount);
+        column.read(in, rowCount);
+        return column;
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @NotNull String value) throws IOException
+    {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @NotNull
+    private static String readString(@NotNull ByteBuffer in)
+    {
+        final byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte getTypeIndex(@NotNull Class<?> type)
+    {
+        for (int i = 0; i < SIMPLE_TYPES.length; i++) {
+            if (SIMPLE_TYPES[i] == type) {
+                return (byte) i;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported type: " + type.getName());
+    }
+
+    /**
+     * Writes queued pages and reads ahead spilled pages.
+     * Page is serialized under store lock, disk IO is done without lock.
+     */
+    private class SpillJob extends AbstractJob {
+
+        SpillJob()
+        {
+            super("Result set spill");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor)
+        {
+            while (!monitor.isCanceled()) {
+                final Page page;
+                byte[] pageData = null;
+                synchronized (ResultSetColumnStore.this) {
+                    if (closed) {
+                        break;
+                    }
+                    if (!writeQueue.isEmpty()) {
+                        page = writeQueue.poll();
+                        page.spillQueued = false;
+                        if (spillFailed || page.columns == null || page.spillOffset >= 0) {
+                            continue;
+                        }
+                        try {
+                            pageData = serializePage(page);
+                        } catch (IOException e) {
+                            log.error("Error serializing result set page", e);
+                            continue;
+                        }
+                    } else if (!readQueue.isEmpty()) {
+                        page = readQueue.poll();
+                        if (page.columns != null) {
+                            continue;
+                        }
+                    } else {
+                        break;
+                    }
+                }
+                if (pageData != null) {
+                    try {
+                        writePage(page, pageData);
+                    } catch (IOException e) {
+                        synchronized (ResultSetColumnStore.this) {
+                            if (!closed) {
+                                log.error("Error writing result set page to disk. Keep all rows in memory.", e);
+                                spillFailed = true;
+                                writeQueue.clear();
+                            }
+                        }
+                    }
+                } else {
+                    final Column[] columns = readPage(page);
+                    synchronized (ResultSetColumnStore.this) {
+                        if (!closed && page.columns == null) {
+                            setPageColumns(page, columns);
+                        }
+                    }
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    private static class Page {
+        private final int index;
+        // Null if page is spilled
+        private Column[] columns;
+        private int rowCount;
+        private int capacity;
+        private long spillOffset = -1;
+        private int spillLength;
+        // Waits for spill job
+        private boolean spillQueued;
+
+        Page(int index, int columnCount)
+        {
+            this.index = index;
+            this.columns = new Column[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columns[i] = new NullColumn();
+            }
+        }
+
+        void addRow(@NotNull Object[] values)
+        {
+            if (rowCount >= capacity) {
+                capacity = capacity == 0 ? INITIAL_CAPACITY : Math.min(PAGE_SIZE, capacity * 2);
+                for (Column column : columns) {
+                    column.grow(capacity);
+                }
+            }
+            for (int i = 0; i < columns.length; i++) {
+                setValue(i, rowCount, values[i]);
+            }
+            rowCount++;
+        }
+
+        boolean isSpillable()
+        {
+            for (Column column : columns) {
+                if (!column.isSpillable(rowCount)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void setValue(int index, int row, @Nullable Object value)
+        {
+            Column column = columns[index];
+            if (column.set(row, value)) {
+                return;
+            }
+            Column newColumn = null;
+            if (column instanceof NullColumn) {
+                newColumn = createColumn(value);
+            }
+            if (newColumn == null) {
+                newColumn = new ObjectColumn();
+            }
+            newColumn.grow(capacity);
+            for (int i = 0; i < row; i++) {
+                newColumn.set(i, column.get(i));
+            }
+            newColumn.set(row, value);
+            columns[index] = newColumn;
+        }
+    }
+
+    private static abstract class Column {
+
+        /**
+         * Sets value. Returns false if value can't be stored in this column.
+         */
+        abstract boolean set(int row, @Nullable Object value);
+
+        @Nullable
+        abstract Object get(int row);
+
+        abstract void grow(int capacity);
+
+        void clear(int row)
+        {
+        }
+
+        boolean isSpillable(int rowCount)
+        {
+            return true;
+        }
+
+        abstract void write(@NotNull DataOutputStream out, int rowCount) throws IOException;
+
+        abstract void read(@NotNull ByteBuffer in, int rowCount);
+    }
+
+    private static class NullColumn extends Column {
+        @Override
+        boolean set(int row, @Nullable Object value)
+        {
+            return value == null;
+        }
+
+        @Override
+        Object get(int row)
+        {
+            return null;
+        }
+
+        @Override
+        void grow(int capacity)
+        {
+        }
+
+        @Override
+        void write(@NotNull DataOutputStream out, int rowCount) throws IOException
+        {
+            out.writeByte(KIND_NULL);
+        }
+
+        @Override
+        void read(@NotNull ByteBuffer in, int rowCount)
+        {
+        }
+    }
+
+    private static class ObjectColumn extends Column {
+        private Object[] values = new Object[0];
+
+        @Override
+        boolean set(int row, @Nullable Object value)
+        {
+            values[row] = value;
+            return true;
+        }
+
+        @Override
+        Object get(int row)
+        {
+            return values[row];
+        }
+
+        @Override
+        void grow(int capacity)
+        {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void clear(int row)
+        {
+            values[row] = null;
+        }
+
+        @Override
+        boolean isSpillable(int rowCount)
+        {
+            for (int i = 0; i < rowCount; i++) {
+                if (values[i] != null && !isSimpleType(values[i].getClass())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void write(@NotNull DataOutputStream out, int rowCount) throws IOException
+        {
+            out.writeByte(KIND_OBJECT);
+            for (int i = 0; i < rowCount; i++) {
+                final Object value = values[i];
+                if (value == null) {
+                    out.writeByte(-1);
+                    continue;
+                }
+                final byte type = getTypeIndex(value.getClass());
+                out.writeByte(type);
+                if (value instanceof String) {
+                    writeString(out, (String) value);
+                } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                    out.writeInt(((Number) value).intValue());
+                } else if (value instanceof Long) {
+                    out.writeLong((Long) value);
+                } else if (value instanceof Double || value instanceof Float) {
+                    out.writeDouble(((Number) value).doubleValue());
+                } else if (value instanceof BigDecimal) {
+                    final byte[] unscaled = ((BigDecimal) value).unscaledValue().toByteArray();
+                    out.writeInt(((BigDecimal) value).scale());
+                    out.writeInt(unscaled.length);
+                    out.write(unscaled);
+                } else if (value instanceof BigInteger) {
+                    final byte[] bytes = ((BigInteger) value).toByteArray();
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                } else if (value instanceof Boolean) {
+                    out.writeBoolean((Boolean) value);
+                } else if (value instanceof java.util.Date) {
+                    out.writeLong(((java.util.Date) value).getTime());
+                    if (value instanceof Timestamp) {
+                        out.writeInt(((Timestamp) value).getNanos());
+                    }
+                } else if (value instanceof byte[]) {
+                    out.writeInt(((byte[]) value).length);
+                    out.write((byte[]) value);
+                }
+            }
+        }
+
+        @Override
+        void read(@NotNull ByteBuffer in, int rowCount)
+        {
+            for (int i = 0; i < rowCount; i++) {
+                final byte typeIndex = in.get();
+                if (typeIndex < 0) {
+                    continue;
+                }
+                final Class<?> type = SIMPLE_TYPES[typeIndex];
+                final Object value;
+                if (type == String.class) {
+                    value = readString(in);
+                } else if (type == Integer.class) {
+                    value = in.getInt();
+                } else if (type == Short.class) {
+                    value = (short) in.getInt();
+                } else if (type == Byte.class) {
+                    value = (byte) in.getInt();
+                } else if (type == Long.class) {
+                    value = in.getLong();
+                } else if (type == Double.class) {
+                    value = in.getDouble();
+                } else if (type == Float.class) {
+                    value = (float) in.getDouble();
+                } else if (type == BigDecimal.class) {
+                    final int scale = in.getInt();
+                    final byte[] unscaled = new byte[in.getInt()];
+                    in.get(unscaled);
+                    value = new BigDecimal(new BigInteger(unscaled), scale);
+                } else if (type == BigInteger.class) {
+                    final byte[] bytes = new byte[in.getInt()];
+                    in.get(bytes);
+                    value = new BigInteger(bytes);
+                } else if (type == Boolean.class) {
+                    value = in.get() != 0;
+                } else if (type == byte[].class) {
+                    final byte[] bytes = new byte[in.getInt()];
+                    in.get(bytes);
+                    value = bytes;
+                } else {
+                    final long time = in.getLong();
+                    if (type == Timestamp.class) {
+                        Timestamp timestamp = new Timestamp(time);
+                        timestamp.setNanos(in.getInt());
+                        value = timestamp;
+                    } else {
+                        value = DateColumn.makeDate(type, time);
+                    }
+                }
+                values[i] = value;
+            }
+        }
+    }
+
+    private static abstract class PrimitiveColumn extends Column {
+        private long[] nulls = new long[0];
+
+        @Override
+        boolean set(int row, @Nullable Object value)
+        {
+            if (value == null) {
+                nulls[row >> 6] |= 1L << row;
+                return true;
+            }
+            if (!setValue(row, value)) {
+                return false;
+            }
+            nulls[row >> 6] &= ~(1L << row);
+            return true;
+        }
+
+        @Override
+        Object get(int row)
+        {
+            return isNull(row) ? null : getValue(row);
+        }
+
+        private boolean isNull(int row)
+        {
+            return (nulls[row >> 6] & (1L << row)) != 0;
+        }
+
+        @Override
+        void grow(int capacity)
+        {
+            nulls = Arrays.copyOf(nulls, (capacity + 63) >> 6);
+            growValues(capacity);
+        }
+
+        @Override
+        void write(@NotNull DataOutputStream out, int rowCount) throws IOException
+        {
+            writeHeader(out);
+            final int words = (rowCount + 63) >> 6;
+            for (int i = 0; i < words; i++) {
+                out.writeLong(nulls[i]);
+            }
+            writeValues(out, rowCount);
+        }
+
+        @Override
+        void read(@NotNull ByteBuffer in, int rowCount)
+        {
+            final int words = (rowCount + 63) >> 6;
+            for (int i = 0; i < words; i++) {
+                nulls[i] = in.getLong();
+            }
+            readValues(in, rowCount);
+        }
+
+        abstract boolean setValue(int row, @NotNull Object value);
+
+        @NotNull
+        abstract Object getValue(int row);
+
+        abstract void growValues(int capacity);
+
+        /**
+         * Writes column kind (and value type if needed)
+         */
+        abstract void writeHeader(@NotNull DataOutputStream out) throws IOException;
+
+        abstract void writeValues(@NotNull DataOutputStream out, int rowCount) throws IOException;
+
+        abstract void readValues(@NotNull ByteBuffer in, int rowCount);
+    }
+
+    private static class IntColumn extends PrimitiveColumn {
+        private final Class<?> type;
+        private int[] values = new int[0];
+
+        IntColumn(Class<?> type)
+        {
+            this.type = type;
+        }
+
+        @Override
+        boolean setValue(int row, @NotNull Object value)
+        {
+            if (value.getClass() != type) {
+                return false;
+            }
+            values[row] = ((Number) value).intValue();
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row)
+        {
+            if (type == Short.class) {
+                return (short) values[row];
+            } else if (type == Byte.class) {
+                return (byte) values[row];
+            }
+            return values[row];
+        }
+
+        @Override
+        void growValues(int capacity)
+        {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+
+        @Override
+        void writeHeader(@NotNull DataOutputStream out) throws IOException
+        {
+            out.writeByte(KIND_INT);
+            out.writeByte(getTypeIndex(type));
+        }
+
+        @Override
+        void writeValues(@NotNull DataOutputStream out, int rowCount) throws IOException
+        {
+            for (int i = 0; i < rowCount; i++) {
+                out.writeInt(values[i]);
+            }
+        }
+
+        @Override
+        void readValues(@NotNull ByteBuffer in, int rowCount)
+        {
+            for (int i = 0; i < rowCount; i++) {
+                values[i] = in.getInt();
+            }
+        }
+    }
+
+    private static class LongColumn extends PrimitiveColumn {
+        private long[] values = new long[0];
+
+        @Override
+        boolean setValue(int row, @NotNull Object value)
+        {
+            if (value.getClass() != Long.class) {
+                return false;
+            }
+            values[row] = (Long) value;
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row)
+        {
+            return values[row];
+        }
+
+        @Override
+        void growValues(int capacity)
+        {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+
+        @Override
+        void writeHeader(@NotNull DataOutputStream out) throws IOException
+        {
+            out.writeByte(KIND_LONG);
+        }
+
+        @Override
+        void writeValues(@NotNull DataOutputStream out, int rowCount) throws IOException
+        {
+            for (int i = 0; i < rowCount; i++) {
+                out.writeLong(values[i]);
+            }
+        }
+
+        @Override
+        void readValues(@NotNull ByteBuffer in, int rowCount)
+        {
+            for (int i = 0; i < rowCount; i++) {
+                values[i] = in.getLong();
+            }
+        }
+    }
+
+    private static class DoubleColumn extends PrimitiveColumn {
+        private final Class<?> type;
+        private double[] values = new double[0];
+
+        DoubleColumn(Class<?> type)
+        {
+            this.type = type;
+        }
+
+        @Override
+        boolean setValue(int row, @NotNull Object value)
+        {
+            if (value.getClass() != type) {
+                return false;
+            }
+            values[row] = ((Number) value).doubleValue();
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row)
+        {
+            if (type == Float.class) {
+                return (float) values[row];
+            }
+            return values[row];
+        }
+
+        @Override
+        void growValues(int capacity)
+        {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+
+        @Override
+        void writeHeader(@NotNull DataOutputStream out) throws IOException
+        {
+            out.writeByte(KIND_DOUBLE);
+            out.writeByte(getTypeIndex(type));
+        }
+
+        @Override
+        void writeValues(@NotNull DataOutputStream out, int rowCount) throws IOException
+        {
+            for (int i = 0; i < rowCount; i++) {
+                out.writeDouble(values[i]);
+            }
+        }
+
+        @Override
+        void readValues(@NotNull ByteBuffer in, int rowCount)
+        {
+            for (int i = 0; i < rowCount; i++) {
+                values[i] = in.getDouble();
+            }
+        }
+    }
+
+    /**
+     * Decimals with unscaled value which fits in long
+     */
+    private static class DecimalColumn extends PrimitiveColumn {
+        private long[] unscaled = new long[0];
+        private short[] scales = new short[0];
+
+        @Override
+        boolean setValue(int row, @NotNull Object value)
+        {
+            if (value.getClass() != BigDecimal.class) {
+                return false;
+            }
+            final BigDecimal decimal = (BigDecimal) value;
+            final int scale = decimal.scale();
+            if (scale < Short.MIN_VALUE || scale > Short.MAX_VALUE || decimal.precision() > 18) {
+                return false;
+            }
+            unscaled[row] = decimal.unscaledValue().longValue();
+            scales[row] = (short) scale;
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row)
+        {
+            return BigDecimal.valueOf(unscaled[row], scales[row]);
+        }
+
+        @Override
+        void growValues(int capacity)
+        {
+            unscaled = Arrays.copyOf(unscaled, capacity);
+            scales = Arrays.copyOf(scales, capacity);
+        }
+
+
+        @Override
+        void writeHeader(@NotNull DataOutputStream out) throws IOException
+        {
+            out.writeByte(KIND_DECIMAL);
+        }
+
+        @Override
+        void writeValues(@NotNull DataOutputStream out, int rowCount) throws IOException
+        {
+            for (int i = 0; i < rowCount; i++) {
+                out.writeLong(unscaled[i]);
+                out.writeShort(scales[i]);
+            }
+        }
+
+        @Override
+        void readValues(@NotNull ByteBuffer in, int rowCount)
+        {
+            for (int i = 0; i < rowCount; i++) {
+                unscaled[i] = in.getLong();
+                scales[i] = in.getShort();
+            }
+        }
+    }
+
+    private static class BooleanColumn extends PrimitiveColumn {
+        private long[] values = new long[0];
+
+        @Override
+        boolean setValue(int row, @NotNull Object value)
+        {
+            if (value.getClass() != Boolean.class) {
+                return false;
+            }
+            if ((Boolean) value) {
+                values[row >> 6] |= 1L << row;
+            } else {
+                values[row >> 6] &= ~(1L << row);
+            }
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row)
+        {
+            return getBoolean(row);
+        }
+
+        @Override
+        void growValues(int capacity)
+        {
+            values = Arrays.copyOf(values, (capacity + 63) >> 6);
+        }
+
+
+        @Override
+        void writeHeader(@NotNull DataOutputStream out) throws IOException
+        {
+            out.writeByte(KIND_BOOLEAN);
+        }
+
+        @Override
+        void writeValues(@NotNull DataOutputStream out, int rowCount) throws IOException
+        {
+            final int words = (rowCount + 63) >> 6;
+            for (int i = 0; i < words; i++) {
+                out.writeLong(values[i]);
+            }
+        }
+
+        @Override
+        void readValues(@NotNull ByteBuffer in, int rowCount)
+        {
+            final int words = (rowCount + 63) >> 6;
+            for (int i = 0; i < words; i++) {
+                values[i] = in.getLong();
+            }
+        }
+
+        private boolean getBoolean(int row)
+        {
+            return (values[row >> 6] & (1L << row)) != 0;
+        }
+    }
+
+    /**
+     * Dates are stored as milliseconds. Timestamps also keep nanoseconds.
+     */
+    private static class DateColumn extends PrimitiveColumn {
+        private final Class<?> type;
+        private long[] times = new long[0];
+        private int[] nanos;
+
+        DateColumn(Class<?> type)
+        {
+            this.type = type;
+            if (type == Timestamp.class) {
+                nanos = new int[0];
+            }
+        }
+
+        @Override
+        boolean setValue(int row, @NotNull Object value)
+        {
+            if (value.getClass() != type) {
+                return false;
+            }
+            times[row] = ((java.util.Date) value).getTime();
+            if (nanos != null) {
+                nanos[row] = ((Timestamp) value).getNanos();
+            }
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row)
+        {
+            if (nanos != null) {
+                Timestamp timestamp = new Timestamp(times[row]);
+                timestamp.setNanos(nanos[row]);
+                return timestamp;
+            }
+            return makeDate(type, times[row]);
+        }
+
+        @Override
+        void growValues(int capacity)
+        {
+            times = Arrays.copyOf(times, capacity);
+            if (nanos != null) {
+                nanos = Arrays.copyOf(nanos, capacity);
+            }
+        }
+
+
+        @Override
+        void writeHeader(@NotNull DataOutputStream out) throws IOException
+        {
+            out.writeByte(KIND_DATE);
+            out.writeByte(getTypeIndex(type));
+        }
+
+        @Override
+        void writeValues(@NotNull DataOutputStream out, int rowCount) throws IOException
+        {
+            for (int i = 0; i < rowCount; i++) {
+                out.writeLong(times[i]);
+                if (nanos != null) {
+                    out.writeInt(nanos[i]);
+                }
+            }
+        }
+
+        @Override
+        void readValues(@NotNull ByteBuffer in, int rowCount)
+        {
+            for (int i = 0; i < rowCount; i++) {
+                times[i] = in.getLong();
+                if (nanos != null) {
+                    nanos[i] = in.getInt();
+                }
+            }
+        }
+
+        @NotNull
+        static java.util.Date makeDate(@NotNull Class<?> type, long time)
+        {
+            if (type == java.sql.Date.class) {
+                return new java.sql.Date(time);
+            } else if (type == Time.class) {
+                return new Time(time);
+            } else {
+                return new java.util.Date(time);
+            }
+        }
+    }
+
+    /**
+     * Dictionary-encoded strings
+     */
+    private static class StringColumn extends PrimitiveColumn {
+        private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int[] codes = new int[0];
+
+        @Override
+        boolean setValue(int row, @NotNull Object value)
+        {
+            if (value.getClass() != String.class) {
+                return false;
+            }
+            Integer code = dictionaryIndex.get(value);
+            if (code == null) {
+                final int dictionarySize = dictionary.size();
+                if (dictionarySize >= MAX_DICTIONARY_SIZE || (row >= MIN_DICTIONARY_ROWS && dictionarySize > row / 2)) {
+                    // Too many distinct values
+                    return false;
+                }
+                code = dictionarySize;
+                dictionary.add((String) value);
+                dictionaryIndex.put((String) value, code);
+            }
+            codes[row] = code;
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row)
+        {
+            return dictionary.get(codes[row]);
+        }
+
+        @Override
+        void growValues(int capacity)
+        {
+            codes = Arrays.copyOf(codes, capacity);
+        }
+
+
+        @Override
+        void writeHeader(@NotNull DataOutputStream out) throws IOException
+        {
+            out.writeByte(KIND_STRING);
+        }
+
+        @Override
+        void writeValues(@NotNull DataOutputStream out, int rowCount) throws IOException
+        {
+            out.writeInt(dictionary.size());
+            for (String value : dictionary) {
+                writeString(out, value);
+            }
+            for (int i = 0; i < rowCount; i++) {
+                out.writeInt(codes[i]);
+            }
+        }
+
+        @Override
+        void readValues(@NotNull ByteBuffer in, int rowCount)
+        {
+            final int dictionarySize = in.getInt();
+            for (int i = 0; i < dictionarySize; i++) {
+                dictionary.add(readString(in));
+            }
+            for (int i = 0; i < rowCount; i++) {
+                codes[i] = in.getInt();
+            }
+        }
+    }
+
+}
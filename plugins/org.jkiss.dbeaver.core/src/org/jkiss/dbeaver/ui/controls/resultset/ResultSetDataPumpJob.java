@@ -40,6 +40,7 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.core.CoreMessages;
 import org.jkiss.dbeaver.model.DBIcon;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
@@ -141,7 +142,7 @@ class ResultSetDataPumpJob extends DataSourceJob implements DBCExecutionSource {
                 dataFilter,
                 offset,
                 maxRows,
-                DBSDataContainer.FLAG_READ_PSEUDO
+                getReadFlags()
             );
         } catch (DBException e) {
             error = e;
@@ -152,6 +153,15 @@ class ResultSetDataPumpJob extends DataSourceJob implements DBCExecutionSource {
         return Status.OK_STATUS;
     }
 
+    private long getReadFlags()
+    {
+        long flags = DBSDataContainer.FLAG_READ_PSEUDO;
+        if (controller.getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_KEYSET_PAGING)) {
+            flags |= DBSDataContainer.FLAG_KEYSET_PAGING;
+        }
+        return flags;
+    }
+
     @Nullable
     @Override
     public DBSDataContainer getDataContainer() {
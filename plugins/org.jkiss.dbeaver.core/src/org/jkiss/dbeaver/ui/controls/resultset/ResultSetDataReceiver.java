@@ -18,10 +18,12 @@
 package org.jkiss.dbeaver.ui.controls.resultset;
 
 import org.eclipse.swt.widgets.Control;
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDAttributeBindingMeta;
-import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDKeysetPosition;
+import org.jkiss.dbeaver.model.data.DBDKeysetReceiver;
 import org.jkiss.dbeaver.model.exec.*;
 
 import java.util.ArrayList;
@@ -32,7 +34,7 @@ import java.util.Map;
 /**
  * Data pump for SQL queries
  */
-class ResultSetDataReceiver implements DBDDataReceiver {
+class ResultSetDataReceiver implements DBDKeysetReceiver {
 
     static final Log log = Log.getLog(ResultSetDataReceiver.class);
 
@@ -44,6 +46,7 @@ class ResultSetDataReceiver implements DBDDataReceiver {
     private boolean nextSegmentRead;
     private long offset;
     private long maxRows;
+    private final DBDKeysetPosition keysetPosition = new DBDKeysetPosition();
 
     private Map<DBCAttributeMetaData, List<Exception>> errors = new HashMap<>();
 
@@ -64,6 +67,12 @@ class ResultSetDataReceiver implements DBDDataReceiver {
         this.nextSegmentRead = nextSegmentRead;
     }
 
+    @NotNull
+    @Override
+    public DBDKeysetPosition getKeysetPosition() {
+        return keysetPosition;
+    }
+
     @Override
     public void fetchStart(DBCSession session, final DBCResultSet resultSet, long offset, long maxRows)
         throws DBCException
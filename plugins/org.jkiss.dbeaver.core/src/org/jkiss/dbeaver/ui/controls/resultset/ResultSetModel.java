@@ -27,6 +27,7 @@ import org.jkiss.dbeaver.model.data.*;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCLogicalOperator;
 import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
@@ -55,6 +56,16 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    // Keep fetched values in columnar store
+    private boolean columnarStorage;
+    // Number of stored rows to keep in memory (others are spilled to disk)
+    private int memoryRowsLimit;
+    @Nullable
+    private ResultSetColumnStore columnStore;
+    // Incremented on each rows add/remove. Used to check that sort result is still actual
+    private int rowsVersion;
+    @Nullable
+    private ResultSetSorter activeSorter;
     private int changesCount = 0;
     private volatile boolean hasData = false;
     // Flag saying that edited values update is in progress
@@ -292,7 +303,7 @@ public class ResultSetModel {
 
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).getValues();
     }
 
     @NotNull
@@ -305,14 +316,14 @@ public class ResultSetModel {
         int depth = attribute.getLevel();
         if (depth == 0) {
             final int index = attribute.getOrdinalPosition();
-            if (index >= row.values.length) {
+            if (index >= row.getValueCount()) {
                 log.debug("Bad attribute - index out of row values' bounds");
                 return null;
             } else {
-                return row.values[index];
+                return row.getValue(index);
             }
         }
-        Object curValue = row.values[attribute.getTopParent().getOrdinalPosition()];
+        Object curValue = row.getValue(attribute.getTopParent().getOrdinalPosition());
 
         for (int i = 0; i < depth; i++) {
             if (curValue == null) {
@@ -352,7 +363,7 @@ public class ResultSetModel {
         } else {
             rootIndex = attr.getTopParent().getOrdinalPosition();
         }
-        Object rootValue = row.values[rootIndex];
+        Object rootValue = row.getValue(rootIndex);
         Object ownerValue = depth > 0 ? rootValue : null;
         {
             // Obtain owner value and create all intermediate values
@@ -420,7 +431,7 @@ public class ResultSetModel {
                     log.warn("Value [" + ownerValue + "] edit is not supported");
                 }
             } else {
-                row.values[rootIndex] = value;
+                row.setValue(rootIndex, value);
             }
             return true;
         }
@@ -618,10 +629,20 @@ public class ResultSetModel {
         int firstRowNum = curRows.size();
         List<ResultSetRow> newRows = new ArrayList<>(rowCount);
         for (int i = 0; i < rowCount; i++) {
-            newRows.add(
-                new ResultSetRow(firstRowNum + i, rows.get(i)));
+            final Object[] values = rows.get(i);
+            if (columnarStorage && columnStore == null) {
+                columnStore = new ResultSetColumnStore(values.length, memoryRowsLimit);
+            }
+            if (columnStore != null && values.length == columnStore.getColumnCount()) {
+                newRows.add(
+                    new ResultSetRow(firstRowNum + i, columnStore, columnStore.addRow(values)));
+            } else {
+                newRows.add(
+                    new ResultSetRow(firstRowNum + i, values));
+            }
         }
         curRows.addAll(newRows);
+        rowsVersion++;
         updateRowColors(newRows);
     }
 
@@ -629,6 +650,11 @@ public class ResultSetModel {
         // Refresh all rows
         this.releaseAll();
         this.curRows = new ArrayList<>();
+        this.rowsVersion++;
+        if (this.columnStore != null) {
+            this.columnStore.close();
+            this.columnStore = null;
+        }
 
         hasData = false;
     }
@@ -637,6 +663,21 @@ public class ResultSetModel {
         return hasData;
     }
 
+    /**
+     * Enables columnar storage of fetched values. Affects data appended after the next data clear.
+     */
+    void setColumnarStorage(boolean columnarStorage) {
+        this.columnarStorage = columnarStorage;
+    }
+
+    /**
+     * Sets number of stored rows kept in memory. Older rows are written to temporary file.
+     * Zero means no limit. Affects data appended after the next data clear.
+     */
+    void setMemoryRowsLimit(int memoryRowsLimit) {
+        this.memoryRowsLimit = memoryRowsLimit;
+    }
+
     public boolean isDirty() {
         return changesCount != 0;
     }
@@ -671,6 +712,7 @@ public class ResultSetModel {
         newRow.setState(ResultSetRow.STATE_ADDED);
         shiftRows(newRow, 1);
         curRows.add(rowNum, newRow);
+        rowsVersion++;
         changesCount++;
         return newRow;
     }
@@ -697,6 +739,7 @@ public class ResultSetModel {
     void cleanupRow(@NotNull ResultSetRow row) {
         row.release();
         this.curRows.remove(row.getVisualNumber());
+        this.rowsVersion++;
         this.shiftRows(row, -1);
     }
 
@@ -805,50 +848,64 @@ public class ResultSetModel {
         this.dataFilter.setAnyConstraint(filter.isAnyConstraint());
     }
 
+    /**
+     * Sorts rows locally (in current thread) according to data filter ordering
+     */
     public void resetOrdering() {
-        final boolean hasOrdering = dataFilter.hasOrdering();
-        // Sort locally
-        final List<DBDAttributeConstraint> orderConstraints = dataFilter.getOrderConstraints();
-        Collections.sort(curRows, new Comparator<ResultSetRow>() {
-            @Override
-            public int compare(ResultSetRow row1, ResultSetRow row2) {
-                if (!hasOrdering) {
-                    return row1.getRowNumber() - row2.getRowNumber();
-                }
-                int result = 0;
-                for (DBDAttributeConstraint co : orderConstraints) {
-                    final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
-                    if (binding == null) {
-                        continue;
-                    }
-                    Object cell1 = getCellValue(binding, row1);
-                    Object cell2 = getCellValue(binding, row2);
-                    if (cell1 == cell2) {
-                        result = 0;
-                    } else if (DBUtils.isNullValue(cell1)) {
-                        result = 1;
-                    } else if (DBUtils.isNullValue(cell2)) {
-                        result = -1;
-                    } else if (cell1 instanceof Comparable) {
-                        result = ((Comparable) cell1).compareTo(cell2);
-                    } else {
-                        String str1 = String.valueOf(cell1);
-                        String str2 = String.valueOf(cell2);
-                        result = str1.compareTo(str2);
-                    }
-                    if (co.isOrderDescending()) {
-                        result = -result;
-                    }
-                    if (result != 0) {
-                        break;
-                    }
+        final ResultSetSorter sorter = createSorter();
+        try {
+            sorter.sort(VoidProgressMonitor.INSTANCE);
+        } catch (InterruptedException e) {
+            return;
+        }
+        applyOrdering(sorter);
+    }
+
+    /**
+     * Creates sorter of current rows according to data filter ordering.
+     * Sorter may be executed in any thread. Its result then is applied by {@link #applyOrdering(ResultSetSorter)}.
+     */
+    @NotNull
+    public ResultSetSorter createSorter() {
+        final List<DBDAttributeBinding> orderBindings = new ArrayList<>();
+        final List<Boolean> orderDescending = new ArrayList<>();
+        if (dataFilter.hasOrdering()) {
+            for (DBDAttributeConstraint co : dataFilter.getOrderConstraints()) {
+                final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
+                if (binding != null) {
+                    orderBindings.add(binding);
+                    orderDescending.add(co.isOrderDescending());
                 }
-                return result;
             }
-        });
-        for (int i = 0; i < curRows.size(); i++) {
-            curRows.get(i).setVisualNumber(i);
         }
+        final boolean[] descending = new boolean[orderDescending.size()];
+        for (int i = 0; i < descending.length; i++) {
+            descending[i] = orderDescending.get(i);
+        }
+        activeSorter = new ResultSetSorter(
+            this,
+            curRows.toArray(new ResultSetRow[curRows.size()]),
+            orderBindings,
+            descending,
+            rowsVersion);
+        return activeSorter;
+    }
+
+    /**
+     * Applies sort result. Result is ignored if rows were changed after sorter creation or if there is a newer sorter.
+     * @return true if rows order was changed
+     */
+    public boolean applyOrdering(@NotNull ResultSetSorter sorter) {
+        final ResultSetRow[] sortedRows = sorter.getSortedRows();
+        if (sorter != activeSorter || sortedRows == null || sorter.getRowsVersion() != rowsVersion) {
+            return false;
+        }
+        activeSorter = null;
+        for (int i = 0; i < sortedRows.length; i++) {
+            curRows.set(i, sortedRows[i]);
+            sortedRows[i].setVisualNumber(i);
+        }
+        return true;
     }
 
     private void fillVisibleAttributes() {
@@ -42,9 +42,13 @@ public class ResultSetRow {
     private int rowNumber;
     // Row number in grid
     private int visualNumber;
-    // Column values
-    @NotNull
-    public Object[] values;
+    // Column values. Null if values are kept in column store
+    @Nullable
+    private Object[] values;
+    // Column store and index of row values in it. Row leaves the store on the first value update
+    @Nullable
+    private ResultSetColumnStore store;
+    private int storeIndex;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -60,11 +64,52 @@ public class ResultSetRow {
         this.state = STATE_NORMAL;
     }
 
+    ResultSetRow(int rowNumber, @NotNull ResultSetColumnStore store, int storeIndex) {
+        this.rowNumber = rowNumber;
+        this.visualNumber = rowNumber;
+        this.store = store;
+        this.storeIndex = storeIndex;
+        this.state = STATE_NORMAL;
+    }
+
+    /**
+     * Returns row values. If row values are kept in column store then returns a copy of them.
+     */
     @NotNull
     public Object[] getValues() {
+        if (values == null) {
+            assert store != null;
+            return store.getRow(storeIndex);
+        }
         return values;
     }
 
+    int getValueCount() {
+        return values == null ? store.getColumnCount() : values.length;
+    }
+
+    @Nullable
+    Object getValue(int index) {
+        return values == null ? store.getValue(storeIndex, index) : values[index];
+    }
+
+    void setValue(int index, @Nullable Object value) {
+        if (values == null) {
+            assert store != null;
+            values = store.extractRow(storeIndex);
+            store = null;
+        }
+        values[index] = value;
+    }
+
+    boolean isStored() {
+        return store != null;
+    }
+
+    int getStoreIndex() {
+        return storeIndex;
+    }
+
     public boolean isChanged() {
         return changes != null && !changes.isEmpty();
     }
@@ -113,8 +158,12 @@ public class ResultSetRow {
     }
 
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
+        if (values != null) {
+            for (Object value : values) {
+                DBUtils.releaseValue(value);
+            }
+        } else if (store != null) {
+            store.releaseRow(storeIndex);
         }
         if (changes != null) {
             for (Object oldValue : changes.values()) {
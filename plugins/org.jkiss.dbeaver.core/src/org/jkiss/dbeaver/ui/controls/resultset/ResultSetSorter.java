@@ -0,0 +1,408 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.sql.Time;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Client-side sorter of result set rows.
+ * Reads values of ordering attributes once into typed sort keys, then sorts row indexes
+ * with parallel merge sort. Sort is stable. May run in any thread,
+ * result is applied to the model with {@link ResultSetModel#applyOrdering(ResultSetSorter)}.
+ */
+public class ResultSetSorter {
+
+    /**
+     * Rows count starting from which sort should be performed in background
+     */
+    public static final int BACKGROUND_SORT_ROWS = 10000;
+
+    // Max rows count sorted by a single fork/join task
+    private static final int PARALLEL_SORT_ROWS = 8192;
+    private static final int INSERTION_SORT_ROWS = 32;
+
+    private static ForkJoinPool sortPool;
+
+    private final ResultSetModel model;
+    private final ResultSetRow[] rows;
+    // Ordering attributes. Empty list means original (fetch) order.
+    private final List<DBDAttributeBinding> bindings;
+    private final boolean[] descending;
+    private final int rowsVersion;
+
+    private volatile DBRProgressMonitor monitor;
+    private SortKey[] keys;
+    private ResultSetRow[] sortedRows;
+
+    ResultSetSorter(@NotNull ResultSetModel model, @NotNull ResultSetRow[] rows, @NotNull List<DBDAttributeBinding> bindings, @NotNull boolean[] descending, int rowsVersion)
+    {
+        this.model = model;
+        this.rows = rows;
+        this.bindings = bindings;
+        this.descending = descending;
+        this.rowsVersion = rowsVersion;
+    }
+
+    public int getRowCount()
+    {
+        return rows.length;
+    }
+
+    int getRowsVersion()
+    {
+        return rowsVersion;
+    }
+
+    ResultSetRow[] getSortedRows()
+    {
+        return sortedRows;
+    }
+
+    public void sort(@NotNull DBRProgressMonitor monitor) throws InterruptedException
+    {
+        this.monitor = monitor;
+        monitor.beginTask("Sort " + rows.length + " rows", bindings.size() + 1);
+        try {
+            final int[] readOrder = getReadOrder();
+            if (bindings.isEmpty()) {
+                final long[] rowNumbers = new long[rows.length];
+                for (int i = 0; i < rows.length; i++) {
+                    rowNumbers[i] = rows[i].getRowNumber();
+                }
+                keys = new SortKey[] { new LongKey(new boolean[rows.length], false, rowNumbers) };
+            } else {
+                keys = new SortKey[bindings.size()];
+                for (int i = 0; i < keys.length; i++) {
+                    monitor.subTask("Read " + bindings.get(i).getName() + " values");
+                    keys[i] = readKey(bindings.get(i), descending[i], readOrder);
+                    monitor.worked(1);
+                }
+            }
+
+            monitor.subTask("Sort rows");
+            final int[] order = new int[rows.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            final int[] buffer = new int[order.length];
+            try {
+                if (order.length <= PARALLEL_SORT_ROWS) {
+                    mergeSort(order, buffer, 0, order.length);
+                } else {
+                    getSortPool().invoke(new SortTask(order, buffer, 0, order.length));
+                }
+            } catch (CancellationException e) {
+                throw new InterruptedException("Sort canceled");
+            }
+            monitor.worked(1);
+
+            final ResultSetRow[] result = new ResultSetRow[rows.length];
+            for (int i = 0; i < order.length; i++) {
+                result[i] = rows[order[i]];
+            }
+            sortedRows = result;
+        } finally {
+            keys = null;
+            monitor.done();
+        }
+    }
+
+    /**
+     * Rows kept in column store are read in store order (stored pages may be on disk)
+     */
+    @NotNull
+    private int[] getReadOrder()
+    {
+        int maxStoreIndex = -1;
+        for (ResultSetRow row : rows) {
+            if (row.isStored()) {
+                maxStoreIndex = Math.max(maxStoreIndex, row.getStoreIndex());
+            }
+        }
+        final int[] readOrder = new int[rows.length];
+        int pos = 0;
+        if (maxStoreIndex >= 0) {
+            final int[] byStoreIndex = new int[maxStoreIndex + 1];
+            for (int i = 0; i < rows.length; i++) {
+                if (rows[i].isStored()) {
+                    byStoreIndex[rows[i].getStoreIndex()] = i + 1;
+                }
+            }
+            for (int index : byStoreIndex) {
+                if (index > 0) {
+                    readOrder[pos++] = index - 1;
+                }
+            }
+        }
+        for (int i = 0; i < rows.length; i++) {
+            if (!rows[i].isStored()) {
+                readOrder[pos++] = i;
+            }
+        }
+        return readOrder;
+    }
+
+    @NotNull
+    private SortKey readKey(@NotNull DBDAttributeBinding binding, boolean descending, @NotNull int[] readOrder) throws InterruptedException
+    {
+        final int rowCount = rows.length;
+        final Object[] values = new Object[rowCount];
+        final boolean[] nulls = new boolean[rowCount];
+        Class<?> valueType = null;
+        boolean integral = true, floating = true, comparable = true;
+        for (int i = 0; i < rowCount; i++) {
+            if ((i & 0xFFFF) == 0 && monitor.isCanceled()) {
+                throw new InterruptedException("Sort canceled");
+            }
+            final int index = readOrder[i];
+            final Object value = model.getCellValue(binding, rows[index]);
+            if (DBUtils.isNullValue(value)) {
+                nulls[index] = true;
+                continue;
+            }
+            values[index] = value;
+            final Class<?> type = value.getClass();
+            if (valueType == null) {
+                valueType = type;
+            } else if (valueType != type) {
+                valueType = Object.class;
+            }
+            integral &= (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class);
+            floating &= (type == Double.class || type == Float.class);
+            comparable &= value instanceof Comparable;
+        }
+
+        if (valueType == null) {
+            // All nulls
+            return new LongKey(nulls, descending, new long[rowCount]);
+        }
+        if (integral || valueType == Boolean.class || valueType == java.util.Date.class || valueType == java.sql.Date.class || valueType == Time.class) {
+            final long[] longs = new long[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                final Object value = values[i];
+                if (value instanceof Number) {
+                    longs[i] = ((Number) value).longValue();
+                } else if (value instanceof Boolean) {
+                    longs[i] = (Boolean) value ? 1 : 0;
+                } else if (value instanceof java.util.Date) {
+                    longs[i] = ((java.util.Date) value).getTime();
+                }
+            }
+            return new LongKey(nulls, descending, longs);
+        } else if (floating) {
+            final double[] doubles = new double[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                if (values[i] != null) {
+                    doubles[i] = ((Number) values[i]).doubleValue();
+                }
+            }
+            return new DoubleKey(nulls, descending, doubles);
+        } else if (!comparable) {
+            // Non-comparable values are compared by their string representation
+            for (int i = 0; i < rowCount; i++) {
+                if (values[i] != null) {
+                    values[i] = String.valueOf(values[i]);
+                }
+            }
+        }
+        return new ObjectKey(nulls, descending, values);
+    }
+
+    private int compareRows(int row1, int row2)
+    {
+        for (SortKey key : keys) {
+            final int result = key.compare(row1, row2);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private void mergeSort(int[] order, int[] buffer, int low, int high)
+    {
+        if (high - low <= INSERTION_SORT_ROWS) {
+            for (int i = low + 1; i < high; i++) {
+                final int row = order[i];
+                int k = i - 1;
+                while (k >= low && compareRows(order[k], row) > 0) {
+                    order[k + 1] = order[k];
+                    k--;
+                }
+                order[k + 1] = row;
+            }
+            return;
+        }
+        final int middle = (low + high) >>> 1;
+        mergeSort(order, buffer, low, middle);
+        mergeSort(order, buffer, middle, high);
+        merge(order, buffer, low, middle, high);
+    }
+
+    private void merge(int[] order, int[] buffer, int low, int middle, int high)
+    {
+        if (compareRows(order[middle - 1], order[middle]) <= 0) {
+            // Already ordered
+            return;
+        }
+        System.arraycopy(order, low, buffer, low, high - low);
+        int i = low, k = middle;
+        for (int pos = low; pos < high; pos++) {
+            if (i < middle && (k >= high || compareRows(buffer[i], buffer[k]) <= 0)) {
+                order[pos] = buffer[i++];
+            } else {
+                order[pos] = buffer[k++];
+            }
+        }
+    }
+
+    private static synchronized ForkJoinPool getSortPool()
+    {
+        if (sortPool == null) {
+            sortPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        }
+        return sortPool;
+    }
+
+    private class SortTask extends RecursiveAction {
+        private final int[] order;
+        private final int[] buffer;
+        private final int low;
+        private final int high;
+
+        SortTask(int[] order, int[] buffer, int low, int high)
+        {
+            this.order = order;
+            this.buffer = buffer;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (monitor.isCanceled()) {
+                throw new CancellationException();
+            }
+            if (high - low <= PARALLEL_SORT_ROWS) {
+                mergeSort(order, buffer, low, high);
+                return;
+            }
+            final int middle = (low + high) >>> 1;
+            invokeAll(
+                new SortTask(order, buffer, low, middle),
+                new SortTask(order, buffer, middle, high));
+            merge(order, buffer, low, middle, high);
+        }
+    }
+
+    private static abstract class SortKey {
+        private final boolean[] nulls;
+        private final boolean descending;
+
+        SortKey(boolean[] nulls, boolean descending)
+        {
+            this.nulls = nulls;
+            this.descending = descending;
+        }
+
+        /**
+         * Compares values of two rows. Nulls are greater than any value.
+         */
+        int compare(int row1, int row2)
+        {
+            final boolean null1 = nulls[row1], null2 = nulls[row2];
+            final int result;
+            if (null1 || null2) {
+                result = null1 == null2 ? 0 : (null1 ? 1 : -1);
+            } else {
+                result = compareValues(row1, row2);
+            }
+            return descending ? -result : result;
+        }
+
+        abstract int compareValues(int row1, int row2);
+    }
+
+    private static class LongKey extends SortKey {
+        private final long[] values;
+
+        LongKey(boolean[] nulls, boolean descending, long[] values)
+        {
+            super(nulls, descending);
+            this.values = values;
+        }
+
+        @Override
+        int compareValues(int row1, int row2)
+        {
+            return Long.compare(values[row1], values[row2]);
+        }
+    }
+
+    private static class DoubleKey extends SortKey {
+        private final double[] values;
+
+        DoubleKey(boolean[] nulls, boolean descending, double[] values)
+        {
+            super(nulls, descending);
+            this.values = values;
+        }
+
+        @Override
+        int compareValues(int row1, int row2)
+        {
+            return Double.compare(values[row1], values[row2]);
+        }
+    }
+
+    private static class ObjectKey extends SortKey {
+        private final Object[] values;
+
+        ObjectKey(boolean[] nulls, boolean descending, Object[] values)
+        {
+            super(nulls, descending);
+            this.values = values;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        int compareValues(int row1, int row2)
+        {
+            final Object value1 = values[row1], value2 = values[row2];
+            if (value1 instanceof Comparable) {
+                try {
+                    return ((Comparable<Object>) value1).compareTo(value2);
+                } catch (ClassCastException e) {
+                    // Values of different types
+                }
+            }
+            return String.valueOf(value1).compareTo(String.valueOf(value2));
+        }
+    }
+
+}
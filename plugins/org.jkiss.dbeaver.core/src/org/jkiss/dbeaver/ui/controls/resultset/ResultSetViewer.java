@@ -877,6 +877,8 @@ public class ResultSetViewer extends Viewer
         boolean metaChanged = model.isMetadataChanged();
 
         this.curRow = null;
+        this.model.setColumnarStorage(getPreferenceStore().getBoolean(DBeaverPreferences.RESULT_SET_COLUMNAR_STORAGE));
+        this.model.setMemoryRowsLimit(getPreferenceStore().getInt(DBeaverPreferences.RESULT_SET_MEMORY_ROWS));
         this.model.setData(rows);
         this.curRow = (this.model.getRowCount() > 0 ? this.model.getRow(0) : null);
 
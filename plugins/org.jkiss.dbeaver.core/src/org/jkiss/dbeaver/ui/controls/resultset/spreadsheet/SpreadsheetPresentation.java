@@ -115,6 +115,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
 
     private static final String VIEW_PANEL_VISIBLE = "viewPanelVisible";
     private static final String VIEW_PANEL_RATIO = "viewPanelRatio";
+    private static final int MAX_CELL_TEXT_CACHE_SIZE = 20000;
 
     private SashForm resultsSash;
     private Spreadsheet spreadsheet;
@@ -124,11 +125,23 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
     @Nullable
     private DBDAttributeBinding curAttribute;
     private int columnOrder = SWT.NONE;
+    // Background sort of big result sets
+    @Nullable
+    private AbstractJob sortJob;
 
     private final Map<SpreadsheetValueController, IValueEditorStandalone> openEditors = new HashMap<>();
 
     private SpreadsheetFindReplaceTarget findReplaceTarget;
 
+    // Formatted cell texts. Grid asks for them on each paint and each column pack.
+    private final Map<CellTextKey, CellText> cellTextCache = new LinkedHashMap<CellTextKey, CellText>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CellTextKey, CellText> eldest)
+        {
+            return size() > MAX_CELL_TEXT_CACHE_SIZE;
+        }
+    };
+
     // UI modifiers
     private IThemeManager themeManager;
     private IPropertyChangeListener themeChangeListener;
@@ -275,6 +288,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
     {
         closeEditors();
         clearMetaData();
+        cellTextCache.clear();
 
         themeManager.removePropertyChangeListener(themeChangeListener);
 
@@ -505,6 +519,10 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
         DBPPreferenceStore preferenceStore = getPreferenceStore();
         showOddRows = preferenceStore.getBoolean(DBeaverPreferences.RESULT_SET_SHOW_ODD_ROWS);
         showCelIcons = preferenceStore.getBoolean(DBeaverPreferences.RESULT_SET_SHOW_CELL_ICONS);
+        if (!append) {
+            // Formatter profile, value handlers or display preferences may change
+            cellTextCache.clear();
+        }
 
         spreadsheet.setRedraw(false);
         try {
@@ -516,6 +534,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
 
     @Override
     public void formatData(boolean refreshData) {
+        cellTextCache.clear();
         reorderLocally();
         spreadsheet.refreshData(false);
     }
@@ -889,8 +908,38 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
     private void reorderLocally()
     {
         controller.rejectChanges();
-        controller.getModel().resetOrdering();
-        refreshData(false, false);
+        final ResultSetModel model = controller.getModel();
+        if (sortJob != null) {
+            sortJob.cancel();
+            sortJob = null;
+        }
+        if (model.getRowCount() < ResultSetSorter.BACKGROUND_SORT_ROWS) {
+            model.resetOrdering();
+            refreshData(false, false);
+            return;
+        }
+        // Sort big result sets in background
+        final ResultSetSorter sorter = model.createSorter();
+        sortJob = new AbstractJob("Sort " + sorter.getRowCount() + " rows") {
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                try {
+                    sorter.sort(monitor);
+                } catch (InterruptedException e) {
+                    return Status.CANCEL_STATUS;
+                }
+                UIUtils.runInDetachedUI(null, new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!spreadsheet.isDisposed() && model.applyOrdering(sorter)) {
+                            refreshData(false, false);
+                        }
+                    }
+                });
+                return Status.OK_STATUS;
+            }
+        };
+        sortJob.schedule();
     }
 
     public void changeSorting(Object columnElement, final int state)
@@ -1263,10 +1312,26 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
                         return "[" + ((DBDComposite) value).getDataType().getName() + "]";
                     }
                 }
-                return attr.getValueRenderer().getValueDisplayString(
-                    attr.getAttribute(),
-                    value,
-                    DBDDisplayFormat.UI);
+                if (value instanceof DBDValue) {
+                    // Complex values may change their state without replacement in the model
+                    return attr.getValueRenderer().getValueDisplayString(
+                        attr.getAttribute(),
+                        value,
+                        DBDDisplayFormat.UI);
+                }
+                CellTextKey key = new CellTextKey(attr, row);
+                CellText cellText = cellTextCache.get(key);
+                if (cellText == null || !CommonUtils.equalObjects(cellText.value, value)) {
+                    // New cell or value was edited. Compare by value: columnar storage creates new value objects on each read.
+                    cellText = new CellText(
+                        value,
+                        attr.getValueRenderer().getValueDisplayString(
+                            attr.getAttribute(),
+                            value,
+                            DBDDisplayFormat.UI));
+                    cellTextCache.put(key, cellText);
+                }
+                return cellText.text;
             } else {
                 return value;
             }
@@ -1507,4 +1572,42 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
 
     }
 
+    private static class CellTextKey {
+        private final DBDAttributeBinding attr;
+        private final ResultSetRow row;
+
+        CellTextKey(DBDAttributeBinding attr, ResultSetRow row)
+        {
+            this.attr = attr;
+            this.row = row;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof CellTextKey)) {
+                return false;
+            }
+            CellTextKey key = (CellTextKey) obj;
+            return attr == key.attr && row == key.row;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return System.identityHashCode(attr) * 31 + System.identityHashCode(row);
+        }
+    }
+
+    private static class CellText {
+        private final Object value;
+        private final String text;
+
+        CellText(Object value, String text)
+        {
+            this.value = value;
+            this.text = text;
+        }
+    }
+
 }
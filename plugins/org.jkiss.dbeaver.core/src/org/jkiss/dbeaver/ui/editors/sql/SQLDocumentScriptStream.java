@@ -0,0 +1,153 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.ui.editors.sql;
+
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.RunnableWithResult;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLQueryTransformer;
+import org.jkiss.dbeaver.runtime.sql.SQLScriptStream;
+import org.jkiss.dbeaver.ui.UIUtils;
+
+import java.util.List;
+
+/**
+ * Reads queries of the SQL editor document using the editor's statements index.
+ * Queries are created only for the statements which are about to be executed.
+ * Document may be changed during script execution - the rest of the script is read from the changed document.
+ */
+class SQLDocumentScriptStream extends SQLScriptStream implements IDocumentListener {
+
+    private final SQLEditorBase editor;
+    private final IDocument document;
+    private final boolean parseParameters;
+    @Nullable
+    private final SQLQueryTransformer transformer;
+    // Both offsets are accessed in UI thread only
+    private int nextOffset;
+    private int endOffset;
+
+    SQLDocumentScriptStream(
+        @NotNull SQLEditorBase editor,
+        @NotNull IDocument document,
+        int offset,
+        int length,
+        int lookAhead,
+        boolean parseParameters,
+        @Nullable SQLQueryTransformer transformer)
+    {
+        super(lookAhead);
+        this.editor = editor;
+        this.document = document;
+        this.nextOffset = offset;
+        this.endOffset = offset + length;
+        this.parseParameters = parseParameters;
+        this.transformer = transformer;
+        this.document.addDocumentListener(this);
+    }
+
+    @Override
+    protected boolean readQueries(@NotNull DBRProgressMonitor monitor, @NotNull final List<SQLQuery> queries, final int maxCount)
+        throws DBException
+    {
+        // Statements index and rule manager are used by editor in UI thread
+        RunnableWithResult<Boolean> reader = new RunnableWithResult<Boolean>() {
+            @Override
+            public void run()
+            {
+                result = readStatements(queries, maxCount);
+            }
+        };
+        UIUtils.runInUI(null, reader);
+        if (reader.getResult() == null) {
+            throw new DBException("SQL editor was closed during script execution");
+        }
+        if (transformer != null) {
+            for (SQLQuery query : queries) {
+                transformer.transformQuery(query);
+            }
+        }
+        return reader.getResult();
+    }
+
+    @Nullable
+    private Boolean readStatements(List<SQLQuery> queries, int maxCount)
+    {
+        if (editor.isDisposed() || editor.getDocument() != document) {
+            return null;
+        }
+        List<SQLStatementIndex.ScriptStatement> statements = editor.getStatementIndex().getStatements(
+            nextOffset, endOffset - nextOffset, maxCount);
+        for (SQLStatementIndex.ScriptStatement statement : statements) {
+            SQLQuery query = editor.createQuery(document, statement);
+            if (query != null) {
+                if (parseParameters) {
+                    query.setParameters(editor.createParameters(document, query, statement.getParameters()));
+                }
+                queries.add(query);
+            }
+            nextOffset = statement.getNextOffset();
+        }
+        return statements.size() >= maxCount;
+    }
+
+    @Override
+    public void close()
+    {
+        UIUtils.runInDetachedUI(null, new Runnable() {
+            @Override
+            public void run()
+            {
+                document.removeDocumentListener(SQLDocumentScriptStream.this);
+            }
+        });
+    }
+
+    @Override
+    public void documentAboutToBeChanged(DocumentEvent event)
+    {
+    }
+
+    @Override
+    public void documentChanged(DocumentEvent event)
+    {
+        int changeOffset = event.getOffset();
+        int changeEnd = changeOffset + event.getLength();
+        int textLength = event.getText() == null ? 0 : event.getText().length();
+        nextOffset = shiftOffset(nextOffset, changeOffset, changeEnd, textLength);
+        endOffset = shiftOffset(endOffset, changeOffset, changeEnd, textLength);
+    }
+
+    private static int shiftOffset(int offset, int changeOffset, int changeEnd, int textLength)
+    {
+        if (changeEnd <= offset) {
+            return offset + textLength - (changeEnd - changeOffset);
+        } else if (changeOffset < offset) {
+            // Changed text overlaps offset. Continue right after it.
+            return changeOffset + textLength;
+        }
+        return offset;
+    }
+
+}
@@ -66,9 +66,11 @@ import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.registry.DataSourceRegistry;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.runtime.sql.SQLParallelScriptJob;
 import org.jkiss.dbeaver.runtime.sql.SQLQueryJob;
 import org.jkiss.dbeaver.runtime.sql.SQLQueryListener;
 import org.jkiss.dbeaver.runtime.sql.SQLResultsConsumer;
+import org.jkiss.dbeaver.runtime.sql.SQLScriptStream;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProducer;
 import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferProducer;
 import org.jkiss.dbeaver.tools.transfer.wizard.DataTransferWizard;
@@ -90,6 +92,7 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
@@ -633,11 +636,27 @@ public class SQLEditor extends SQLEditorBase implements
         if (script) {
             // Execute all SQL statements consequently
             ITextSelection selection = (ITextSelection) getSelectionProvider().getSelection();
+            int scriptOffset = 0, scriptLength = document.getLength();
             if (selection.getLength() > 1) {
-                queries = extractScriptQueries(selection.getOffset(), selection.getLength());
-            } else {
-                queries = extractScriptQueries(0, document.getLength());
+                scriptOffset = selection.getOffset();
+                scriptLength = selection.getLength();
+            }
+            int streamThreshold = getActivePreferenceStore().getInt(DBeaverPreferences.SCRIPT_STREAM_THRESHOLD);
+            if (!newTab && streamThreshold > 0 && scriptLength >= streamThreshold) {
+                // Big script. Do not parse it at once - read queries during execution
+                processScript(
+                    new SQLDocumentScriptStream(
+                        this,
+                        document,
+                        scriptOffset,
+                        scriptLength,
+                        getActivePreferenceStore().getInt(DBeaverPreferences.SCRIPT_STREAM_LOOKAHEAD),
+                        getActivePreferenceStore().getBoolean(ModelPreferences.SQL_PARAMETERS_ENABLED),
+                        transformer),
+                    false);
+                return;
             }
+            queries = extractScriptQueries(scriptOffset, scriptLength);
         } else {
             // Execute statement under cursor or selected text (if selection present)
             SQLQuery sqlQuery = extractActiveQuery();
@@ -670,6 +689,90 @@ public class SQLEditor extends SQLEditorBase implements
         }
     }
 
+    /**
+     * Executes script file without loading it in the editor
+     */
+    public void processScriptFile(@NotNull File scriptFile)
+    {
+        SQLScriptStream queryStream;
+        try {
+            queryStream = new SQLFileScriptStream(
+                this,
+                scriptFile,
+                GeneralUtils.DEFAULT_FILE_CHARSET,
+                getActivePreferenceStore().getInt(DBeaverPreferences.SCRIPT_STREAM_LOOKAHEAD),
+                getActivePreferenceStore().getBoolean(ModelPreferences.SQL_PARAMETERS_ENABLED));
+        } catch (IOException e) {
+            UIUtils.showErrorDialog(
+                getSite().getShell(),
+                "Can't open file",
+                "Can't open script file '" + scriptFile.getAbsolutePath() + "'",
+                e);
+            return;
+        }
+        processScript(queryStream, true);
+    }
+
+    /**
+     * Executes script statements in parallel over several isolated connections
+     */
+    public void processScriptParallel()
+    {
+        IDocument document = getDocument();
+        if (document == null) {
+            setStatus(CoreMessages.editors_sql_status_cant_obtain_document, true);
+            return;
+        }
+        ITextSelection selection = (ITextSelection) getSelectionProvider().getSelection();
+        int scriptOffset = 0, scriptLength = document.getLength();
+        if (selection.getLength() > 1) {
+            scriptOffset = selection.getOffset();
+            scriptLength = selection.getLength();
+        }
+        List<SQLQuery> queries = extractScriptQueries(scriptOffset, scriptLength);
+        if (queries.isEmpty() || !checkExecuteSession()) {
+            return;
+        }
+        if (sashForm.getMaximizedControl() != null) {
+            sashForm.setMaximizedControl(null);
+        }
+        closeExtraResultTabs(null);
+        resultTabs.setSelection(curQueryProcessor.getFirstResults().tabItem);
+        curQueryProcessor.processParallelScript(queries);
+    }
+
+    private void processScript(@NotNull SQLScriptStream queryStream, boolean externalScript)
+    {
+        if (!checkExecuteSession()) {
+            queryStream.close();
+            return;
+        }
+        if (sashForm.getMaximizedControl() != null) {
+            sashForm.setMaximizedControl(null);
+        }
+        closeExtraResultTabs(null);
+        resultTabs.setSelection(curQueryProcessor.getFirstResults().tabItem);
+        curQueryProcessor.processScript(queryStream, externalScript);
+    }
+
+    private boolean checkExecuteSession()
+    {
+        try {
+            checkSession();
+            return true;
+        } catch (DBException ex) {
+            ResultSetViewer viewer = getResultSetViewer();
+            if (viewer != null) {
+                viewer.setStatus(ex.getMessage(), true);
+            }
+            UIUtils.showErrorDialog(
+                getSite().getShell(),
+                CoreMessages.editors_sql_error_cant_obtain_session,
+                ex.getMessage());
+            return false;
+        }
+    }
+
     private void processQueries(@NotNull final List<SQLQuery> queries, final boolean newTab, final boolean export)
     {
         if (queries.isEmpty()) {
@@ -692,17 +795,7 @@ public class SQLEditor extends SQLEditorBase implements
             }
 */
         }
-        try {
-            checkSession();
-        } catch (DBException ex) {
-            ResultSetViewer viewer = getResultSetViewer();
-            if (viewer != null) {
-                viewer.setStatus(ex.getMessage(), true);
-            }
-            UIUtils.showErrorDialog(
-                getSite().getShell(),
-                CoreMessages.editors_sql_error_cant_obtain_session,
-                ex.getMessage());
+        if (!checkExecuteSession()) {
             return;
         }
 
@@ -740,6 +833,21 @@ public class SQLEditor extends SQLEditorBase implements
         if (document == null) {
             return queryList;
         }
+        boolean parseParameters = getActivePreferenceStore().getBoolean(ModelPreferences.SQL_PARAMETERS_ENABLED);
+
+        if (startOffset == 0 && length == document.getLength()) {
+            // Whole script. Use statements index (it re-parses only changed statements)
+            for (SQLStatementIndex.ScriptStatement statement : getStatementIndex().getStatements(startOffset, length)) {
+                SQLQuery query = createQuery(document, statement);
+                if (query != null) {
+                    if (parseParameters) {
+                        query.setParameters(createParameters(document, query, statement.getParameters()));
+                    }
+                    queryList.add(query);
+                }
+            }
+            return queryList;
+        }
 
         this.startScriptEvaluation();
         try {
@@ -756,7 +864,7 @@ public class SQLEditor extends SQLEditorBase implements
             this.endScriptEvaluation();
         }
 
-        if (getActivePreferenceStore().getBoolean(ModelPreferences.SQL_PARAMETERS_ENABLED)) {
+        if (parseParameters) {
             // Parse parameters
             for (SQLQuery query : queryList) {
                 query.setParameters(parseParameters(getDocument(), query));
@@ -1168,19 +1276,8 @@ public class SQLEditor extends SQLEditorBase implements
                 // Nothing to process
                 return;
             }
-            if (curJobRunning.get() > 0) {
-                UIUtils.showErrorDialog(
-                    getSite().getShell(),
-                    CoreMessages.editors_sql_error_cant_execute_query_title,
-                    CoreMessages.editors_sql_error_cant_execute_query_message);
-                return;
-            }
-            final DBCExecutionContext executionContext = getExecutionContext();
+            final DBCExecutionContext executionContext = getQueryExecutionContext();
             if (executionContext == null) {
-                UIUtils.showErrorDialog(
-                    getSite().getShell(),
-                    CoreMessages.editors_sql_error_cant_execute_query_title,
-                    CoreMessages.editors_sql_status_not_connected_to_database);
                 return;
             }
             final boolean isSingleQuery = (queries.size() == 1);
@@ -1190,7 +1287,7 @@ public class SQLEditor extends SQLEditorBase implements
                 showScriptPositionRuler(true);
                 QueryResultsContainer resultsContainer = getFirstResults();
 
-                SQLQueryListener listener = new SQLEditorQueryListener(this);
+                SQLQueryListener listener = new SQLEditorQueryListener(this, false);
                 final SQLQueryJob job = new SQLQueryJob(
                     getSite(),
                     isSingleQuery ? CoreMessages.editors_sql_job_execute_query : CoreMessages.editors_sql_job_execute_script,
@@ -1229,6 +1326,65 @@ public class SQLEditor extends SQLEditorBase implements
             }
         }
 
+        void processScript(@NotNull SQLScriptStream queryStream, boolean externalScript)
+        {
+            final DBCExecutionContext executionContext = getQueryExecutionContext();
+            if (executionContext == null) {
+                queryStream.close();
+                return;
+            }
+            if (!externalScript) {
+                showScriptPositionRuler(true);
+            }
+            final SQLQueryJob job = new SQLQueryJob(
+                getSite(),
+                CoreMessages.editors_sql_job_execute_script,
+                executionContext,
+                getFirstResults(),
+                queryStream,
+                this,
+                new SQLEditorQueryListener(this, externalScript));
+            job.schedule();
+        }
+
+        void processParallelScript(@NotNull List<SQLQuery> queries)
+        {
+            final DBCExecutionContext executionContext = getQueryExecutionContext();
+            if (executionContext == null) {
+                return;
+            }
+            showScriptPositionRuler(true);
+            final SQLParallelScriptJob job = new SQLParallelScriptJob(
+                getSite(),
+                CoreMessages.editors_sql_job_execute_script,
+                executionContext,
+                getFirstResults(),
+                queries,
+                this,
+                new SQLEditorQueryListener(this, false));
+            job.schedule();
+        }
+
+        @Nullable
+        private DBCExecutionContext getQueryExecutionContext()
+        {
+            if (curJobRunning.get() > 0) {
+                UIUtils.showErrorDialog(
+                    getSite().getShell(),
+                    CoreMessages.editors_sql_error_cant_execute_query_title,
+                    CoreMessages.editors_sql_error_cant_execute_query_message);
+                return null;
+            }
+            final DBCExecutionContext executionContext = getExecutionContext();
+            if (executionContext == null) {
+                UIUtils.showErrorDialog(
+                    getSite().getShell(),
+                    CoreMessages.editors_sql_error_cant_execute_query_title,
+                    CoreMessages.editors_sql_status_not_connected_to_database);
+            }
+            return executionContext;
+        }
+
         public boolean isDirty() {
             for (QueryResultsContainer resultsProvider : resultProviders) {
                 ResultSetViewer rsv = resultsProvider.getResultSetViewer();
@@ -1485,13 +1641,16 @@ public class SQLEditor extends SQLEditorBase implements
 
     private class SQLEditorQueryListener implements SQLQueryListener {
         private final QueryProcessor queryProcessor;
+        // Queries are read from external file - they are not in the editor document
+        private final boolean externalScript;
         private boolean scriptMode;
         private long lastUIUpdateTime;
         private final ITextSelection originalSelection = (ITextSelection) getSelectionProvider().getSelection();
         private int topOffset, visibleLength;
 
-        private SQLEditorQueryListener(QueryProcessor queryProcessor) {
+        private SQLEditorQueryListener(QueryProcessor queryProcessor, boolean externalScript) {
             this.queryProcessor = queryProcessor;
+            this.externalScript = externalScript;
         }
 
         @Override
@@ -1509,6 +1668,9 @@ public class SQLEditor extends SQLEditorBase implements
         @Override
         public void onStartQuery(final SQLQuery query) {
             queryProcessor.curJobRunning.incrementAndGet();
+            if (externalScript) {
+                return;
+            }
             synchronized (runningQueries) {
                 runningQueries.add(query);
             }
@@ -1539,7 +1701,7 @@ public class SQLEditor extends SQLEditorBase implements
                 @Override
                 public void run(DBRProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
                     processQueryResult(result);
-                    if (!result.hasError() && topOffset >= 0) {
+                    if (!externalScript && !result.hasError() && topOffset >= 0) {
                         getTextViewer().revealRange(topOffset, visibleLength);
                     }
                 }
@@ -1560,7 +1722,9 @@ public class SQLEditor extends SQLEditorBase implements
             Throwable error = result.getError();
             if (error != null) {
                 setStatus(GeneralUtils.getFirstMessage(error), true);
-                scrollCursorToError(result, error);
+                if (!externalScript) {
+                    scrollCursorToError(result, error);
+                }
             } else if (!scriptMode && dataSourceContainer.getPreferenceStore().getBoolean(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE)) {
                 getSelectionProvider().setSelection(originalSelection);
             }
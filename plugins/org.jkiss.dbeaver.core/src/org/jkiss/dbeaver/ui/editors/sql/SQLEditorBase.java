@@ -77,6 +77,8 @@ public abstract class SQLEditorBase extends BaseTextEditor {
     private final SQLSyntaxManager syntaxManager;
     @NotNull
     private final SQLRuleManager ruleManager;
+    @NotNull
+    private final SQLStatementIndex statementIndex;
     private ProjectionSupport projectionSupport;
 
     private ProjectionAnnotationModel annotationModel;
@@ -92,6 +94,7 @@ public abstract class SQLEditorBase extends BaseTextEditor {
         super();
         syntaxManager = new SQLSyntaxManager();
         ruleManager = new SQLRuleManager(syntaxManager);
+        statementIndex = new SQLStatementIndex(this);
         themeListener = new IPropertyChangeListener() {
             @Override
             public void propertyChange(PropertyChangeEvent event)
@@ -150,6 +153,15 @@ public abstract class SQLEditorBase extends BaseTextEditor {
         return ruleManager;
     }
 
+    /**
+     * Script statements index of the current document. Must be used in UI thread.
+     */
+    @NotNull
+    public SQLStatementIndex getStatementIndex() {
+        statementIndex.setDocument(getDocument());
+        return statementIndex;
+    }
+
     public ProjectionAnnotationModel getAnnotationModel()
     {
         return annotationModel;
@@ -311,6 +323,7 @@ public abstract class SQLEditorBase extends BaseTextEditor {
             PlatformUI.getWorkbench().getThemeManager().removePropertyChangeListener(themeListener);
             themeListener = null;
         }
+        statementIndex.dispose();
 
         super.dispose();
     }
@@ -383,6 +396,7 @@ public abstract class SQLEditorBase extends BaseTextEditor {
 
         syntaxManager.init(dialect, getActivePreferenceStore());
         ruleManager.refreshRules(getDataSource());
+        statementIndex.reset();
 
         Document document = getDocument();
         if (document != null) {
@@ -562,6 +576,32 @@ public abstract class SQLEditorBase extends BaseTextEditor {
     }
 
     protected SQLQuery parseQuery(IDocument document, int startPos, int endPos, int currentPos) {
+        SQLStatementIndex.ScriptStatement statement = parseStatement(document, startPos, endPos, currentPos);
+        return statement == null ? null : createQuery(document, statement);
+    }
+
+    @Nullable
+    protected SQLQuery createQuery(IDocument document, SQLStatementIndex.ScriptStatement statement) {
+        try {
+            String queryText = document.get(statement.getOffset(), statement.getLength());
+            if (statement.getSuffix() != null) {
+                queryText += statement.getSuffix();
+            }
+            return new SQLQuery(
+                queryText.trim(),
+                statement.getOffset(),
+                statement.getLength());
+        } catch (BadLocationException ex) {
+            log.warn("Can't extract query", ex); //$NON-NLS-1$
+            return null;
+        }
+    }
+
+    /**
+     * Finds statement bounds. Also collects statement parameter tokens.
+     */
+    @Nullable
+    protected SQLStatementIndex.ScriptStatement parseStatement(IDocument document, int startPos, int endPos, int currentPos) {
         if (endPos - startPos <= 0) {
             return null;
         }
@@ -573,10 +613,28 @@ public abstract class SQLEditorBase extends BaseTextEditor {
         int bracketDepth = 0;
         boolean hasBlocks = false;
         boolean hasValuableTokens = false;
+        int[] paramTokens = null;
+        int paramCount = 0;
+        int paramBlockDepth = 0;
         for (; ; ) {
             IToken token = ruleManager.nextToken();
             int tokenOffset = ruleManager.getTokenOffset();
             final int tokenLength = ruleManager.getTokenLength();
+            // Handle only parameters which are not in SQL blocks
+            if (token instanceof SQLBlockBeginToken) {
+                paramBlockDepth++;
+            } else if (token instanceof SQLBlockEndToken) {
+                paramBlockDepth--;
+            }
+            if (token instanceof SQLParameterToken && tokenLength > 0 && paramBlockDepth <= 0) {
+                if (paramTokens == null) {
+                    paramTokens = new int[8];
+                } else if (paramCount == paramTokens.length) {
+                    paramTokens = Arrays.copyOf(paramTokens, paramCount * 2);
+                }
+                paramTokens[paramCount++] = tokenOffset;
+                paramTokens[paramCount++] = tokenLength;
+            }
             boolean isDelimiter = token instanceof SQLDelimiterToken;
             String delimiterText = null;
             if (isDelimiter) {
@@ -625,6 +683,7 @@ public abstract class SQLEditorBase extends BaseTextEditor {
             }
 
             if (hasValuableTokens && (token.isEOF() || (isDelimiter && tokenOffset >= currentPos) || tokenOffset > endPos)) {
+                final int scanEnd = Math.min(tokenOffset + tokenLength, document.getLength());
                 // get position before last token start
                 if (tokenOffset > endPos) {
                     tokenOffset = endPos;
@@ -652,14 +711,16 @@ public abstract class SQLEditorBase extends BaseTextEditor {
                             return null;
                         }
                         statementStart = tokenOffset + tokenLength;
+                        paramCount = 0;
+                        paramBlockDepth = 0;
                         continue;
                     }
-                    String queryText = document.get(statementStart, tokenOffset - statementStart);
+                    String suffix = null;
 
                     // FIXME: includes last delimiter in query (Oracle?)
                     if (isDelimiter && hasBlocks && dialect.isDelimiterAfterBlock()) {
                         if (delimiterText != null) {
-                            queryText += delimiterText;
+                            suffix = delimiterText;
                         }
                     }
                     // FIXME: don't remember what is is for. Delimiters are not in queries anyway
@@ -678,10 +739,31 @@ public abstract class SQLEditorBase extends BaseTextEditor {
                         }
                     }*/
                     // make script line
-                    return new SQLQuery(
-                        queryText.trim(),
+                    int[] parameters = null;
+                    if (paramCount > 0) {
+                        int count = 0;
+                        for (int i = 0; i < paramCount; i += 2) {
+                            if (paramTokens[i] >= statementStart && paramTokens[i] <= tokenOffset) {
+                                count += 2;
+                            }
+                        }
+                        if (count > 0) {
+                            parameters = new int[count];
+                            count = 0;
+                            for (int i = 0; i < paramCount; i += 2) {
+                                if (paramTokens[i] >= statementStart && paramTokens[i] <= tokenOffset) {
+                                    parameters[count++] = paramTokens[i] - statementStart;
+                                    parameters[count++] = paramTokens[i + 1];
+                                }
+                            }
+                        }
+                    }
+                    return new SQLStatementIndex.ScriptStatement(
                         statementStart,
-                        tokenOffset - statementStart);
+                        tokenOffset - statementStart,
+                        scanEnd,
+                        suffix,
+                        parameters);
                 } catch (BadLocationException ex) {
                     log.warn("Can't extract query", ex); //$NON-NLS-1$
                     return null;
@@ -689,6 +771,8 @@ public abstract class SQLEditorBase extends BaseTextEditor {
             }
             if (isDelimiter) {
                 statementStart = tokenOffset + tokenLength;
+                paramCount = 0;
+                paramBlockDepth = 0;
             }
             if (token.isEOF()) {
                 return null;
@@ -704,8 +788,7 @@ public abstract class SQLEditorBase extends BaseTextEditor {
     }
 
     protected List<SQLQueryParameter> parseParameters(IDocument document, SQLQuery query) {
-        boolean execQuery = SQLUtils.isExecQuery(getSQLDialect(), query.getQuery());
-        List<SQLQueryParameter> parameters = null;
+        List<Integer> paramTokens = new ArrayList<>();
         ruleManager.setRange(document, query.getOffset(), query.getLength());
         int blockDepth = 0;
         for (;;) {
@@ -722,37 +805,60 @@ public abstract class SQLEditorBase extends BaseTextEditor {
                 blockDepth--;
             }
             if (token instanceof SQLParameterToken && tokenLength > 0 && blockDepth <= 0) {
-                try {
-                    String paramName = document.get(tokenOffset, tokenLength);
-                    if (execQuery && paramName.equals("?")) {
-                        // Skip ? parameters for stored procedures (they have special meaning? [DB2])
-                        continue;
-                    }
+                paramTokens.add(tokenOffset - query.getOffset());
+                paramTokens.add(tokenLength);
+            }
+        }
+        int[] tokens = new int[paramTokens.size()];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = paramTokens.get(i);
+        }
+        return createParameters(document, query, tokens);
+    }
 
-                    if (parameters == null) {
-                        parameters = new ArrayList<>();
-                    }
+    /**
+     * Creates query parameters from parameter tokens (offset and length pairs, offsets are relative to query start)
+     */
+    @Nullable
+    protected List<SQLQueryParameter> createParameters(IDocument document, SQLQuery query, @Nullable int[] tokens) {
+        if (tokens == null || tokens.length == 0) {
+            return null;
+        }
+        boolean execQuery = SQLUtils.isExecQuery(getSQLDialect(), query.getQuery());
+        List<SQLQueryParameter> parameters = null;
+        for (int t = 0; t < tokens.length; t += 2) {
+            final int tokenOffset = query.getOffset() + tokens[t];
+            final int tokenLength = tokens[t + 1];
+            try {
+                String paramName = document.get(tokenOffset, tokenLength);
+                if (execQuery && paramName.equals("?")) {
+                    // Skip ? parameters for stored procedures (they have special meaning? [DB2])
+                    continue;
+                }
 
-                    SQLQueryParameter parameter = new SQLQueryParameter(
-                        parameters.size(),
-                        paramName,
-                        tokenOffset - query.getOffset(),
-                        tokenLength);
-
-                    SQLQueryParameter previous = null;
-                    if (parameter.isNamed()) {
-                        for (int i = parameters.size(); i > 0; i--) {
-                            if (parameters.get(i - 1).getName().equals(paramName)) {
-                                previous = parameters.get(i - 1);
-                                break;
-                            }
+                if (parameters == null) {
+                    parameters = new ArrayList<>();
+                }
+
+                SQLQueryParameter parameter = new SQLQueryParameter(
+                    parameters.size(),
+                    paramName,
+                    tokenOffset - query.getOffset(),
+                    tokenLength);
+
+                SQLQueryParameter previous = null;
+                if (parameter.isNamed()) {
+                    for (int i = parameters.size(); i > 0; i--) {
+                        if (parameters.get(i - 1).getName().equals(paramName)) {
+                            previous = parameters.get(i - 1);
+                            break;
                         }
                     }
-                    parameter.setPrevious(previous);
-                    parameters.add(parameter);
-                } catch (BadLocationException e) {
-                    log.warn("Can't extract query parameter", e);
                 }
+                parameter.setPrevious(previous);
+                parameters.add(parameter);
+            } catch (BadLocationException e) {
+                log.warn("Can't extract query parameter", e);
             }
         }
         return parameters;
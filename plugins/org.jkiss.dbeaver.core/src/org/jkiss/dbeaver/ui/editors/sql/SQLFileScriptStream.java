@@ -0,0 +1,172 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.ui.editors.sql;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.RunnableWithResult;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.runtime.sql.SQLScriptStream;
+import org.jkiss.dbeaver.ui.UIUtils;
+import org.jkiss.dbeaver.ui.editors.sql.syntax.SQLRuleManager;
+import org.jkiss.utils.IOUtils;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Reads queries straight from the script file.
+ * Only a window of the file text is kept in memory. Window contains unparsed text and grows only if
+ * some statement is larger than the read buffer.
+ * Statements are parsed by the editor's parser, so query offsets are relative to the current window
+ * and can't be used to locate the query in the editor.
+ */
+class SQLFileScriptStream extends SQLScriptStream {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final SQLEditorBase editor;
+    private final File file;
+    private final Reader reader;
+    private final boolean parseParameters;
+
+    private final Document window = new Document();
+    private final char[] readBuffer = new char[READ_BUFFER_SIZE];
+    private int parseOffset;
+    private boolean eof;
+    private long readLength;
+    // Script delimiter at the parse offset
+    private String scriptDelimiter;
+
+    SQLFileScriptStream(
+        @NotNull SQLEditorBase editor,
+        @NotNull File file,
+        @NotNull Charset charset,
+        int lookAhead,
+        boolean parseParameters)
+        throws IOException
+    {
+        super(lookAhead);
+        this.editor = editor;
+        this.file = file;
+        this.reader = new InputStreamReader(new FileInputStream(file), charset);
+        this.parseParameters = parseParameters;
+    }
+
+    @Override
+    protected boolean readQueries(@NotNull DBRProgressMonitor monitor, @NotNull final List<SQLQuery> queries, final int maxCount)
+        throws DBException
+    {
+        while (queries.size() < maxCount && !monitor.isCanceled()) {
+            if (!eof && window.getLength() - parseOffset < READ_BUFFER_SIZE) {
+                readText(monitor);
+            }
+            // Rule manager is used by editor in UI thread
+            RunnableWithResult<Boolean> parser = new RunnableWithResult<Boolean>() {
+                @Override
+                public void run()
+                {
+                    result = parseStatements(queries, maxCount);
+                }
+            };
+            UIUtils.runInUI(null, parser);
+            if (parser.getResult() == null) {
+                throw new DBException("SQL editor was closed during script execution");
+            }
+            if (!parser.getResult()) {
+                // End of window
+                if (eof) {
+                    return false;
+                }
+                readText(monitor);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses complete statements of the window.
+     * @return false if window end was reached, null if editor was closed
+     */
+    private Boolean parseStatements(List<SQLQuery> queries, int maxCount)
+    {
+        if (editor.isDisposed()) {
+            return null;
+        }
+        SQLRuleManager ruleManager = editor.getRuleManager();
+        ruleManager.startEval();
+        try {
+            while (queries.size() < maxCount) {
+                ruleManager.setScriptDelimiter(scriptDelimiter);
+                int windowLength = window.getLength();
+                SQLStatementIndex.ScriptStatement statement = editor.parseStatement(window, parseOffset, windowLength, parseOffset);
+                if (statement == null) {
+                    return false;
+                }
+                if (!eof && statement.getScanEnd() >= windowLength) {
+                    // Statement (or its delimiter) may continue in the unread text
+                    return false;
+                }
+                SQLQuery query = editor.createQuery(window, statement);
+                if (query != null) {
+                    if (parseParameters) {
+                        query.setParameters(editor.createParameters(window, query, statement.getParameters()));
+                    }
+                    queries.add(query);
+                }
+                parseOffset = statement.getNextOffset();
+                scriptDelimiter = ruleManager.getScriptDelimiter();
+            }
+            return true;
+        } finally {
+            ruleManager.endEval();
+        }
+    }
+
+    private void readText(DBRProgressMonitor monitor) throws DBException
+    {
+        try {
+            int count = reader.read(readBuffer);
+            if (count < 0) {
+                eof = true;
+                return;
+            }
+            readLength += count;
+            monitor.subTask(file.getName() + ": " + (readLength / 1024) + "Kb read");
+            // Drop parsed text
+            String text = window.get(parseOffset, window.getLength() - parseOffset);
+            window.set(text + new String(readBuffer, 0, count));
+            parseOffset = 0;
+        } catch (IOException e) {
+            throw new DBException("Error reading script file '" + file.getAbsolutePath() + "'", e);
+        } catch (BadLocationException e) {
+            throw new DBException("Internal error", e);
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        IOUtils.close(reader);
+    }
+
+}
@@ -26,6 +26,7 @@ public class SQLPreferenceConstants
     public static final String PROPOSAL_INSERT_CASE                    = "proposal.insert.case";
     public static final String HIDE_DUPLICATE_PROPOSALS                = "hide.duplicate.proposals";
     public static final String PROPOSAL_SHORT_NAME                     = "proposals.short.name";
+    public static final String PROPOSAL_NAME_INDEX                     = "proposals.name.index";
 
     // Syntax Validation
     public static final String SYNTAX_VALIDATION                       = "syntax.validation";
@@ -0,0 +1,474 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.ui.editors.sql;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.source.projection.ProjectionAnnotation;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ui.editors.sql.syntax.SQLRuleManager;
+import org.jkiss.dbeaver.ui.editors.sql.syntax.SQLScriptPosition;
+
+import java.util.*;
+
+/**
+ * Script statements index.
+ * Keeps statement boundaries of the editor document. Document changes invalidate only statements around
+ * the changed region, they are re-parsed lazily on the next request. Parsing stops as soon as a re-parsed
+ * statement matches the old one - all following statements are still valid then.
+ *
+ * Must be used in UI thread only (it uses editor's rule manager). Folding positions may be read from any thread.
+ */
+public class SQLStatementIndex implements IDocumentListener {
+
+    static final Log log = Log.getLog(SQLStatementIndex.class);
+
+    /**
+     * Statement bounds
+     */
+    public static class ScriptStatement {
+        private int offset;
+        private final int length;
+        // End of the text read by statement scan (end of the statement delimiter token)
+        private int scanEnd;
+        // Text which must be appended to the statement text (delimiter after block)
+        private final String suffix;
+        // Parameter tokens (offset and length pairs, offsets are relative to statement start)
+        private final int[] parameters;
+        // Script delimiter redefined before the end of this statement
+        private String scriptDelimiter;
+        private SQLScriptPosition position;
+
+        ScriptStatement(int offset, int length, int scanEnd, @Nullable String suffix, @Nullable int[] parameters)
+        {
+            this.offset = offset;
+            this.length = length;
+            this.scanEnd = scanEnd;
+            this.suffix = suffix;
+            this.parameters = parameters;
+        }
+
+        public int getOffset()
+        {
+            return offset;
+        }
+
+        public int getLength()
+        {
+            return length;
+        }
+
+        @Nullable
+        public String getSuffix()
+        {
+            return suffix;
+        }
+
+        @Nullable
+        public int[] getParameters()
+        {
+            return parameters;
+        }
+
+        int getScanEnd()
+        {
+            return scanEnd;
+        }
+
+        // Offset where the next statement scan begins
+        int getNextOffset()
+        {
+            return offset + length + 1;
+        }
+
+        boolean isSameAs(ScriptStatement statement)
+        {
+            return offset == statement.offset &&
+                length == statement.length &&
+                scanEnd == statement.scanEnd &&
+                Objects.equals(suffix, statement.suffix) &&
+                Arrays.equals(parameters, statement.parameters) &&
+                Objects.equals(scriptDelimiter, statement.scriptDelimiter);
+        }
+
+        @Override
+        public String toString()
+        {
+            return offset + ":" + length;
+        }
+    }
+
+    private final SQLEditorBase editor;
+    private IDocument document;
+
+    // Statements ordered by offset. First validCount statements are actual, others are left from the previous
+    // document state (they are always a tail of a single parse) and are used to detect that re-parse may be stopped.
+    private final List<ScriptStatement> statements = new ArrayList<>();
+    private int validCount;
+    private boolean complete;
+    private boolean tailComplete;
+    // Next parse position and script delimiter at this position
+    private int scanOffset;
+    private String scanDelimiter;
+
+    // Position equality depends on its offset, so use identity sets
+    private Set<SQLScriptPosition> addedPositions = createPositionSet();
+    private Set<SQLScriptPosition> removedPositions = createPositionSet();
+
+    SQLStatementIndex(@NotNull SQLEditorBase editor)
+    {
+        this.editor = editor;
+    }
+
+    @Nullable
+    public IDocument getDocument()
+    {
+        return document;
+    }
+
+    void setDocument(@Nullable IDocument document)
+    {
+        if (this.document == document) {
+            return;
+        }
+        if (this.document != null) {
+            this.document.removeDocumentListener(this);
+        }
+        this.document = document;
+        if (this.document != null) {
+            this.document.addDocumentListener(this);
+        }
+        reset();
+    }
+
+    void dispose()
+    {
+        setDocument(null);
+    }
+
+    /**
+     * Drops all statements. Must be called after syntax rules change.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < statements.size(); i++) {
+            releasePosition(statements.get(i));
+        }
+        statements.clear();
+        validCount = 0;
+        complete = false;
+        tailComplete = false;
+        scanOffset = 0;
+        scanDelimiter = null;
+    }
+
+    /**
+     * Finds statement which contains specified offset
+     */
+    @Nullable
+    public ScriptStatement getStatementAt(int offset)
+    {
+        ensureParsed(offset + 1);
+        int index = findStatement(offset + 1) - 1;
+        if (index < 0) {
+            return null;
+        }
+        ScriptStatement statement = statements.get(index);
+        return offset <= statement.offset + statement.length ? statement : null;
+    }
+
+    /**
+     * Returns statements which start in the specified range
+     */
+    @NotNull
+    public List<ScriptStatement> getStatements(int offset, int length)
+    {
+        return getStatements(offset, length, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns first maxCount statements which start in the specified range.
+     * Script is parsed only up to the last returned statement.
+     */
+    @NotNull
+    public List<ScriptStatement> getStatements(int offset, int length, int maxCount)
+    {
+        int endOffset = offset + length;
+        ensureParsed(endOffset, offset, maxCount);
+        List<ScriptStatement> result = new ArrayList<>();
+        for (int i = findStatement(offset); i < validCount && result.size() < maxCount; i++) {
+            ScriptStatement statement = statements.get(i);
+            if (statement.offset >= endOffset) {
+                break;
+            }
+            result.add(statement);
+        }
+        return result;
+    }
+
+    /**
+     * Parses all document statements
+     */
+    public void parseAll()
+    {
+        if (document != null) {
+            ensureParsed(document.getLength() + 1);
+        }
+    }
+
+    @NotNull
+    public synchronized Set<SQLScriptPosition> getRemovedPositions(boolean clear)
+    {
+        Set<SQLScriptPosition> posList = removedPositions;
+        if (clear) {
+            removedPositions = createPositionSet();
+        }
+        return posList;
+    }
+
+    @NotNull
+    public synchronized Set<SQLScriptPosition> getAddedPositions(boolean clear)
+    {
+        Set<SQLScriptPosition> posList = addedPositions;
+        if (clear) {
+            addedPositions = createPositionSet();
+        }
+        return posList;
+    }
+
+    @Override
+    public void documentAboutToBeChanged(DocumentEvent event)
+    {
+    }
+
+    @Override
+    public void documentChanged(DocumentEvent event)
+    {
+        int changeOffset = event.getOffset();
+        int changeEnd = changeOffset + event.getLength();
+        int delta = (event.getText() == null ? 0 : event.getText().length()) - event.getLength();
+
+        // Statement scan reads one character after its delimiter token
+        int restart = findScanEnd(changeOffset);
+        if (restart < validCount) {
+            if (validCount < statements.size()) {
+                // Old statements (left after the previous change) do not continue statements which
+                // become invalid now. Old statements must be produced by a single parse, so keep only them.
+                for (int i = restart; i < validCount; i++) {
+                    releasePosition(statements.get(i));
+                }
+                statements.subList(restart, validCount).clear();
+            } else {
+                tailComplete = complete;
+            }
+            validCount = restart;
+            complete = false;
+            if (restart == 0) {
+                scanOffset = 0;
+                scanDelimiter = null;
+            } else {
+                ScriptStatement prev = statements.get(restart - 1);
+                scanOffset = prev.getNextOffset();
+                scanDelimiter = prev.scriptDelimiter;
+            }
+        } else if (complete) {
+            // Changed text after the last statement
+            complete = false;
+            tailComplete = false;
+        }
+        // Shift statements after the changed region, drop changed ones
+        int index = validCount;
+        for (int i = validCount; i < statements.size(); i++) {
+            ScriptStatement statement = statements.get(i);
+            if (statement.offset < changeEnd) {
+                releasePosition(statement);
+            } else {
+                statement.offset += delta;
+                statement.scanEnd += delta;
+                shiftPosition(statement, delta);
+                statements.set(index++, statement);
+            }
+        }
+        trimStatements(index);
+    }
+
+    private void ensureParsed(int endOffset)
+    {
+        ensureParsed(endOffset, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Parses statements up to endOffset or until maxCount statements after startOffset are parsed
+     */
+    private void ensureParsed(int endOffset, int startOffset, int maxCount)
+    {
+        if (complete || scanOffset >= endOffset || document == null) {
+            return;
+        }
+        SQLRuleManager ruleManager = editor.getRuleManager();
+        ruleManager.startEval();
+        try {
+            while (!complete && scanOffset < endOffset &&
+                (maxCount == Integer.MAX_VALUE || validCount - findStatement(startOffset) < maxCount))
+            {
+                // Delimiter may change after we skip old statements
+                ruleManager.setScriptDelimiter(scanDelimiter);
+                parseNext(ruleManager);
+            }
+        } finally {
+            ruleManager.endEval();
+        }
+    }
+
+    private void parseNext(SQLRuleManager ruleManager)
+    {
+        int docLength = document.getLength();
+        ScriptStatement statement = editor.parseStatement(document, scanOffset, docLength, scanOffset);
+        if (statement == null) {
+            // No more statements
+            for (int i = validCount; i < statements.size(); i++) {
+                releasePosition(statements.get(i));
+            }
+            trimStatements(validCount);
+            complete = true;
+            return;
+        }
+        statement.scriptDelimiter = ruleManager.getScriptDelimiter();
+
+        // Drop old statements which are overlapped with the new one
+        int index = validCount;
+        while (index < statements.size() && statements.get(index).offset < statement.offset) {
+            releasePosition(statements.get(index));
+            index++;
+        }
+        if (index < statements.size() && statements.get(index).isSameAs(statement)) {
+            // The rest of old statements is still valid
+            statements.subList(validCount, index).clear();
+            validCount = statements.size();
+            ScriptStatement last = statements.get(validCount - 1);
+            scanOffset = last.getNextOffset();
+            scanDelimiter = last.scriptDelimiter;
+            complete = tailComplete;
+            return;
+        }
+        int nextOffset = statement.getNextOffset();
+        while (index < statements.size() && statements.get(index).offset < nextOffset) {
+            releasePosition(statements.get(index));
+            index++;
+        }
+        statements.subList(validCount, index).clear();
+        statements.add(validCount++, statement);
+        createPosition(statement);
+        scanOffset = nextOffset;
+        scanDelimiter = statement.scriptDelimiter;
+    }
+
+    private void trimStatements(int size)
+    {
+        if (size < statements.size()) {
+            statements.subList(size, statements.size()).clear();
+        }
+    }
+
+    /**
+     * Index of the first valid statement which starts at or after the specified offset
+     */
+    private int findStatement(int offset)
+    {
+        int low = 0, high = validCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (statements.get(mid).offset < offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the first statement (valid or not) which scan reaches the specified offset
+     */
+    private int findScanEnd(int offset)
+    {
+        int low = 0, high = statements.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (statements.get(mid).scanEnd < offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Set<SQLScriptPosition> createPositionSet()
+    {
+        return Collections.newSetFromMap(new IdentityHashMap<SQLScriptPosition, Boolean>());
+    }
+
+    private void createPosition(ScriptStatement statement)
+    {
+        try {
+            if (document.getLineOfOffset(statement.offset) == document.getLineOfOffset(statement.offset + statement.length)) {
+                // Do not fold single line statements
+                return;
+            }
+        } catch (BadLocationException e) {
+            log.debug(e);
+            return;
+        }
+        statement.position = new SQLScriptPosition(statement.offset, statement.length, new ProjectionAnnotation());
+        synchronized (this) {
+            addedPositions.add(statement.position);
+        }
+    }
+
+    private void shiftPosition(ScriptStatement statement, int delta)
+    {
+        if (statement.position == null) {
+            return;
+        }
+        synchronized (this) {
+            // Published positions are updated by the document
+            if (addedPositions.contains(statement.position)) {
+                statement.position.offset += delta;
+            }
+        }
+    }
+
+    private void releasePosition(ScriptStatement statement)
+    {
+        if (statement.position == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!addedPositions.remove(statement.position)) {
+                removedPositions.add(statement.position);
+            }
+        }
+        statement.position = null;
+    }
+
+}
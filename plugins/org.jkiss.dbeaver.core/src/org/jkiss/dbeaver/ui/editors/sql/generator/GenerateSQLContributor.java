@@ -62,7 +62,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 public class GenerateSQLContributor extends CompoundContributionItem {
 
@@ -85,12 +87,12 @@ public class GenerateSQLContributor extends CompoundContributionItem {
         } else {
             final DBSObject object =
                 ((DBNDatabaseNode)RuntimeUtils.getObjectAdapter(structuredSelection.getFirstElement(), DBNNode.class)).getObject();
-            makeTableContributions(menu, object);
+            makeTableContributions(menu, object, getScriptObjects(structuredSelection));
         }
         return menu.toArray(new IContributionItem[menu.size()]);
     }
 
-    private void makeTableContributions(List<IContributionItem> menu, final DBSObject object)
+    private void makeTableContributions(List<IContributionItem> menu, final DBSObject object, final List<DBPScriptObject> scriptObjects)
     {
         if (object instanceof DBSTable) {
             DBSTable table = (DBSTable)object;
@@ -239,13 +241,50 @@ public class GenerateSQLContributor extends CompoundContributionItem {
             menu.add(makeAction("DDL", new SQLGenerator<DBPScriptObject>(so) {
                 @Override
                 public void generateSQL(DBRProgressMonitor monitor, StringBuilder sql) throws DBException {
-                    String definitionText = so.getObjectDefinitionText(monitor);
-                    sql.append(definitionText);
+                    cacheObjectDefinitions(monitor, scriptObjects);
+                    for (DBPScriptObject scriptObject : scriptObjects) {
+                        if (sql.length() > 0) {
+                            sql.append("\n\n");
+                        }
+                        String definitionText = scriptObject.getObjectDefinitionText(monitor);
+                        sql.append(definitionText);
+                    }
                 }
             }));
         }
     }
 
+    private static List<DBPScriptObject> getScriptObjects(IStructuredSelection selection)
+    {
+        List<DBPScriptObject> result = new ArrayList<>();
+        for (Object element : selection.toList()) {
+            DBNNode node = RuntimeUtils.getObjectAdapter(element, DBNNode.class);
+            if (node instanceof DBNDatabaseNode && ((DBNDatabaseNode) node).getObject() instanceof DBPScriptObject) {
+                result.add((DBPScriptObject) ((DBNDatabaseNode) node).getObject());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads DDL of objects of the same container at once
+     */
+    private static void cacheObjectDefinitions(DBRProgressMonitor monitor, List<DBPScriptObject> scriptObjects) throws DBException
+    {
+        if (scriptObjects.size() < 2) {
+            return;
+        }
+        Set<DBPScriptObjectContainer> containers = new LinkedHashSet<>();
+        for (DBPScriptObject scriptObject : scriptObjects) {
+            if (scriptObject instanceof DBSObject && ((DBSObject) scriptObject).getParentObject() instanceof DBPScriptObjectContainer) {
+                containers.add((DBPScriptObjectContainer) ((DBSObject) scriptObject).getParentObject());
+            }
+        }
+        for (DBPScriptObjectContainer container : containers) {
+            container.cacheObjectDefinitions(monitor, scriptObjects);
+        }
+    }
+
     private void makeResultSetContributions(List<IContributionItem> menu, IResultSetSelection rss)
     {
         final IResultSetController rsv = rss.getController();
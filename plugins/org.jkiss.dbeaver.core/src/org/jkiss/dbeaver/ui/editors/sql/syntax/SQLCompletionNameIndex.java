@@ -0,0 +1,316 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.ui.editors.sql.syntax;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvent;
+import org.jkiss.dbeaver.model.DBPEventListener;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectReference;
+import org.jkiss.dbeaver.model.struct.DBSStructureAssistant;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Dictionary of database object names used by SQL completion.
+ * Names of all objects which may be auto-completed (see {@link DBSStructureAssistant#getAutoCompleteObjectTypes()})
+ * are read in background by a single structure assistant search and kept in a sorted array,
+ * so lookup by name or name prefix doesn't touch the database.
+ * Index is kept per data source container. It is dropped on disconnect and rebuilt in background after objects
+ * were created or deleted and when it becomes older than refresh period. Old names are used until new ones are read.
+ * Names are also saved in {@link SQLCompletionNameSnapshot}, so after restart they are available before
+ * the database is queried.
+ */
+class SQLCompletionNameIndex implements DBPEventListener
+{
+    static final Log log = Log.getLog(SQLCompletionNameIndex.class);
+
+    private static final int MAX_INDEX_SIZE = 200000;
+    private static final long REFRESH_PERIOD = 10 * 60 * 1000;
+
+    private static final Map<DBPDataSourceContainer, SQLCompletionNameIndex> indexes = new IdentityHashMap<>();
+
+    private final DBPDataSourceContainer container;
+    private volatile NameArray names;
+    private volatile boolean stale;
+    private IndexBuildJob buildJob;
+
+    @NotNull
+    static SQLCompletionNameIndex getIndex(@NotNull DBPDataSourceContainer container)
+    {
+        synchronized (indexes) {
+            SQLCompletionNameIndex index = indexes.get(container);
+            if (index == null) {
+                index = new SQLCompletionNameIndex(container);
+                indexes.put(container, index);
+                container.getRegistry().addDataSourceListener(index);
+            }
+            return index;
+        }
+    }
+
+    private SQLCompletionNameIndex(@NotNull DBPDataSourceContainer container)
+    {
+        this.container = container;
+    }
+
+    /**
+     * Finds objects by name or by name prefix.
+     * Starts index build if index is not ready yet or is out of date.
+     * @param parent        container of objects (direct or indirect) or null
+     * @param name          object name or name prefix (without quotes)
+     * @param prefix        search by name prefix
+     * @param caseSensitive compare names case sensitively
+     * @return found objects or null if index can't answer and structure assistant must be used
+     */
+    @Nullable
+    List<DBSObjectReference> findObjects(@Nullable DBSObject parent, @NotNull String name, boolean prefix, boolean caseSensitive, int maxResults)
+    {
+        NameArray snapshot = names;
+        if (snapshot == null || stale || System.currentTimeMillis() - snapshot.readTime > REFRESH_PERIOD) {
+            scheduleBuild();
+        }
+        if (snapshot == null) {
+            return null;
+        }
+        String key = name.toUpperCase();
+        boolean nameFound = false;
+        List<DBSObjectReference> result = new ArrayList<>();
+        for (int i = snapshot.lowerBound(key); i < snapshot.keys.length && result.size() < maxResults; i++) {
+            if (prefix ? !snapshot.keys[i].startsWith(key) : !snapshot.keys[i].equals(key)) {
+                break;
+            }
+            DBSObjectReference reference = snapshot.references[i];
+            if (caseSensitive && (prefix ? !reference.getName().startsWith(name) : !reference.getName().equals(name))) {
+                continue;
+            }
+            nameFound = true;
+            if (parent == null || isChildOf(reference, parent)) {
+                result.add(reference);
+            }
+        }
+        if (result.isEmpty() && (nameFound || !snapshot.complete)) {
+            // Names exist but parent can't be matched with reference containers. Or index doesn't have all names.
+            return null;
+        }
+        return result;
+    }
+
+    private static boolean isChildOf(@NotNull DBSObjectReference reference, @NotNull DBSObject parent)
+    {
+        if (SQLCompletionNameSnapshot.isSnapshotReference(reference)) {
+            return SQLCompletionNameSnapshot.isSnapshotChildOf(reference, parent);
+        }
+        for (DBSObject object = reference.getContainer(); object != null; object = object.getParentObject()) {
+            if (object == parent) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void scheduleBuild()
+    {
+        if (buildJob != null || container.getDataSource() == null) {
+            return;
+        }
+        stale = false;
+        buildJob = new IndexBuildJob();
+        buildJob.schedule();
+    }
+
+    private synchronized void reset()
+    {
+        names = null;
+        stale = false;
+        if (buildJob != null) {
+            buildJob.cancel();
+            buildJob = null;
+        }
+    }
+
+    @Override
+    public void handleDataSourceEvent(DBPEvent event)
+    {
+        DBSObject object = event.getObject();
+        if (object == container) {
+            if (event.getAction() == DBPEvent.Action.OBJECT_REMOVE) {
+                // Connection was deleted
+                synchronized (indexes) {
+                    indexes.remove(container);
+                }
+                container.getRegistry().removeDataSourceListener(this);
+                reset();
+                File snapshotFile = SQLCompletionNameSnapshot.getSnapshotFile(container);
+                if (snapshotFile.exists() && !snapshotFile.delete()) {
+                    log.debug("Can't delete names snapshot '" + snapshotFile.getAbsolutePath() + "'");
+                }
+            } else if (event.getAction() == DBPEvent.Action.OBJECT_UPDATE) {
+                // Connect, disconnect or refresh of the whole connection
+                reset();
+            }
+            return;
+        }
+        if (object != null && (event.getAction() == DBPEvent.Action.OBJECT_ADD || event.getAction() == DBPEvent.Action.OBJECT_REMOVE)) {
+            DBPDataSource dataSource = object.getDataSource();
+            if (dataSource != null && dataSource.getContainer() == container) {
+                // Re-read names on next lookup
+                stale = true;
+            }
+        }
+    }
+
+    /**
+     * Sorted names with their objects
+     */
+    private static class NameArray {
+        private final String[] keys;
+        private final DBSObjectReference[] references;
+        private final boolean complete;
+        private final long readTime = System.currentTimeMillis();
+
+        NameArray(@NotNull List<DBSObjectReference> objects, boolean complete)
+        {
+            objects = new ArrayList<>(objects);
+            Collections.sort(objects, new Comparator<DBSObjectReference>() {
+                @Override
+                public int compare(DBSObjectReference o1, DBSObjectReference o2)
+                {
+                    return o1.getName().toUpperCase().compareTo(o2.getName().toUpperCase());
+                }
+            });
+            this.keys = new String[objects.size()];
+            this.references = objects.toArray(new DBSObjectReference[objects.size()]);
+            for (int i = 0; i < references.length; i++) {
+                keys[i] = references[i].getName().toUpperCase();
+            }
+            this.complete = complete;
+        }
+
+        /**
+         * Position of the first key which is not less than specified one
+         */
+        int lowerBound(@NotNull String key)
+        {
+            int low = 0, high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private class IndexBuildJob extends AbstractJob {
+
+        IndexBuildJob()
+        {
+            super("Read object names of '" + container.getName() + "'");
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor)
+        {
+            boolean snapshotLoaded = false;
+            try {
+                DBPDataSource dataSource = container.getDataSource();
+                DBSStructureAssistant assistant = dataSource == null ? null : DBUtils.getAdapter(DBSStructureAssistant.class, dataSource);
+                if (assistant == null) {
+                    // Nothing to read. Empty incomplete index makes completion use other ways.
+                    setNames(new NameArray(new ArrayList<DBSObjectReference>(), false));
+                    return Status.OK_STATUS;
+                }
+                File snapshotFile = SQLCompletionNameSnapshot.getSnapshotFile(container);
+                if (names == null) {
+                    // Use names saved in previous session while database is queried
+                    try {
+                        SQLCompletionNameSnapshot snapshot = SQLCompletionNameSnapshot.read(
+                            snapshotFile, dataSource, assistant.getAutoCompleteObjectTypes());
+                        if (snapshot != null) {
+                            snapshotLoaded = setNames(new NameArray(snapshot.getObjects(), snapshot.isComplete()));
+                        }
+                    } catch (IOException e) {
+                        log.debug("Can't read names snapshot '" + snapshotFile.getAbsolutePath() + "'", e);
+                    }
+                }
+                List<DBSObjectReference> objects = new ArrayList<>(assistant.findObjectsByMask(
+                    monitor,
+                    null,
+                    assistant.getAutoCompleteObjectTypes(),
+                    "%",
+                    false,
+                    MAX_INDEX_SIZE));
+                if (monitor.isCanceled()) {
+                    return Status.OK_STATUS;
+                }
+                boolean complete = objects.size() < MAX_INDEX_SIZE;
+                if (setNames(new NameArray(objects, complete))) {
+                    try {
+                        SQLCompletionNameSnapshot.write(snapshotFile, dataSource, objects, complete);
+                    } catch (IOException e) {
+                        log.debug("Can't save names snapshot '" + snapshotFile.getAbsolutePath() + "'", e);
+                    }
+                }
+            } catch (Throwable e) {
+                log.warn("Can't read object names of '" + container.getName() + "'", e);
+                if (!snapshotLoaded) {
+                    // Do not retry until refresh period ends
+                    setNames(new NameArray(new ArrayList<DBSObjectReference>(), false));
+                }
+            } finally {
+                synchronized (SQLCompletionNameIndex.this) {
+                    if (buildJob == this) {
+                        buildJob = null;
+                    }
+                }
+            }
+            return Status.OK_STATUS;
+        }
+
+        /**
+         * Replaces index names. Names of canceled job (e.g. after disconnect) are ignored.
+         */
+        private boolean setNames(@NotNull NameArray newNames)
+        {
+            synchronized (SQLCompletionNameIndex.this) {
+                if (buildJob != this) {
+                    return false;
+                }
+                names = newNames;
+                return true;
+            }
+        }
+    }
+
+}
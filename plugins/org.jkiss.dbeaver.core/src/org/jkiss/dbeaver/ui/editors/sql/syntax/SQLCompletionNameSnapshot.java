@@ -0,0 +1,342 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.ui.editors.sql.syntax;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.core.DBeaverActivator;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.jkiss.dbeaver.model.struct.DBSObjectReference;
+import org.jkiss.dbeaver.model.struct.DBSObjectType;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Snapshot of object names index saved on disk.
+ * It is read when index of data source is empty (e.g. after restart), so completion works before names are
+ * read from database. Snapshot objects don't have loaded containers: they are resolved by path on demand.
+ * File has binary format: header with version, container paths table and then objects.
+ * New snapshot is written in temporary file which then replaces the old one.
+ */
+class SQLCompletionNameSnapshot
+{
+    static final Log log = Log.getLog(SQLCompletionNameSnapshot.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x44424E49;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final String SNAPSHOT_FOLDER = "name-index"; //$NON-NLS-1$
+    private static final String SNAPSHOT_EXT = ".dbn"; //$NON-NLS-1$
+
+    private final List<DBSObjectReference> objects;
+    private final boolean complete;
+
+    private SQLCompletionNameSnapshot(@NotNull List<DBSObjectReference> objects, boolean complete)
+    {
+        this.objects = objects;
+        this.complete = complete;
+    }
+
+    @NotNull
+    List<DBSObjectReference> getObjects()
+    {
+        return objects;
+    }
+
+    boolean isComplete()
+    {
+        return complete;
+    }
+
+    @NotNull
+    static File getSnapshotFile(@NotNull DBPDataSourceContainer container)
+    {
+        File folder = new File(DBeaverActivator.getInstance().getStateLocation().toFile(), SNAPSHOT_FOLDER);
+        return new File(folder, container.getId().replaceAll("[^\\w\\-.]", "_") + SNAPSHOT_EXT);
+    }
+
+    /**
+     * Reads snapshot.
+     * Objects of types which are not supported by data source any more are skipped.
+     * @return snapshot or null if there is no snapshot or it has different version
+     */
+    @Nullable
+    static SQLCompletionNameSnapshot read(@NotNull File file, @NotNull DBPDataSource dataSource, @NotNull DBSObjectType[] objectTypes)
+        throws IOException
+    {
+        if (!file.exists()) {
+            return null;
+        }
+        Map<String, DBSObjectType> typeMap = new HashMap<>();
+        for (DBSObjectType type : objectTypes) {
+            typeMap.put(type.getTypeName(), type);
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                return null;
+            }
+            boolean complete = in.readBoolean();
+            String[][] paths = new String[in.readInt()][];
+            for (int i = 0; i < paths.length; i++) {
+                paths[i] = new String[in.readUnsignedByte()];
+                for (int k = 0; k < paths[i].length; k++) {
+                    paths[i][k] = in.readUTF();
+                }
+            }
+            DBSObjectType[] types = new DBSObjectType[in.readInt()];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = typeMap.get(in.readUTF());
+            }
+            int objectCount = in.readInt();
+            List<DBSObjectReference> objects = new ArrayList<>(objectCount);
+            for (int i = 0; i < objectCount; i++) {
+                String[] path = paths[in.readInt()];
+                DBSObjectType type = types[in.readInt()];
+                String name = in.readUTF();
+                String fullName = in.readUTF();
+                String description = in.readUTF();
+                if (type == null) {
+                    // Type isn't supported by data source any more
+                    complete = false;
+                    continue;
+                }
+                objects.add(new SnapshotReference(dataSource, path, name, fullName, description, type));
+            }
+            return new SQLCompletionNameSnapshot(objects, complete);
+        }
+    }
+
+    static void write(@NotNull File file, @NotNull DBPDataSource dataSource, @NotNull Collection<DBSObjectReference> objects, boolean complete)
+        throws IOException
+    {
+        Map<List<String>, Integer> paths = new LinkedHashMap<>();
+        Map<String, Integer> types = new LinkedHashMap<>();
+        int[] objectPaths = new int[objects.size()];
+        int[] objectTypes = new int[objects.size()];
+        int index = 0;
+        for (DBSObjectReference reference : objects) {
+            List<String> path = getContainerPath(reference, dataSource);
+            Integer pathIndex = paths.get(path);
+            if (pathIndex == null) {
+                pathIndex = paths.size();
+                paths.put(path, pathIndex);
+            }
+            String typeName = reference.getObjectType().getTypeName();
+            Integer typeIndex = types.get(typeName);
+            if (typeIndex == null) {
+                typeIndex = types.size();
+                types.put(typeName, typeIndex);
+            }
+            objectPaths[index] = pathIndex;
+            objectTypes[index] = typeIndex;
+            index++;
+        }
+
+        File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Can't create folder '" + folder.getAbsolutePath() + "'");
+        }
+        File tmpFile = new File(folder, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeBoolean(complete);
+            out.writeInt(paths.size());
+            for (List<String> path : paths.keySet()) {
+                out.writeByte(path.size());
+                for (String name : path) {
+                    out.writeUTF(name);
+                }
+            }
+            out.writeInt(types.size());
+            for (String typeName : types.keySet()) {
+                out.writeUTF(typeName);
+            }
+            out.writeInt(objects.size());
+            index = 0;
+            for (DBSObjectReference reference : objects) {
+                out.writeInt(objectPaths[index]);
+                out.writeInt(objectTypes[index]);
+                out.writeUTF(reference.getName());
+                out.writeUTF(reference.getFullQualifiedName());
+                out.writeUTF(CommonUtils.truncateString(CommonUtils.notEmpty(reference.getObjectDescription()), 1000));
+                index++;
+            }
+        }
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Names of reference containers starting from the data source root
+     */
+    @NotNull
+    private static List<String> getContainerPath(@NotNull DBSObjectReference reference, @NotNull DBPDataSource dataSource)
+    {
+        if (reference instanceof SnapshotReference) {
+            List<String> path = new ArrayList<>();
+            Collections.addAll(path, ((SnapshotReference) reference).path);
+            return path;
+        }
+        return getObjectPath(reference.getContainer(), dataSource);
+    }
+
+    /**
+     * Names of object and its parents starting from the data source root
+     */
+    @NotNull
+    private static List<String> getObjectPath(@Nullable DBSObject object, @NotNull DBPDataSource dataSource)
+    {
+        List<String> path = new ArrayList<>();
+        for (; object != null && object != dataSource && !(object instanceof DBPDataSource) && !(object instanceof DBPDataSourceContainer);
+             object = object.getParentObject())
+        {
+            path.add(0, object.getName());
+        }
+        return path;
+    }
+
+    /**
+     * Checks that snapshot object is a child (direct or indirect) of parent.
+     * Compares container names so neither snapshot object nor its container are resolved.
+     */
+    static boolean isSnapshotChildOf(@NotNull DBSObjectReference reference, @NotNull DBSObject parent)
+    {
+        SnapshotReference snapshotReference = (SnapshotReference) reference;
+        if (parent.getDataSource() != snapshotReference.dataSource) {
+            return false;
+        }
+        List<String> parentPath = getObjectPath(parent, snapshotReference.dataSource);
+        if (parentPath.size() > snapshotReference.path.length) {
+            return false;
+        }
+        for (int i = 0; i < parentPath.size(); i++) {
+            if (!parentPath.get(i).equals(snapshotReference.path[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isSnapshotReference(@NotNull DBSObjectReference reference)
+    {
+        return reference instanceof SnapshotReference;
+    }
+
+    /**
+     * Object read from snapshot. Its container is unknown until object is resolved.
+     */
+    private static class SnapshotReference implements DBSObjectReference {
+        private final DBPDataSource dataSource;
+        private final String[] path;
+        private final String name;
+        private final String fullName;
+        private final String description;
+        private final DBSObjectType type;
+        // Container resolved by path
+        private volatile DBSObject container;
+        private volatile boolean containerResolved;
+
+        SnapshotReference(DBPDataSource dataSource, String[] path, String name, String fullName, String description, DBSObjectType type)
+        {
+            this.dataSource = dataSource;
+            this.path = path;
+            this.name = name;
+            this.fullName = fullName;
+            this.description = description;
+            this.type = type;
+        }
+
+        @NotNull
+        @Override
+        public String getName()
+        {
+            return name;
+        }
+
+        @NotNull
+        @Override
+        public String getFullQualifiedName()
+        {
+            return fullName;
+        }
+
+        @Nullable
+        @Override
+        public DBSObject getContainer()
+        {
+            if (!containerResolved) {
+                try {
+                    container = path.length == 0 ? dataSource : DBUtils.findNestedObject(
+                        VoidProgressMonitor.INSTANCE, getRootContainer(), Arrays.asList(path));
+                } catch (DBException e) {
+                    log.debug("Can't resolve container of '" + fullName + "': " + e.getMessage());
+                }
+                containerResolved = true;
+            }
+            return container;
+        }
+
+        @NotNull
+        private DBSObjectContainer getRootContainer() throws DBException
+        {
+            DBSObjectContainer root = DBUtils.getAdapter(DBSObjectContainer.class, dataSource);
+            if (root == null) {
+                throw new DBException("Data source '" + dataSource.getContainer().getName() + "' doesn't contain objects");
+            }
+            return root;
+        }
+
+        @Override
+        public DBSObjectType getObjectType()
+        {
+            return type;
+        }
+
+        @Override
+        public String getObjectDescription()
+        {
+            return description;
+        }
+
+        @Override
+        public DBSObject resolveObject(DBRProgressMonitor monitor) throws DBException
+        {
+            DBSObjectContainer root = getRootContainer();
+            List<String> names = new ArrayList<>(path.length + 1);
+            Collections.addAll(names, path);
+            names.add(name);
+            DBSObject object = DBUtils.findNestedObject(monitor, root, names);
+            if (object == null) {
+                throw new DBException("Object '" + fullName + "' not found");
+            }
+            return object;
+        }
+    }
+
+}
@@ -62,6 +62,8 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
 {
     static final Log log = Log.getLog(SQLCompletionProcessor.class);
 
+    private static final int MAX_ALIAS_PATTERNS = 100;
+
     private enum QueryType {
         TABLE,
         COLUMN
@@ -72,6 +74,8 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
     private int documentOffset;
     private String activeQuery = null;
     private SQLWordPartDetector wordDetector;
+    // Alias patterns depend on token only, so they are compiled once
+    private final Map<String, Pattern> aliasPatterns = new HashMap<>();
     private static boolean lookupTemplates = false;
 
     public SQLCompletionProcessor(SQLEditorBase editor)
@@ -323,12 +327,12 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
                         if (childObject == null) {
                             DBSStructureAssistant structureAssistant = DBUtils.getAdapter(DBSStructureAssistant.class, sc);
                             if (structureAssistant != null) {
-                                Collection<DBSObjectReference> references = structureAssistant.findObjectsByMask(
+                                Collection<DBSObjectReference> references = findObjects(
                                     monitor,
+                                    structureAssistant,
                                     null,
-                                    structureAssistant.getAutoCompleteObjectTypes(),
-                                    wordDetector.removeQuotes(token),
-                                    wordDetector.isQuoted(token),
+                                    token,
+                                    false,
                                     2);
                                 if (!references.isEmpty()) {
                                     childObject = references.iterator().next().resolveObject(monitor);
@@ -392,9 +396,12 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
         if (activeQuery == null) {
             final SQLQuery queryAtPos = editor.extractQueryAtPos(documentOffset);
             if (queryAtPos != null) {
-                activeQuery = queryAtPos.getQuery() + " ";
+                activeQuery = SQLUtils.stripComments(editor.getSyntaxManager().getDialect(), queryAtPos.getQuery() + " ");
             }
         }
+        if (activeQuery == null) {
+            return null;
+        }
 
         final List<String> nameList = new ArrayList<>();
         if (token == null) {
@@ -423,14 +430,20 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
                     "\\s+(?:(?:AS)\\s)?" + token + "[\\s,]+";
             }
 
-            try {
-                aliasPattern = Pattern.compile(structNamePattern, Pattern.CASE_INSENSITIVE);
-            } catch (PatternSyntaxException e) {
-                // Bad pattern - seems to be a bad token
-                return null;
+            aliasPattern = aliasPatterns.get(structNamePattern);
+            if (aliasPattern == null) {
+                try {
+                    aliasPattern = Pattern.compile(structNamePattern, Pattern.CASE_INSENSITIVE);
+                } catch (PatternSyntaxException e) {
+                    // Bad pattern - seems to be a bad token
+                    return null;
+                }
+                if (aliasPatterns.size() >= MAX_ALIAS_PATTERNS) {
+                    aliasPatterns.clear();
+                }
+                aliasPatterns.put(structNamePattern, aliasPattern);
             }
-            String testQuery = SQLUtils.stripComments(editor.getSyntaxManager().getDialect(), activeQuery);
-            matcher = aliasPattern.matcher(testQuery);
+            matcher = aliasPattern.matcher(activeQuery);
             if (!matcher.find()) {
                 return null;
             }
@@ -476,12 +489,12 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
                 DBSStructureAssistant structureAssistant = DBUtils.getAdapter(DBSStructureAssistant.class, sc);
                 if (structureAssistant != null) {
                     String objectNameMask = nameList.get(0);
-                    Collection<DBSObjectReference> tables = structureAssistant.findObjectsByMask(
+                    Collection<DBSObjectReference> tables = findObjects(
                         monitor,
+                        structureAssistant,
                         sc,
-                        structureAssistant.getAutoCompleteObjectTypes(),
-                        wordDetector.removeQuotes(objectNameMask),
-                        wordDetector.isQuoted(objectNameMask),
+                        objectNameMask,
+                        false,
                         2);
                     if (!tables.isEmpty()) {
                         return tables.iterator().next().resolveObject(monitor);
@@ -542,12 +555,12 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
         List<SQLCompletionProposal> proposals)
     {
         try {
-            Collection<DBSObjectReference> references = assistant.findObjectsByMask(
+            Collection<DBSObjectReference> references = findObjects(
                 monitor,
+                assistant,
                 rootSC,
-                assistant.getAutoCompleteObjectTypes(),
-                wordDetector.removeQuotes(objectName) + "%",
-                wordDetector.isQuoted(objectName),
+                objectName,
+                true,
                 100);
             for (DBSObjectReference reference : references) {
                 proposals.add(makeProposalsFromObject(monitor, reference, reference.getObjectType().getImage()));
@@ -557,6 +570,39 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
         }
     }
 
+    /**
+     * Finds objects by name (or name prefix).
+     * Uses names index of data source if it is ready, otherwise searches with structure assistant.
+     */
+    @NotNull
+    private Collection<DBSObjectReference> findObjects(
+        DBRProgressMonitor monitor,
+        DBSStructureAssistant assistant,
+        @Nullable DBSObject parent,
+        String objectName,
+        boolean prefix,
+        int maxResults)
+        throws DBException
+    {
+        String name = wordDetector.removeQuotes(objectName);
+        boolean caseSensitive = wordDetector.isQuoted(objectName);
+        DBPDataSource dataSource = editor.getDataSource();
+        if (dataSource != null && getPreferences().getBoolean(SQLPreferenceConstants.PROPOSAL_NAME_INDEX)) {
+            Collection<DBSObjectReference> references = SQLCompletionNameIndex.getIndex(dataSource.getContainer())
+                .findObjects(parent, name, prefix, caseSensitive, maxResults);
+            if (references != null) {
+                return references;
+            }
+        }
+        return assistant.findObjectsByMask(
+            monitor,
+            parent,
+            assistant.getAutoCompleteObjectTypes(),
+            prefix ? name + "%" : name,
+            caseSensitive,
+            maxResults);
+    }
+
     private SQLCompletionProposal makeProposalsFromObject(DBRProgressMonitor monitor, DBSObject object)
     {
         DBNNode node = DBeaverCore.getInstance().getNavigatorModel().getNodeByObject(monitor, object, false);
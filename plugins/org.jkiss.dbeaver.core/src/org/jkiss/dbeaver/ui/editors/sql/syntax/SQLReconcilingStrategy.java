@@ -26,7 +26,9 @@ import org.eclipse.jface.text.reconciler.IReconcilingStrategy;
 import org.eclipse.jface.text.reconciler.IReconcilingStrategyExtension;
 import org.eclipse.jface.text.source.Annotation;
 import org.eclipse.jface.text.source.projection.ProjectionAnnotationModel;
+import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.editors.sql.SQLEditor;
+import org.jkiss.dbeaver.ui.editors.sql.SQLStatementIndex;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -99,13 +101,29 @@ public class SQLReconcilingStrategy implements IReconcilingStrategy, IReconcilin
     }
 
     protected void calculatePositions()
+    {
+        // Statements index uses editor's rule manager so it must be accessed in UI thread
+        UIUtils.runInUI(null, new Runnable() {
+            @Override
+            public void run()
+            {
+                if (!editor.isDisposed()) {
+                    updateFoldingPositions();
+                }
+            }
+        });
+    }
+
+    private void updateFoldingPositions()
     {
         ProjectionAnnotationModel annotationModel = editor.getAnnotationModel();
         if (annotationModel == null) {
             return;
         }
-        Set<SQLScriptPosition> removedPositions = editor.getRuleManager().getRemovedPositions(true);
-        Set<SQLScriptPosition> addedPositions = editor.getRuleManager().getAddedPositions(true);
+        SQLStatementIndex statementIndex = editor.getStatementIndex();
+        statementIndex.getStatements(regionOffset, regionLength);
+        Set<SQLScriptPosition> removedPositions = statementIndex.getRemovedPositions(true);
+        Set<SQLScriptPosition> addedPositions = statementIndex.getAddedPositions(true);
 
         Annotation[] removedAnnotations = null;
         if (!removedPositions.isEmpty()) {
@@ -17,7 +17,6 @@
  */
 package org.jkiss.dbeaver.ui.editors.sql.syntax;
 
-import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.TextAttribute;
 import org.eclipse.jface.text.rules.*;
 import org.eclipse.swt.SWT;
@@ -27,6 +26,7 @@ import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.themes.ITheme;
 import org.eclipse.ui.themes.IThemeManager;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.sql.SQLConstants;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
@@ -50,10 +50,6 @@ public class SQLRuleManager extends RuleBasedScanner {
     private final IThemeManager themeManager;
     @NotNull
     private SQLSyntaxManager syntaxManager;
-    @NotNull
-    private TreeMap<Integer, SQLScriptPosition> positions = new TreeMap<>();
-    private Set<SQLScriptPosition> addedPositions = new HashSet<>();
-    private Set<SQLScriptPosition> removedPositions = new HashSet<>();
 
     private boolean evalMode;
 
@@ -73,41 +69,35 @@ public class SQLRuleManager extends RuleBasedScanner {
 
     public void endEval() {
         this.evalMode = false;
+        setScriptDelimiter(null);
+    }
+
+    /**
+     * Script delimiter redefined in eval mode. Null if default delimiters are used.
+     */
+    @Nullable
+    public String getScriptDelimiter() {
         for (IRule rule : fRules) {
             if (rule instanceof DelimiterRule) {
-                ((DelimiterRule) rule).changeDelimiter(null);
+                return ((DelimiterRule) rule).changedDelimiter;
             }
         }
+        return null;
     }
 
-    public void dispose()
-    {
-    }
-
-    @NotNull
-    public Collection<? extends Position> getPositions(int offset, int length)
-    {
-        return positions.subMap(offset, offset + length).values();
-    }
-
-    @NotNull
-    public synchronized Set<SQLScriptPosition> getRemovedPositions(boolean clear)
-    {
-        Set<SQLScriptPosition> posList = removedPositions;
-        if (clear) {
-            removedPositions = new HashSet<>();
+    /**
+     * Restores script delimiter. Used to continue script evaluation from the middle of script.
+     */
+    public void setScriptDelimiter(@Nullable String delimiter) {
+        for (IRule rule : fRules) {
+            if (rule instanceof DelimiterRule) {
+                ((DelimiterRule) rule).changeDelimiter(delimiter);
+            }
         }
-        return posList;
     }
 
-    @NotNull
-    public synchronized Set<SQLScriptPosition> getAddedPositions(boolean clear)
+    public void dispose()
     {
-        Set<SQLScriptPosition> posList = addedPositions;
-        if (clear) {
-            addedPositions = new HashSet<>();
-        }
-        return posList;
     }
 
     public void refreshRules(DBPDataSource dataSource)
@@ -268,6 +258,7 @@ public class SQLRuleManager extends RuleBasedScanner {
         private final IToken token;
         private char[][] delimiters, origDelimiters;
         private char[] buffer, origBuffer;
+        private String changedDelimiter;
         public DelimiterRule(Collection<String> delimiters, IToken token) {
             this.token = token;
             this.origDelimiters = this.delimiters = new char[delimiters.size()][];
@@ -330,9 +321,11 @@ public class SQLRuleManager extends RuleBasedScanner {
 
         public void changeDelimiter(String newDelimiter) {
             if (CommonUtils.isEmpty(newDelimiter)) {
+                this.changedDelimiter = null;
                 this.delimiters = this.origDelimiters;
                 this.buffer = this.origBuffer;
             } else {
+                this.changedDelimiter = newDelimiter;
                 this.delimiters = new char[1][];
                 this.delimiters[0] = newDelimiter.toUpperCase(Locale.ENGLISH).toCharArray();
                 this.buffer = new char[newDelimiter.length()];
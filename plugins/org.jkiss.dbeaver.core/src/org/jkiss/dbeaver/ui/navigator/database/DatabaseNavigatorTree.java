@@ -47,6 +47,7 @@ import org.jkiss.dbeaver.ui.ActionUtils;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.actions.navigator.NavigatorHandlerObjectRename;
 import org.jkiss.dbeaver.ui.navigator.NavigatorUtils;
+import org.jkiss.dbeaver.ui.navigator.database.load.TreeLoadScheduler;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
@@ -95,6 +96,21 @@ public class DatabaseNavigatorTree extends Composite implements INavigatorListen
         }
         treeViewer.setLabelProvider(new DatabaseNavigatorLabelProvider(treeViewer));
         treeViewer.setContentProvider(new DatabaseNavigatorContentProvider(this, showRoot));
+        treeViewer.addTreeListener(new ITreeViewerListener() {
+            @Override
+            public void treeCollapsed(TreeExpansionEvent event)
+            {
+                if (event.getElement() instanceof DBNNode) {
+                    // Children of collapsed node are not needed anymore
+                    TreeLoadScheduler.cancelLoading((DBNNode) event.getElement());
+                }
+            }
+
+            @Override
+            public void treeExpanded(TreeExpansionEvent event)
+            {
+            }
+        });
 
         treeViewer.setInput(new DatabaseNavigatorContent(rootNode));
 
@@ -0,0 +1,261 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.ui.navigator.database.load;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBeaverPreferences;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.core.DBeaverCore;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNNode;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinates navigator children loading.
+ * Loads of expanded nodes run in parallel with interactive priority. Sibling folders of an expanded
+ * folder are prefetched in background (one at a time per connection). Requests for the same node are coalesced
+ * and loads of collapsed subtrees are canceled (metadata caches drop results of canceled reads).
+ */
+public class TreeLoadScheduler {
+
+    static final Log log = Log.getLog(TreeLoadScheduler.class);
+
+    private static final int MAX_PREFETCH_NODES = 10;
+    private static final long JOIN_TIMEOUT = 100;
+
+    // Jobs which load children of node
+    private static final Map<DBNNode, Job> loadingNodes = new IdentityHashMap<>();
+
+    /**
+     * Marks node as being loaded by specified job.
+     * @return job which already loads node children or null
+     */
+    @Nullable
+    static synchronized Job beginLoad(@NotNull DBNNode node, @NotNull Job job)
+    {
+        Job curJob = loadingNodes.get(node);
+        if (curJob != null && curJob != job) {
+            return curJob;
+        }
+        loadingNodes.put(node, job);
+        return null;
+    }
+
+    static synchronized void endLoad(@NotNull DBNNode node, @NotNull Job job)
+    {
+        if (loadingNodes.get(node) == job) {
+            loadingNodes.remove(node);
+        }
+    }
+
+    /**
+     * Waits until children of node are read by other job and then marks it as being loaded by current job
+     */
+    static void joinLoad(@NotNull DBNNode node, @NotNull Job job, @NotNull DBRProgressMonitor monitor)
+        throws InterruptedException
+    {
+        for (;;) {
+            Job curJob = beginLoad(node, job);
+            if (curJob == null) {
+                return;
+            }
+            if (curJob instanceof PrefetchJob && curJob.getState() != Job.RUNNING) {
+                // Prefetch didn't start yet - do not wait for it
+                if (curJob.cancel()) {
+                    endLoad(node, curJob);
+                    continue;
+                }
+            }
+            waitForJob(curJob, monitor);
+            endLoad(node, curJob);
+        }
+    }
+
+    private static void waitForJob(@NotNull Job job, @NotNull DBRProgressMonitor monitor)
+        throws InterruptedException
+    {
+        final CountDownLatch jobDone = new CountDownLatch(1);
+        JobChangeAdapter listener = new JobChangeAdapter() {
+            @Override
+            public void done(IJobChangeEvent event)
+            {
+                jobDone.countDown();
+            }
+        };
+        job.addJobChangeListener(listener);
+        try {
+            // Job may finish before listener was added
+            while (job.getState() != Job.NONE) {
+                if (monitor.isCanceled()) {
+                    throw new InterruptedException();
+                }
+                if (jobDone.await(JOIN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+            }
+        } finally {
+            job.removeJobChangeListener(listener);
+        }
+    }
+
+    /**
+     * Cancels loading of node and all its children. Called when node collapses.
+     */
+    public static void cancelLoading(@NotNull DBNNode node)
+    {
+        List<Job> jobs = new ArrayList<>();
+        synchronized (TreeLoadScheduler.class) {
+            for (Map.Entry<DBNNode, Job> entry : loadingNodes.entrySet()) {
+                if (entry.getKey() == node || entry.getKey().isChildOf(node)) {
+                    jobs.add(entry.getValue());
+                }
+            }
+        }
+        for (Job job : jobs) {
+            job.cancel();
+        }
+    }
+
+    /**
+     * Schedules background read of sibling folders of loaded node
+     */
+    static void prefetchSiblings(@NotNull DBNNode node)
+    {
+        if (!(node instanceof DBNDatabaseFolder) ||
+            !DBeaverCore.getGlobalPreferenceStore().getBoolean(DBeaverPreferences.NAVIGATOR_PREFETCH_SIBLINGS))
+        {
+            return;
+        }
+        DBNNode parent = node.getParentNode();
+        if (!(parent instanceof DBNDatabaseNode) || ((DBNDatabaseNode) parent).needsInitialization()) {
+            return;
+        }
+        DBNDatabaseNode[] siblings;
+        try {
+            // Parent children are already read, so this doesn't query database
+            siblings = ((DBNDatabaseNode) parent).getChildren(VoidProgressMonitor.INSTANCE);
+        } catch (Exception e) {
+            log.debug(e);
+            return;
+        }
+        if (siblings == null) {
+            return;
+        }
+        DBPDataSourceContainer container = ((DBNDatabaseFolder) node).getDataSourceContainer();
+        if (container == null || !container.isConnected()) {
+            return;
+        }
+        int scheduled = 0;
+        for (DBNDatabaseNode sibling : siblings) {
+            if (scheduled >= MAX_PREFETCH_NODES) {
+                break;
+            }
+            if (sibling != node && sibling instanceof DBNDatabaseFolder && sibling.needsInitialization()) {
+                PrefetchJob job = new PrefetchJob(sibling, container);
+                synchronized (TreeLoadScheduler.class) {
+                    if (loadingNodes.containsKey(sibling)) {
+                        continue;
+                    }
+                    loadingNodes.put(sibling, job);
+                }
+                job.schedule();
+                scheduled++;
+            }
+        }
+    }
+
+    /**
+     * Reads node children without visualization
+     */
+    private static class PrefetchJob extends AbstractJob {
+
+        private final DBNDatabaseNode node;
+        private final DBPDataSourceContainer container;
+
+        PrefetchJob(DBNDatabaseNode node, DBPDataSourceContainer container)
+        {
+            super("Prefetch " + node.getNodeName());
+            this.node = node;
+            this.container = container;
+            setSystem(true);
+            setPriority(Job.DECORATE);
+            setRule(new PrefetchRule(container));
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor)
+        {
+            try {
+                if (!node.isDisposed() && node.needsInitialization() && container.isConnected()) {
+                    node.getChildren(monitor);
+                }
+            } catch (Throwable e) {
+                // Errors will be shown when user expands this node
+                log.debug("Error prefetching children of '" + node.getNodeName() + "'", e);
+            } finally {
+                endLoad(node, this);
+            }
+            return Status.OK_STATUS;
+        }
+
+    }
+
+    /**
+     * Allows only one prefetch at a time for each connection, so prefetch doesn't delay user requests much
+     */
+    private static class PrefetchRule implements ISchedulingRule {
+
+        private final DBPDataSourceContainer container;
+
+        PrefetchRule(DBPDataSourceContainer container)
+        {
+            this.container = container;
+        }
+
+        @Override
+        public boolean contains(ISchedulingRule rule)
+        {
+            return rule == this;
+        }
+
+        @Override
+        public boolean isConflicting(ISchedulingRule rule)
+        {
+            return rule instanceof PrefetchRule && ((PrefetchRule) rule).container == container;
+        }
+    }
+
+}
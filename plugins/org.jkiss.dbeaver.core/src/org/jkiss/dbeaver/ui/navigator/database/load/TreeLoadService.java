@@ -17,11 +17,13 @@
  */
 package org.jkiss.dbeaver.ui.navigator.database.load;
 
+import org.eclipse.core.runtime.jobs.Job;
 import org.jkiss.dbeaver.DBeaverPreferences;
 import org.jkiss.dbeaver.core.DBeaverCore;
 import org.jkiss.dbeaver.model.navigator.DBNContainer;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.DBNNode;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.load.DatabaseLoadService;
 import org.jkiss.utils.ArrayUtils;
 
@@ -52,13 +54,31 @@ public class TreeLoadService extends DatabaseLoadService<Object[]> {
     public Object[] evaluate()
         throws InvocationTargetException, InterruptedException
     {
+        DBRProgressMonitor monitor = getProgressMonitor();
+        Job job = Job.getJobManager().currentJob();
+        if (job != null) {
+            // Wait for background read of the same node
+            TreeLoadScheduler.joinLoad(parentNode, job, monitor);
+        }
+        DBNNode[] children;
         try {
-            DBNNode[] children = filterNavigableChildren(
-                parentNode.getChildren(getProgressMonitor()));
-            return children == null ? new Object[0] : children;
+            children = filterNavigableChildren(
+                parentNode.getChildren(monitor));
         } catch (Throwable ex) {
+            if (monitor.isCanceled()) {
+                throw new InterruptedException();
+            }
             throw new InvocationTargetException(ex);
+        } finally {
+            if (job != null) {
+                TreeLoadScheduler.endLoad(parentNode, job);
+            }
+        }
+        if (monitor.isCanceled()) {
+            throw new InterruptedException();
         }
+        TreeLoadScheduler.prefetchSiblings(parentNode);
+        return children == null ? new Object[0] : children;
     }
 
     public static DBNNode[] filterNavigableChildren(DBNNode[] children)
@@ -18,6 +18,7 @@
 package org.jkiss.dbeaver.ui.navigator.database.load;
 
 import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.viewers.AbstractTreeViewer;
 import org.eclipse.swt.widgets.TreeItem;
 import org.eclipse.swt.widgets.Widget;
@@ -72,8 +73,10 @@ public class TreeLoadVisualizer implements ILoadVisualizer<Object[]> {
             if (widget != null && !widget.isDisposed()) {
                 TreeItem item = (TreeItem) viewer.testFindItem(placeHolder);
                 if (children == null) {
-                    // Some error occurred. In good case children must be at least an empty array
+                    // Some error occurred or loading was canceled. In good case children must be at least an empty array
                     viewer.collapseToLevel(parent, -1);
+                    // Read children again on next expand
+                    viewer.refresh(parent);
                 } else if (children.length != 0) {
                     viewer.add(parent, children);
                 }
@@ -96,7 +99,9 @@ public class TreeLoadVisualizer implements ILoadVisualizer<Object[]> {
         TreeLoadNode placeHolder = TreeLoadNode.createPlaceHolder(parent);
         if (placeHolder != null && TreeLoadNode.canBeginLoading(parent)) {
             TreeLoadVisualizer visualizer = new TreeLoadVisualizer(viewer, placeHolder, parent);
-            LoadingJob.createService(service, visualizer).schedule();
+            LoadingJob<Object[]> loadingJob = LoadingJob.createService(service, visualizer);
+            loadingJob.setPriority(Job.INTERACTIVE);
+            loadingJob.schedule();
             return new Object[]{placeHolder};
         }
         return EMPTY_ELEMENT_ARRAY;
@@ -55,6 +55,7 @@ public class PrefPageDatabaseGeneral extends PreferencePage implements IWorkbenc
     private Button sortCaseInsensitiveCheck;
     private Button groupByDriverCheck;
     private Button editorFullName;
+    private Button prefetchSiblingsCheck;
     private Combo doubleClickBehavior;
 
     public PrefPageDatabaseGeneral()
@@ -107,6 +108,9 @@ public class PrefPageDatabaseGeneral extends PreferencePage implements IWorkbenc
             groupByDriverCheck.setEnabled(false);
             editorFullName = UIUtils.createCheckbox(navigatorGroup, "Show full object names in editors", false);
             editorFullName.setLayoutData(new GridData(GridData.BEGINNING, GridData.BEGINNING, true, false, 2, 1));
+            prefetchSiblingsCheck = UIUtils.createCheckbox(navigatorGroup, "Prefetch neighbour folders in background", false);
+            prefetchSiblingsCheck.setToolTipText("Read contents of sibling folders (e.g. views after tables) while expanded folder is shown");
+            prefetchSiblingsCheck.setLayoutData(new GridData(GridData.BEGINNING, GridData.BEGINNING, true, false, 2, 1));
 
             doubleClickBehavior = UIUtils.createLabelCombo(navigatorGroup, "Double-click on connection", SWT.DROP_DOWN | SWT.READ_ONLY);
             doubleClickBehavior.add("Open Properties", NavigatorViewBase.DoubleClickBehavior.EDIT.ordinal());
@@ -133,6 +137,7 @@ public class PrefPageDatabaseGeneral extends PreferencePage implements IWorkbenc
         sortCaseInsensitiveCheck.setSelection(store.getBoolean(DBeaverPreferences.NAVIGATOR_SORT_ALPHABETICALLY));
         groupByDriverCheck.setSelection(store.getBoolean(DBeaverPreferences.NAVIGATOR_GROUP_BY_DRIVER));
         editorFullName.setSelection(store.getBoolean(DBeaverPreferences.NAVIGATOR_EDITOR_FULL_NAME));
+        prefetchSiblingsCheck.setSelection(store.getBoolean(DBeaverPreferences.NAVIGATOR_PREFETCH_SIBLINGS));
         doubleClickBehavior.select(
             NavigatorViewBase.DoubleClickBehavior.valueOf(store.getString(DBeaverPreferences.NAVIGATOR_CONNECTION_DOUBLE_CLICK)).ordinal());
     }
@@ -151,6 +156,7 @@ public class PrefPageDatabaseGeneral extends PreferencePage implements IWorkbenc
         store.setValue(DBeaverPreferences.NAVIGATOR_SORT_ALPHABETICALLY, sortCaseInsensitiveCheck.getSelection());
         store.setValue(DBeaverPreferences.NAVIGATOR_GROUP_BY_DRIVER, groupByDriverCheck.getSelection());
         store.setValue(DBeaverPreferences.NAVIGATOR_EDITOR_FULL_NAME, editorFullName.getSelection());
+        store.setValue(DBeaverPreferences.NAVIGATOR_PREFETCH_SIBLINGS, prefetchSiblingsCheck.getSelection());
         store.setValue(DBeaverPreferences.NAVIGATOR_CONNECTION_DOUBLE_CLICK,
             CommonUtils.fromOrdinal(NavigatorViewBase.DoubleClickBehavior.class, doubleClickBehavior.getSelectionIndex()).name());
 
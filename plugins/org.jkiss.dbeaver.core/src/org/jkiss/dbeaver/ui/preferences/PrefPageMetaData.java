@@ -23,6 +23,7 @@ import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Group;
+import org.eclipse.swt.widgets.Spinner;
 import org.jkiss.dbeaver.DBeaverPreferences;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.core.CoreMessages;
@@ -41,6 +42,9 @@ public class PrefPageMetaData extends TargetPrefPage
     private Button readExpensiveCheck;
     private Button separateMetaConnectionCheck;
     private Button caseSensitiveNamesCheck;
+    private Button cacheSnapshotCheck;
+    private Button connectionPoolCheck;
+    private Spinner connectionPoolSizeText;
 
     public PrefPageMetaData()
     {
@@ -54,7 +58,10 @@ public class PrefPageMetaData extends TargetPrefPage
         return
             store.contains(DBeaverPreferences.READ_EXPENSIVE_PROPERTIES) ||
             store.contains(ModelPreferences.META_SEPARATE_CONNECTION) ||
-            store.contains(ModelPreferences.META_CASE_SENSITIVE)
+            store.contains(ModelPreferences.META_CASE_SENSITIVE) ||
+            store.contains(ModelPreferences.META_CACHE_SNAPSHOT) ||
+            store.contains(ModelPreferences.CONNECTION_POOL_ENABLED) ||
+            store.contains(ModelPreferences.CONNECTION_POOL_SIZE)
             ;
     }
 
@@ -75,6 +82,21 @@ public class PrefPageMetaData extends TargetPrefPage
             separateMetaConnectionCheck = UIUtils.createLabelCheckbox(metadataGroup, CoreMessages.pref_page_database_general_separate_meta_connection, false);
             caseSensitiveNamesCheck = UIUtils.createLabelCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_case_sensitive_names, false);
             readExpensiveCheck = UIUtils.createLabelCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_show_row_count, false);
+            cacheSnapshotCheck = UIUtils.createLabelCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_cache_snapshot, false);
+            cacheSnapshotCheck.setToolTipText(CoreMessages.pref_page_database_general_checkbox_cache_snapshot_tip);
+        }
+
+        {
+            Group poolGroup = UIUtils.createControlGroup(composite, CoreMessages.pref_page_database_general_group_connection_pool, 2, SWT.NONE, 0);
+
+            connectionPoolCheck = UIUtils.createLabelCheckbox(poolGroup, CoreMessages.pref_page_database_general_checkbox_connection_pool, false);
+            connectionPoolCheck.setToolTipText(CoreMessages.pref_page_database_general_checkbox_connection_pool_tip);
+            UIUtils.createControlLabel(poolGroup, CoreMessages.pref_page_database_general_label_connection_pool_size);
+            connectionPoolSizeText = new Spinner(poolGroup, SWT.BORDER);
+            connectionPoolSizeText.setDigits(0);
+            connectionPoolSizeText.setIncrement(1);
+            connectionPoolSizeText.setMinimum(1);
+            connectionPoolSizeText.setMaximum(16);
         }
 
 
@@ -88,6 +110,9 @@ public class PrefPageMetaData extends TargetPrefPage
             readExpensiveCheck.setSelection(store.getBoolean(DBeaverPreferences.READ_EXPENSIVE_PROPERTIES));
             separateMetaConnectionCheck.setSelection(store.getBoolean(ModelPreferences.META_SEPARATE_CONNECTION));
             caseSensitiveNamesCheck.setSelection(store.getBoolean(ModelPreferences.META_CASE_SENSITIVE));
+            cacheSnapshotCheck.setSelection(store.getBoolean(ModelPreferences.META_CACHE_SNAPSHOT));
+            connectionPoolCheck.setSelection(store.getBoolean(ModelPreferences.CONNECTION_POOL_ENABLED));
+            connectionPoolSizeText.setSelection(store.getInt(ModelPreferences.CONNECTION_POOL_SIZE));
         } catch (Exception e) {
             log.warn(e);
         }
@@ -100,6 +125,9 @@ public class PrefPageMetaData extends TargetPrefPage
             store.setValue(DBeaverPreferences.READ_EXPENSIVE_PROPERTIES, readExpensiveCheck.getSelection());
             store.setValue(ModelPreferences.META_SEPARATE_CONNECTION, separateMetaConnectionCheck.getSelection());
             store.setValue(ModelPreferences.META_CASE_SENSITIVE, caseSensitiveNamesCheck.getSelection());
+            store.setValue(ModelPreferences.META_CACHE_SNAPSHOT, cacheSnapshotCheck.getSelection());
+            store.setValue(ModelPreferences.CONNECTION_POOL_ENABLED, connectionPoolCheck.getSelection());
+            store.setValue(ModelPreferences.CONNECTION_POOL_SIZE, connectionPoolSizeText.getSelection());
         } catch (Exception e) {
             log.warn(e);
         }
@@ -112,6 +140,9 @@ public class PrefPageMetaData extends TargetPrefPage
         store.setToDefault(DBeaverPreferences.READ_EXPENSIVE_PROPERTIES);
         store.setToDefault(ModelPreferences.META_SEPARATE_CONNECTION);
         store.setToDefault(ModelPreferences.META_CASE_SENSITIVE);
+        store.setToDefault(ModelPreferences.META_CACHE_SNAPSHOT);
+        store.setToDefault(ModelPreferences.CONNECTION_POOL_ENABLED);
+        store.setToDefault(ModelPreferences.CONNECTION_POOL_SIZE);
     }
 
     @Override
@@ -41,6 +41,9 @@ public class PrefPageResultSetMain extends TargetPrefPage
     private Spinner resultSetSize;
     private Button resultSetUseSQLCheck;
     private Button serverSideOrderingCheck;
+    private Button keysetPagingCheck;
+    private Button columnarStorageCheck;
+    private Spinner memoryRowsSpinner;
 
     private Button keepStatementOpenCheck;
     private Button rollbackOnErrorCheck;
@@ -60,6 +63,9 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.contains(DBeaverPreferences.RESULT_SET_AUTO_FETCH_NEXT_SEGMENT) ||
             store.contains(DBeaverPreferences.RESULT_SET_MAX_ROWS) ||
             store.contains(ModelPreferences.RESULT_SET_MAX_ROWS_USE_SQL) ||
+            store.contains(ModelPreferences.RESULT_SET_KEYSET_PAGING) ||
+            store.contains(DBeaverPreferences.RESULT_SET_COLUMNAR_STORAGE) ||
+            store.contains(DBeaverPreferences.RESULT_SET_MEMORY_ROWS) ||
             store.contains(ModelPreferences.QUERY_ROLLBACK_ON_ERROR) ||
             store.contains(DBeaverPreferences.RS_EDIT_USE_ALL_COLUMNS) ||
             store.contains(DBeaverPreferences.KEEP_STATEMENT_OPEN) ||
@@ -93,6 +99,9 @@ public class PrefPageResultSetMain extends TargetPrefPage
             autoFetchNextSegmentCheck = UIUtils.createLabelCheckbox(queriesGroup, CoreMessages.pref_page_database_resultsets_label_auto_fetch_segment, true);
             resultSetUseSQLCheck = UIUtils.createLabelCheckbox(queriesGroup, CoreMessages.pref_page_database_resultsets_label_use_sql, false);
             serverSideOrderingCheck = UIUtils.createLabelCheckbox(queriesGroup, CoreMessages.pref_page_database_resultsets_label_server_side_order, false);
+            keysetPagingCheck = UIUtils.createLabelCheckbox(queriesGroup, CoreMessages.pref_page_database_resultsets_label_keyset_paging, false);
+            columnarStorageCheck = UIUtils.createLabelCheckbox(queriesGroup, CoreMessages.pref_page_database_resultsets_label_columnar_storage, false);
+            memoryRowsSpinner = UIUtils.createLabelSpinner(queriesGroup, CoreMessages.pref_page_database_resultsets_label_memory_rows, CoreMessages.pref_page_database_resultsets_label_memory_rows_tip, 0, 0, Integer.MAX_VALUE);
         }
 
         // Transactions settings
@@ -118,6 +127,9 @@ public class PrefPageResultSetMain extends TargetPrefPage
             autoFetchNextSegmentCheck.setSelection(store.getBoolean(DBeaverPreferences.RESULT_SET_AUTO_FETCH_NEXT_SEGMENT));
             resultSetSize.setSelection(store.getInt(DBeaverPreferences.RESULT_SET_MAX_ROWS));
             resultSetUseSQLCheck.setSelection(store.getBoolean(ModelPreferences.RESULT_SET_MAX_ROWS_USE_SQL));
+            keysetPagingCheck.setSelection(store.getBoolean(ModelPreferences.RESULT_SET_KEYSET_PAGING));
+            columnarStorageCheck.setSelection(store.getBoolean(DBeaverPreferences.RESULT_SET_COLUMNAR_STORAGE));
+            memoryRowsSpinner.setSelection(store.getInt(DBeaverPreferences.RESULT_SET_MEMORY_ROWS));
             serverSideOrderingCheck.setSelection(store.getBoolean(DBeaverPreferences.RESULT_SET_ORDER_SERVER_SIDE));
 
             keepStatementOpenCheck.setSelection(store.getBoolean(DBeaverPreferences.KEEP_STATEMENT_OPEN));
@@ -135,6 +147,9 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.setValue(DBeaverPreferences.RESULT_SET_AUTO_FETCH_NEXT_SEGMENT, autoFetchNextSegmentCheck.getSelection());
             store.setValue(DBeaverPreferences.RESULT_SET_MAX_ROWS, resultSetSize.getSelection());
             store.setValue(ModelPreferences.RESULT_SET_MAX_ROWS_USE_SQL, resultSetUseSQLCheck.getSelection());
+            store.setValue(ModelPreferences.RESULT_SET_KEYSET_PAGING, keysetPagingCheck.getSelection());
+            store.setValue(DBeaverPreferences.RESULT_SET_COLUMNAR_STORAGE, columnarStorageCheck.getSelection());
+            store.setValue(DBeaverPreferences.RESULT_SET_MEMORY_ROWS, memoryRowsSpinner.getSelection());
             store.setValue(DBeaverPreferences.RESULT_SET_ORDER_SERVER_SIDE, serverSideOrderingCheck.getSelection());
 
             store.setValue(DBeaverPreferences.KEEP_STATEMENT_OPEN, keepStatementOpenCheck.getSelection());
@@ -152,6 +167,9 @@ public class PrefPageResultSetMain extends TargetPrefPage
         store.setToDefault(DBeaverPreferences.RESULT_SET_AUTO_FETCH_NEXT_SEGMENT);
         store.setToDefault(DBeaverPreferences.RESULT_SET_MAX_ROWS);
         store.setToDefault(ModelPreferences.RESULT_SET_MAX_ROWS_USE_SQL);
+        store.setToDefault(ModelPreferences.RESULT_SET_KEYSET_PAGING);
+        store.setToDefault(DBeaverPreferences.RESULT_SET_COLUMNAR_STORAGE);
+        store.setToDefault(DBeaverPreferences.RESULT_SET_MEMORY_ROWS);
         store.setToDefault(DBeaverPreferences.RESULT_SET_ORDER_SERVER_SIDE);
 
         store.setToDefault(DBeaverPreferences.KEEP_STATEMENT_OPEN);
@@ -46,6 +46,8 @@ public class PrefPageSQLExecute extends TargetPrefPage
     private Combo commitTypeCombo;
     private Combo errorHandlingCombo;
     private Spinner commitLinesText;
+    private Spinner batchSizeText;
+    private Spinner parallelConnectionsText;
     private Button fetchResultSetsCheck;
     private Button resetCursorCheck;
 
@@ -72,6 +74,8 @@ public class PrefPageSQLExecute extends TargetPrefPage
             store.contains(DBeaverPreferences.SCRIPT_COMMIT_TYPE) ||
             store.contains(DBeaverPreferences.SCRIPT_ERROR_HANDLING) ||
             store.contains(DBeaverPreferences.SCRIPT_COMMIT_LINES) ||
+            store.contains(DBeaverPreferences.SCRIPT_BATCH_SIZE) ||
+            store.contains(DBeaverPreferences.SCRIPT_PARALLEL_CONNECTIONS) ||
             store.contains(DBeaverPreferences.SCRIPT_FETCH_RESULT_SETS) ||
             store.contains(ModelPreferences.SCRIPT_STATEMENT_DELIMITER) ||
             store.contains(ModelPreferences.SCRIPT_IGNORE_NATIVE_DELIMITER) ||
@@ -136,6 +140,28 @@ public class PrefPageSQLExecute extends TargetPrefPage
                 commitLinesText.setMaximum(1024 * 1024);
             }
 
+            {
+                UIUtils.createControlLabel(scriptsGroup, CoreMessages.pref_page_sql_editor_label_batch_size);
+                batchSizeText = new Spinner(scriptsGroup, SWT.BORDER);
+                batchSizeText.setSelection(0);
+                batchSizeText.setDigits(0);
+                batchSizeText.setIncrement(1);
+                batchSizeText.setMinimum(0);
+                batchSizeText.setMaximum(100000);
+                batchSizeText.setToolTipText(CoreMessages.pref_page_sql_editor_label_batch_size_tip);
+            }
+
+            {
+                UIUtils.createControlLabel(scriptsGroup, CoreMessages.pref_page_sql_editor_label_parallel_connections);
+                parallelConnectionsText = new Spinner(scriptsGroup, SWT.BORDER);
+                parallelConnectionsText.setSelection(4);
+                parallelConnectionsText.setDigits(0);
+                parallelConnectionsText.setIncrement(1);
+                parallelConnectionsText.setMinimum(1);
+                parallelConnectionsText.setMaximum(64);
+                parallelConnectionsText.setToolTipText(CoreMessages.pref_page_sql_editor_label_parallel_connections_tip);
+            }
+
             {
                 UIUtils.createControlLabel(scriptsGroup, CoreMessages.pref_page_sql_editor_label_error_handling);
 
@@ -181,6 +207,8 @@ public class PrefPageSQLExecute extends TargetPrefPage
             commitTypeCombo.select(SQLScriptCommitType.valueOf(store.getString(DBeaverPreferences.SCRIPT_COMMIT_TYPE)).ordinal());
             errorHandlingCombo.select(SQLScriptErrorHandling.valueOf(store.getString(DBeaverPreferences.SCRIPT_ERROR_HANDLING)).ordinal());
             commitLinesText.setSelection(store.getInt(DBeaverPreferences.SCRIPT_COMMIT_LINES));
+            batchSizeText.setSelection(store.getInt(DBeaverPreferences.SCRIPT_BATCH_SIZE));
+            parallelConnectionsText.setSelection(store.getInt(DBeaverPreferences.SCRIPT_PARALLEL_CONNECTIONS));
             fetchResultSetsCheck.setSelection(store.getBoolean(DBeaverPreferences.SCRIPT_FETCH_RESULT_SETS));
             resetCursorCheck.setSelection(store.getBoolean(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE));
 
@@ -205,6 +233,8 @@ public class PrefPageSQLExecute extends TargetPrefPage
 
             store.setValue(DBeaverPreferences.SCRIPT_COMMIT_TYPE, CommonUtils.fromOrdinal(SQLScriptCommitType.class, commitTypeCombo.getSelectionIndex()).name());
             store.setValue(DBeaverPreferences.SCRIPT_COMMIT_LINES, commitLinesText.getSelection());
+            store.setValue(DBeaverPreferences.SCRIPT_BATCH_SIZE, batchSizeText.getSelection());
+            store.setValue(DBeaverPreferences.SCRIPT_PARALLEL_CONNECTIONS, parallelConnectionsText.getSelection());
             store.setValue(DBeaverPreferences.SCRIPT_ERROR_HANDLING, CommonUtils.fromOrdinal(SQLScriptErrorHandling.class, errorHandlingCombo.getSelectionIndex()).name());
             store.setValue(DBeaverPreferences.SCRIPT_FETCH_RESULT_SETS, fetchResultSetsCheck.getSelection());
             store.setValue(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE, resetCursorCheck.getSelection());
@@ -230,6 +260,8 @@ public class PrefPageSQLExecute extends TargetPrefPage
 
         store.setToDefault(DBeaverPreferences.SCRIPT_COMMIT_TYPE);
         store.setToDefault(DBeaverPreferences.SCRIPT_COMMIT_LINES);
+        store.setToDefault(DBeaverPreferences.SCRIPT_BATCH_SIZE);
+        store.setToDefault(DBeaverPreferences.SCRIPT_PARALLEL_CONNECTIONS);
         store.setToDefault(DBeaverPreferences.SCRIPT_ERROR_HANDLING);
         store.setToDefault(DBeaverPreferences.SCRIPT_FETCH_RESULT_SETS);
         store.setToDefault(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE);
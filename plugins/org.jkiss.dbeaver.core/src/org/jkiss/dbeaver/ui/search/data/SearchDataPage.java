@@ -53,6 +53,8 @@ public class SearchDataPage extends AbstractSearchPage {
     private static final String PROP_FAST_SEARCH = "search.data.fast-search"; //$NON-NLS-1$
     private static final String PROP_SEARCH_NUMBERS = "search.data.search-numbers"; //$NON-NLS-1$
     private static final String PROP_SEARCH_LOBS = "search.data.search-lobs"; //$NON-NLS-1$
+    private static final String PROP_MAX_CONNECTIONS = "search.data.max-connections"; //$NON-NLS-1$
+    private static final String PROP_TABLE_TIMEOUT = "search.data.table-timeout"; //$NON-NLS-1$
     private static final String PROP_HISTORY = "search.data.history"; //$NON-NLS-1$
     private static final String PROP_SOURCES = "search.data.object-source"; //$NON-NLS-1$
 
@@ -165,6 +167,9 @@ public class SearchDataPage extends AbstractSearchPage {
             if (params.maxResults <= 0) {
                 params.maxResults = 10;
             }
+            if (params.maxConnections <= 0) {
+                params.maxConnections = 4;
+            }
 
             final Spinner maxResultsSpinner = UIUtils.createLabelSpinner(optionsGroup2, "Sample rows", params.maxResults, 1, Integer.MAX_VALUE);
             maxResultsSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
@@ -176,6 +181,26 @@ public class SearchDataPage extends AbstractSearchPage {
                 }
             });
 
+            final Spinner maxConnectionsSpinner = UIUtils.createLabelSpinner(optionsGroup2, "Parallel connections", "Number of connections used to search in tables of each database", params.maxConnections, 1, 64);
+            maxConnectionsSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            maxConnectionsSpinner.addModifyListener(new ModifyListener() {
+                @Override
+                public void modifyText(ModifyEvent e)
+                {
+                    params.maxConnections = maxConnectionsSpinner.getSelection();
+                }
+            });
+
+            final Spinner tableTimeoutSpinner = UIUtils.createLabelSpinner(optionsGroup2, "Table timeout (sec)", "Maximum time of search in one table. 0 means no limit", params.tableTimeout, 0, Integer.MAX_VALUE);
+            tableTimeoutSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            tableTimeoutSpinner.addModifyListener(new ModifyListener() {
+                @Override
+                public void modifyText(ModifyEvent e)
+                {
+                    params.tableTimeout = tableTimeoutSpinner.getSelection();
+                }
+            });
+
             final Button caseCheckbox = UIUtils.createLabelCheckbox(optionsGroup2, CoreMessages.dialog_search_objects_case_sensitive, params.caseSensitive);
             caseCheckbox.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             caseCheckbox.addSelectionListener(new SelectionAdapter() {
@@ -259,6 +284,8 @@ public class SearchDataPage extends AbstractSearchPage {
         params.searchNumbers = store.getString(PROP_SEARCH_NUMBERS) == null || store.getBoolean(PROP_SEARCH_NUMBERS);
         params.searchLOBs = store.getBoolean(PROP_SEARCH_LOBS);
         params.maxResults = store.getInt(PROP_SAMPLE_ROWS);
+        params.maxConnections = store.getInt(PROP_MAX_CONNECTIONS);
+        params.tableTimeout = store.getInt(PROP_TABLE_TIMEOUT);
         for (int i = 0; ;i++) {
             String history = store.getString(PROP_HISTORY + "." + i); //$NON-NLS-1$
             if (CommonUtils.isEmpty(history)) {
@@ -278,6 +305,8 @@ public class SearchDataPage extends AbstractSearchPage {
         store.setValue(PROP_FAST_SEARCH, params.fastSearch);
         store.setValue(PROP_SEARCH_NUMBERS, params.searchNumbers);
         store.setValue(PROP_SEARCH_LOBS, params.searchLOBs);
+        store.setValue(PROP_MAX_CONNECTIONS, params.maxConnections);
+        store.setValue(PROP_TABLE_TIMEOUT, params.tableTimeout);
         saveTreeState(store, PROP_SOURCES, dataSourceTree);
 
         {
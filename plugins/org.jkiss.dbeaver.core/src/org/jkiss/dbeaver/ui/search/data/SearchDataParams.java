@@ -34,6 +34,8 @@ public class SearchDataParams {
     boolean searchNumbers;
     boolean searchLOBs;
     int maxResults;
+    int maxConnections;
+    int tableTimeout; // Seconds
 
     public SearchDataParams()
     {
@@ -94,4 +96,20 @@ public class SearchDataParams {
     public void setMaxResults(int maxResults) {
         this.maxResults = maxResults;
     }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getTableTimeout() {
+        return tableTimeout;
+    }
+
+    public void setTableTimeout(int tableTimeout) {
+        this.tableTimeout = tableTimeout;
+    }
 }
@@ -17,6 +17,11 @@
  */
 package org.jkiss.dbeaver.ui.search.data;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
@@ -30,9 +35,14 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
-import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSDataStatistics;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.ui.search.IObjectSearchListener;
@@ -40,11 +50,23 @@ import org.jkiss.dbeaver.ui.search.IObjectSearchQuery;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Searches string in tables data.
+ * Tables of each data source are distributed over a pool of isolated contexts (see {@link SearchDataParams#getMaxConnections()}).
+ * Biggest tables (by statistics) are searched first so they don't end up in the tail served by a single worker.
+ * Found tables are reported to the search listener as soon as they are found.
+ */
 public class SearchDataQuery implements IObjectSearchQuery {
 
     static final Log log = Log.getLog(SearchDataQuery.class);
 
+    private static final long POLL_TIMEOUT = 200;
+
     private final SearchDataParams params;
 
     private SearchDataQuery(SearchDataParams params)
@@ -67,61 +89,164 @@ public class SearchDataQuery implements IObjectSearchQuery {
             String searchString = params.getSearchString();
 
             //monitor.subTask("Collect tables");
-            Set<DBPDataSource> dataSources = new HashSet<>();
-            for (DBSDataContainer searcher : params.sources) {
-                dataSources.add(searcher.getDataSource());
+            Map<DBPDataSource, List<DBSDataContainer>> dataSources = new LinkedHashMap<>();
+            for (DBSDataContainer dataContainer : params.sources) {
+                DBPDataSource dataSource = dataContainer.getDataSource();
+                if (dataSource == null) {
+                    log.warn("Object \"" + DBUtils.getObjectFullName(dataContainer) + "\" not connected");
+                    continue;
+                }
+                List<DBSDataContainer> tables = dataSources.get(dataSource);
+                if (tables == null) {
+                    tables = new ArrayList<>();
+                    dataSources.put(dataSource, tables);
+                }
+                tables.add(dataContainer);
             }
 
             // Search
-            DBNModel dbnModel = DBeaverCore.getInstance().getNavigatorModel();
-
             monitor.beginTask(
                 "Search \"" + searchString + "\" in " + params.sources.size() + " table(s) / " + dataSources.size() + " database(s)",
                 params.sources.size());
             try {
-                for (DBSDataContainer dataContainer : params.sources) {
+                for (Map.Entry<DBPDataSource, List<DBSDataContainer>> entry : dataSources.entrySet()) {
                     if (monitor.isCanceled()) {
                         break;
                     }
-                    String objectName = DBUtils.getObjectFullName(dataContainer);
-                    DBNDatabaseNode node = dbnModel.findNode(dataContainer);
-                    if (node == null) {
-                        log.warn("Can't find tree node for object \"" + objectName + "\"");
-                        continue;
+                    searchDataSource(monitor, listener, entry.getKey(), entry.getValue());
+                }
+            } finally {
+                monitor.done();
+            }
+        } finally {
+            listener.searchFinished();
+        }
+    }
+
+    private void searchDataSource(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull IObjectSearchListener listener,
+        @NotNull DBPDataSource dataSource,
+        @NotNull List<DBSDataContainer> tables)
+        throws DBException
+    {
+        final Queue<DBSDataContainer> queue = new ConcurrentLinkedQueue<>(sortTables(tables));
+        final Queue<SearchHit> hits = new ConcurrentLinkedQueue<>();
+        final AtomicInteger finishedTables = new AtomicInteger();
+        final int workerCount = Math.max(1, Math.min(params.maxConnections, tables.size()));
+
+        List<DBCExecutionContext> contexts = new ArrayList<>();
+        try {
+            if (workerCount > 1) {
+                for (int i = 0; i < workerCount && !monitor.isCanceled(); i++) {
+                    monitor.subTask("Open connection " + (i + 1));
+                    try {
+                        contexts.add(dataSource.openIsolatedContext(monitor, "Data search (" + (i + 1) + ")"));
+                    } catch (DBException e) {
+                        // Connections limit may be reached. Use those we already have.
+                        log.warn("Can't open connection for data search", e);
+                        break;
                     }
-                    monitor.subTask(objectName);
-                    DBPDataSource dataSource = dataContainer.getDataSource();
-                    if (dataSource == null) {
-                        log.warn("Object \"" + objectName + "\" not connected");
-                        continue;
+                }
+            }
+            final List<SearchWorker> workers = new ArrayList<>();
+            if (contexts.isEmpty()) {
+                workers.add(new SearchWorker(dataSource.getDefaultContext(false), false, queue, hits, finishedTables));
+            } else {
+                for (DBCExecutionContext context : contexts) {
+                    workers.add(new SearchWorker(context, true, queue, hits, finishedTables));
+                }
+            }
+            final CountDownLatch latch = new CountDownLatch(workers.size());
+            for (SearchWorker worker : workers) {
+                worker.addJobChangeListener(new JobChangeAdapter() {
+                    @Override
+                    public void done(IJobChangeEvent event)
+                    {
+                        latch.countDown();
                     }
-                    SearchTableMonitor searchMonitor = new SearchTableMonitor();
-                    try (DBCSession session = DBUtils.openUtilSession(searchMonitor, dataSource, "Search rows in " + objectName)) {
-                        TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor);
-                        findRows(session, dataContainer, dataReceiver);
+                });
+                worker.schedule();
+            }
 
-                        if (dataReceiver.rowCount > 0) {
-                            SearchDataObject object = new SearchDataObject(node, dataReceiver.rowCount, dataReceiver.filter);
-                            listener.objectsFound(monitor, Collections.singleton(object));
-                        }
-                    } catch (DBCException e) {
-                        log.error("Error searching string in '" + objectName + "'", e);
+            DBNModel dbnModel = DBeaverCore.getInstance().getNavigatorModel();
+            int reportedTables = 0;
+            boolean canceled = false;
+            try {
+                for (;;) {
+                    boolean finished = latch.await(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                    reportHits(monitor, listener, dbnModel, hits);
+                    int finishedCount = finishedTables.get();
+                    monitor.worked(finishedCount - reportedTables);
+                    reportedTables = finishedCount;
+                    if (finished) {
+                        break;
+                    }
+                    if (!canceled && monitor.isCanceled()) {
+                        canceled = true;
+                        queue.clear();
+                    }
+                    for (SearchWorker worker : workers) {
+                        worker.checkTimeout(canceled);
                     }
-
-                    monitor.worked(1);
                 }
-            } finally {
-                monitor.done();
+            } catch (InterruptedException e) {
+                queue.clear();
+                for (SearchWorker worker : workers) {
+                    worker.checkTimeout(true);
+                }
+                throw new DBException("Data search interrupted", e);
             }
         } finally {
-            listener.searchFinished();
+            for (DBCExecutionContext context : contexts) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * Orders tables by estimated row count, biggest first. Tables without statistics go last, in original order.
+     */
+    private static List<DBSDataContainer> sortTables(@NotNull List<DBSDataContainer> tables)
+    {
+        List<DBSDataContainer> sorted = new ArrayList<>(tables);
+        Collections.sort(sorted, new Comparator<DBSDataContainer>() {
+            @Override
+            public int compare(DBSDataContainer o1, DBSDataContainer o2)
+            {
+                long count1 = o1 instanceof DBSDataStatistics ? ((DBSDataStatistics) o1).getRowCountEstimate() : -1;
+                long count2 = o2 instanceof DBSDataStatistics ? ((DBSDataStatistics) o2).getRowCountEstimate() : -1;
+                return count1 < count2 ? 1 : (count1 > count2 ? -1 : 0);
+            }
+        });
+        return sorted;
+    }
+
+    private void reportHits(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull IObjectSearchListener listener,
+        @NotNull DBNModel dbnModel,
+        @NotNull Queue<SearchHit> hits)
+    {
+        List<SearchDataObject> objects = new ArrayList<>();
+        for (SearchHit hit = hits.poll(); hit != null; hit = hits.poll()) {
+            DBNDatabaseNode node = dbnModel.findNode(hit.dataContainer);
+            if (node == null) {
+                log.warn("Can't find tree node for object \"" + DBUtils.getObjectFullName(hit.dataContainer) + "\"");
+                continue;
+            }
+            objects.add(new SearchDataObject(node, hit.rowCount, hit.filter));
+        }
+        if (!objects.isEmpty()) {
+            listener.objectsFound(monitor, objects);
         }
     }
 
     private DBCStatistics findRows(
         @NotNull DBCSession session,
         @NotNull DBSDataContainer dataContainer,
-        @NotNull TestDataReceiver dataReceiver) throws DBCException
+        @NotNull TestDataReceiver dataReceiver,
+        boolean pushdown) throws DBCException
     {
         DBSEntity entity;
         if (dataContainer instanceof DBSEntity) {
@@ -131,8 +256,9 @@ public class SearchDataQuery implements IObjectSearchQuery {
             return null;
         }
         try {
-
+            SQLDialect dialect = pushdown ? SQLUtils.getDialectFromObject(dataContainer) : null;
             List<DBDAttributeConstraint> constraints = new ArrayList<>();
+            StringBuilder where = new StringBuilder();
             for (DBSEntityAttribute attribute : entity.getAttributes(session.getProgressMonitor())) {
                 if (params.fastSearch) {
                     if (!DBUtils.isIndexedAttribute(session.getProgressMonitor(), attribute)) {
@@ -171,6 +297,15 @@ public class SearchDataQuery implements IObjectSearchQuery {
                             continue;
                         }
                     case STRING:
+                        if (dialect != null) {
+                            // Let the database search in its own way
+                            String condition = dialect.getSearchCondition(session.getProgressMonitor(), attribute, params.searchString, params.caseSensitive);
+                            if (condition != null) {
+                                if (where.length() > 0) where.append(" OR ");
+                                where.append(condition);
+                                continue;
+                            }
+                        }
                         operator = DBCLogicalOperator.LIKE;
                         value = "%" + params.searchString + "%";
                         break;
@@ -182,11 +317,14 @@ public class SearchDataQuery implements IObjectSearchQuery {
                 constraint.setValue(value);
                 constraints.add(constraint);
             }
-            if (constraints.isEmpty()) {
+            if (constraints.isEmpty() && where.length() == 0) {
                 return null;
             }
             dataReceiver.filter = new DBDDataFilter(constraints);
             dataReceiver.filter.setAnyConstraint(true);
+            if (where.length() > 0) {
+                dataReceiver.filter.setWhere(where.toString());
+            }
             DBCExecutionSource searchSource = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), this);
             return dataContainer.readData(searchSource, session, dataReceiver, dataReceiver.filter, -1, -1, 0);
         } catch (DBException e) {
@@ -200,17 +338,170 @@ public class SearchDataQuery implements IObjectSearchQuery {
         return new SearchDataQuery(params);
     }
 
-    private class SearchTableMonitor extends VoidProgressMonitor {
+    private static class SearchHit {
+        private final DBSDataContainer dataContainer;
+        private final int rowCount;
+        private final DBDDataFilter filter;
+
+        SearchHit(DBSDataContainer dataContainer, int rowCount, DBDDataFilter filter)
+        {
+            this.dataContainer = dataContainer;
+            this.rowCount = rowCount;
+            this.filter = filter;
+        }
+    }
+
+    /**
+     * Searches tables from the shared queue in its own execution context
+     */
+    private class SearchWorker extends AbstractJob {
+
+        private final DBCExecutionContext context;
+        // Isolated context is owned by search, so its transaction can be rolled back
+        private final boolean isolated;
+        private final Queue<DBSDataContainer> queue;
+        private final Queue<SearchHit> hits;
+        private final AtomicInteger finishedTables;
+        private volatile SearchTableMonitor tableMonitor;
+
+        SearchWorker(
+            @NotNull DBCExecutionContext context,
+            boolean isolated,
+            @NotNull Queue<DBSDataContainer> queue,
+            @NotNull Queue<SearchHit> hits,
+            @NotNull AtomicInteger finishedTables)
+        {
+            super("Search data in " + context.getDataSource().getContainer().getName());
+            setSystem(true);
+            this.context = context;
+            this.isolated = isolated;
+            this.queue = queue;
+            this.hits = hits;
+            this.finishedTables = finishedTables;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor)
+        {
+            for (DBSDataContainer dataContainer = queue.poll(); dataContainer != null; dataContainer = queue.poll()) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                try {
+                    searchTable(dataContainer);
+                } finally {
+                    tableMonitor = null;
+                    finishedTables.incrementAndGet();
+                }
+            }
+            return Status.OK_STATUS;
+        }
+
+        private void searchTable(@NotNull DBSDataContainer dataContainer)
+        {
+            String objectName = DBUtils.getObjectFullName(dataContainer);
+            SearchTableMonitor searchMonitor = new SearchTableMonitor();
+            tableMonitor = searchMonitor;
+            try (DBCSession session = context.openSession(searchMonitor, DBCExecutionPurpose.UTIL, "Search rows in " + objectName)) {
+                for (boolean pushdown = true; ; pushdown = false) {
+                    TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor);
+                    try {
+                        findRows(session, dataContainer, dataReceiver, pushdown);
+                    } catch (DBCException e) {
+                        if (isolated) {
+                            // Failed or canceled query may leave transaction aborted, so next table search would fail too
+                            rollbackFailedSearch(session);
+                        }
+                        if (dataReceiver.rowCount > 0) {
+                            // Rows fetched before the error are still found rows
+                            hits.add(new SearchHit(dataContainer, dataReceiver.rowCount, dataReceiver.filter));
+                            return;
+                        }
+                        if (searchMonitor.timedOut) {
+                            log.warn("Search in '" + objectName + "' timed out");
+                            return;
+                        }
+                        if (searchMonitor.isCanceled()) {
+                            return;
+                        }
+                        if (!pushdown) {
+                            log.error("Error searching string in '" + objectName + "'", e);
+                            return;
+                        }
+                        // Native search condition may be not applicable to this table. Try plain LIKE.
+                        // Main context transaction belongs to user and is never rolled back here.
+                        log.debug("Error searching string in '" + objectName + "' with native condition: " + e.getMessage());
+                        continue;
+                    }
+                    if (dataReceiver.rowCount > 0) {
+                        hits.add(new SearchHit(dataContainer, dataReceiver.rowCount, dataReceiver.filter));
+                    }
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Some databases (e.g. PostgreSQL) reject any query in transaction after an error.
+         * Used for isolated contexts only.
+         */
+        private void rollbackFailedSearch(@NotNull DBCSession session)
+        {
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+            try {
+                if (txnManager != null && !txnManager.isAutoCommit()) {
+                    txnManager.rollback(session, null);
+                }
+            } catch (DBCException e) {
+                log.debug("Can't rollback failed search: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Cancels table search if it runs too long or the whole search was canceled
+         */
+        void checkTimeout(boolean canceled)
+        {
+            SearchTableMonitor searchMonitor = tableMonitor;
+            if (searchMonitor == null || searchMonitor.isCanceled()) {
+                return;
+            }
+            if (canceled) {
+                searchMonitor.cancel();
+            } else if (params.tableTimeout > 0 && System.currentTimeMillis() - searchMonitor.startTime > params.tableTimeout * 1000L) {
+                searchMonitor.timedOut = true;
+                searchMonitor.cancel();
+            }
+        }
+    }
+
+    private class SearchTableMonitor extends DefaultProgressMonitor {
 
+        private final long startTime = System.currentTimeMillis();
         private volatile boolean canceled;
+        private volatile boolean timedOut;
 
         private SearchTableMonitor() {
+            super(new NullProgressMonitor());
         }
 
         @Override
         public boolean isCanceled() {
             return canceled;
         }
+
+        private void cancel() {
+            canceled = true;
+            // Interrupt running query
+            DBRBlockingObject block = getActiveBlock();
+            if (block != null) {
+                try {
+                    block.cancelBlock();
+                } catch (Throwable e) {
+                    log.debug("Can't cancel search query", e);
+                }
+            }
+        }
     }
 
     private class TestDataReceiver implements DBDDataReceiver {
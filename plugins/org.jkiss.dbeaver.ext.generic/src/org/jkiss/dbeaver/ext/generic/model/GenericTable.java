@@ -38,6 +38,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.struct.JDBCTable;
 import org.jkiss.dbeaver.model.meta.Association;
 import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataStatistics;
 import org.jkiss.dbeaver.model.struct.DBSEntityConstraintType;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.rdb.DBSForeignKeyDefferability;
@@ -51,7 +52,7 @@ import java.util.*;
 /**
  * Generic table
  */
-public class GenericTable extends JDBCTable<GenericDataSource, GenericStructContainer> implements DBPRefreshableObject, DBPSystemObject, DBPScriptObject
+public class GenericTable extends JDBCTable<GenericDataSource, GenericStructContainer> implements DBPRefreshableObject, DBPSystemObject, DBPScriptObject, DBSDataStatistics
 {
     static final Log log = Log.getLog(GenericTable.class);
 
@@ -255,6 +256,13 @@ public class GenericTable extends JDBCTable<GenericDataSource, GenericStructCont
         return rowCount;
     }
 
+    @Override
+    public synchronized long getRowCountEstimate()
+    {
+        // Only already counted rows - generic drivers have no cheap statistics
+        return rowCount == null ? -1 : rowCount;
+    }
+
     @Nullable
     public Long getRowCountFromIndexes(DBRProgressMonitor monitor)
     {
@@ -18,16 +18,26 @@
 
 package org.jkiss.dbeaver.ext.mysql;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.connection.DBPClientHome;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.*;
 
 /**
@@ -138,4 +148,66 @@ public class MySQLUtils {
         return dumpBinary;
     }
 
+    private static final String[] LOCAL_INFILE_STATEMENT_CLASSES = {
+        "com.mysql.jdbc.Statement",
+        "com.mysql.cj.jdbc.JdbcStatement",
+        "org.mariadb.jdbc.MariaDbStatement"
+    };
+
+    /**
+     * Checks that driver can read LOAD DATA LOCAL INFILE contents from stream (Statement.setLocalInfileInputStream)
+     */
+    public static boolean isLoadDataLocalSupported(@NotNull JDBCSession session)
+    {
+        try {
+            return findLocalInfileStreamMethod(session.getOriginal()) != null;
+        } catch (SQLException e) {
+            log.debug(e);
+            return false;
+        }
+    }
+
+    /**
+     * Executes LOAD DATA LOCAL INFILE. File contents are read by driver from the specified data.
+     * Driver classes are accessed with reflection because driver is loaded in its own class loader.
+     * @return number of loaded rows
+     */
+    public static long loadDataLocal(@NotNull JDBCSession session, @NotNull String sql, @NotNull byte[] data) throws DBCException
+    {
+        try {
+            Connection connection = session.getOriginal();
+            Method setStreamMethod = findLocalInfileStreamMethod(connection);
+            if (setStreamMethod == null) {
+                throw new DBCException("LOAD DATA LOCAL from stream is not supported by driver");
+            }
+            try (Statement dbStat = connection.createStatement()) {
+                Class<?> statementClass = setStreamMethod.getDeclaringClass();
+                Object driverStatement = statementClass.isInstance(dbStat) ? dbStat : dbStat.unwrap(statementClass);
+                setStreamMethod.invoke(driverStatement, new ByteArrayInputStream(data));
+                return dbStat.executeUpdate(sql);
+            }
+        } catch (InvocationTargetException e) {
+            throw new DBCException(e.getTargetException(), session.getDataSource());
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getDataSource());
+        } catch (IllegalAccessException e) {
+            throw new DBCException("Can't call LOAD DATA API of MySQL driver", e);
+        }
+    }
+
+    @Nullable
+    private static Method findLocalInfileStreamMethod(@NotNull Connection connection)
+    {
+        ClassLoader classLoader = connection.getClass().getClassLoader();
+        for (String className : LOCAL_INFILE_STATEMENT_CLASSES) {
+            try {
+                Class<?> statementClass = Class.forName(className, false, classLoader);
+                return statementClass.getMethod("setLocalInfileInputStream", InputStream.class);
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                // Try next driver
+            }
+        }
+        return null;
+    }
+
 }
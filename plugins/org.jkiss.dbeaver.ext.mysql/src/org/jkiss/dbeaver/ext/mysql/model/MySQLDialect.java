@@ -48,4 +48,9 @@ class MySQLDialect extends JDBCSQLDialect {
     public boolean supportsCommentQuery() {
         return true;
     }
+
+    @Override
+    public boolean supportsRowValueComparison() {
+        return true;
+    }
 }
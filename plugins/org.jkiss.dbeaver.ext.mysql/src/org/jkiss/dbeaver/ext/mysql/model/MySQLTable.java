@@ -31,6 +31,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectCache;
 import org.jkiss.dbeaver.model.meta.*;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataStatistics;
 import org.jkiss.dbeaver.model.struct.DBSEntityConstraintType;
 import org.jkiss.dbeaver.model.struct.rdb.DBSForeignKeyModifyRule;
 import org.jkiss.utils.CommonUtils;
@@ -42,7 +43,7 @@ import java.util.*;
 /**
  * MySQLTable
  */
-public class MySQLTable extends MySQLTableBase
+public class MySQLTable extends MySQLTableBase implements DBSDataStatistics
 {
 
     private static final String INNODB_COMMENT = "InnoDB free";
@@ -115,6 +116,13 @@ public class MySQLTable extends MySQLTableBase
         }
     }
 
+    @Override
+    public long getRowCountEstimate()
+    {
+        // Do not read additional info here - it is a separate query for each table
+        return additionalInfo.loaded ? additionalInfo.rowCount : -1;
+    }
+
     @Override
     public boolean isView()
     {
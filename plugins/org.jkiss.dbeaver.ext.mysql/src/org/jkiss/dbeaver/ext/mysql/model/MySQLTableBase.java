@@ -18,17 +18,25 @@
 package org.jkiss.dbeaver.ext.mysql.model;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPNamedObject2;
 import org.jkiss.dbeaver.model.DBPRefreshableObject;
 import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.ext.mysql.MySQLUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.data.ExecuteBatchTextLoad;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCStructCache;
 import org.jkiss.dbeaver.model.impl.jdbc.struct.JDBCTable;
 import org.jkiss.dbeaver.model.impl.jdbc.struct.JDBCTableColumn;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.utils.GeneralUtils;
 
 import java.io.UnsupportedEncodingException;
 import java.sql.PreparedStatement;
@@ -129,4 +137,28 @@ public abstract class MySQLTableBase extends JDBCTable<MySQLDataSource, MySQLCat
         }
     }
 
+    @Nullable
+    @Override
+    public ExecuteBatch insertDataNative(@NotNull DBCSession session, @NotNull DBSAttributeBase[] attributes, @NotNull DBCExecutionSource source)
+        throws DBCException
+    {
+        if (!(session instanceof JDBCSession) ||
+            !ExecuteBatchTextLoad.isTextLoadSupported(attributes, false) ||
+            !MySQLUtils.isLoadDataLocalSupported((JDBCSession) session))
+        {
+            return null;
+        }
+        // Server must allow local infile (local_infile variable)
+        final String loadQuery = "LOAD DATA LOCAL INFILE 'dbeaver-data.txt' INTO TABLE " + getFullQualifiedName() +
+            " CHARACTER SET utf8 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n'" +
+            " (" + getInsertColumnList(attributes) + ")";
+        return new ExecuteBatchTextLoad(attributes) {
+            @Override
+            protected long loadData(@NotNull DBCSession session, @NotNull String data) throws DBCException
+            {
+                return MySQLUtils.loadDataLocal((JDBCSession) session, loadQuery, data.getBytes(GeneralUtils.UTF8_CHARSET));
+            }
+        };
+    }
+
 }
@@ -53,6 +53,8 @@ public class Activator extends AbstractUIPlugin {
 			DBeaverCore.getGlobalPreferenceStore(), OracleConstants.PREF_SUPPORT_ROWID, true);
         PrefUtils.setDefaultPreferenceValue(
 			DBeaverCore.getGlobalPreferenceStore(), OracleConstants.PREF_DBMS_OUTPUT, true);
+        PrefUtils.setDefaultPreferenceValue(
+			DBeaverCore.getGlobalPreferenceStore(), OracleConstants.PREF_META_BULK_PREFETCH, false);
     }
 
 	/*
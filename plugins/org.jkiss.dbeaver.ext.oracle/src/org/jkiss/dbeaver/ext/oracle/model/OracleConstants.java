@@ -114,6 +114,7 @@ public class OracleConstants {
     public static final String PREF_EXPLAIN_TABLE_NAME = "oracle.explain.table";
     public static final String PREF_SUPPORT_ROWID = "oracle.support.rowid";
     public static final String PREF_DBMS_OUTPUT = "oracle.dbms.output";
+    public static final String PREF_META_BULK_PREFETCH = "oracle.meta.bulk.prefetch";
 
     public static final String[] ADVANCED_KEYWORDS = {
         "PACKAGE",
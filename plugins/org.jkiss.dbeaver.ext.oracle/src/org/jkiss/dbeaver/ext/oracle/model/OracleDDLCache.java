@@ -0,0 +1,289 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.ext.oracle.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBConstants;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Schema objects DDL cache.
+ * DDL is generated by DBMS_METADATA and kept until object's LAST_DDL_TIME changes.
+ * Objects which DDL can't be generated are remembered (until they change) and skipped by batch reads.
+ * Queries are executed without lock so reads of other objects are not blocked.
+ */
+class OracleDDLCache {
+
+    static final Log log = Log.getLog(OracleDDLCache.class);
+
+    // Max number of object names in single IN list
+    private static final int MAX_BATCH_SIZE = 500;
+    // Dropped objects in recycle bin. DBMS_METADATA can't generate their DDL.
+    private static final String RECYCLE_BIN_PREFIX = "BIN$";
+
+    private static class DDLInfo {
+        final Timestamp lastDDLTime;
+        final String ddl;
+
+        DDLInfo(Timestamp lastDDLTime, String ddl)
+        {
+            this.lastDDLTime = lastDDLTime;
+            this.ddl = ddl;
+        }
+    }
+
+    private final OracleSchema schema;
+    private final Map<String, DDLInfo> ddlMap = new HashMap<>();
+    // LAST_DDL_TIME of objects DDL generation failed for
+    private final Map<String, Timestamp> failedMap = new HashMap<>();
+    private OracleDDLFormat ddlFormat;
+
+    OracleDDLCache(OracleSchema schema)
+    {
+        this.schema = schema;
+    }
+
+    /**
+     * Returns DDL of single object. Only this object is read.
+     */
+    @Nullable
+    String getDDL(JDBCSession session, String objectType, String objectName, OracleDDLFormat format)
+        throws SQLException
+    {
+        String objectKey = makeKey(objectType, objectName);
+        DDLInfo ddlInfo;
+        synchronized (this) {
+            setFormat(format);
+            ddlInfo = ddlMap.get(objectKey);
+        }
+        if (ddlInfo != null) {
+            Timestamp lastDDLTime = readLastDDLTime(session, objectType, objectName);
+            if (lastDDLTime != null && lastDDLTime.equals(ddlInfo.lastDDLTime)) {
+                return ddlInfo.ddl;
+            }
+        }
+
+        OracleUtils.setDDLTransformParams(session, format);
+        readDDL(session, objectType, Collections.singletonList(objectName), format);
+        synchronized (this) {
+            ddlInfo = ddlMap.get(objectKey);
+        }
+        return ddlInfo == null ? null : ddlInfo.ddl;
+    }
+
+    /**
+     * Returns DDL of specified objects. Changed objects are read with few queries.
+     * Objects which DDL can't be generated are skipped.
+     * @return DDL by object name
+     */
+    @NotNull
+    Map<String, String> getDDL(JDBCSession session, String objectType, Collection<String> objectNames, OracleDDLFormat format)
+        throws SQLException
+    {
+        synchronized (this) {
+            setFormat(format);
+        }
+        Map<String, Timestamp> lastDDLTimes = readLastDDLTimes(session, objectType, new ArrayList<>(objectNames));
+        List<String> changedNames = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, Timestamp> entry : lastDDLTimes.entrySet()) {
+                String key = makeKey(objectType, entry.getKey());
+                DDLInfo cachedInfo = ddlMap.get(key);
+                if ((cachedInfo == null || !entry.getValue().equals(cachedInfo.lastDDLTime)) &&
+                    !entry.getValue().equals(failedMap.get(key)))
+                {
+                    changedNames.add(entry.getKey());
+                }
+            }
+        }
+        if (!changedNames.isEmpty()) {
+            OracleUtils.setDDLTransformParams(session, format);
+            for (int i = 0; i < changedNames.size() && !session.getProgressMonitor().isCanceled(); i += MAX_BATCH_SIZE) {
+                List<String> batch = changedNames.subList(i, Math.min(i + MAX_BATCH_SIZE, changedNames.size()));
+                try {
+                    readDDL(session, objectType, batch, format);
+                } catch (SQLException e) {
+                    // DBMS_METADATA fails for the whole query if it can't generate DDL of any object. Read batch objects one by one.
+                    log.debug("Error reading DDL of schema '" + schema.getName() + "' " + objectType + " objects: " + e.getMessage());
+                    readDDLByOne(session, objectType, batch, lastDDLTimes, format);
+                }
+            }
+        }
+
+        Map<String, String> result = new LinkedHashMap<>();
+        synchronized (this) {
+            for (String name : objectNames) {
+                DDLInfo ddlInfo = ddlMap.get(makeKey(objectType, name));
+                if (ddlInfo != null) {
+                    result.put(name, ddlInfo.ddl);
+                }
+            }
+        }
+        return result;
+    }
+
+    synchronized void clearCache()
+    {
+        ddlMap.clear();
+        failedMap.clear();
+    }
+
+    private void setFormat(OracleDDLFormat format)
+    {
+        if (format != ddlFormat) {
+            ddlMap.clear();
+            failedMap.clear();
+            ddlFormat = format;
+        }
+    }
+
+    /**
+     * Reads DDL of each object with separate query. Objects which DDL can't be read are remembered.
+     */
+    private void readDDLByOne(JDBCSession session, String objectType, List<String> objectNames, Map<String, Timestamp> lastDDLTimes, OracleDDLFormat format)
+    {
+        for (String name : objectNames) {
+            if (session.getProgressMonitor().isCanceled()) {
+                break;
+            }
+            try {
+                readDDL(session, objectType, Collections.singletonList(name), format);
+            } catch (SQLException e) {
+                log.debug("Can't read DDL of " + objectType + " '" + name + "': " + e.getMessage());
+                synchronized (this) {
+                    if (format == ddlFormat) {
+                        failedMap.put(makeKey(objectType, name), lastDDLTimes.get(name));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads DDL of specified objects with one query. Objects are streamed by cursor
+     * so session transform parameters are applied once for all of them.
+     */
+    private void readDDL(JDBCSession session, String objectType, List<String> objectNames, OracleDDLFormat format)
+        throws SQLException
+    {
+        StringBuilder sql = new StringBuilder(200 + objectNames.size() * 2);
+        sql.append("SELECT OBJECT_NAME,LAST_DDL_TIME,DBMS_METADATA.GET_DDL(OBJECT_TYPE,OBJECT_NAME,OWNER) TXT\n")
+            .append("FROM SYS.ALL_OBJECTS WHERE OWNER=? AND OBJECT_TYPE=? AND OBJECT_NAME IN (");
+        appendParameters(sql, objectNames.size());
+        sql.append(")");
+        session.getProgressMonitor().subTask("Read DDL of " + objectNames.size() + " " + objectType + " object(s)");
+        try (JDBCPreparedStatement dbStat = session.prepareStatement(sql.toString())) {
+            int index = 1;
+            dbStat.setString(index++, schema.getName());
+            dbStat.setString(index++, objectType);
+            for (String name : objectNames) {
+                dbStat.setString(index++, name);
+            }
+            dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+            try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                while (dbResult.next()) {
+                    if (session.getProgressMonitor().isCanceled()) {
+                        break;
+                    }
+                    String objectName = JDBCUtils.safeGetString(dbResult, "OBJECT_NAME");
+                    Timestamp lastDDLTime = JDBCUtils.safeGetTimestamp(dbResult, "LAST_DDL_TIME");
+                    String ddl = dbResult.getString("TXT");
+                    if (objectName != null && lastDDLTime != null && ddl != null) {
+                        String objectKey = makeKey(objectType, objectName);
+                        synchronized (this) {
+                            if (format == ddlFormat) {
+                                ddlMap.put(objectKey, new DDLInfo(lastDDLTime, ddl));
+                                failedMap.remove(objectKey);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private Timestamp readLastDDLTime(JDBCSession session, String objectType, String objectName)
+        throws SQLException
+    {
+        try (JDBCPreparedStatement dbStat = session.prepareStatement(
+            "SELECT LAST_DDL_TIME FROM SYS.ALL_OBJECTS WHERE OWNER=? AND OBJECT_TYPE=? AND OBJECT_NAME=?")) {
+            dbStat.setString(1, schema.getName());
+            dbStat.setString(2, objectType);
+            dbStat.setString(3, objectName);
+            try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                return dbResult.next() ? JDBCUtils.safeGetTimestamp(dbResult, 1) : null;
+            }
+        }
+    }
+
+    private Map<String, Timestamp> readLastDDLTimes(JDBCSession session, String objectType, List<String> objectNames)
+        throws SQLException
+    {
+        Map<String, Timestamp> result = new LinkedHashMap<>();
+        for (int i = 0; i < objectNames.size(); i += MAX_BATCH_SIZE) {
+            List<String> batch = objectNames.subList(i, Math.min(i + MAX_BATCH_SIZE, objectNames.size()));
+            StringBuilder sql = new StringBuilder(100 + batch.size() * 2);
+            sql.append("SELECT OBJECT_NAME,LAST_DDL_TIME FROM SYS.ALL_OBJECTS WHERE OWNER=? AND OBJECT_TYPE=? AND OBJECT_NAME IN (");
+            appendParameters(sql, batch.size());
+            sql.append(")");
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(sql.toString())) {
+                int index = 1;
+                dbStat.setString(index++, schema.getName());
+                dbStat.setString(index++, objectType);
+                for (String name : batch) {
+                    dbStat.setString(index++, name);
+                }
+                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    while (dbResult.next()) {
+                        String objectName = JDBCUtils.safeGetString(dbResult, 1);
+                        Timestamp lastDDLTime = JDBCUtils.safeGetTimestamp(dbResult, 2);
+                        if (objectName != null && lastDDLTime != null && !objectName.startsWith(RECYCLE_BIN_PREFIX)) {
+                            result.put(objectName, lastDDLTime);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void appendParameters(StringBuilder sql, int count)
+    {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sql.append(",");
+            sql.append("?");
+        }
+    }
+
+    private static String makeKey(String objectType, String objectName)
+    {
+        return objectType + "." + objectName;
+    }
+
+}
@@ -511,6 +511,13 @@ public class OracleDataSource extends JDBCDataSource
         return tableName;
     }
 
+    /**
+     * Whether schema metadata must be read for the whole schema at once instead of per table
+     */
+    public boolean isMetaBulkPrefetch() {
+        return getContainer().getPreferenceStore().getBoolean(OracleConstants.PREF_META_BULK_PREFETCH);
+    }
+
     @Override
     public boolean isServerOutputEnabled() {
         return getContainer().getPreferenceStore().getBoolean(OracleConstants.PREF_DBMS_OUTPUT);
@@ -18,12 +18,20 @@
 package org.jkiss.dbeaver.ext.oracle.model;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.CommonUtils;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.regex.Pattern;
 
 /**
  * Oracle SQL dialect
@@ -33,6 +41,8 @@ class OracleSQLDialect extends JDBCSQLDialect {
         "--",
         //"^rem"
     };
+    // Oracle Text reserves most of punctuation characters, so only plain words are searched with CONTAINS
+    private static final Pattern TEXT_QUERY_PATTERN = Pattern.compile("[\\p{L}\\p{N}]+");
 
     public OracleSQLDialect(JDBCDatabaseMetaData metaData) {
         super("Oracle", metaData);
@@ -279,4 +289,37 @@ class OracleSQLDialect extends JDBCSQLDialect {
     public boolean isDelimiterAfterBlock() {
         return true;
     }
+
+    @Nullable
+    @Override
+    public String getSearchCondition(@NotNull DBRProgressMonitor monitor, @NotNull DBSEntityAttribute attribute, @NotNull String searchString, boolean caseSensitive)
+        throws DBException
+    {
+        // Text index search is case insensitive
+        if (caseSensitive || !TEXT_QUERY_PATTERN.matcher(searchString).matches() || !hasTextIndex(monitor, attribute)) {
+            return null;
+        }
+        return "CONTAINS(" + DBUtils.getObjectFullName(attribute.getDataSource(), attribute) + ",'%" + searchString + "%')>0";
+    }
+
+    private static boolean hasTextIndex(@NotNull DBRProgressMonitor monitor, @NotNull DBSEntityAttribute attribute)
+        throws DBException
+    {
+        DBSEntity entity = attribute.getParentObject();
+        if (!(entity instanceof OracleTablePhysical)) {
+            return false;
+        }
+        Collection<OracleTableIndex> indexes = ((OracleTablePhysical) entity).getIndexes(monitor);
+        if (!CommonUtils.isEmpty(indexes)) {
+            for (OracleTableIndex index : indexes) {
+                // Oracle Text indexes are domain indexes
+                if (index.getIndexType() == OracleConstants.INDEX_TYPE_DOMAIN &&
+                    DBUtils.getConstraintAttribute(monitor, index, attribute) != null)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
@@ -22,6 +22,8 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBPRefreshableObject;
+import org.jkiss.dbeaver.model.DBPScriptObject;
+import org.jkiss.dbeaver.model.DBPScriptObjectContainer;
 import org.jkiss.dbeaver.model.DBPSystemObject;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
@@ -50,7 +52,7 @@ import java.util.*;
 /**
  * OracleSchema
  */
-public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRefreshableObject, DBPSystemObject, DBSProcedureContainer
+public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRefreshableObject, DBPSystemObject, DBSProcedureContainer, DBPScriptObjectContainer
 {
     static final Log log = Log.getLog(OracleSchema.class);
 
@@ -68,6 +70,7 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
     final public ProceduresCache proceduresCache = new ProceduresCache();
     final public JavaCache javaCache = new JavaCache();
     final public RecycleBin recycleBin = new RecycleBin();
+    final OracleDDLCache ddlCache = new OracleDDLCache(this);
 
     private long id;
     private String name;
@@ -295,6 +298,10 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
     public synchronized void cacheStructure(@NotNull DBRProgressMonitor monitor, int scope)
         throws DBException
     {
+        if (getDataSource().isMetaBulkPrefetch()) {
+            prefetchCatalog(monitor);
+            return;
+        }
         monitor.subTask("Cache tables");
         tableCache.getAllObjects(monitor, this);
         if ((scope & STRUCT_ATTRIBUTES) != 0) {
@@ -310,6 +317,79 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
         }
     }
 
+    /**
+     * Reads tables, columns, constraints, indexes, foreign keys and triggers of the whole schema.
+     * Each cache is filled by one dictionary query for all schema tables,
+     * so later per-table requests don't touch the database.
+     */
+    public void prefetchCatalog(@NotNull DBRProgressMonitor monitor)
+        throws DBException
+    {
+        monitor.beginTask("Prefetch schema '" + getName() + "' metadata", 7);
+        try {
+            monitor.subTask("Read tables");
+            tableCache.getAllObjects(monitor, this);
+            monitor.worked(1);
+            monitor.subTask("Read table columns");
+            tableCache.loadChildren(monitor, this, null);
+            monitor.worked(1);
+            monitor.subTask("Read table constraints");
+            constraintCache.getObjects(monitor, this, null);
+            monitor.worked(1);
+            monitor.subTask("Read foreign keys");
+            foreignKeyCache.getObjects(monitor, this, null);
+            monitor.worked(1);
+            monitor.subTask("Read table indexes");
+            indexCache.getObjects(monitor, this, null);
+            monitor.worked(1);
+            monitor.subTask("Read triggers");
+            triggerCache.getAllObjects(monitor, this);
+            monitor.worked(1);
+            monitor.subTask("Read trigger columns");
+            triggerCache.loadChildren(monitor, this, null);
+            monitor.worked(1);
+        } finally {
+            monitor.done();
+        }
+    }
+
+    /**
+     * In bulk prefetch mode requests for a single object's metadata are served by reading the whole schema
+     */
+    private boolean isBulkPrefetch(@Nullable DBSObject forObject)
+    {
+        return forObject != null && forObject.isPersisted() && getDataSource().isMetaBulkPrefetch();
+    }
+
+    @Override
+    public void cacheObjectDefinitions(DBRProgressMonitor monitor, Collection<? extends DBPScriptObject> objects)
+        throws DBException
+    {
+        Map<String, List<String>> namesByType = new LinkedHashMap<>();
+        for (DBPScriptObject object : objects) {
+            if (object instanceof OracleTableBase && ((OracleTableBase) object).getContainer() == this) {
+                String objectType = ((OracleTableBase) object).getTableTypeName();
+                List<String> names = namesByType.get(objectType);
+                if (names == null) {
+                    names = new ArrayList<>();
+                    namesByType.put(objectType, names);
+                }
+                names.add(((OracleTableBase) object).getName());
+            }
+        }
+        if (namesByType.isEmpty()) {
+            return;
+        }
+        OracleDDLFormat ddlFormat = OracleDDLFormat.getCurrentFormat(getDataSource());
+        try (JDBCSession session = DBUtils.openMetaSession(monitor, getDataSource(), "Load DDL of schema '" + getName() + "' objects")) {
+            for (Map.Entry<String, List<String>> entry : namesByType.entrySet()) {
+                ddlCache.getDDL(session, entry.getKey(), entry.getValue(), ddlFormat);
+            }
+        } catch (SQLException e) {
+            throw new DBException(e, getDataSource());
+        }
+    }
+
     @Override
     public synchronized boolean refreshObject(@NotNull DBRProgressMonitor monitor)
         throws DBException
@@ -326,6 +406,7 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
         synonymCache.clearCache();
         javaCache.clearCache();
         recycleBin.clearCache();
+        ddlCache.clearCache();
         return true;
     }
 
@@ -366,6 +447,16 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
             setListOrderComparator(DBUtils.<OracleTableBase>nameComparator());
         }
 
+        @Override
+        public void loadChildren(DBRProgressMonitor monitor, OracleSchema owner, @Nullable OracleTableBase forObject) throws DBException
+        {
+            if (owner.isBulkPrefetch(forObject) && !isChildrenCached(forObject)) {
+                // Read columns of all schema tables in one query
+                super.loadChildren(monitor, owner, null);
+            }
+            super.loadChildren(monitor, owner, forObject);
+        }
+
         @Override
         protected JDBCStatement prepareObjectsStatement(@NotNull JDBCSession session, @NotNull OracleSchema owner)
             throws SQLException
@@ -392,6 +483,22 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
             return dbStat;
         }
 
+        @Override
+        protected String readChangeMarker(@NotNull JDBCSession session, @NotNull OracleSchema owner)
+            throws SQLException
+        {
+            // Any table or view DDL (including columns change) updates its LAST_DDL_TIME. Count reveals dropped objects.
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT COUNT(*) || ':' || TO_CHAR(MAX(LAST_DDL_TIME),'YYYYMMDDHH24MISS') FROM SYS.ALL_OBJECTS\n" +
+                "WHERE OWNER=? AND OBJECT_TYPE IN ('TABLE','VIEW')"))
+            {
+                dbStat.setString(1, owner.getName());
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    return dbResult.next() ? dbResult.getString(1) : null;
+                }
+            }
+        }
+
         @Override
         protected OracleTableBase fetchObject(@NotNull JDBCSession session, @NotNull OracleSchema owner, @NotNull JDBCResultSet dbResult)
             throws SQLException, DBException
@@ -456,6 +563,16 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
             super(tableCache, OracleTableBase.class, "TABLE_NAME", "CONSTRAINT_NAME");
         }
 
+        @Override
+        protected void loadObjects(DBRProgressMonitor monitor, OracleSchema schema, OracleTableBase forParent)
+            throws DBException
+        {
+            if (schema.isBulkPrefetch(forParent)) {
+                super.loadObjects(monitor, schema, null);
+            }
+            super.loadObjects(monitor, schema, forParent);
+        }
+
         @NotNull
         @Override
         protected JDBCStatement prepareObjectsStatement(JDBCSession session, OracleSchema owner, OracleTableBase forTable)
@@ -521,10 +638,14 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
         protected void loadObjects(DBRProgressMonitor monitor, OracleSchema schema, OracleTable forParent)
             throws DBException
         {
+            boolean bulkRead = schema.isBulkPrefetch(forParent);
             // Cache schema constraints in not table specified
-            if (forParent == null) {
+            if (forParent == null || bulkRead) {
                 constraintCache.getObject(monitor, schema, null);
             }
+            if (bulkRead) {
+                super.loadObjects(monitor, schema, null);
+            }
             super.loadObjects(monitor, schema, forParent);
         }
 
@@ -595,6 +716,16 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
             super(tableCache, OracleTablePhysical.class, "TABLE_NAME", "INDEX_NAME");
         }
 
+        @Override
+        protected void loadObjects(DBRProgressMonitor monitor, OracleSchema schema, OracleTablePhysical forParent)
+            throws DBException
+        {
+            if (schema.isBulkPrefetch(forParent)) {
+                super.loadObjects(monitor, schema, null);
+            }
+            super.loadObjects(monitor, schema, forParent);
+        }
+
         @NotNull
         @Override
         protected JDBCStatement prepareObjectsStatement(JDBCSession session, OracleSchema owner, OracleTablePhysical forTable)
@@ -826,6 +957,15 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
             super("TRIGGER_NAME");
         }
 
+        @Override
+        public void loadChildren(DBRProgressMonitor monitor, OracleSchema owner, @Nullable OracleTrigger forObject) throws DBException
+        {
+            if (owner.isBulkPrefetch(forObject) && !isChildrenCached(forObject)) {
+                super.loadChildren(monitor, owner, null);
+            }
+            super.loadChildren(monitor, owner, forObject);
+        }
+
         public Collection<OracleTrigger> getObjects(DBRProgressMonitor monitor, OracleSchema oracleSchema, OracleTableBase table) throws DBException
         {
             final Collection<OracleTrigger> allTriggers = super.getAllObjects(monitor, oracleSchema);
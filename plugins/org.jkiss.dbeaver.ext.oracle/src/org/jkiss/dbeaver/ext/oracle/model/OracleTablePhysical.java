@@ -32,6 +32,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCStructCache;
 import org.jkiss.dbeaver.model.meta.*;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataStatistics;
 import org.jkiss.dbeaver.model.struct.DBSObjectLazy;
 
 import java.sql.ResultSet;
@@ -41,7 +42,7 @@ import java.util.Collection;
 /**
  * Oracle physical table
  */
-public abstract class OracleTablePhysical extends OracleTableBase implements DBSObjectLazy<OracleDataSource>
+public abstract class OracleTablePhysical extends OracleTableBase implements DBSObjectLazy<OracleDataSource>, DBSDataStatistics
 {
 
     //private boolean valid;
@@ -76,6 +77,13 @@ public abstract class OracleTablePhysical extends OracleTableBase implements DBS
         return rowCount;
     }
 
+    @Override
+    public long getRowCountEstimate()
+    {
+        // NUM_ROWS is empty for tables without gathered statistics
+        return rowCount > 0 ? rowCount : -1;
+    }
+
     @Property(viewable = false, expensive = true, order = 21)
     public synchronized Long getRealRowCount(DBRProgressMonitor monitor)
     {
@@ -68,15 +68,15 @@ public class OracleUtils {
         assert(dataSource != null);
         monitor.beginTask("Load sources for " + objectType + " '" + objectFullName + "'...", 1);
         try (final JDBCSession session = DBUtils.openMetaSession(monitor, dataSource, "Load source code for " + objectType + " '" + objectFullName + "'")) {
-            JDBCUtils.executeProcedure(
-                session,
-                "begin DBMS_METADATA.SET_TRANSFORM_PARAM(DBMS_METADATA.SESSION_TRANSFORM,'STORAGE'," + ddlFormat.isShowStorage() + "); end;");
-            JDBCUtils.executeProcedure(
-                session,
-                "begin DBMS_METADATA.SET_TRANSFORM_PARAM(DBMS_METADATA.SESSION_TRANSFORM,'TABLESPACE'," + ddlFormat.isShowTablespace() + ");  end;");
-            JDBCUtils.executeProcedure(
-                session,
-                "begin DBMS_METADATA.SET_TRANSFORM_PARAM(DBMS_METADATA.SESSION_TRANSFORM,'SEGMENT_ATTRIBUTES'," + ddlFormat.isShowSegments() + ");  end;");
+            if (schema != null) {
+                // Use cached DDL while object is not changed
+                String ddl = schema.ddlCache.getDDL(session, objectType, object.getName(), ddlFormat);
+                if (ddl != null) {
+                    return ddl;
+                }
+            }
+            // No schema or object isn't listed in dictionary views - ask DBMS_METADATA directly
+            setDDLTransformParams(session, ddlFormat);
 /*
             String curSchema = null;
             if (schema != null) {
@@ -126,6 +126,16 @@ public class OracleUtils {
         }
     }
 
+    static void setDDLTransformParams(JDBCSession session, OracleDDLFormat ddlFormat) throws SQLException {
+        JDBCUtils.executeProcedure(
+            session,
+            "begin\n" +
+            "DBMS_METADATA.SET_TRANSFORM_PARAM(DBMS_METADATA.SESSION_TRANSFORM,'STORAGE'," + ddlFormat.isShowStorage() + ");\n" +
+            "DBMS_METADATA.SET_TRANSFORM_PARAM(DBMS_METADATA.SESSION_TRANSFORM,'TABLESPACE'," + ddlFormat.isShowTablespace() + ");\n" +
+            "DBMS_METADATA.SET_TRANSFORM_PARAM(DBMS_METADATA.SESSION_TRANSFORM,'SEGMENT_ATTRIBUTES'," + ddlFormat.isShowSegments() + ");\n" +
+            "end;");
+    }
+
     public static void setCurrentSchema(JDBCSession session, String schema) throws SQLException {
         JDBCUtils.executeSQL(session,
             "ALTER SESSION SET CURRENT_SCHEMA=" + DBUtils.getQuotedIdentifier(session.getDataSource(), schema));
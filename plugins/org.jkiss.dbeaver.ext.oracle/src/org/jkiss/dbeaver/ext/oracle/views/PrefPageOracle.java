@@ -40,6 +40,7 @@ public class PrefPageOracle extends TargetPrefPage
     private Text explainTableText;
     private Button rowidSupportCheck;
     private Button enableDbmsOuputCheck;
+    private Button bulkPrefetchCheck;
 
     public PrefPageOracle()
     {
@@ -54,7 +55,8 @@ public class PrefPageOracle extends TargetPrefPage
         return
             store.contains(OracleConstants.PREF_EXPLAIN_TABLE_NAME) ||
             store.contains(OracleConstants.PREF_SUPPORT_ROWID) ||
-            store.contains(OracleConstants.PREF_DBMS_OUTPUT)
+            store.contains(OracleConstants.PREF_DBMS_OUTPUT) ||
+            store.contains(OracleConstants.PREF_META_BULK_PREFETCH)
             ;
     }
 
@@ -85,6 +87,11 @@ public class PrefPageOracle extends TargetPrefPage
             Group planGroup = UIUtils.createControlGroup(composite, "Misc", 2, GridData.FILL_HORIZONTAL, 0);
             rowidSupportCheck = UIUtils.createLabelCheckbox(planGroup, "Use ROWID to identify rows", true);
             enableDbmsOuputCheck = UIUtils.createLabelCheckbox(planGroup, "Enable DBMS Output", true);
+            bulkPrefetchCheck = UIUtils.createLabelCheckbox(
+                planGroup,
+                "Prefetch whole schema metadata",
+                "Read tables, columns, constraints, indexes and triggers of entire schema at once\ninstead of querying dictionary for each table. Recommended for big schemas.",
+                false);
         }
 
         return composite;
@@ -96,6 +103,7 @@ public class PrefPageOracle extends TargetPrefPage
         explainTableText.setText(store.getString(OracleConstants.PREF_EXPLAIN_TABLE_NAME));
         rowidSupportCheck.setSelection(store.getBoolean(OracleConstants.PREF_SUPPORT_ROWID));
         enableDbmsOuputCheck.setSelection(store.getBoolean(OracleConstants.PREF_DBMS_OUTPUT));
+        bulkPrefetchCheck.setSelection(store.getBoolean(OracleConstants.PREF_META_BULK_PREFETCH));
     }
 
     @Override
@@ -104,6 +112,7 @@ public class PrefPageOracle extends TargetPrefPage
         store.setValue(OracleConstants.PREF_EXPLAIN_TABLE_NAME, explainTableText.getText());
         store.setValue(OracleConstants.PREF_SUPPORT_ROWID, rowidSupportCheck.getSelection());
         store.setValue(OracleConstants.PREF_DBMS_OUTPUT, enableDbmsOuputCheck.getSelection());
+        store.setValue(OracleConstants.PREF_META_BULK_PREFETCH, bulkPrefetchCheck.getSelection());
         PrefUtils.savePreferenceStore(store);
     }
 
@@ -113,6 +122,7 @@ public class PrefPageOracle extends TargetPrefPage
         store.setToDefault(OracleConstants.PREF_EXPLAIN_TABLE_NAME);
         store.setToDefault(OracleConstants.PREF_SUPPORT_ROWID);
         store.setToDefault(OracleConstants.PREF_DBMS_OUTPUT);
+        store.setToDefault(OracleConstants.PREF_META_BULK_PREFETCH);
     }
 
     @Override
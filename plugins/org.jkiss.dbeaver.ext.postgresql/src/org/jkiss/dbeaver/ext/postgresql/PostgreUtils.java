@@ -38,9 +38,12 @@ import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.Collection;
@@ -402,4 +405,69 @@ public class PostgreUtils {
         dbStat.setObject(index, arrayString.toString(), Types.OTHER);
     }
 
+    /**
+     * Checks that driver provides COPY API (PGConnection.getCopyAPI)
+     */
+    public static boolean isCopySupported(@NotNull JDBCSession session) {
+        try {
+            return getCopyManager(session) != null;
+        } catch (SQLException e) {
+            log.debug(e);
+            return false;
+        }
+    }
+
+    /**
+     * Performs COPY ... FROM STDIN with driver COPY API.
+     * Driver classes are accessed with reflection because driver is loaded in its own class loader.
+     * @return number of copied rows
+     */
+    public static long copyIn(@NotNull JDBCSession session, @NotNull String sql, @NotNull String data) throws DBCException {
+        try {
+            Object copyManager = getCopyManager(session);
+            if (copyManager == null) {
+                throw new DBCException("COPY API is not supported by PostgreSQL driver");
+            }
+            Method copyInMethod = copyManager.getClass().getMethod("copyIn", String.class, Reader.class);
+            Object rowCount = copyInMethod.invoke(copyManager, sql, new StringReader(data));
+            return rowCount instanceof Number ? ((Number) rowCount).longValue() : 0;
+        } catch (InvocationTargetException e) {
+            throw new DBCException(e.getTargetException(), session.getDataSource());
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getDataSource());
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new DBCException("Can't call COPY API of PostgreSQL driver", e);
+        }
+    }
+
+    @Nullable
+    private static Object getCopyManager(@NotNull JDBCSession session) throws SQLException {
+        Connection connection = session.getOriginal();
+        Class<?> pgConnectionClass;
+        try {
+            pgConnectionClass = Class.forName("org.postgresql.PGConnection", false, connection.getClass().getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        Object pgConnection = connection;
+        if (!pgConnectionClass.isInstance(connection)) {
+            if (!connection.isWrapperFor(pgConnectionClass)) {
+                return null;
+            }
+            pgConnection = connection.unwrap(pgConnectionClass);
+        }
+        try {
+            return pgConnectionClass.getMethod("getCopyAPI").invoke(pgConnection);
+        } catch (InvocationTargetException e) {
+            if (e.getTargetException() instanceof SQLException) {
+                throw (SQLException) e.getTargetException();
+            }
+            log.debug(e.getTargetException());
+            return null;
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            log.debug(e);
+            return null;
+        }
+    }
+
 }
@@ -17,9 +17,13 @@
  */
 package org.jkiss.dbeaver.ext.postgresql.model;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 
 /**
 * PostgreSQL dialect
@@ -44,6 +48,11 @@ class PostgreDialect extends JDBCSQLDialect {
     }
 */
 
+    @Override
+    public boolean supportsRowValueComparison() {
+        return true;
+    }
+
     @Nullable
     @Override
     public String getBlockToggleString() {
@@ -55,4 +64,12 @@ class PostgreDialect extends JDBCSQLDialect {
         return true;
     }
 
+    @Nullable
+    @Override
+    public String getSearchCondition(@NotNull DBRProgressMonitor monitor, @NotNull DBSEntityAttribute attribute, @NotNull String searchString, boolean caseSensitive) {
+        // Text cast makes it work for any type (enums, json, arrays, etc)
+        return DBUtils.getObjectFullName(attribute.getDataSource(), attribute) + "::text " +
+            (caseSensitive ? "LIKE" : "ILIKE") + " '%" + escapeString(searchString) + "%'";
+    }
+
 }
@@ -380,6 +380,27 @@ public class PostgreSchema implements DBSSchema, DBPSaveableObject, DBPRefreshab
             return dbStat;
         }
 
+        @Override
+        protected String readChangeMarker(@NotNull JDBCSession session, @NotNull PostgreSchema owner)
+            throws SQLException
+        {
+            // Any DDL creates new versions of catalog rows, i.e. changes their xmin
+            final String classFilter = " INNER JOIN pg_catalog.pg_class c ON (c.oid=%s) WHERE c.relnamespace=?)";
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT (SELECT count(*)||':'||coalesce(sum(c.xmin::text::bigint),0) FROM pg_catalog.pg_class c WHERE c.relnamespace=?)" +
+                "||'/'||(SELECT count(*)||':'||coalesce(sum(a.xmin::text::bigint),0) FROM pg_catalog.pg_attribute a" + String.format(classFilter, "a.attrelid") +
+                "||'/'||(SELECT count(*)||':'||coalesce(sum(ad.xmin::text::bigint),0) FROM pg_catalog.pg_attrdef ad" + String.format(classFilter, "ad.adrelid") +
+                "||'/'||(SELECT count(*)||':'||coalesce(sum(d.xmin::text::bigint),0) FROM pg_catalog.pg_description d" + String.format(classFilter, "d.objoid")))
+            {
+                for (int i = 1; i <= 4; i++) {
+                    dbStat.setLong(i, getObjectId());
+                }
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    return dbResult.next() ? dbResult.getString(1) : null;
+                }
+            }
+        }
+
         @Override
         protected PostgreTableBase fetchObject(@NotNull JDBCSession session, @NotNull PostgreSchema owner, @NotNull JDBCResultSet dbResult)
             throws SQLException, DBException
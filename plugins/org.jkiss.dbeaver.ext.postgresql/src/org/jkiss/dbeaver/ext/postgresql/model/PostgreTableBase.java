@@ -21,13 +21,21 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.postgresql.PostgreUtils;
 import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.data.ExecuteBatchMultiRow;
+import org.jkiss.dbeaver.model.impl.data.ExecuteBatchTextLoad;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCStructCache;
 import org.jkiss.dbeaver.model.impl.jdbc.struct.JDBCTable;
 import org.jkiss.dbeaver.model.meta.Association;
 import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.dbeaver.model.struct.DBSEntityAssociation;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 
@@ -154,4 +162,44 @@ public abstract class PostgreTableBase extends JDBCTable<PostgreDataSource, Post
         return true;
     }
 
+    @Nullable
+    @Override
+    public ExecuteBatch insertDataMultiRow(@NotNull DBCSession session, @NotNull DBSAttributeBase[] attributes, @NotNull DBCExecutionSource source)
+        throws DBCException
+    {
+        // Multi-row VALUES are supported since 8.2 (dialect doesn't declare them because of SQL export format)
+        return createMultiRowInsertBatch(session, attributes, source, ExecuteBatchMultiRow.MAX_STATEMENT_ROWS, true);
+    }
+
+    @Nullable
+    @Override
+    public ExecuteBatch insertDataNative(@NotNull DBCSession session, @NotNull DBSAttributeBase[] attributes, @NotNull DBCExecutionSource source)
+        throws DBCException
+    {
+        if (!(session instanceof JDBCSession) ||
+            !ExecuteBatchTextLoad.isTextLoadSupported(attributes, true) ||
+            !PostgreUtils.isCopySupported((JDBCSession) session))
+        {
+            return null;
+        }
+        final String copyQuery = "COPY " + getFullQualifiedName() + " (" + getInsertColumnList(attributes) + ") FROM STDIN";
+        return new ExecuteBatchTextLoad(attributes) {
+            @Override
+            protected void appendBinaryValue(@NotNull StringBuilder buffer, @NotNull DBSAttributeBase attribute, @NotNull byte[] value)
+            {
+                // bytea hex format. Backslash is escaped in COPY text.
+                buffer.append("\\\\x");
+                for (byte b : value) {
+                    buffer.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+                }
+            }
+
+            @Override
+            protected long loadData(@NotNull DBCSession session, @NotNull String data) throws DBCException
+            {
+                return PostgreUtils.copyIn((JDBCSession) session, copyQuery, data);
+            }
+        };
+    }
+
 }
@@ -31,6 +31,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectCache;
 import org.jkiss.dbeaver.model.meta.Association;
 import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataStatistics;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -39,7 +40,7 @@ import java.util.Collection;
 /**
  * PostgreTable base
  */
-public abstract class PostgreTableReal extends PostgreTableBase
+public abstract class PostgreTableReal extends PostgreTableBase implements DBSDataStatistics
 {
     static final Log log = Log.getLog(PostgreTableReal.class);
 
@@ -63,6 +64,7 @@ public abstract class PostgreTableReal extends PostgreTableBase
 
 
     @Property(viewable = true, order = 22)
+    @Override
     public long getRowCountEstimate() {
         return rowCountEstimate;
     }
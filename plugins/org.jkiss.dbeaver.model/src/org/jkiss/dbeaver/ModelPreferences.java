@@ -54,6 +54,9 @@ public final class ModelPreferences
     public static final String CONTENT_CACHE_MAX_SIZE = "content.cache.maxsize"; //$NON-NLS-1$
     public static final String META_SEPARATE_CONNECTION = "database.meta.separate.connection"; //$NON-NLS-1$
     public static final String META_CASE_SENSITIVE = "database.meta.casesensitive"; //$NON-NLS-1$
+    public static final String META_CACHE_SNAPSHOT = "database.meta.cache.snapshot"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_ENABLED = "database.connection.pool.enabled"; //$NON-NLS-1$
+    public static final String CONNECTION_POOL_SIZE = "database.connection.pool.size"; //$NON-NLS-1$
 
     // Network
     public static final String NET_TUNNEL_PORT_MIN = "net.tunnel.port.min"; //$NON-NLS-1$
@@ -61,6 +64,7 @@ public final class ModelPreferences
 
     // ResultSet
     public static final String RESULT_SET_MAX_ROWS_USE_SQL = "resultset.maxrows.sql"; //$NON-NLS-1$
+    public static final String RESULT_SET_KEYSET_PAGING = "resultset.paging.keyset"; //$NON-NLS-1$
     public static final String RESULT_SET_BINARY_PRESENTATION = "resultset.binary.representation"; //$NON-NLS-1$
     public static final String RESULT_SET_BINARY_STRING_MAX_LEN = "resultset.binary.stringMaxLength"; //$NON-NLS-1$
 
@@ -106,6 +110,9 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, MEMORY_CONTENT_MAX_SIZE, 10000);
         PrefUtils.setDefaultPreferenceValue(store, META_SEPARATE_CONNECTION, true);
         PrefUtils.setDefaultPreferenceValue(store, META_CASE_SENSITIVE, false);
+        PrefUtils.setDefaultPreferenceValue(store, META_CACHE_SNAPSHOT, false);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_ENABLED, false);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_POOL_SIZE, 2);
         PrefUtils.setDefaultPreferenceValue(store, CONTENT_HEX_ENCODING, GeneralUtils.getDefaultFileEncoding());
         PrefUtils.setDefaultPreferenceValue(store, CONTENT_CACHE_CLOB, false);
         PrefUtils.setDefaultPreferenceValue(store, CONTENT_CACHE_BLOB, false);
@@ -117,6 +124,7 @@ public final class ModelPreferences
 
         // ResultSet
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_MAX_ROWS_USE_SQL, false);
+        PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_KEYSET_PAGING, true);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_BINARY_PRESENTATION, DBDBinaryFormatter.FORMATS[0].getId());
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_BINARY_STRING_MAX_LEN, 32);
 
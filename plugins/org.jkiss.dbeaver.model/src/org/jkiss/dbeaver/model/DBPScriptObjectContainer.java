@@ -0,0 +1,38 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.model;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.Collection;
+
+/**
+ * Container which can read DDL of many child objects at once.
+ * Used by generators to avoid separate DDL query for each object.
+ */
+public interface DBPScriptObjectContainer extends DBPObject {
+
+    /**
+     * Reads and caches DDL of specified child objects. Their getObjectDefinitionText then returns cached DDL.
+     * Objects of other containers are ignored.
+     */
+    void cacheObjectDefinitions(DBRProgressMonitor monitor, Collection<? extends DBPScriptObject> objects)
+        throws DBException;
+
+}
@@ -0,0 +1,58 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package org.jkiss.dbeaver.model.data;
+
+import org.jkiss.code.Nullable;
+
+/**
+ * Keyset (seek) pagination position.
+ * Holds unique key values of the last fetched row. Data containers which support keyset paging
+ * read next segment after this position instead of skipping first rows with OFFSET.
+ * See {@link org.jkiss.dbeaver.model.struct.DBSDataContainer#FLAG_KEYSET_PAGING}
+ */
+public class DBDKeysetPosition {
+
+    private Object[] keyValues;
+
+    /**
+     * Key values of the last fetched row (in unique key attributes order).
+     * @return key values or null if position is not known
+     */
+    @Nullable
+    public Object[] getKeyValues()
+    {
+        return keyValues;
+    }
+
+    public void setKeyValues(@Nullable Object[] keyValues)
+    {
+        this.keyValues = keyValues;
+    }
+
+    public boolean isKnown()
+    {
+        return keyValues != null;
+    }
+
+    public void reset()
+    {
+        this.keyValues = null;
+    }
+
+}
@@ -0,0 +1,218 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.utils.ArrayUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Multi-row insert batch.
+ * Each statement inserts a chunk of rows. All attributes are bound (nulls too), so the same statement
+ * is reused for all full chunks. The rest of rows is inserted with a separate statement.
+ * With one row per statement and JDBC batches this gives array binding (e.g. in Oracle).
+ */
+public abstract class ExecuteBatchMultiRow implements DBSDataManipulator.ExecuteBatch {
+
+    /**
+     * Maximum bind parameters in one statement. Databases limit it (e.g. 2100 in SQL Server).
+     */
+    public static final int MAX_STATEMENT_PARAMETERS = 2000;
+    public static final int MAX_STATEMENT_ROWS = 500;
+    public static final int MAX_BATCH_ROWS = 10000;
+
+    protected final DBSAttributeBase[] attributes;
+    protected final List<Object[]> values = new ArrayList<>();
+    protected final int rowsPerStatement;
+    protected final boolean useBatch;
+
+    private DBCStatement chunkStatement;
+
+    /**
+     * Constructs new batch
+     * @param attributes array of attributes used in batch
+     * @param maxRowsPerStatement max rows inserted by one statement
+     * @param useBatch add statements in batches
+     */
+    protected ExecuteBatchMultiRow(@NotNull DBSAttributeBase[] attributes, int maxRowsPerStatement, boolean useBatch)
+    {
+        this.attributes = attributes;
+        int paramsPerRow = 0;
+        for (DBSAttributeBase attribute : attributes) {
+            if (!attribute.isPseudoAttribute()) {
+                paramsPerRow++;
+            }
+        }
+        this.rowsPerStatement = Math.max(1, Math.min(maxRowsPerStatement, MAX_STATEMENT_PARAMETERS / Math.max(1, paramsPerRow)));
+        this.useBatch = useBatch;
+    }
+
+    public int getRowsPerStatement()
+    {
+        return rowsPerStatement;
+    }
+
+    @Override
+    public void add(@NotNull Object[] attributeValues) throws DBCException
+    {
+        if (!ArrayUtils.isEmpty(attributes) && ArrayUtils.isEmpty(attributeValues)) {
+            throw new DBCException("Bad attribute values: " + Arrays.toString(attributeValues));
+        }
+        values.add(attributeValues);
+    }
+
+    @NotNull
+    @Override
+    public DBCStatistics execute(@NotNull DBCSession session) throws DBCException
+    {
+        DBDValueHandler[] handlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            if (attributes[i] instanceof DBDAttributeBinding) {
+                handlers[i] = ((DBDAttributeBinding)attributes[i]).getValueHandler();
+            } else {
+                handlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+            }
+        }
+
+        DBCStatistics statistics = new DBCStatistics();
+        int rowCount = values.size();
+        int rowIndex = 0;
+        // Rows already sent to database. They are not executed again on retry.
+        int executedRows = 0;
+        int statementsInBatch = 0;
+        try {
+            // Full chunks. Statement stays prepared between executions.
+            while (rowCount - rowIndex >= rowsPerStatement) {
+                if (chunkStatement == null) {
+                    chunkStatement = prepareStatement(session, rowsPerStatement);
+                }
+                statistics.setQueryText(chunkStatement.getQueryString());
+                bindRows(handlers, chunkStatement, rowIndex, rowsPerStatement);
+                rowIndex += rowsPerStatement;
+                if (useBatch) {
+                    chunkStatement.addToBatch();
+                    statementsInBatch++;
+                    if (statementsInBatch * rowsPerStatement >= MAX_BATCH_ROWS) {
+                        flushBatch(statistics, chunkStatement);
+                        statementsInBatch = 0;
+                        executedRows = rowIndex;
+                    }
+                } else {
+                    executeStatement(statistics, chunkStatement);
+                    executedRows = rowIndex;
+                }
+            }
+            if (statementsInBatch > 0) {
+                flushBatch(statistics, chunkStatement);
+                executedRows = rowIndex;
+            }
+            if (rowIndex < rowCount) {
+                // Rest of rows
+                try (DBCStatement statement = prepareStatement(session, rowCount - rowIndex)) {
+                    statistics.setQueryText(statement.getQueryString());
+                    bindRows(handlers, statement, rowIndex, rowCount - rowIndex);
+                    executeStatement(statistics, statement);
+                }
+            }
+        } catch (DBCException e) {
+            // Drop statement with incomplete batch. It will be prepared again on retry.
+            if (chunkStatement != null) {
+                chunkStatement.close();
+                chunkStatement = null;
+            }
+            // Keep only rows which weren't executed, so retry doesn't insert executed chunks twice
+            values.subList(0, executedRows).clear();
+            throw e;
+        }
+        values.clear();
+
+        return statistics;
+    }
+
+    private void bindRows(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, int firstRow, int rowCount) throws DBCException
+    {
+        int paramIndex = 0;
+        for (int i = firstRow; i < firstRow + rowCount; i++) {
+            Object[] rowValues = values.get(i);
+            for (int k = 0; k < handlers.length; k++) {
+                DBSAttributeBase attribute = attributes[k];
+                if (attribute.isPseudoAttribute()) {
+                    continue;
+                }
+                Object value = DBUtils.isNullValue(rowValues[k]) ? null : rowValues[k];
+                handlers[k].bindValueObject(statement.getSession(), statement, attribute, paramIndex++, value);
+            }
+        }
+    }
+
+    private void executeStatement(DBCStatistics statistics, DBCStatement statement) throws DBCException
+    {
+        long startTime = System.currentTimeMillis();
+        statement.executeStatement();
+        statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        statistics.addStatementsCount();
+        long rowCount = statement.getUpdateRowCount();
+        if (rowCount > 0) {
+            statistics.addRowsUpdated(rowCount);
+        }
+    }
+
+    private void flushBatch(DBCStatistics statistics, DBCStatement statement) throws DBCException
+    {
+        long startTime = System.currentTimeMillis();
+        int[] updatedRows = statement.executeStatementBatch();
+        statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        statistics.addStatementsCount();
+        if (!ArrayUtils.isEmpty(updatedRows)) {
+            for (int rows : updatedRows) {
+                if (rows > 0) {
+                    statistics.addRowsUpdated(rows);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if (chunkStatement != null) {
+            chunkStatement.close();
+            chunkStatement = null;
+        }
+        values.clear();
+    }
+
+    /**
+     * Prepares statement which inserts specified number of rows
+     */
+    @NotNull
+    protected abstract DBCStatement prepareStatement(@NotNull DBCSession session, int rowCount) throws DBCException;
+
+}
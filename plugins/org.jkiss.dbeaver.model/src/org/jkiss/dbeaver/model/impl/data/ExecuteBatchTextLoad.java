@@ -0,0 +1,174 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Bulk load batch which passes rows to the database as tab-separated text.
+ * This is the default format of PostgreSQL COPY and MySQL LOAD DATA:
+ * special characters are escaped with backslash, nulls are written as \N.
+ * Rows are serialized when added, so the batch doesn't keep value arrays.
+ */
+public abstract class ExecuteBatchTextLoad implements DBSDataManipulator.ExecuteBatch {
+
+    public static final String NULL_VALUE = "\\N";
+
+    protected final DBSAttributeBase[] attributes;
+    private final StringBuilder buffer = new StringBuilder(10000);
+    private int rowCount;
+
+    protected ExecuteBatchTextLoad(@NotNull DBSAttributeBase[] attributes)
+    {
+        this.attributes = attributes;
+    }
+
+    /**
+     * Checks that values of all attributes can be passed in text format.
+     * Complex values (LOBs, arrays, structures) can't.
+     */
+    public static boolean isTextLoadSupported(@NotNull DBSAttributeBase[] attributes, boolean allowBinary)
+    {
+        for (DBSAttributeBase attribute : attributes) {
+            if (attribute.isPseudoAttribute()) {
+                continue;
+            }
+            switch (attribute.getDataKind()) {
+                case BOOLEAN:
+                case NUMERIC:
+                case STRING:
+                case DATETIME:
+                    break;
+                case BINARY:
+                    if (!allowBinary) {
+                        return false;
+                    }
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void add(@NotNull Object[] attributeValues) throws DBCException
+    {
+        boolean firstValue = true;
+        for (int i = 0; i < attributes.length; i++) {
+            if (attributes[i].isPseudoAttribute()) {
+                continue;
+            }
+            if (!firstValue) {
+                buffer.append('\t');
+            }
+            firstValue = false;
+            Object value = attributeValues[i];
+            if (DBUtils.isNullValue(value)) {
+                buffer.append(NULL_VALUE);
+            } else {
+                appendValue(buffer, attributes[i], value);
+            }
+        }
+        buffer.append('\n');
+        rowCount++;
+    }
+
+    @NotNull
+    @Override
+    public DBCStatistics execute(@NotNull DBCSession session) throws DBCException
+    {
+        DBCStatistics statistics = new DBCStatistics();
+        if (rowCount == 0) {
+            return statistics;
+        }
+        long startTime = System.currentTimeMillis();
+        long rowsLoaded = loadData(session, buffer.toString());
+        statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        statistics.addStatementsCount();
+        statistics.addRowsUpdated(rowsLoaded);
+
+        buffer.setLength(0);
+        rowCount = 0;
+        return statistics;
+    }
+
+    @Override
+    public void close()
+    {
+        buffer.setLength(0);
+        rowCount = 0;
+    }
+
+    protected void appendValue(@NotNull StringBuilder buffer, @NotNull DBSAttributeBase attribute, @NotNull Object value) throws DBCException
+    {
+        if (value instanceof Boolean) {
+            buffer.append((Boolean) value ? '1' : '0');
+        } else if (value instanceof BigDecimal) {
+            buffer.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number) {
+            buffer.append(value.toString());
+        } else if (value instanceof Date) {
+            // java.sql types have JDBC escape format
+            if (!(value instanceof java.sql.Date || value instanceof java.sql.Time || value instanceof Timestamp)) {
+                value = new Timestamp(((Date) value).getTime());
+            }
+            buffer.append(value.toString());
+        } else if (value instanceof byte[]) {
+            appendBinaryValue(buffer, attribute, (byte[]) value);
+        } else {
+            appendEscaped(buffer, value.toString());
+        }
+    }
+
+    protected void appendBinaryValue(@NotNull StringBuilder buffer, @NotNull DBSAttributeBase attribute, @NotNull byte[] value) throws DBCException
+    {
+        throw new DBCException("Binary value of '" + attribute.getName() + "' can't be loaded in text format");
+    }
+
+    protected static void appendEscaped(@NotNull StringBuilder buffer, @NotNull String value)
+    {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': buffer.append("\\\\"); break;
+                case '\t': buffer.append("\\t"); break;
+                case '\n': buffer.append("\\n"); break;
+                case '\r': buffer.append("\\r"); break;
+                default: buffer.append(c); break;
+            }
+        }
+    }
+
+    /**
+     * Passes serialized rows to the database
+     * @return number of loaded rows
+     */
+    protected abstract long loadData(@NotNull DBCSession session, @NotNull String data) throws DBCException;
+
+}
@@ -0,0 +1,386 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.meta.Property;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.CommonUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pool of idle physical connections used by isolated execution contexts.
+ * Opening of a new connection may be expensive (network tunnels, authentication), so connections are opened
+ * in background and kept warm. Connections are validated before lease and reset when context returns them.
+ * Catalog and schema are recorded when connection is opened and restored on return, so changes made by user SQL
+ * do not leak into the next context.
+ */
+public class JDBCConnectionPool {
+
+    private static final Log log = Log.getLog(JDBCConnectionPool.class);
+
+    private static final String POOL_PURPOSE = "Pooled connection";
+    private static final String CATEGORY_POOL = "Connection pool";
+
+    private final JDBCDataSource dataSource;
+    private final int poolSize;
+    private final Deque<Connection> idleConnections = new ArrayDeque<>();
+    // Catalog and schema of connections at open time
+    private final Map<Connection, ConnectionState> connectionStates = new IdentityHashMap<>();
+    private FillJob fillJob;
+    private boolean closed;
+    // Isolation level of just opened connection
+    private volatile int defaultIsolation = -1;
+
+    // Metrics
+    private long leaseCount;
+    private long hitCount;
+    private long returnCount;
+    private long openCount;
+    private long invalidCount;
+
+    JDBCConnectionPool(@NotNull JDBCDataSource dataSource, int poolSize)
+    {
+        this.dataSource = dataSource;
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Takes a validated idle connection.
+     * @return connection or null if pool is empty
+     */
+    @Nullable
+    Connection leaseConnection()
+    {
+        Connection connection = null;
+        for (;;) {
+            Connection idle;
+            synchronized (this) {
+                idle = closed ? null : idleConnections.pollFirst();
+            }
+            if (idle == null) {
+                break;
+            }
+            if (JDBCUtils.isConnectionAlive(idle)) {
+                connection = idle;
+                break;
+            }
+            synchronized (this) {
+                invalidCount++;
+                connectionStates.remove(idle);
+            }
+            dataSource.closeConnection(idle);
+        }
+        synchronized (this) {
+            leaseCount++;
+            if (connection != null) {
+                hitCount++;
+            }
+        }
+        scheduleFill();
+        return connection;
+    }
+
+    /**
+     * Records state of connection opened outside of pool, so it can be reset and reused later
+     */
+    void registerConnection(@NotNull Connection connection)
+    {
+        ConnectionState state = readState(connection);
+        synchronized (this) {
+            if (!closed) {
+                connectionStates.put(connection, state);
+            }
+        }
+    }
+
+    /**
+     * Returns connection to the pool. Rolls back pending transaction and resets connection state.
+     * @return false if pool is full or connection can't be reused. Caller must close such connection.
+     */
+    boolean releaseConnection(@NotNull Connection connection)
+    {
+        ConnectionState state;
+        synchronized (this) {
+            state = connectionStates.remove(connection);
+            if (state == null || closed || idleConnections.size() >= poolSize) {
+                return false;
+            }
+        }
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            if (defaultIsolation != -1 && connection.getTransactionIsolation() != defaultIsolation) {
+                connection.setTransactionIsolation(defaultIsolation);
+            }
+            if (!restoreState(connection, state)) {
+                return false;
+            }
+            connection.clearWarnings();
+        } catch (Throwable e) {
+            log.debug("Can't reset pooled connection state", e);
+            return false;
+        }
+        synchronized (this) {
+            if (closed || idleConnections.size() >= poolSize) {
+                return false;
+            }
+            connectionStates.put(connection, state);
+            idleConnections.addLast(connection);
+            returnCount++;
+        }
+        return true;
+    }
+
+    /**
+     * Drops dead idle connections and opens new ones up to pool size.
+     */
+    public void validate(@NotNull DBRProgressMonitor monitor)
+    {
+        List<Connection> connections;
+        synchronized (this) {
+            connections = new ArrayList<>(idleConnections);
+        }
+        for (Connection connection : connections) {
+            if (monitor.isCanceled()) {
+                return;
+            }
+            if (!JDBCUtils.isConnectionAlive(connection)) {
+                boolean removed;
+                synchronized (this) {
+                    removed = idleConnections.remove(connection);
+                    if (removed) {
+                        invalidCount++;
+                        connectionStates.remove(connection);
+                    }
+                }
+                if (removed) {
+                    dataSource.closeConnection(connection);
+                }
+            }
+        }
+        fill(monitor);
+    }
+
+    private void fill(@NotNull DBRProgressMonitor monitor)
+    {
+        while (!monitor.isCanceled()) {
+            synchronized (this) {
+                if (closed || idleConnections.size() >= poolSize) {
+                    return;
+                }
+            }
+            Connection connection;
+            try {
+                connection = dataSource.openConnection(monitor, POOL_PURPOSE);
+            } catch (Exception e) {
+                log.debug("Can't open pooled connection", e);
+                return;
+            }
+            if (defaultIsolation == -1) {
+                try {
+                    defaultIsolation = connection.getTransactionIsolation();
+                } catch (Throwable e) {
+                    log.debug("Can't read default transaction isolation", e);
+                }
+            }
+            ConnectionState state = readState(connection);
+            boolean added = false;
+            synchronized (this) {
+                openCount++;
+                if (!closed && idleConnections.size() < poolSize) {
+                    connectionStates.put(connection, state);
+                    idleConnections.addLast(connection);
+                    added = true;
+                }
+            }
+            if (!added) {
+                dataSource.closeConnection(connection);
+            }
+        }
+    }
+
+    synchronized void scheduleFill()
+    {
+        if (closed || fillJob != null || idleConnections.size() >= poolSize) {
+            return;
+        }
+        fillJob = new FillJob();
+        fillJob.schedule();
+    }
+
+    void close()
+    {
+        List<Connection> connections;
+        synchronized (this) {
+            closed = true;
+            if (fillJob != null) {
+                fillJob.cancel();
+            }
+            connections = new ArrayList<>(idleConnections);
+            idleConnections.clear();
+            connectionStates.clear();
+        }
+        for (Connection connection : connections) {
+            dataSource.closeConnection(connection);
+        }
+    }
+
+    @NotNull
+    private static ConnectionState readState(@NotNull Connection connection)
+    {
+        ConnectionState state = new ConnectionState();
+        try {
+            state.catalog = connection.getCatalog();
+        } catch (Throwable e) {
+            log.debug("Can't read connection catalog", e);
+            state.catalogSupported = false;
+        }
+        try {
+            state.schema = connection.getSchema();
+        } catch (Throwable e) {
+            // JDBC 4.1 method, may be not implemented by driver
+            state.schemaSupported = false;
+        }
+        return state;
+    }
+
+    /**
+     * Sets catalog and schema back to values recorded at open time.
+     * @return false if original state can't be restored
+     */
+    private static boolean restoreState(@NotNull Connection connection, @NotNull ConnectionState state)
+        throws SQLException
+    {
+        if (state.catalogSupported) {
+            String catalog = connection.getCatalog();
+            if (!CommonUtils.equalObjects(catalog, state.catalog)) {
+                if (state.catalog == null) {
+                    return false;
+                }
+                connection.setCatalog(state.catalog);
+            }
+        }
+        if (state.schemaSupported) {
+            String schema = connection.getSchema();
+            if (!CommonUtils.equalObjects(schema, state.schema)) {
+                if (state.schema == null) {
+                    return false;
+                }
+                connection.setSchema(state.schema);
+            }
+        }
+        return true;
+    }
+
+    @Property(category = CATEGORY_POOL, order = 1)
+    public int getPoolSize()
+    {
+        return poolSize;
+    }
+
+    @Property(category = CATEGORY_POOL, order = 2)
+    public synchronized int getIdleConnections()
+    {
+        return idleConnections.size();
+    }
+
+    @Property(category = CATEGORY_POOL, order = 3)
+    public synchronized long getLeaseCount()
+    {
+        return leaseCount;
+    }
+
+    @Property(category = CATEGORY_POOL, order = 4)
+    public synchronized long getHitCount()
+    {
+        return hitCount;
+    }
+
+    @Property(category = CATEGORY_POOL, order = 5)
+    public synchronized long getReturnCount()
+    {
+        return returnCount;
+    }
+
+    @Property(category = CATEGORY_POOL, order = 6)
+    public synchronized long getOpenCount()
+    {
+        return openCount;
+    }
+
+    @Property(category = CATEGORY_POOL, order = 7)
+    public synchronized long getInvalidCount()
+    {
+        return invalidCount;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return "Pool [size=" + poolSize + ", idle=" + idleConnections.size() + ", leases=" + leaseCount + ", hits=" + hitCount + "]";
+    }
+
+    private static class ConnectionState {
+        String catalog;
+        String schema;
+        boolean catalogSupported = true;
+        boolean schemaSupported = true;
+    }
+
+    private class FillJob extends AbstractJob {
+
+        FillJob()
+        {
+            super("Open pooled connections for " + dataSource.getContainer().getName());
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor)
+        {
+            try {
+                fill(monitor);
+            } finally {
+                synchronized (JDBCConnectionPool.this) {
+                    fillJob = null;
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
@@ -38,6 +38,7 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCConnectionImpl;
 import org.jkiss.dbeaver.model.meta.Property;
+import org.jkiss.dbeaver.model.meta.PropertyGroup;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.MonitorRunnableContext;
 import org.jkiss.dbeaver.model.sql.SQLDataSource;
@@ -76,6 +77,8 @@ public abstract class JDBCDataSource
     protected final JDBCExecutionContext executionContext;
     @Nullable
     protected JDBCExecutionContext metaContext;
+    @Nullable
+    protected volatile JDBCConnectionPool connectionPool;
     @NotNull
     protected final List<JDBCExecutionContext> allContexts = new ArrayList<>();
     @NotNull
@@ -180,6 +183,38 @@ public abstract class JDBCDataSource
         }
     }
 
+    /**
+     * Opens connection for isolated context. Takes warm connection from pool if possible.
+     */
+    Connection leaseConnection(@NotNull DBRProgressMonitor monitor, @NotNull String purpose)
+        throws DBCException
+    {
+        final JDBCConnectionPool pool = connectionPool;
+        if (pool != null) {
+            Connection connection = pool.leaseConnection();
+            if (connection != null) {
+                return connection;
+            }
+            connection = openConnection(monitor, purpose);
+            if (connection != null) {
+                pool.registerConnection(connection);
+            }
+            return connection;
+        }
+        return openConnection(monitor, purpose);
+    }
+
+    /**
+     * Returns connection of isolated context to the pool or closes it
+     */
+    void releaseConnection(Connection connection)
+    {
+        final JDBCConnectionPool pool = connectionPool;
+        if (pool == null || !pool.releaseConnection(connection)) {
+            closeConnection(connection);
+        }
+    }
+
     protected void closeConnection(Connection connection)
     {
         if (connection != null) {
@@ -219,6 +254,7 @@ public abstract class JDBCDataSource
     public DBCExecutionContext openIsolatedContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose) throws DBException
     {
         JDBCExecutionContext context = new JDBCExecutionContext(this, purpose);
+        context.setPooled(connectionPool != null);
         context.connect(monitor, null, null, true);
         return context;
     }
@@ -311,6 +347,12 @@ public abstract class JDBCDataSource
                 dataSourceInfo = new JDBCDataSourceInfo(container);
             }
         }
+        if (!container.getDriver().isEmbedded() && container.getPreferenceStore().getBoolean(ModelPreferences.CONNECTION_POOL_ENABLED)) {
+            JDBCConnectionPool pool = new JDBCConnectionPool(this, Math.max(1, container.getPreferenceStore().getInt(ModelPreferences.CONNECTION_POOL_SIZE)));
+            this.connectionPool = pool;
+            // Open connections in background
+            pool.scheduleFill();
+        }
     }
 
     @Override
@@ -319,6 +361,10 @@ public abstract class JDBCDataSource
         // [JDBC] Need sync here because real connection close could take some time
         // while UI may invoke callbacks to operate with connection
         synchronized (this) {
+            if (connectionPool != null) {
+                connectionPool.close();
+                connectionPool = null;
+            }
             executionContext.close();
             if (metaContext != null) {
                 metaContext.close();
@@ -326,6 +372,16 @@ public abstract class JDBCDataSource
         }
     }
 
+    /**
+     * Pool of warm connections for isolated contexts. Null if pooling is disabled.
+     */
+    @Nullable
+    @PropertyGroup
+    public JDBCConnectionPool getConnectionPool()
+    {
+        return connectionPool;
+    }
+
     @NotNull
     @Override
     @Property(viewable = true, order = 1)
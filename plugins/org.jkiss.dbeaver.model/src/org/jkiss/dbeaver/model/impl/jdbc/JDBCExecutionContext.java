@@ -45,6 +45,8 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     private volatile Connection connection;
     private volatile Boolean autoCommit;
     private volatile Integer transactionIsolationLevel;
+    // Connection is leased from data source connection pool
+    private volatile boolean pooled;
 
     public JDBCExecutionContext(@NotNull JDBCDataSource dataSource, String purpose)
     {
@@ -56,6 +58,11 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         return connection;
     }
 
+    void setPooled(boolean pooled)
+    {
+        this.pooled = pooled;
+    }
+
     public void connect(DBRProgressMonitor monitor) throws DBCException
     {
         connect(monitor, null, null, false);
@@ -70,7 +77,9 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         boolean connectionReadOnly = dataSource.getContainer().isConnectionReadOnly();
         ACTIVE_CONTEXT.set(this);
         try {
-            this.connection = dataSource.openConnection(monitor, purpose);
+            this.connection = pooled ?
+                dataSource.leaseConnection(monitor, purpose) :
+                dataSource.openConnection(monitor, purpose);
             if (this.connection == null) {
                 throw new DBCException("Null connection returned");
             }
@@ -193,7 +202,11 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         // while UI may invoke callbacks to operate with connection
         synchronized (this) {
             if (connection != null) {
-                this.dataSource.closeConnection(connection);
+                if (pooled) {
+                    this.dataSource.releaseConnection(connection);
+                } else {
+                    this.dataSource.closeConnection(connection);
+                }
                 connection = null;
             }
             super.closeContext();
@@ -364,6 +377,8 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     }
 
     public void reconnect(DBRProgressMonitor monitor) throws DBCException {
+        // Connection settings may be changed - do not reuse pooled connections
+        pooled = false;
         close();
         connect(monitor);
     }
@@ -0,0 +1,231 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metadata cache load guard.
+ * Concurrent loads of the same cache key share a single metadata read, loads of different keys run in parallel.
+ * Also collects cache hit/miss statistics.
+ */
+public final class JDBCCacheLoadGuard
+{
+    interface Loader {
+        void loadObjects() throws DBException;
+    }
+
+    private static final long WAIT_INTERVAL = 100;
+
+    // Load which each thread waits for. Used to avoid waits which can never end.
+    private static final Map<Thread, LoadTask> waitingThreads = new HashMap<>();
+
+    private final Object cacheLock;
+    private final Map<Object, LoadTask> activeLoads = new IdentityHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong sharedCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong loadTime = new AtomicLong();
+
+    private static class LoadTask {
+        final Thread owner = Thread.currentThread();
+        final CountDownLatch done = new CountDownLatch(1);
+        DBException error;
+    }
+
+    /**
+     * @param cacheLock lock which is held by the cache while it fills loaded objects.
+     *                  Threads holding it never wait for other loads.
+     */
+    JDBCCacheLoadGuard(@NotNull Object cacheLock)
+    {
+        this.cacheLock = cacheLock;
+    }
+
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    /**
+     * Number of requests which didn't read metadata themselves but waited for the load made by another thread
+     */
+    public long getSharedLoadCount()
+    {
+        return sharedCount.get();
+    }
+
+    public long getErrorCount()
+    {
+        return errorCount.get();
+    }
+
+    /**
+     * Total metadata load time (ms)
+     */
+    public long getLoadTime()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(loadTime.get());
+    }
+
+    void recordHit()
+    {
+        hitCount.incrementAndGet();
+    }
+
+    /**
+     * Waits for the load of the specified key (if any).
+     * @return true if waited for another thread load
+     */
+    boolean join(@NotNull DBRProgressMonitor monitor, @Nullable Object key) throws DBException
+    {
+        LoadTask task;
+        synchronized (activeLoads) {
+            task = activeLoads.get(key);
+        }
+        if (task == null || task.owner == Thread.currentThread() || !startWaiting(task)) {
+            return false;
+        }
+        sharedCount.incrementAndGet();
+        awaitLoad(monitor, task);
+        return true;
+    }
+
+    /**
+     * Loads objects for the specified key. If the same key is already being loaded by another thread then
+     * waits for this load instead (and rethrows its error).
+     * Callers must check cache state after this call: waiting may end due to cancel or the other load may
+     * have been canceled itself.
+     * @return true if loader was invoked by this call, false if waited for another thread load
+     */
+    boolean load(@NotNull DBRProgressMonitor monitor, @Nullable Object key, @NotNull Loader loader) throws DBException
+    {
+        LoadTask task;
+        boolean started = false;
+        synchronized (activeLoads) {
+            task = activeLoads.get(key);
+            if (task == null) {
+                task = new LoadTask();
+                activeLoads.put(key, task);
+                started = true;
+            }
+        }
+        if (!started) {
+            if (task.owner != Thread.currentThread() && startWaiting(task)) {
+                sharedCount.incrementAndGet();
+                awaitLoad(monitor, task);
+                return false;
+            }
+            // Nested load of the same key or waiting may deadlock. Read metadata directly.
+            task = null;
+        }
+        missCount.incrementAndGet();
+        long startTime = System.nanoTime();
+        try {
+            loader.loadObjects();
+        } catch (DBException e) {
+            errorCount.incrementAndGet();
+            if (task != null) {
+                task.error = e;
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            errorCount.incrementAndGet();
+            if (task != null) {
+                task.error = new DBException("Metadata read failed", e);
+            }
+            throw e;
+        } finally {
+            loadTime.addAndGet(System.nanoTime() - startTime);
+            if (task != null) {
+                synchronized (activeLoads) {
+                    activeLoads.remove(key);
+                }
+                task.done.countDown();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Registers current thread as waiting for the task.
+     * Returns false if the task owner (directly or through other waits) waits for current thread
+     * or may need cache lock held by current thread.
+     */
+    private boolean startWaiting(LoadTask task)
+    {
+        if (Thread.holdsLock(cacheLock)) {
+            return false;
+        }
+        Thread currentThread = Thread.currentThread();
+        synchronized (waitingThreads) {
+            for (LoadTask waitTask = task; waitTask != null; waitTask = waitingThreads.get(waitTask.owner)) {
+                if (waitTask.owner == currentThread) {
+                    return false;
+                }
+            }
+            waitingThreads.put(currentThread, task);
+        }
+        return true;
+    }
+
+    private static void awaitLoad(DBRProgressMonitor monitor, LoadTask task) throws DBException
+    {
+        try {
+            while (!task.done.await(WAIT_INTERVAL, TimeUnit.MILLISECONDS)) {
+                if (monitor.isCanceled()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DBException("Metadata read interrupted", e);
+        } finally {
+            synchronized (waitingThreads) {
+                waitingThreads.remove(Thread.currentThread());
+            }
+        }
+        if (task.error != null) {
+            throw task.error;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "hits=" + hitCount + ", misses=" + missCount + ", shared=" + sharedCount +
+            ", errors=" + errorCount + ", load time=" + getLoadTime() + "ms";
+    }
+}
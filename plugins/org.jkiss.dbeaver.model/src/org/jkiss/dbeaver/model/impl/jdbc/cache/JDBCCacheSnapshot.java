@@ -0,0 +1,525 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.bundle.ModelActivator;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+import java.io.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * On-disk snapshot of metadata cache read.
+ *
+ * Saves column values which cache read from metadata result set. On next start these values are replayed
+ * to the same fetch code instead of metadata query, so caches (and navigator) are filled without reading catalog.
+ * Snapshot is used only if cache change marker (e.g. max LAST_DDL_TIME of schema objects) is the same as
+ * at the time snapshot was saved. Snapshot is also bound to the version of bundle which contains cache class.
+ */
+final class JDBCCacheSnapshot
+{
+    static final Log log = Log.getLog(JDBCCacheSnapshot.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x44424D43;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final String SNAPSHOT_FOLDER = "metadata-cache"; //$NON-NLS-1$
+    private static final String SNAPSHOT_EXT = ".dbm"; //$NON-NLS-1$
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_BOOLEAN = 2;
+    private static final byte TYPE_BYTE = 3;
+    private static final byte TYPE_SHORT = 4;
+    private static final byte TYPE_INTEGER = 5;
+    private static final byte TYPE_LONG = 6;
+    private static final byte TYPE_FLOAT = 7;
+    private static final byte TYPE_DOUBLE = 8;
+    private static final byte TYPE_BIG_DECIMAL = 9;
+    private static final byte TYPE_BIG_INTEGER = 10;
+    private static final byte TYPE_DATE = 11;
+    private static final byte TYPE_TIME = 12;
+    private static final byte TYPE_TIMESTAMP = 13;
+    private static final byte TYPE_BYTES = 14;
+
+    // Recorded SQL NULL
+    private static final Object NULL_VALUE = new Object();
+
+    private final List<Map<String, Object>> rows;
+
+    private JDBCCacheSnapshot(@NotNull List<Map<String, Object>> rows)
+    {
+        this.rows = rows;
+    }
+
+    static boolean isEnabled(@NotNull DBPDataSource dataSource)
+    {
+        return dataSource.getContainer().getPreferenceStore().getBoolean(ModelPreferences.META_CACHE_SNAPSHOT);
+    }
+
+    /**
+     * Snapshot file of specified cache read
+     * @param kind read kind (objects or children)
+     */
+    @NotNull
+    static File getSnapshotFile(@NotNull Object cache, @NotNull DBSObject owner, @NotNull String kind)
+    {
+        StringBuilder key = new StringBuilder();
+        key.append(cache.getClass().getName()).append('/').append(kind);
+        for (DBSObject object : DBUtils.getObjectPath(owner, true)) {
+            key.append('/').append(object.getName());
+        }
+        File folder = new File(ModelActivator.getInstance().getStateLocation().toFile(), SNAPSHOT_FOLDER);
+        folder = new File(folder, owner.getDataSource().getContainer().getId().replaceAll("[^\\w\\-.]", "_"));
+        return new File(folder, digest(key.toString()) + SNAPSHOT_EXT);
+    }
+
+    /**
+     * Reads snapshot.
+     * @return snapshot or null if there is no snapshot or it was saved with different change marker or cache version
+     */
+    @Nullable
+    static JDBCCacheSnapshot read(@NotNull File file, @NotNull Object cache, @NotNull String changeMarker)
+    {
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                return null;
+            }
+            if (!getCacheVersion(cache).equals(in.readUTF()) || !changeMarker.equals(in.readUTF())) {
+                // Cache code or database objects changed
+                return null;
+            }
+            String[] keys = new String[in.readInt()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = in.readUTF();
+            }
+            int rowCount = in.readInt();
+            List<Map<String, Object>> rows = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                int valueCount = in.readInt();
+                Map<String, Object> row = new HashMap<>(valueCount * 2);
+                for (int k = 0; k < valueCount; k++) {
+                    String key = keys[in.readInt()];
+                    row.put(key, readValue(in));
+                }
+                rows.add(row);
+            }
+            return new JDBCCacheSnapshot(rows);
+        } catch (IOException e) {
+            log.debug("Can't read metadata snapshot '" + file.getAbsolutePath() + "'", e);
+            return null;
+        }
+    }
+
+    /**
+     * Result set which returns saved values
+     */
+    @NotNull
+    JDBCResultSet openResultSet(@NotNull JDBCSession session)
+    {
+        return (JDBCResultSet) Proxy.newProxyInstance(
+            JDBCResultSet.class.getClassLoader(),
+            new Class[] { JDBCResultSet.class },
+            new ReplayHandler(session, rows));
+    }
+
+    /**
+     * Records values read from metadata result set
+     */
+    static class Recorder {
+
+        private final List<Map<String, Object>> rows = new ArrayList<>();
+        private boolean valid = true;
+
+        @NotNull
+        JDBCResultSet record(@NotNull JDBCResultSet resultSet)
+        {
+            return (JDBCResultSet) Proxy.newProxyInstance(
+                JDBCResultSet.class.getClassLoader(),
+                new Class[] { JDBCResultSet.class },
+                new RecordHandler(this, resultSet));
+        }
+
+        /**
+         * Recorded values are incomplete and must not be saved
+         */
+        void invalidate()
+        {
+            valid = false;
+        }
+
+        /**
+         * Saves recorded values. Nothing is saved if some value can't be stored in snapshot.
+         */
+        void save(@NotNull File file, @NotNull Object cache, @NotNull String changeMarker)
+        {
+            if (!valid) {
+                return;
+            }
+            try {
+                write(file, getCacheVersion(cache), changeMarker, rows);
+            } catch (IOException e) {
+                log.debug("Can't save metadata snapshot '" + file.getAbsolutePath() + "'", e);
+            }
+        }
+    }
+
+    private static void write(@NotNull File file, @NotNull String cacheVersion, @NotNull String changeMarker, @NotNull List<Map<String, Object>> rows)
+        throws IOException
+    {
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        for (Map<String, Object> row : rows) {
+            for (String key : row.keySet()) {
+                if (!keys.containsKey(key)) {
+                    keys.put(key, keys.size());
+                }
+            }
+        }
+        File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Can't create folder '" + folder.getAbsolutePath() + "'");
+        }
+        File tmpFile = new File(folder, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeUTF(cacheVersion);
+            out.writeUTF(changeMarker);
+            out.writeInt(keys.size());
+            for (String key : keys.keySet()) {
+                out.writeUTF(key);
+            }
+            out.writeInt(rows.size());
+            for (Map<String, Object> row : rows) {
+                out.writeInt(row.size());
+                for (Map.Entry<String, Object> entry : row.entrySet()) {
+                    out.writeInt(keys.get(entry.getKey()));
+                    writeValue(out, entry.getValue());
+                }
+            }
+        }
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static boolean isStorableValue(@Nullable Object value)
+    {
+        return value == null || value instanceof String || value instanceof Boolean ||
+            value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long ||
+            value instanceof Float || value instanceof Double || value instanceof BigDecimal || value instanceof BigInteger ||
+            value instanceof java.sql.Date || value instanceof Time || value instanceof Timestamp || value instanceof byte[];
+    }
+
+    private static void writeValue(@NotNull DataOutputStream out, @Nullable Object value) throws IOException
+    {
+        if (value == NULL_VALUE || value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(TYPE_BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            out.writeByte(TYPE_SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(TYPE_BIG_DECIMAL);
+            out.writeUTF(value.toString());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(TYPE_BIG_INTEGER);
+            out.writeUTF(value.toString());
+        } else if (value instanceof java.sql.Date) {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(((java.sql.Date) value).getTime());
+        } else if (value instanceof Time) {
+            out.writeByte(TYPE_TIME);
+            out.writeLong(((Time) value).getTime());
+        } else if (value instanceof Timestamp) {
+            out.writeByte(TYPE_TIMESTAMP);
+            out.writeLong(((Timestamp) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        } else if (value instanceof byte[]) {
+            out.writeByte(TYPE_BYTES);
+            writeBytes(out, (byte[]) value);
+        } else {
+            throw new IOException("Unsupported value type: " + value.getClass().getName());
+        }
+    }
+
+    @NotNull
+    private static Object readValue(@NotNull DataInputStream in) throws IOException
+    {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL: return NULL_VALUE;
+            case TYPE_STRING: return new String(readBytes(in), StandardCharsets.UTF_8);
+            case TYPE_BOOLEAN: return in.readBoolean();
+            case TYPE_BYTE: return in.readByte();
+            case TYPE_SHORT: return in.readShort();
+            case TYPE_INTEGER: return in.readInt();
+            case TYPE_LONG: return in.readLong();
+            case TYPE_FLOAT: return in.readFloat();
+            case TYPE_DOUBLE: return in.readDouble();
+            case TYPE_BIG_DECIMAL: return new BigDecimal(in.readUTF());
+            case TYPE_BIG_INTEGER: return new BigInteger(in.readUTF());
+            case TYPE_DATE: return new java.sql.Date(in.readLong());
+            case TYPE_TIME: return new Time(in.readLong());
+            case TYPE_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            }
+            case TYPE_BYTES: return readBytes(in);
+            default:
+                throw new IOException("Bad value type: " + type);
+        }
+    }
+
+    private static void writeBytes(@NotNull DataOutputStream out, @NotNull byte[] bytes) throws IOException
+    {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @NotNull
+    private static byte[] readBytes(@NotNull DataInputStream in) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Snapshot is valid only for the same cache code
+     */
+    @NotNull
+    private static String getCacheVersion(@NotNull Object cache)
+    {
+        Bundle bundle = FrameworkUtil.getBundle(cache.getClass());
+        return cache.getClass().getName() + "@" + (bundle == null ? "" : bundle.getVersion().toString());
+    }
+
+    @NotNull
+    private static String digest(@NotNull String key)
+    {
+        try {
+            byte[] hash = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder result = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(key.hashCode());
+        }
+    }
+
+    /**
+     * Column value getter (getString(name), getInt(index), etc)
+     */
+    @Nullable
+    private static String getValueKey(@NotNull Method method, @Nullable Object[] args)
+    {
+        if (!method.getName().startsWith("get") || args == null || args.length == 0 ||
+            !(args[0] instanceof String || args[0] instanceof Integer))
+        {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(method.getName());
+        for (Object arg : args) {
+            key.append(':').append(arg instanceof Class ? ((Class) arg).getName() : String.valueOf(arg));
+        }
+        return key.toString();
+    }
+
+    private static class RecordHandler implements InvocationHandler {
+
+        private final Recorder recorder;
+        private final JDBCResultSet resultSet;
+        private Map<String, Object> curRow;
+
+        RecordHandler(@NotNull Recorder recorder, @NotNull JDBCResultSet resultSet)
+        {
+            this.recorder = recorder;
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+        {
+            Object result;
+            try {
+                result = method.invoke(resultSet, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            switch (method.getName()) {
+                case "next":
+                case "nextRow":
+                    if (Boolean.TRUE.equals(result)) {
+                        curRow = new HashMap<>();
+                        recorder.rows.add(curRow);
+                    }
+                    break;
+                default:
+                    String key = getValueKey(method, args);
+                    if (key != null && curRow != null) {
+                        if (!isStorableValue(result)) {
+                            // Complex value (LOB, array, driver specific type)
+                            recorder.valid = false;
+                        } else {
+                            curRow.put(key, result == null || resultSet.wasNull() ? NULL_VALUE : result);
+                        }
+                    }
+                    break;
+            }
+            return result;
+        }
+    }
+
+    private static class ReplayHandler implements InvocationHandler {
+
+        private final JDBCSession session;
+        private final List<Map<String, Object>> rows;
+        private int rowIndex = -1;
+        private boolean wasNull;
+        private boolean closed;
+
+        ReplayHandler(@NotNull JDBCSession session, @NotNull List<Map<String, Object>> rows)
+        {
+            this.session = session;
+            this.rows = rows;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+        {
+            switch (method.getName()) {
+                case "next":
+                case "nextRow":
+                    if (rowIndex < rows.size()) {
+                        rowIndex++;
+                    }
+                    return rowIndex < rows.size();
+                case "wasNull":
+                    return wasNull;
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getSession":
+                    return session;
+                case "getSourceStatement":
+                case "getOriginal":
+                    return null;
+                case "setMaxRows":
+                case "setFetchSize":
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Metadata snapshot";
+            }
+            String key = getValueKey(method, args);
+            if (key != null) {
+                if (rowIndex < 0 || rowIndex >= rows.size()) {
+                    throw new SQLException("No current row");
+                }
+                Object value = rows.get(rowIndex).get(key);
+                wasNull = value == null || value == NULL_VALUE;
+                if (wasNull) {
+                    return getDefaultValue(method.getReturnType());
+                }
+                return value;
+            }
+            if (Arrays.asList(method.getExceptionTypes()).contains(SQLException.class)) {
+                throw new SQLFeatureNotSupportedException("Method " + method.getName() + " is not supported by metadata snapshot");
+            }
+            throw new UnsupportedOperationException("Method " + method.getName() + " is not supported by metadata snapshot");
+        }
+
+        @Nullable
+        private static Object getDefaultValue(@NotNull Class<?> type)
+        {
+            if (!type.isPrimitive()) {
+                return null;
+            } else if (type == Boolean.TYPE) {
+                return false;
+            } else if (type == Byte.TYPE) {
+                return (byte) 0;
+            } else if (type == Short.TYPE) {
+                return (short) 0;
+            } else if (type == Integer.TYPE) {
+                return 0;
+            } else if (type == Long.TYPE) {
+                return 0L;
+            } else if (type == Float.TYPE) {
+                return 0.0f;
+            } else if (type == Double.TYPE) {
+                return 0.0;
+            }
+            return null;
+        }
+    }
+
+}
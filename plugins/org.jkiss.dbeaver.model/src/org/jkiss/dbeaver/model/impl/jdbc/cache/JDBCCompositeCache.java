@@ -55,12 +55,16 @@ public abstract class JDBCCompositeCache<
     protected static final Log log = Log.getLog(JDBCCompositeCache.class);
     public static final String DEFAULT_OBJECT_NAME = "#DBOBJ";
 
+    // Load key used when objects of all parents are read
+    private static final Object ALL_PARENTS_KEY = new Object();
+
     private final JDBCStructCache<OWNER,?,?> parentCache;
     private final Class<PARENT> parentType;
     private final Object parentColumnName;
     private final Object objectColumnName;
 
     private final Map<PARENT, List<OBJECT>> objectCache = new IdentityHashMap<>();
+    private final JDBCCacheLoadGuard loadGuard = new JDBCCacheLoadGuard(this);
 
     protected JDBCCompositeCache(
         JDBCStructCache<OWNER,?,?> parentCache,
@@ -74,6 +78,14 @@ public abstract class JDBCCompositeCache<
         this.objectColumnName = objectColumnName;
     }
 
+    /**
+     * Objects load statistics
+     */
+    public JDBCCacheLoadGuard getLoadStatistics()
+    {
+        return loadGuard;
+    }
+
     @NotNull
     abstract protected JDBCStatement prepareObjectsStatement(JDBCSession session, OWNER owner, PARENT forParent)
         throws SQLException;
@@ -175,7 +187,9 @@ public abstract class JDBCCompositeCache<
     public void removeObject(@NotNull OBJECT object)
     {
         super.removeObject(object);
-        objectCache.remove(getParent(object));
+        synchronized (objectCache) {
+            objectCache.remove(getParent(object));
+        }
     }
 
     public void clearObjectCache(PARENT forParent)
@@ -183,7 +197,9 @@ public abstract class JDBCCompositeCache<
         if (forParent == null) {
             super.clearCache();
         } else {
-            objectCache.remove(forParent);
+            synchronized (objectCache) {
+                objectCache.remove(forParent);
+            }
         }
     }
 
@@ -208,15 +224,54 @@ public abstract class JDBCCompositeCache<
         }
     }
 
-    protected void loadObjects(DBRProgressMonitor monitor, OWNER owner, PARENT forParent)
+    /**
+     * Reads objects from database.
+     * Concurrent calls for the same parent share the same read. Different parents are read in parallel.
+     */
+    protected void loadObjects(final DBRProgressMonitor monitor, final OWNER owner, final PARENT forParent)
         throws DBException
     {
-        synchronized (objectCache) {
-            if ((forParent == null && isCached()) ||
-                (forParent != null && (!forParent.isPersisted() || objectCache.containsKey(forParent))))
-            {
-                return;
+        if (isLoaded(forParent)) {
+            loadGuard.recordHit();
+            return;
+        }
+        JDBCCacheLoadGuard.Loader loader = new JDBCCacheLoadGuard.Loader() {
+            @Override
+            public void loadObjects() throws DBException {
+                readObjects(monitor, owner, forParent);
             }
+        };
+        while (!monitor.isCanceled() && !isLoaded(forParent)) {
+            if (forParent != null && loadGuard.join(monitor, ALL_PARENTS_KEY)) {
+                // Objects of all parents were read by another thread. Check whether they include ours.
+                continue;
+            }
+            if (loadGuard.load(monitor, forParent == null ? ALL_PARENTS_KEY : forParent, loader)) {
+                break;
+            }
+        }
+    }
+
+    private boolean isLoaded(PARENT forParent)
+    {
+        if (forParent == null) {
+            // Do not check it under objectCache lock: cache fill locks this first and then objectCache
+            return isCached();
+        }
+        if (!forParent.isPersisted()) {
+            return true;
+        }
+        synchronized (objectCache) {
+            return objectCache.containsKey(forParent);
+        }
+    }
+
+    private void readObjects(DBRProgressMonitor monitor, OWNER owner, PARENT forParent)
+        throws DBException
+    {
+        if (isLoaded(forParent)) {
+            // Loaded by another thread
+            return;
         }
 
         // Load tables and columns first
@@ -31,6 +31,7 @@ import org.jkiss.dbeaver.model.impl.AbstractObjectCache;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 
+import java.io.File;
 import java.sql.SQLException;
 import java.util.*;
 
@@ -47,9 +48,21 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
     // Maximum number of objects in cache
     private int maximumCacheSize = DEFAULT_MAX_CACHE_SIZE;
 
+    private final JDBCCacheLoadGuard loadGuard = new JDBCCacheLoadGuard(this);
+
+    // Snapshot is used only for the first read. Refresh always reads database.
+    private volatile boolean snapshotChecked;
+
     protected JDBCObjectCache() {
     }
 
+    /**
+     * Objects load statistics
+     */
+    public JDBCCacheLoadGuard getLoadStatistics() {
+        return loadGuard;
+    }
+
     public void setMaximumCacheSize(int maximumCacheSize) {
         this.maximumCacheSize = maximumCacheSize;
     }
@@ -61,14 +74,26 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
     abstract protected OBJECT fetchObject(@NotNull JDBCSession session, @NotNull OWNER owner, @NotNull JDBCResultSet resultSet)
         throws SQLException, DBException;
 
+    /**
+     * Reads marker which changes whenever objects of this cache change (e.g. max DDL time of owner's objects).
+     * If marker is provided and metadata snapshots are enabled then objects are saved on disk after read and
+     * next time are restored from disk while marker remains the same.
+     * Fetch code must read result set values only with simple getters (getString, getInt, getTimestamp, etc).
+     * @return change marker or null if cache doesn't support snapshots
+     */
+    @Nullable
+    protected String readChangeMarker(@NotNull JDBCSession session, @NotNull OWNER owner)
+        throws SQLException
+    {
+        return null;
+    }
+
     @NotNull
     @Override
     public Collection<OBJECT> getAllObjects(@NotNull DBRProgressMonitor monitor, @Nullable OWNER owner)
         throws DBException
     {
-        if (!isCached()) {
-            loadObjects(monitor, owner);
-        }
+        loadObjects(monitor, owner);
         return getCachedObjects();
     }
 
@@ -76,16 +101,39 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
     public OBJECT getObject(@NotNull DBRProgressMonitor monitor, @Nullable OWNER owner, @NotNull String name)
         throws DBException
     {
-        if (!isCached()) {
-            this.loadObjects(monitor, owner);
-        }
+        loadObjects(monitor, owner);
         return getCachedObject(name);
     }
 
-    protected void loadObjects(DBRProgressMonitor monitor, OWNER owner)
+    /**
+     * Reads objects from database.
+     * Concurrent calls share the same read, i.e. only one thread queries database while others wait for it.
+     */
+    protected void loadObjects(final DBRProgressMonitor monitor, final OWNER owner)
+        throws DBException
+    {
+        if (isCached()) {
+            loadGuard.recordHit();
+            return;
+        }
+        JDBCCacheLoadGuard.Loader loader = new JDBCCacheLoadGuard.Loader() {
+            @Override
+            public void loadObjects() throws DBException {
+                readObjects(monitor, owner);
+            }
+        };
+        while (!isCached() && !monitor.isCanceled()) {
+            if (loadGuard.load(monitor, owner, loader)) {
+                break;
+            }
+        }
+    }
+
+    private void readObjects(DBRProgressMonitor monitor, OWNER owner)
         throws DBException
     {
-        if (isCached() || monitor.isCanceled()) {
+        if (isCached()) {
+            // Loaded by another thread
             return;
         }
 
@@ -97,32 +145,44 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         }
         try {
             try (JDBCSession session = DBUtils.openMetaSession(monitor, dataSource, "Load objects from " + owner.getName())) {
-                try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
-                    monitor.subTask("Execute query");
-                    dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                    dbStat.executeStatement();
-                    JDBCResultSet dbResult = dbStat.getResultSet();
-                    if (dbResult != null) {
-                        try {
-                            while (dbResult.next()) {
-                                if (monitor.isCanceled()) {
-                                    break;
-                                }
-
-                                OBJECT object = fetchObject(session, owner, dbResult);
-                                if (object == null) {
-                                    continue;
-                                }
-                                tmpObjectList.add(object);
-
-                                monitor.subTask(object.getName());
-                                if (tmpObjectList.size() == maximumCacheSize) {
-                                    log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
-                                    break;
+                String changeMarker = null;
+                File snapshotFile = null;
+                boolean restored = false;
+                if (!snapshotChecked && JDBCCacheSnapshot.isEnabled(dataSource)) {
+                    snapshotChecked = true;
+                    changeMarker = readSnapshotMarker(session, owner);
+                    if (changeMarker != null) {
+                        snapshotFile = JDBCCacheSnapshot.getSnapshotFile(this, owner, "objects");
+                        JDBCCacheSnapshot snapshot = JDBCCacheSnapshot.read(snapshotFile, this, changeMarker);
+                        if (snapshot != null) {
+                            monitor.subTask("Read metadata snapshot");
+                            try {
+                                restored = fetchObjects(monitor, session, owner, snapshot.openResultSet(session), tmpObjectList);
+                            } catch (SQLException | DBException e) {
+                                log.debug("Can't restore objects from metadata snapshot", e);
+                            }
+                            if (!restored) {
+                                // Read from database
+                                tmpObjectList.clear();
+                            }
+                        }
+                    }
+                }
+                if (!restored) {
+                    try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
+                        monitor.subTask("Execute query");
+                        dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                        dbStat.executeStatement();
+                        JDBCResultSet dbResult = dbStat.getResultSet();
+                        if (dbResult != null) {
+                            if (changeMarker != null) {
+                                JDBCCacheSnapshot.Recorder recorder = new JDBCCacheSnapshot.Recorder();
+                                if (fetchObjects(monitor, session, owner, recorder.record(dbResult), tmpObjectList)) {
+                                    recorder.save(snapshotFile, this, changeMarker);
                                 }
+                            } else {
+                                fetchObjects(monitor, session, owner, dbResult, tmpObjectList);
                             }
-                        } finally {
-                            dbResult.close();
                         }
                     }
                 }
@@ -135,6 +195,11 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
             }
         }
 
+        if (monitor.isCanceled()) {
+            // Read was interrupted - do not cache partial list
+            return;
+        }
+
         Comparator<OBJECT> comparator = getListOrderComparator();
         if (comparator != null) {
             Collections.sort(tmpObjectList, comparator);
@@ -147,6 +212,51 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         }
     }
 
+    /**
+     * Fetches objects from result set and closes it.
+     * @return true if all rows were read
+     */
+    private boolean fetchObjects(DBRProgressMonitor monitor, JDBCSession session, OWNER owner, JDBCResultSet dbResult, List<OBJECT> objectList)
+        throws SQLException, DBException
+    {
+        try {
+            while (dbResult.next()) {
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+
+                OBJECT object = fetchObject(session, owner, dbResult);
+                if (object == null) {
+                    continue;
+                }
+                objectList.add(object);
+
+                monitor.subTask(object.getName());
+                if (objectList.size() == maximumCacheSize) {
+                    log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            dbResult.close();
+        }
+    }
+
+    /**
+     * Reads change marker. Marker read error disables snapshot but doesn't break objects read.
+     */
+    @Nullable
+    String readSnapshotMarker(JDBCSession session, OWNER owner)
+    {
+        try {
+            return readChangeMarker(session, owner);
+        } catch (SQLException e) {
+            log.debug("Can't read metadata change marker of " + owner.getName(), e);
+            return null;
+        }
+    }
+
     // Can be implemented to provide custom cache error handler
     protected boolean handleCacheReadError(DBException error) {
         return false;
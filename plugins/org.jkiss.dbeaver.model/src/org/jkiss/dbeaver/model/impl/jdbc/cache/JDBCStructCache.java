@@ -34,6 +34,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 
+import java.io.File;
 import java.sql.SQLException;
 import java.util.*;
 
@@ -44,9 +45,14 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
     JDBCObjectCache<OWNER, OBJECT> implements DBSStructCache<OWNER, OBJECT, CHILD> {
     static final Log log = Log.getLog(JDBCStructCache.class);
 
+    // Load key used when children of all objects are read
+    private static final Object ALL_OBJECTS_KEY = new Object();
+
     private final Object objectNameColumn;
     private volatile boolean childrenCached = false;
     private final Map<OBJECT, SimpleObjectCache<OBJECT, CHILD>> childrenCache = new IdentityHashMap<>();
+    private final JDBCCacheLoadGuard childrenLoadGuard = new JDBCCacheLoadGuard(childrenCache);
+    private volatile boolean childrenSnapshotChecked;
 
     abstract protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull OWNER owner, @Nullable OBJECT forObject)
         throws SQLException;
@@ -59,6 +65,14 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         this.objectNameColumn = objectNameColumn;
     }
 
+    /**
+     * Children objects load statistics
+     */
+    public JDBCCacheLoadGuard getChildrenLoadStatistics()
+    {
+        return childrenLoadGuard;
+    }
+
     /**
      * Reads children objects from database
      * 
@@ -69,10 +83,38 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
      * @throws org.jkiss.dbeaver.DBException
      *             on error
      */
-    public void loadChildren(DBRProgressMonitor monitor, OWNER owner, @Nullable final OBJECT forObject) throws DBException
+    public void loadChildren(final DBRProgressMonitor monitor, final OWNER owner, @Nullable final OBJECT forObject) throws DBException
     {
-        if ((forObject == null && this.childrenCached)
-            || (forObject != null && (!forObject.isPersisted() || isChildrenCached(forObject))) || monitor.isCanceled()) {
+        if (isChildrenLoaded(forObject)) {
+            childrenLoadGuard.recordHit();
+            return;
+        }
+        JDBCCacheLoadGuard.Loader loader = new JDBCCacheLoadGuard.Loader() {
+            @Override
+            public void loadObjects() throws DBException {
+                readChildren(monitor, owner, forObject);
+            }
+        };
+        while (!monitor.isCanceled() && !isChildrenLoaded(forObject)) {
+            if (forObject != null && childrenLoadGuard.join(monitor, ALL_OBJECTS_KEY)) {
+                // Children of all objects were read by another thread. Check whether they include ours.
+                continue;
+            }
+            if (childrenLoadGuard.load(monitor, forObject == null ? ALL_OBJECTS_KEY : forObject, loader)) {
+                break;
+            }
+        }
+    }
+
+    private boolean isChildrenLoaded(@Nullable OBJECT forObject)
+    {
+        return forObject == null ? this.childrenCached : (!forObject.isPersisted() || isChildrenCached(forObject));
+    }
+
+    private void readChildren(DBRProgressMonitor monitor, OWNER owner, @Nullable final OBJECT forObject) throws DBException
+    {
+        if (isChildrenLoaded(forObject)) {
+            // Loaded by another thread
             return;
         }
         if (forObject == null) {
@@ -86,87 +128,143 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         try (JDBCSession session = DBUtils.openMetaSession(monitor, dataSource, "Load child objects")) {
             Map<OBJECT, List<CHILD>> objectMap = new HashMap<>();
 
-            // Load columns
-            try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
-                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
-                if (dbResult != null) {
-                    try {
-                        while (dbResult.next()) {
-                            if (monitor.isCanceled()) {
-                                break;
-                            }
-                            String objectName;
-                            if (objectNameColumn instanceof Number) {
-                                objectName = JDBCUtils.safeGetString(dbResult, ((Number) objectNameColumn).intValue());
-                            } else {
-                                objectName = JDBCUtils.safeGetStringTrimmed(dbResult, objectNameColumn.toString());
-                            }
-                            if (objectName == null) {
-                                log.debug("NULL object name in " + this);
-                                continue;
-                            }
-                            OBJECT object = forObject;
-                            if (object == null) {
-                                object = super.getCachedObject(objectName);
-                                if (object == null) {
-                                    log.debug("Object '" + objectName + "' not found");
-                                    continue;
-                                }
-                            }
-                            if (isChildrenCached(object)) {
-                                // Already read
-                                continue;
-                            }
-                            CHILD child = fetchChild(session, owner, object, dbResult);
-                            if (child == null) {
-                                continue;
-                            }
-
-                            // Add to map
-                            List<CHILD> children = objectMap.get(object);
-                            if (children == null) {
-                                children = new ArrayList<>();
-                                objectMap.put(object, children);
-                            }
-                            children.add(child);
+            String changeMarker = null;
+            File snapshotFile = null;
+            boolean restored = false;
+            if (forObject == null && !childrenSnapshotChecked && JDBCCacheSnapshot.isEnabled(dataSource)) {
+                childrenSnapshotChecked = true;
+                changeMarker = readSnapshotMarker(session, owner);
+                if (changeMarker != null) {
+                    snapshotFile = JDBCCacheSnapshot.getSnapshotFile(this, owner, "children");
+                    JDBCCacheSnapshot snapshot = JDBCCacheSnapshot.read(snapshotFile, this, changeMarker);
+                    if (snapshot != null) {
+                        monitor.subTask("Read metadata snapshot");
+                        try {
+                            restored = fetchChildren(monitor, session, owner, null, snapshot.openResultSet(session), objectMap, null);
+                        } catch (SQLException | DBException e) {
+                            log.debug("Can't restore child objects from metadata snapshot", e);
                         }
-
-                        if (monitor.isCanceled()) {
-                            return;
+                        if (!restored) {
+                            // Read from database
+                            objectMap.clear();
                         }
+                    }
+                }
+            }
 
-                        // All children are read. Now assign them to parents
-                        for (Map.Entry<OBJECT, List<CHILD>> colEntry : objectMap.entrySet()) {
-                            cacheChildren(colEntry.getKey(), colEntry.getValue());
+            // Load columns
+            if (!restored) {
+                try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
+                    dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                    dbStat.executeStatement();
+                    JDBCResultSet dbResult = dbStat.getResultSet();
+                    if (dbResult == null) {
+                        return;
+                    }
+                    if (changeMarker != null) {
+                        JDBCCacheSnapshot.Recorder recorder = new JDBCCacheSnapshot.Recorder();
+                        if (fetchChildren(monitor, session, owner, forObject, recorder.record(dbResult), objectMap, recorder)) {
+                            recorder.save(snapshotFile, this, changeMarker);
                         }
-                        if (forObject == null) {
-                            if (objectMap.isEmpty()) {
-                                // Nothing was read. May be it means empty list of children
-                                // but possibly this feature is not supported [JDBC: SQLite]
-                            } else {
-                                // Now set empty column list for other tables
-                                for (OBJECT tmpObject : getAllObjects(monitor, owner)) {
-                                    if (!isChildrenCached(tmpObject) && !objectMap.containsKey(tmpObject)) {
-                                        cacheChildren(tmpObject, new ArrayList<CHILD>());
-                                    }
-                                }
-                                this.childrenCached = true;
-                            }
-                        } else if (!objectMap.containsKey(forObject)) {
-                            cacheChildren(forObject, new ArrayList<CHILD>());
+                    } else {
+                        fetchChildren(monitor, session, owner, forObject, dbResult, objectMap, null);
+                    }
+                }
+            }
+
+            if (monitor.isCanceled()) {
+                return;
+            }
+
+            // All children are read. Now assign them to parents
+            for (Map.Entry<OBJECT, List<CHILD>> colEntry : objectMap.entrySet()) {
+                cacheChildren(colEntry.getKey(), colEntry.getValue());
+            }
+            if (forObject == null) {
+                if (objectMap.isEmpty()) {
+                    // Nothing was read. May be it means empty list of children
+                    // but possibly this feature is not supported [JDBC: SQLite]
+                } else {
+                    // Now set empty column list for other tables
+                    for (OBJECT tmpObject : getAllObjects(monitor, owner)) {
+                        if (!isChildrenCached(tmpObject) && !objectMap.containsKey(tmpObject)) {
+                            cacheChildren(tmpObject, new ArrayList<CHILD>());
                         }
-                    } finally {
-                        dbResult.close();
                     }
+                    this.childrenCached = true;
                 }
+            } else if (!objectMap.containsKey(forObject)) {
+                cacheChildren(forObject, new ArrayList<CHILD>());
             }
         } catch (SQLException ex) {
             throw new DBException(ex, dataSource);
         }
     }
 
+    /**
+     * Fetches children from result set and closes it.
+     * @param recorder snapshot recorder. Recording is discarded if some rows were skipped.
+     * @return true if all rows were read
+     */
+    private boolean fetchChildren(
+        DBRProgressMonitor monitor,
+        JDBCSession session,
+        OWNER owner,
+        @Nullable OBJECT forObject,
+        JDBCResultSet dbResult,
+        Map<OBJECT, List<CHILD>> objectMap,
+        @Nullable JDBCCacheSnapshot.Recorder recorder)
+        throws SQLException, DBException
+    {
+        try {
+            while (dbResult.next()) {
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+                String objectName;
+                if (objectNameColumn instanceof Number) {
+                    objectName = JDBCUtils.safeGetString(dbResult, ((Number) objectNameColumn).intValue());
+                } else {
+                    objectName = JDBCUtils.safeGetStringTrimmed(dbResult, objectNameColumn.toString());
+                }
+                if (objectName == null) {
+                    log.debug("NULL object name in " + this);
+                    continue;
+                }
+                OBJECT object = forObject;
+                if (object == null) {
+                    object = super.getCachedObject(objectName);
+                    if (object == null) {
+                        log.debug("Object '" + objectName + "' not found");
+                        continue;
+                    }
+                }
+                if (isChildrenCached(object)) {
+                    // Already read
+                    if (recorder != null) {
+                        recorder.invalidate();
+                    }
+                    continue;
+                }
+                CHILD child = fetchChild(session, owner, object, dbResult);
+                if (child == null) {
+                    continue;
+                }
+
+                // Add to map
+                List<CHILD> children = objectMap.get(object);
+                if (children == null) {
+                    children = new ArrayList<>();
+                    objectMap.put(object, children);
+                }
+                children.add(child);
+            }
+            return true;
+        } finally {
+            dbResult.close();
+        }
+    }
+
     @Override
     public void removeObject(@NotNull OBJECT object)
     {
@@ -31,6 +31,7 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.DBObjectNameCaseTransformer;
 import org.jkiss.dbeaver.model.impl.data.ExecuteBatchImpl;
+import org.jkiss.dbeaver.model.impl.data.ExecuteBatchMultiRow;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCStructCache;
 import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCColumnMetaData;
 import org.jkiss.dbeaver.model.impl.struct.AbstractTable;
@@ -43,6 +44,8 @@ import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -50,7 +53,7 @@ import java.util.List;
  */
 public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER extends DBSObjectContainer>
     extends AbstractTable<DATASOURCE, CONTAINER>
-    implements DBSDataManipulator, DBPSaveableObject
+    implements DBSDataBulkLoader, DBPSaveableObject
 {
     static final Log log = Log.getLog(JDBCTable.class);
     public static final String DEFAULT_TABLE_ALIAS = "x";
@@ -138,6 +141,24 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
             rowIdAttribute = null;
         }
 
+        // Keyset pagination
+        List<DBSEntityAttribute> keysetAttributes = null;
+        DBDKeysetPosition keysetPosition = null;
+        if ((flags & FLAG_KEYSET_PAGING) != 0 && dataReceiver instanceof DBDKeysetReceiver) {
+            keysetAttributes = getKeysetAttributes(monitor, dataFilter);
+            if (keysetAttributes != null) {
+                keysetPosition = ((DBDKeysetReceiver) dataReceiver).getKeysetPosition();
+                if (firstRow <= 0) {
+                    keysetPosition.reset();
+                } else if (!keysetPosition.isKnown()) {
+                    // Position of the previous segment is unknown - use offset.
+                    // Keep ordering by key so segments read before don't overlap with this one.
+                    keysetPosition = null;
+                }
+            }
+        }
+        boolean seekKey = keysetPosition != null && keysetPosition.isKnown();
+
         StringBuilder query = new StringBuilder(100);
         query.append("SELECT ");
         appendSelectSource(session.getProgressMonitor(), query, tableAlias, rowIdAttribute);
@@ -145,8 +166,30 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         if (tableAlias != null) {
             query.append(" ").append(tableAlias); //$NON-NLS-1$
         }
-        appendQueryConditions(query, tableAlias, dataFilter);
-        appendQueryOrder(query, tableAlias, dataFilter);
+        int[] keysetParams = null;
+        if (seekKey) {
+            query.append("\nWHERE "); //$NON-NLS-1$
+            if (dataFilter != null && dataFilter.hasConditions()) {
+                query.append("(");
+                SQLUtils.appendConditionString(dataFilter, getDataSource(), tableAlias, query, true);
+                query.append(") AND ");
+            }
+            keysetParams = SQLUtils.appendKeysetCondition(getDataSource(), tableAlias, keysetAttributes, query);
+        } else {
+            appendQueryConditions(query, tableAlias, dataFilter);
+        }
+        if (keysetAttributes != null) {
+            query.append("\nORDER BY "); //$NON-NLS-1$
+            for (int i = 0; i < keysetAttributes.size(); i++) {
+                if (i > 0) query.append(',');
+                if (tableAlias != null) {
+                    query.append(tableAlias).append('.');
+                }
+                query.append(DBUtils.getObjectFullName(getDataSource(), keysetAttributes.get(i)));
+            }
+        } else {
+            appendQueryOrder(query, tableAlias, dataFilter);
+        }
 
         String sqlQuery = query.toString();
         statistics.setQueryText(sqlQuery);
@@ -156,11 +199,19 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         try (DBCStatement dbStat = DBUtils.prepareStatement(
             source,
             session,
-            DBCStatementType.SCRIPT,
+            seekKey ? DBCStatementType.QUERY : DBCStatementType.SCRIPT,
             sqlQuery,
-            firstRow,
+            keysetPosition != null ? 0 : firstRow,
             maxRows))
         {
+            if (seekKey) {
+                Object[] keyValues = keysetPosition.getKeyValues();
+                for (int i = 0; i < keysetParams.length; i++) {
+                    DBSEntityAttribute keyAttribute = keysetAttributes.get(keysetParams[i]);
+                    DBUtils.findValueHandler(session, keyAttribute).bindValueObject(
+                        session, dbStat, keyAttribute, i, keyValues[keysetParams[i]]);
+                }
+            }
             if (dbStat instanceof JDBCStatement && maxRows > 0) {
                 try {
                     ((JDBCStatement) dbStat).setFetchSize(
@@ -194,6 +245,12 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                         }
                         dataReceiver.fetchStart(session, dbResult, firstRow, maxRows);
 
+                        int[] keyIndexes = null;
+                        if (keysetPosition != null) {
+                            keyIndexes = getKeysetIndexes(dbResult, keysetAttributes);
+                            keysetPosition.reset();
+                        }
+
                         startTime = System.currentTimeMillis();
                         long rowCount = 0;
                         while (dbResult.nextRow()) {
@@ -203,6 +260,10 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                             }
                             dataReceiver.fetchRow(session, dbResult);
                             rowCount++;
+                            if (keyIndexes != null && rowCount == maxRows) {
+                                // Remember last key of the full segment. Next segment will start after it.
+                                keysetPosition.setKeyValues(readKeysetValues(session, dbResult, keysetAttributes, keyIndexes));
+                            }
                             if (rowCount % 100 == 0) {
                                 monitor.subTask(rowCount + ModelMessages.model_jdbc__rows_fetched);
                                 monitor.worked(100);
@@ -350,6 +411,96 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         };
     }
 
+    @Nullable
+    @Override
+    public ExecuteBatch insertDataMultiRow(@NotNull DBCSession session, @NotNull DBSAttributeBase[] attributes, @NotNull DBCExecutionSource source)
+        throws DBCException
+    {
+        SQLDialect dialect = session.getDataSource() instanceof SQLDataSource ?
+            ((SQLDataSource) session.getDataSource()).getSQLDialect() : null;
+        if (dialect == null || dialect.getMultiValueInsertMode() != SQLDialect.MultiValueInsertMode.GROUP_ROWS) {
+            return null;
+        }
+        return createMultiRowInsertBatch(
+            session,
+            attributes,
+            source,
+            ExecuteBatchMultiRow.MAX_STATEMENT_ROWS,
+            session.getDataSource().getInfo().supportsBatchUpdates());
+    }
+
+    @Nullable
+    @Override
+    public ExecuteBatch insertDataNative(@NotNull DBCSession session, @NotNull DBSAttributeBase[] attributes, @NotNull DBCExecutionSource source)
+        throws DBCException
+    {
+        // No native bulk load in generic JDBC
+        return null;
+    }
+
+    /**
+     * Creates batch which inserts rows with INSERT INTO ... VALUES (...),(...) statements.
+     * With one row per statement it inserts rows with JDBC batches of single statement.
+     */
+    @NotNull
+    protected ExecuteBatch createMultiRowInsertBatch(
+        @NotNull DBCSession session,
+        @NotNull final DBSAttributeBase[] attributes,
+        @NotNull final DBCExecutionSource source,
+        int maxRowsPerStatement,
+        boolean useBatch)
+        throws DBCException
+    {
+        readRequiredMeta(session.getProgressMonitor());
+
+        final String columnList = getInsertColumnList(attributes);
+        return new ExecuteBatchMultiRow(attributes, maxRowsPerStatement, useBatch) {
+            @NotNull
+            @Override
+            protected DBCStatement prepareStatement(@NotNull DBCSession session, int rowCount) throws DBCException {
+                StringBuilder rowParams = new StringBuilder("(");
+                for (DBSAttributeBase attribute : attributes) {
+                    if (attribute.isPseudoAttribute()) {
+                        continue;
+                    }
+                    if (rowParams.length() > 1) rowParams.append(","); //$NON-NLS-1$
+                    rowParams.append("?"); //$NON-NLS-1$
+                }
+                rowParams.append(")"); //$NON-NLS-1$
+
+                StringBuilder query = new StringBuilder(100 + rowParams.length() * rowCount);
+                query
+                    .append(useUpsert(session) ? "UPSERT" : "INSERT")
+                    .append(" INTO ").append(getFullQualifiedName()).append(" (") //$NON-NLS-1$ //$NON-NLS-2$
+                    .append(columnList).append(")\nVALUES "); //$NON-NLS-1$
+                for (int i = 0; i < rowCount; i++) {
+                    if (i > 0) query.append(","); //$NON-NLS-1$
+                    query.append(rowParams);
+                }
+
+                DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query.toString(), false, false, false);
+                dbStat.setStatementSource(source);
+                return dbStat;
+            }
+        };
+    }
+
+    /**
+     * Comma-separated list of non-pseudo attribute names (for insert and bulk load statements)
+     */
+    protected String getInsertColumnList(@NotNull DBSAttributeBase[] attributes)
+    {
+        StringBuilder columns = new StringBuilder();
+        for (DBSAttributeBase attribute : attributes) {
+            if (attribute.isPseudoAttribute()) {
+                continue;
+            }
+            if (columns.length() > 0) columns.append(","); //$NON-NLS-1$
+            columns.append(getAttributeName(attribute));
+        }
+        return columns.toString();
+    }
+
     @NotNull
     @Override
     public ExecuteBatch updateData(
@@ -499,6 +650,67 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         return attribute.isPseudoAttribute() ? attribute.getName() : DBUtils.getObjectFullName(getDataSource(), attribute);
     }
 
+    /**
+     * Returns unique key attributes suitable for keyset pagination.
+     * @return null if there is no unique key or data must be ordered by some other attributes
+     */
+    @Nullable
+    private List<DBSEntityAttribute> getKeysetAttributes(@NotNull DBRProgressMonitor monitor, @Nullable DBDDataFilter dataFilter)
+    {
+        if (dataFilter != null && dataFilter.hasOrdering()) {
+            return null;
+        }
+        try {
+            Collection<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, this);
+            if (CommonUtils.isEmpty(identifier)) {
+                return null;
+            }
+            for (DBSEntityAttribute attribute : identifier) {
+                if (attribute.isPseudoAttribute() || !attribute.isRequired()) {
+                    // Nullable keys can't be compared
+                    return null;
+                }
+            }
+            return new ArrayList<>(identifier);
+        } catch (DBException e) {
+            log.debug("Can't read unique key of '" + getName() + "'", e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static int[] getKeysetIndexes(@NotNull DBCResultSet resultSet, @NotNull List<DBSEntityAttribute> keyAttributes)
+        throws DBCException
+    {
+        List<DBCAttributeMetaData> metaAttributes = resultSet.getMeta().getAttributes();
+        int[] keyIndexes = new int[keyAttributes.size()];
+        for (int i = 0; i < keyAttributes.size(); i++) {
+            keyIndexes[i] = -1;
+            for (int k = 0; k < metaAttributes.size(); k++) {
+                if (metaAttributes.get(k).getName().equalsIgnoreCase(keyAttributes.get(i).getName())) {
+                    keyIndexes[i] = k;
+                    break;
+                }
+            }
+            if (keyIndexes[i] < 0) {
+                return null;
+            }
+        }
+        return keyIndexes;
+    }
+
+    private static Object[] readKeysetValues(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, @NotNull List<DBSEntityAttribute> keyAttributes, @NotNull int[] keyIndexes)
+        throws DBCException
+    {
+        List<DBCAttributeMetaData> metaAttributes = resultSet.getMeta().getAttributes();
+        Object[] keyValues = new Object[keyIndexes.length];
+        for (int i = 0; i < keyIndexes.length; i++) {
+            keyValues[i] = DBUtils.findValueHandler(session, keyAttributes.get(i)).fetchValueObject(
+                session, resultSet, metaAttributes.get(keyIndexes[i]), keyIndexes[i]);
+        }
+        return keyValues;
+    }
+
     private void appendQueryConditions(@NotNull StringBuilder query, @Nullable String tableAlias, @Nullable DBDDataFilter dataFilter)
     {
         if (dataFilter != null && dataFilter.hasConditions()) {
@@ -24,10 +24,12 @@ import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPIdentifierCase;
 import org.jkiss.dbeaver.model.DBPKeywordType;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLConstants;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLStateType;
 import org.jkiss.dbeaver.model.sql.parser.SQLSemanticProcessor;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.utils.Pair;
 
 import java.util.*;
@@ -283,6 +285,14 @@ public class BasicSQLDialect implements SQLDialect {
         return SQLSemanticProcessor.addFiltersToQuery(dataSource, query, filter);
     }
 
+    @Nullable
+    @Override
+    public String getSearchCondition(@NotNull DBRProgressMonitor monitor, @NotNull DBSEntityAttribute attribute, @NotNull String searchString, boolean caseSensitive)
+        throws DBException
+    {
+        return null;
+    }
+
     @Override
     public boolean supportsSubqueries()
     {
@@ -304,6 +314,11 @@ public class BasicSQLDialect implements SQLDialect {
         return false;
     }
 
+    @Override
+    public boolean supportsRowValueComparison() {
+        return false;
+    }
+
     @Override
     public Pair<String, String> getMultiLineComments()
     {
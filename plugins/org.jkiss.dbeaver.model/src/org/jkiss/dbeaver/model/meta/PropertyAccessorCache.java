@@ -0,0 +1,148 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.model.meta;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.BeanUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-class cache of property accessor methods.
+ * Navigator and property descriptors read the same properties of the same classes over and over,
+ * so methods are looked up once per class. Cached methods reference their class, so entries are never evicted
+ * while the class is alive (they are dropped only together with the class).
+ */
+public final class PropertyAccessorCache {
+
+    // Marks missing methods (concurrent maps do not allow null values)
+    private static final Object NO_METHOD = new Object();
+
+    private static final ClassValue<List<Method>> annotatedMethods = new ClassValue<List<Method>>() {
+        @Override
+        protected List<Method> computeValue(Class<?> type)
+        {
+            List<Method> result = new ArrayList<>();
+            for (Method method : type.getMethods()) {
+                if (method.isAnnotationPresent(PropertyGroup.class) || method.isAnnotationPresent(Property.class)) {
+                    result.add(method);
+                }
+            }
+            return Collections.unmodifiableList(result);
+        }
+    };
+
+    private static final ClassValue<ConcurrentMap<String, Object>> readMethods = new ClassValue<ConcurrentMap<String, Object>>() {
+        @Override
+        protected ConcurrentMap<String, Object> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final ClassValue<ConcurrentMap<String, Object>> writeMethods = new ClassValue<ConcurrentMap<String, Object>>() {
+        @Override
+        protected ConcurrentMap<String, Object> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private PropertyAccessorCache()
+    {
+    }
+
+    /**
+     * Public methods of the class annotated with {@link Property} or {@link PropertyGroup}
+     */
+    @NotNull
+    public static List<Method> getAnnotatedMethods(@NotNull Class<?> clazz)
+    {
+        return annotatedMethods.get(clazz);
+    }
+
+    /**
+     * Public property getter. Getter may have no parameters or a single progress monitor parameter.
+     */
+    @Nullable
+    public static Method getReadMethod(@NotNull Class<?> clazz, @NotNull String propertyName)
+    {
+        ConcurrentMap<String, Object> methods = readMethods.get(clazz);
+        Object method = methods.get(propertyName);
+        if (method == null) {
+            String methodName = BeanUtils.propertyNameToMethodName(propertyName);
+            method = findPropertyGetter(clazz, "get" + methodName, "is" + methodName);
+            if (method == null) {
+                method = NO_METHOD;
+            }
+            methods.putIfAbsent(propertyName, method);
+        }
+        return method == NO_METHOD ? null : (Method) method;
+    }
+
+    /**
+     * Public property setter
+     */
+    @Nullable
+    public static Method getWriteMethod(@NotNull Class<?> clazz, @NotNull String propertyName)
+    {
+        ConcurrentMap<String, Object> methods = writeMethods.get(clazz);
+        Object method = methods.get(propertyName);
+        if (method == null) {
+            for (Class<?> c = clazz; method == null && c != Object.class && c != null; c = c.getSuperclass()) {
+                method = BeanUtils.getSetMethod(c, propertyName);
+            }
+            if (method == null) {
+                method = NO_METHOD;
+            }
+            methods.putIfAbsent(propertyName, method);
+        }
+        return method == NO_METHOD ? null : (Method) method;
+    }
+
+    private static Method findPropertyGetter(Class<?> clazz, String getName, String isName)
+    {
+        Method[] methods = clazz.getDeclaredMethods();
+
+        for (Method method : methods) {
+            if (
+                (!Modifier.isPublic(method.getModifiers())) ||
+                    (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) ||
+                    (method.getReturnType().equals(void.class)))
+            {
+                // skip
+            } else if (method.getName().equals(getName) || (method.getName().equals(isName) && method.getReturnType().equals(boolean.class))) {
+                // If it matches the get name, it's the right method
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                if (parameterTypes.length == 0 || (parameterTypes.length == 1 && parameterTypes[0] == DBRProgressMonitor.class)) {
+                    return method;
+                }
+            }
+        }
+        return clazz == Object.class ? null : findPropertyGetter(clazz.getSuperclass(), getName, isName);
+    }
+
+}
@@ -24,6 +24,7 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.meta.PropertyAccessorCache;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeFolder;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeItem;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
@@ -37,7 +38,6 @@ import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.*;
 
@@ -737,30 +737,7 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
 
     public static Method findPropertyReadMethod(Class<?> clazz, String propertyName)
     {
-        String methodName = BeanUtils.propertyNameToMethodName(propertyName);
-        return findPropertyGetter(clazz, "get" + methodName, "is" + methodName);
-    }
-
-    private static Method findPropertyGetter(Class<?> clazz, String getName, String isName)
-    {
-        Method[] methods = clazz.getDeclaredMethods();
-
-        for (Method method : methods) {
-            if (
-                (!Modifier.isPublic(method.getModifiers())) ||
-                    (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) ||
-                    (method.getReturnType().equals(void.class)))
-            {
-                // skip
-            } else if (method.getName().equals(getName) || (method.getName().equals(isName) && method.getReturnType().equals(boolean.class))) {
-                // If it matches the get name, it's the right method
-                Class<?>[] parameterTypes = method.getParameterTypes();
-                if (parameterTypes.length == 0 || (parameterTypes.length == 1 && parameterTypes[0] == DBRProgressMonitor.class)) {
-                    return method;
-                }
-            }
-        }
-        return clazz == Object.class ? null : findPropertyGetter(clazz.getSuperclass(), getName, isName);
+        return PropertyAccessorCache.getReadMethod(clazz, propertyName);
     }
 
 }
@@ -29,7 +29,9 @@ public class QMConstants {
     public static final String PROP_QUERY_TYPES = PROP_PREFIX + "queryTypes";
     public static final String PROP_ENTRIES_PER_PAGE = PROP_PREFIX + "maxEntries";
     public static final String PROP_HISTORY_DAYS = PROP_PREFIX + "historyDays";
+    public static final String PROP_HISTORY_EVENTS = PROP_PREFIX + "historyEvents";
     public static final String PROP_STORE_LOG_FILE = PROP_PREFIX + "storeLogs";
     public static final String PROP_LOG_DIRECTORY = PROP_PREFIX + "logDirectory";
+    public static final String PROP_STORE_HISTORY = PROP_PREFIX + "storeHistory";
 
 }
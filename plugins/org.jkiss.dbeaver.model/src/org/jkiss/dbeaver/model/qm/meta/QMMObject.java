@@ -43,6 +43,17 @@ public abstract class QMMObject {
         this.openTime = getTimeStamp();
     }
 
+    /**
+     * Restored (history) object. Gets new object ID.
+     */
+    protected QMMObject(long openTime, long closeTime)
+    {
+        this.objectId = generateObjectId();
+        this.openTime = openTime;
+        this.closeTime = closeTime;
+        this.synced = true;
+    }
+
     protected void close()
     {
         this.closeTime = getTimeStamp();
@@ -61,6 +61,14 @@ public class QMMSessionInfo extends QMMObject {
         }
     }
 
+    QMMSessionInfo(String containerId, String containerName, String contextName, long openTime)
+    {
+        super(openTime, openTime);
+        this.containerId = containerId;
+        this.containerName = containerName;
+        this.contextName = contextName;
+    }
+
     @Override
     public void close()
     {
@@ -18,6 +18,8 @@
 
 package org.jkiss.dbeaver.model.qm.meta;
 
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+
 import java.sql.SQLException;
 
 /**
@@ -50,6 +52,32 @@ public class QMMStatementExecuteInfo extends QMMObject {
         }
     }
 
+    private QMMStatementExecuteInfo(QMMStatementInfo statement, String queryString, long rowCount, int errorCode, String errorMessage, long openTime, long closeTime, long fetchBeginTime, long fetchEndTime)
+    {
+        super(openTime, closeTime);
+        this.statement = statement;
+        this.queryString = queryString;
+        this.rowCount = rowCount;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+        this.fetchBeginTime = fetchBeginTime;
+        this.fetchEndTime = fetchEndTime;
+    }
+
+    /**
+     * Restores finished execution from query history.
+     * Session and statement info are detached: they have no execution context, SQL dialect and transaction.
+     */
+    public static QMMStatementExecuteInfo restore(
+        String containerId, String containerName, String contextName, DBCExecutionPurpose purpose,
+        String queryString, long rowCount, int errorCode, String errorMessage,
+        long openTime, long closeTime, long fetchBeginTime, long fetchEndTime)
+    {
+        QMMSessionInfo session = new QMMSessionInfo(containerId, containerName, contextName, openTime);
+        QMMStatementInfo statement = new QMMStatementInfo(session, purpose, openTime, fetchEndTime > 0 ? fetchEndTime : closeTime);
+        return new QMMStatementExecuteInfo(statement, queryString, rowCount, errorCode, errorMessage, openTime, closeTime, fetchBeginTime, fetchEndTime);
+    }
+
     void close(long rowCount, Throwable error)
     {
         if (error != null) {
@@ -39,6 +39,14 @@ public class QMMStatementInfo extends QMMObject {
         this.previous = previous;
     }
 
+    QMMStatementInfo(QMMSessionInfo session, DBCExecutionPurpose purpose, long openTime, long closeTime)
+    {
+        super(openTime, closeTime);
+        this.session = session;
+        this.purpose = purpose;
+        this.previous = null;
+    }
+
     @Override
     public void close()
     {
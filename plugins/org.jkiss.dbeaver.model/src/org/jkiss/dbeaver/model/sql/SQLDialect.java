@@ -24,6 +24,8 @@ import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPIdentifierCase;
 import org.jkiss.dbeaver.model.DBPKeywordType;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.utils.Pair;
 
 import java.util.Collection;
@@ -196,6 +198,11 @@ public interface SQLDialect {
      */
     boolean supportsCommentQuery();
 
+    /**
+     * Check whether dialect supports row value comparison, e.g. (a,b) > (?,?)
+     */
+    boolean supportsRowValueComparison();
+
     @NotNull
     DBPIdentifierCase storesUnquotedCase();
 
@@ -216,6 +223,19 @@ public interface SQLDialect {
 
     String addFiltersToQuery(DBPDataSource dataSource, String query, DBDDataFilter filter) throws DBException;
 
+    /**
+     * Makes condition which finds string in attribute value on the server side.
+     * Dialect may use native facilities here (case-insensitive match, full-text indexes, etc).
+     * @param monitor progress monitor. Can be used to read attribute metadata (e.g. indexes)
+     * @param attribute attribute to search in
+     * @param searchString string to find
+     * @param caseSensitive case sensitive search
+     * @return condition or null if plain LIKE condition should be used
+     */
+    @Nullable
+    String getSearchCondition(@NotNull DBRProgressMonitor monitor, @NotNull DBSEntityAttribute attribute, @NotNull String searchString, boolean caseSensitive)
+        throws DBException;
+
     /**
      * Two-item array containing begin and end of multi-line comments.
      * @return string array or null if multi-line comments are not supported
@@ -323,6 +323,65 @@ public final class SQLUtils {
         }
     }
 
+    /**
+     * Appends keyset (seek) pagination condition: rows which keys are greater than parameters.
+     * Uses row value comparison if dialect supports it, otherwise expands it into OR-ed conditions.
+     * @return indexes of key attributes for each parameter placeholder
+     */
+    public static int[] appendKeysetCondition(
+        @NotNull DBPDataSource dataSource,
+        @Nullable String conditionTable,
+        @NotNull List<? extends DBSAttributeBase> keyAttributes,
+        @NotNull StringBuilder query)
+    {
+        SQLDialect dialect = dataSource instanceof SQLDataSource ?
+            ((SQLDataSource) dataSource).getSQLDialect() : BasicSQLDialect.INSTANCE;
+        int keyCount = keyAttributes.size();
+        if (keyCount == 1 || dialect.supportsRowValueComparison()) {
+            int[] paramKeys = new int[keyCount];
+            if (keyCount > 1) query.append('(');
+            for (int i = 0; i < keyCount; i++) {
+                if (i > 0) query.append(',');
+                appendConditionAttribute(dataSource, conditionTable, keyAttributes.get(i), query);
+                paramKeys[i] = i;
+            }
+            if (keyCount > 1) query.append(')');
+            query.append(" > ");
+            if (keyCount > 1) query.append('(');
+            for (int i = 0; i < keyCount; i++) {
+                if (i > 0) query.append(',');
+                query.append('?');
+            }
+            if (keyCount > 1) query.append(')');
+            return paramKeys;
+        }
+        // (a > ?) OR (a = ? AND b > ?) OR ...
+        int[] paramKeys = new int[keyCount * (keyCount + 1) / 2];
+        int paramIndex = 0;
+        query.append('(');
+        for (int i = 0; i < keyCount; i++) {
+            if (i > 0) query.append(" OR ");
+            query.append('(');
+            for (int k = 0; k <= i; k++) {
+                if (k > 0) query.append(" AND ");
+                appendConditionAttribute(dataSource, conditionTable, keyAttributes.get(k), query);
+                query.append(k < i ? "=?" : ">?");
+                paramKeys[paramIndex++] = k;
+            }
+            query.append(')');
+        }
+        query.append(')');
+        return paramKeys;
+    }
+
+    private static void appendConditionAttribute(@NotNull DBPDataSource dataSource, @Nullable String conditionTable, @NotNull DBSAttributeBase attribute, @NotNull StringBuilder query)
+    {
+        if (conditionTable != null) {
+            query.append(conditionTable).append('.');
+        }
+        query.append(DBUtils.getObjectFullName(dataSource, attribute));
+    }
+
     @Nullable
     public static String getConstraintCondition(DBPDataSource dataSource, DBDAttributeConstraint constraint, boolean inlineCriteria) {
         String criteria = constraint.getCriteria();
@@ -0,0 +1,54 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2016 Serge Rieder (serge@jkiss.org)
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License (version 2)
+ * as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jkiss.dbeaver.model.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+
+/**
+ * Data manipulator which can load large amounts of rows faster than with single-row inserts.
+ * Bulk batches bind all attribute values (including nulls) so they never restart on changing null values.
+ */
+public interface DBSDataBulkLoader extends DBSDataManipulator {
+
+    /**
+     * Inserts rows with multi-row insert statements (INSERT INTO ... VALUES (...),(...)).
+     * @return batch or null if multi-row inserts are not supported by the database
+     */
+    @Nullable
+    ExecuteBatch insertDataMultiRow(
+        @NotNull DBCSession session,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source)
+        throws DBCException;
+
+    /**
+     * Inserts rows with database native bulk load facility (e.g. PostgreSQL COPY).
+     * @return batch or null if there is no native bulk load for the database, driver or attribute types
+     */
+    @Nullable
+    ExecuteBatch insertDataNative(
+        @NotNull DBCSession session,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source)
+        throws DBCException;
+
+}
@@ -41,6 +41,12 @@ public interface DBSDataContainer extends DBSObject {
 
     public static final long FLAG_NONE               = 0;
     public static final long FLAG_READ_PSEUDO        = 1 << 1;
+    /**
+     * Use keyset (seek) pagination. Rows are ordered by unique key and next segment is read after the last
+     * fetched key (see {@link org.jkiss.dbeaver.model.data.DBDKeysetReceiver}) instead of skipping firstRow rows.
+     * Containers without unique key (or with custom ordering) ignore this flag and use OFFSET.
+     */
+    public static final long FLAG_KEYSET_PAGING      = 1 << 2;
 
     /**
      * Features supported by implementation